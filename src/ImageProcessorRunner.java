@@ -6,6 +6,9 @@ import java.io.BufferedReader;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.InputStreamReader;
+import java.util.Arrays;
+import model.ImageStorage;
+import model.RegionEngine;
 import model.StoredImages;
 import model.StoredImagesImpl;
 import view.ImageProcessorGui;
@@ -20,6 +23,13 @@ import view.ImageProcessorViewImpl;
  * If no arguments are given, the image processor is run in the GUI. Otherwise, the image processor
  * is run in the terminal. More information is available in the README file.
  * </p>
+ *
+ * <p>
+ * The arguments may be preceded by {@code -storage <packed|planar|offheap|tiled>} to choose how the
+ * pixels of loaded and transformed images are stored in memory, and by
+ * {@code -parallelism <number of threads>} to choose how many threads transformations use. In the
+ * GUI, {@code -previewmemory <megabytes>} sets how much memory the previews of the images may take.
+ * </p>
  */
 public final class ImageProcessorRunner {
 
@@ -30,10 +40,41 @@ public final class ImageProcessorRunner {
    */
   public static void main(String[] args) {
     StoredImages store = new StoredImagesImpl();
+    long previewMemory = Runtime.getRuntime().maxMemory() / 4;
+
+    while (args.length >= 2 && (args[0].equals("-storage") || args[0].equals("-parallelism")
+        || args[0].equals("-previewmemory"))) {
+      if (args[0].equals("-storage")) { // -storage flag -> choose pixel storage
+        ImageStorage storage = parseStorage(args[1]);
+        if (storage == null) {
+          System.out.println("Invalid storage provided.");
+          return;
+        }
+        store = new StoredImagesImpl(storage);
+      } else if (args[0].equals("-previewmemory")) { // -previewmemory flag -> GUI preview budget
+        try {
+          previewMemory = Long.parseLong(args[1]) * 1024 * 1024;
+        } catch (NumberFormatException e) {
+          previewMemory = 0;
+        }
+        if (previewMemory <= 0) {
+          System.out.println("Invalid preview memory provided.");
+          return;
+        }
+      } else { // -parallelism flag -> choose number of threads
+        try {
+          RegionEngine.setParallelism(Integer.parseInt(args[1]));
+        } catch (IllegalArgumentException e) {
+          System.out.println("Invalid parallelism provided.");
+          return;
+        }
+      }
+      args = Arrays.copyOfRange(args, 2, args.length);
+    }
 
     if (args.length == 0) { // no arguments -> GUI mode
       // Initialize the GUI mode view and controller
-      ImageProcessorGui view = new ImageProcessorGuiImpl();
+      ImageProcessorGui view = new ImageProcessorGuiImpl(previewMemory);
       ImageProcessorGuiController controller = new ImageProcessorGuiControllerImpl(store);
       // Set the view for the GUI controller
       controller.setView(view);
@@ -62,4 +103,19 @@ public final class ImageProcessorRunner {
       System.out.println("Invalid arguments provided.");
     }
   }
+
+  /**
+   * Finds the way of storing pixels with the given name, ignoring case.
+   *
+   * @param name the name of the storage
+   * @return the storage with the given name, or null if there is none
+   */
+  private static ImageStorage parseStorage(String name) {
+    for (ImageStorage storage : ImageStorage.values()) {
+      if (storage.name().equalsIgnoreCase(name)) {
+        return storage;
+      }
+    }
+    return null;
+  }
 }
@@ -1,6 +1,5 @@
 package controller;
 
-import java.awt.Color;
 import java.awt.image.BufferedImage;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -8,7 +7,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import javax.imageio.ImageIO;
 import model.Image;
-import model.ImageImpl;
+import model.PackedImage;
 
 /**
  * Implements the {@link ImageFileHandler} interface for converting any image file supported by the
@@ -66,16 +65,9 @@ public class ImageIOHandler implements ImageFileHandler {
     int width = processedImage.getWidth();
     int height = processedImage.getHeight();
 
-    Color[][] pixels = new Color[height][width];
+    int[] pixels = processedImage.getRGB(0, 0, width, height, null, 0, width);
 
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        int rgb = processedImage.getRGB(j, i);
-        pixels[i][j] = new Color(rgb);
-      }
-    }
-
-    return new ImageImpl(pixels);
+    return PackedImage.wrap(width, height, pixels);
   }
 
   @Override
@@ -88,7 +80,6 @@ public class ImageIOHandler implements ImageFileHandler {
 
     int width = image.getWidth();
     int height = image.getHeight();
-    Color[][] pixels = image.getPixels();
     String extension = getExtension(path);
 
     if (notSupported(extension)) {
@@ -97,10 +88,10 @@ public class ImageIOHandler implements ImageFileHandler {
 
     outputImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
 
+    int[] row = new int[width];
     for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        outputImage.setRGB(j, i, pixels[i][j].getRGB());
-      }
+      image.getRow(i).get(row);
+      outputImage.setRGB(0, i, width, 1, row, 0, width);
     }
 
     try {
@@ -1,14 +1,15 @@
 package controller;
 
-import java.awt.Color;
 import java.io.BufferedWriter;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.OutputStreamWriter;
+import java.nio.IntBuffer;
 import java.util.Scanner;
 import model.Image;
-import model.ImageImpl;
+import model.ImageUtils;
+import model.PackedImage;
 
 /**
  * Implements the {@code ImageFileHandler} interface for converting PPM image files into
@@ -59,19 +60,21 @@ public class ImagePPMHandler implements ImageFileHandler {
           "Invalid PPM file: maximum value of a color in this file should be 255");
     }
 
-    Color[][] pixels = new Color[height][width];
+    int[] pixels = new int[height * width];
 
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        int r = scan.nextInt();
-        int g = scan.nextInt();
-        int b = scan.nextInt();
-        pixels[i][j] = new Color(r, g, b);
+    for (int i = 0; i < pixels.length; i++) {
+      int r = scan.nextInt();
+      int g = scan.nextInt();
+      int b = scan.nextInt();
+      if (r != ImageUtils.clamp(r) || g != ImageUtils.clamp(g) || b != ImageUtils.clamp(b)) {
+        throw new IllegalArgumentException(
+            "Invalid PPM file: color values must be between 0 and " + maxValue);
       }
+      pixels[i] = ImageUtils.pack(r, g, b);
     }
 
     scan.close();
-    return new ImageImpl(pixels);
+    return PackedImage.wrap(width, height, pixels);
   }
 
   @Override
@@ -93,13 +96,13 @@ public class ImagePPMHandler implements ImageFileHandler {
       writer.write("# Created by Ben and Smita's Image Processor" + System.lineSeparator());
       writer.write(image.getWidth() + " " + image.getHeight() + System.lineSeparator());
       writer.write("255" + System.lineSeparator());
-      Color[][] pixels = image.getPixels();
       for (int i = 0; i < image.getHeight(); i++) {
+        IntBuffer row = image.getRow(i);
         for (int j = 0; j < image.getWidth(); j++) {
-          Color pixel = pixels[i][j];
-          writer.write(pixel.getRed() + System.lineSeparator());
-          writer.write(pixel.getGreen() + System.lineSeparator());
-          writer.write(pixel.getBlue() + System.lineSeparator());
+          int pixel = row.get(j);
+          writer.write(ImageUtils.getRed(pixel) + System.lineSeparator());
+          writer.write(ImageUtils.getGreen(pixel) + System.lineSeparator());
+          writer.write(ImageUtils.getBlue(pixel) + System.lineSeparator());
         }
       }
       writer.flush();
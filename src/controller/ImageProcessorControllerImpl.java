@@ -1,5 +1,6 @@
 package controller;
 
+import controller.commands.BlurRadiusCmd;
 import controller.commands.BrightnessCmd;
 import controller.commands.DownscaleCmd;
 import controller.commands.FilterCmd;
@@ -8,7 +9,11 @@ import controller.commands.HorizontalFlipCmd;
 import controller.commands.LoadCmd;
 import controller.commands.MenuCmd;
 import controller.commands.MosaicCmd;
+import controller.commands.ParallelismCmd;
+import controller.commands.RenditionsCmd;
+import controller.commands.ResizeCmd;
 import controller.commands.SaveCmd;
+import controller.commands.ToneCmd;
 import controller.commands.VerticalFlipCmd;
 import controller.commands.VisualizeCmd;
 import java.util.HashMap;
@@ -16,6 +21,14 @@ import java.util.Map;
 import java.util.Scanner;
 import java.util.function.Function;
 import model.StoredImages;
+import model.transformations.Gamma;
+import model.transformations.Levels;
+import model.transformations.LookupTable;
+import model.transformations.Mask.Mode;
+import model.transformations.Mosaic.Distance;
+import model.transformations.Mosaic.Fill;
+import model.transformations.Resize.Filter;
+import model.transformations.ToneCurve;
 import model.transformations.Visualize.Channel;
 import view.ImageProcessorView;
 
@@ -108,6 +121,7 @@ public class ImageProcessorControllerImpl implements ImageProcessorController {
     this.commands.put("visualize-intensity", (Scanner s) -> parseVisualize(s, Channel.Intensity));
     this.commands.put("visualize-luma", (Scanner s) -> parseVisualize(s, Channel.Luma));
     this.commands.put("blur", (Scanner s) -> parseFilter(s, FilterType.Blur));
+    this.commands.put("blur-radius", this::parseBlurRadius);
     this.commands.put("sharpen", (Scanner s) -> parseFilter(s, FilterType.Sharpen));
     this.commands.put("greyscale", (Scanner s) -> parseFilter(s, FilterType.Greyscale));
     this.commands.put("sepia", (Scanner s) -> parseFilter(s, FilterType.Sepia));
@@ -117,11 +131,16 @@ public class ImageProcessorControllerImpl implements ImageProcessorController {
         (Scanner s) -> new HorizontalFlipCmd(this.view, this.store, s.next(), s.next()));
     this.commands.put("vertical-flip",
         (Scanner s) -> new VerticalFlipCmd(this.view, this.store, s.next(), s.next()));
-    this.commands.put("mosaic",
-        (Scanner s) -> new MosaicCmd(this.view, this.store, s.nextInt(), s.next(), s.next()));
+    this.commands.put("mosaic", this::parseMosaic);
     this.commands.put("downscale",
         (Scanner s) -> new DownscaleCmd(this.view, this.store, s.nextInt(), s.nextInt(), s.next(),
             s.next()));
+    this.commands.put("resize", this::parseResize);
+    this.commands.put("renditions", this::parseRenditions);
+    this.commands.put("gamma", this::parseGamma);
+    this.commands.put("levels", this::parseLevels);
+    this.commands.put("tone-curve", this::parseToneCurve);
+    this.commands.put("parallelism", (Scanner s) -> new ParallelismCmd(this.view, s.nextInt()));
   }
 
   /**
@@ -134,11 +153,15 @@ public class ImageProcessorControllerImpl implements ImageProcessorController {
   private VisualizeCmd parseVisualize(Scanner s, Channel channel) {
     String nextLine = s.nextLine().trim();
     String[] params = nextLine.split("\\s+");
-    switch (params.length) {
+    Mode mode = maskMode(params, 0);
+    int skip = mode == Mode.Soft ? 1 : 0;
+    switch (params.length - skip) {
       case 2:
+        requireHardMask(mode);
         return new VisualizeCmd(this.view, this.store, channel, params[0], params[1]);
       case 3:
-        return new VisualizeCmd(this.view, this.store, channel, params[0], params[1], params[2]);
+        return new VisualizeCmd(this.view, this.store, channel, params[skip], params[skip + 1],
+            params[skip + 2], mode);
       default:
         throw new IllegalArgumentException("Invalid command, please try again");
     }
@@ -154,16 +177,176 @@ public class ImageProcessorControllerImpl implements ImageProcessorController {
   private FilterCmd parseFilter(Scanner s, FilterType type) {
     String nextLine = s.nextLine().trim();
     String[] params = nextLine.split("\\s+");
-    switch (params.length) {
+    Mode mode = maskMode(params, 0);
+    int skip = mode == Mode.Soft ? 1 : 0;
+    switch (params.length - skip) {
       case 2:
+        requireHardMask(mode);
         return new FilterCmd(this.view, this.store, type, params[0], params[1]);
       case 3:
-        return new FilterCmd(this.view, this.store, type, params[0], params[1], params[2]);
+        return new FilterCmd(this.view, this.store, type, params[skip], params[skip + 1],
+            params[skip + 2], mode);
       default:
         throw new IllegalArgumentException("Invalid command, please try again");
     }
   }
 
+  /**
+   * Parses the given scanner to create a new {@link BlurRadiusCmd} object.
+   *
+   * @param s the scanner to parse
+   * @return the new blur radius command object
+   */
+  private BlurRadiusCmd parseBlurRadius(Scanner s) {
+    String nextLine = s.nextLine().trim();
+    String[] params = nextLine.split("\\s+");
+
+    // process the radius
+    int radius;
+    try {
+      radius = Integer.parseInt(params[0]);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid radius, please try again");
+    }
+
+    // return the command
+    Mode mode = maskMode(params, 1);
+    int skip = mode == Mode.Soft ? 2 : 1;
+    switch (params.length - skip) {
+      case 2:
+        requireHardMask(mode);
+        return new BlurRadiusCmd(this.view, this.store, radius, params[1], params[2]);
+      case 3:
+        return new BlurRadiusCmd(this.view, this.store, radius, params[skip], params[skip + 1],
+            params[skip + 2], mode);
+      default:
+        throw new IllegalArgumentException("Invalid command, please try again");
+    }
+  }
+
+  /**
+   * Parses the given scanner to create a new {@link MosaicCmd} object. The number of seeds may be
+   * followed by the options {@code -euclidean}, {@code -average}, and {@code -seed <seed>} before
+   * the file names.
+   *
+   * @param s the scanner to parse
+   * @return the new mosaic command object
+   */
+  private MosaicCmd parseMosaic(Scanner s) {
+    String nextLine = s.nextLine().trim();
+    String[] params = nextLine.split("\\s+");
+
+    // process the number of seeds
+    int numSeeds;
+    try {
+      numSeeds = Integer.parseInt(params[0]);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid number of seeds, please try again");
+    }
+
+    // process the options
+    Distance distance = Distance.Manhattan;
+    Fill fill = Fill.Seed;
+    Long randomSeed = null;
+    int index = 1;
+    while (index < params.length && params[index].startsWith("-")) {
+      switch (params[index].toLowerCase()) {
+        case "-euclidean":
+          distance = Distance.Euclidean;
+          break;
+        case "-average":
+          fill = Fill.Average;
+          break;
+        case "-seed":
+          try {
+            randomSeed = Long.parseLong(params[++index]);
+          } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid seed, please try again");
+          }
+          break;
+        default:
+          throw new IllegalArgumentException("Invalid mosaic option, please try again");
+      }
+      index++;
+    }
+
+    // return the command
+    if (params.length - index != 2) {
+      throw new IllegalArgumentException("Invalid command, please try again");
+    }
+    return new MosaicCmd(this.view, this.store, numSeeds, distance, fill, randomSeed,
+        params[index], params[index + 1]);
+  }
+
+  /**
+   * Parses the given scanner to create a new {@link ResizeCmd} object. The new width and height
+   * may be followed by the option {@code -filter <bilinear|bicubic|lanczos3>} before the file
+   * names, and the bicubic filter is used otherwise.
+   *
+   * @param s the scanner to parse
+   * @return the new resize command object
+   */
+  private ResizeCmd parseResize(Scanner s) {
+    String nextLine = s.nextLine().trim();
+    String[] params = nextLine.split("\\s+");
+
+    // process the new width and height
+    int nWidth;
+    int nHeight;
+    try {
+      nWidth = Integer.parseInt(params[0]);
+      nHeight = Integer.parseInt(params[1]);
+    } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Invalid width or height, please try again");
+    }
+
+    // process the filter and return the command
+    switch (params.length) {
+      case 4:
+        return new ResizeCmd(this.view, this.store, nWidth, nHeight, Filter.Bicubic, params[2],
+            params[3]);
+      case 6:
+        if (!params[2].equalsIgnoreCase("-filter")) {
+          throw new IllegalArgumentException("Invalid resize option, please try again");
+        }
+        return new ResizeCmd(this.view, this.store, nWidth, nHeight,
+            ResizeCmd.parseFilter(params[3]), params[4], params[5]);
+      default:
+        throw new IllegalArgumentException("Invalid command, please try again");
+    }
+  }
+
+  /**
+   * Parses the given scanner to create a new {@link RenditionsCmd} object. Any number of sizes can
+   * be given before the file names.
+   *
+   * @param s the scanner to parse
+   * @return the new renditions command object
+   */
+  private RenditionsCmd parseRenditions(Scanner s) {
+    String nextLine = s.nextLine().trim();
+    String[] params = nextLine.split("\\s+");
+    if (params.length < 3) {
+      throw new IllegalArgumentException("Invalid command, please try again");
+    }
+
+    // process the sizes
+    int[] sizes = new int[params.length - 2];
+    try {
+      for (int i = 0; i < sizes.length; i++) {
+        sizes[i] = Integer.parseInt(params[i]);
+        if (sizes[i] <= 0) {
+          throw new NumberFormatException();
+        }
+      }
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid rendition size, please try again");
+    }
+
+    return new RenditionsCmd(this.view, this.store, sizes, params[params.length - 2],
+        params[params.length - 1]);
+  }
+
   /**
    * Parses the given scanner to create a new {@link BrightnessCmd} object.
    *
@@ -185,14 +368,130 @@ public class ImageProcessorControllerImpl implements ImageProcessorController {
     }
 
     // return the command
-    switch (params.length) {
-      case 3:
+    Mode mode = maskMode(params, 1);
+    int skip = mode == Mode.Soft ? 2 : 1;
+    switch (params.length - skip) {
+      case 2:
+        requireHardMask(mode);
         return new BrightnessCmd(this.view, this.store, amount, params[1], params[2]);
-      case 4:
-        return new BrightnessCmd(this.view, this.store, amount, params[1], params[2], params[3]);
+      case 3:
+        return new BrightnessCmd(this.view, this.store, amount, params[skip], params[skip + 1],
+            params[skip + 2], mode);
       default:
         throw new IllegalArgumentException("Invalid command, please try again");
     }
   }
 
+  /**
+   * Parses the given scanner to create a new {@link ToneCmd} object that applies gamma correction.
+   *
+   * @param s the scanner to parse
+   * @return the new tone command object
+   */
+  private ToneCmd parseGamma(Scanner s) {
+    String[] params = s.nextLine().trim().split("\\s+");
+    double gamma;
+    try {
+      gamma = Double.parseDouble(params[0]);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid gamma, please try again");
+    }
+    return this.toneCmd("gamma", new Gamma(gamma), params, 1);
+  }
+
+  /**
+   * Parses the given scanner to create a new {@link ToneCmd} object that adjusts the levels.
+   *
+   * @param s the scanner to parse
+   * @return the new tone command object
+   */
+  private ToneCmd parseLevels(Scanner s) {
+    String[] params = s.nextLine().trim().split("\\s+");
+    LookupTable levels;
+    try {
+      levels = new Levels(Integer.parseInt(params[0]), Integer.parseInt(params[1]),
+          Double.parseDouble(params[2]));
+    } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Invalid levels, please try again");
+    }
+    return this.toneCmd("levels", levels, params, 3);
+  }
+
+  /**
+   * Parses the given scanner to create a new {@link ToneCmd} object that applies a tone curve. The
+   * points of the curve are given as {@code <original>:<new>} pairs separated by commas.
+   *
+   * @param s the scanner to parse
+   * @return the new tone command object
+   */
+  private ToneCmd parseToneCurve(Scanner s) {
+    String[] params = s.nextLine().trim().split("\\s+");
+    String[] pairs = params[0].split(",");
+    int[][] points = new int[pairs.length][];
+    try {
+      for (int i = 0; i < pairs.length; i++) {
+        String[] point = pairs[i].split(":");
+        if (point.length != 2) {
+          throw new NumberFormatException();
+        }
+        points[i] = new int[]{Integer.parseInt(point[0]), Integer.parseInt(point[1])};
+      }
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid curve points, please try again");
+    }
+    return this.toneCmd("tone curve", new ToneCurve(points), params, 1);
+  }
+
+  /**
+   * Creates a new {@link ToneCmd} object from the file names that follow the given number of
+   * adjustment parameters.
+   *
+   * @param name   the name of the adjustment
+   * @param table  the lookup table of the adjustment
+   * @param params the parameters of the command
+   * @param skip   the number of adjustment parameters before the file names
+   * @return the new tone command object
+   */
+  private ToneCmd toneCmd(String name, LookupTable table, String[] params, int skip) {
+    Mode mode = maskMode(params, skip);
+    if (mode == Mode.Soft) {
+      skip++;
+    }
+    switch (params.length - skip) {
+      case 2:
+        requireHardMask(mode);
+        return new ToneCmd(this.view, this.store, name, table, params[skip], params[skip + 1]);
+      case 3:
+        return new ToneCmd(this.view, this.store, name, table, params[skip], params[skip + 1],
+            params[skip + 2], mode);
+      default:
+        throw new IllegalArgumentException("Invalid command, please try again");
+    }
+  }
+
+  /**
+   * Returns the mask mode chosen by the parameter at the given index, which is soft if it is the
+   * {@code -soft} option and hard otherwise.
+   *
+   * @param params the parameters of the command
+   * @param index  the index of the parameter that may be the option
+   * @return the mask mode chosen by the parameters
+   */
+  private static Mode maskMode(String[] params, int index) {
+    return params.length > index && params[index].equalsIgnoreCase("-soft") ? Mode.Soft
+        : Mode.Hard;
+  }
+
+  /**
+   * Checks that a command without a mask was not given the {@code -soft} option.
+   *
+   * @param mode the mask mode chosen by the parameters of the command
+   * @throws IllegalArgumentException if the mode is soft
+   */
+  private static void requireHardMask(Mode mode) throws IllegalArgumentException {
+    if (mode == Mode.Soft) {
+      throw new IllegalArgumentException("The -soft option needs a mask, please try again");
+    }
+  }
+
 }
@@ -34,4 +34,17 @@ public interface ImageProcessorGuiController {
    * Action listener to handle the transformation of an image in the program.
    */
   void transformImage(String transformation);
+
+  /**
+   * Action listener to handle the selection of an image whose full size preview is no longer kept
+   * by the view, which displays the image at its full size again.
+   *
+   * @param name the name of the image to display
+   */
+  void showImage(String name);
+
+  /**
+   * Action listener to handle cancelling the operation that is running in the background.
+   */
+  void cancel();
 }
@@ -1,5 +1,6 @@
 package controller;
 
+import controller.commands.BlurRadiusCmd;
 import controller.commands.BrightnessCmd;
 import controller.commands.DownscaleCmd;
 import controller.commands.FilterCmd;
@@ -7,12 +8,15 @@ import controller.commands.FilterCmd.FilterType;
 import controller.commands.HorizontalFlipCmd;
 import controller.commands.LoadCmd;
 import controller.commands.MosaicCmd;
+import controller.commands.ResizeCmd;
 import controller.commands.SaveCmd;
 import controller.commands.VerticalFlipCmd;
 import controller.commands.VisualizeCmd;
+import controller.prompters.BlurRadiusPrompter;
 import controller.prompters.BrightnessPrompter;
 import controller.prompters.DownscalePrompter;
 import controller.prompters.MosaicPrompter;
+import controller.prompters.ResizePrompter;
 import controller.prompters.StandardPrompter;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
@@ -20,15 +24,29 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import javax.swing.SwingWorker;
 import javax.swing.filechooser.FileNameExtensionFilter;
+import model.Histogram;
 import model.Image;
 import model.ImageUtils;
+import model.RegionEngine;
 import model.StoredImages;
+import model.transformations.Brightness;
+import model.transformations.Mosaic;
+import model.transformations.Mosaic.Distance;
+import model.transformations.Mosaic.Fill;
+import model.transformations.Pyramid;
 import model.transformations.Visualize.Channel;
 import view.ImageProcessorGui;
 import view.ImageProcessorGui.DialogType;
+import view.ImageProcessorGui.Preview;
 import view.panels.MenubarPanel;
 import view.panels.TransformationPanel;
 
@@ -41,7 +59,12 @@ public class ImageProcessorGuiControllerImpl implements ImageProcessorGuiControl
   private final StoredImages store;
   private final Map<String, Supplier<ImageProcessorPrompter>> prompts;
   private final Map<String, Function<String[], ImageProcessorCmd>> transformations;
+  private final Map<String, Previewer> previews;
   private ImageProcessorGui view;
+  // whether the user asked to cancel the operation running in the background, or null if none is
+  private AtomicBoolean running;
+  // the image to display at its full size once the running operation is done, if any
+  private String pendingImage;
 
   /**
    * Constructs a new controller for the GUI.
@@ -55,6 +78,7 @@ public class ImageProcessorGuiControllerImpl implements ImageProcessorGuiControl
     this.store = store;
     this.prompts = new HashMap<>();
     this.transformations = new HashMap<>();
+    this.previews = new HashMap<>();
   }
 
   @Override
@@ -64,8 +88,11 @@ public class ImageProcessorGuiControllerImpl implements ImageProcessorGuiControl
     menu.addFeatures(this);
     TransformationPanel transformations = this.view.getTransformationPanel();
     transformations.addFeatures(this);
+    this.view.getMessagePanel().addFeatures(this);
+    this.view.getPreviewPanel().addFeatures(this);
     addPrompts();
     addTransformations();
+    addPreviews();
   }
 
   @Override
@@ -76,6 +103,9 @@ public class ImageProcessorGuiControllerImpl implements ImageProcessorGuiControl
 
   @Override
   public void loadImage() {
+    if (this.isBusy()) {
+      return;
+    }
     String file = this.view.loadFile(this.supportedExtensions());
     if (file == null) {
       this.view.renderMessage("Load cancelled.");
@@ -97,22 +127,15 @@ public class ImageProcessorGuiControllerImpl implements ImageProcessorGuiControl
     }
     String newFileName = answers[0];
 
-    try {
-      ImageProcessorCmd command = new LoadCmd(this.view, this.store, file, newFileName);
-      command.execute();
-    } catch (IllegalArgumentException e) {
-      this.view.renderDialog(DialogType.Danger, e.getMessage());
-      return;
-    }
-
-    Image image = this.store.retrieve(newFileName);
-    BufferedImage buffered = ImageUtils.getBufferedImage(image);
-    int[][] histogram = ImageUtils.getChannelFrequencies(image);
-    this.view.displayImage(newFileName, buffered, histogram);
+    this.runInBackground("Loading \"" + newFileName + "\"...",
+        () -> new LoadCmd(this.view, this.store, file, newFileName).execute(), newFileName);
   }
 
   @Override
   public void saveImage() {
+    if (this.isBusy()) {
+      return;
+    }
     String name = this.view.getCurrentImageName();
     if (name == null) {
       this.view.renderDialog(DialogType.Danger, "No images loaded");
@@ -125,12 +148,8 @@ public class ImageProcessorGuiControllerImpl implements ImageProcessorGuiControl
       return;
     }
 
-    try {
-      ImageProcessorCmd command = new SaveCmd(this.view, this.store, file, name);
-      command.execute();
-    } catch (IllegalArgumentException e) {
-      this.view.renderDialog(DialogType.Danger, e.getMessage());
-    }
+    this.runInBackground("Saving \"" + name + "\"...",
+        () -> new SaveCmd(this.view, this.store, file, name).execute(), null);
   }
 
   @Override
@@ -138,6 +157,9 @@ public class ImageProcessorGuiControllerImpl implements ImageProcessorGuiControl
     if (command == null) {
       throw new IllegalArgumentException("Command cannot be null.");
     }
+    if (this.isBusy()) {
+      return;
+    }
 
     // Get the transformation's prompter and command
     Supplier<ImageProcessorPrompter> prcmd = this.prompts.getOrDefault(command, null);
@@ -165,16 +187,125 @@ public class ImageProcessorGuiControllerImpl implements ImageProcessorGuiControl
       throw new IllegalArgumentException("Prompter returned a null value.");
     }
 
-    // Attempt to execute the command
+    // Attempt to execute the command in the background
+    ImageProcessorCmd toRun;
     try {
-      cmd.apply(answers).execute();
-      this.view.displayImage(answers[1],
-          ImageUtils.getBufferedImage(this.store.retrieve(answers[1])),
-          ImageUtils.getChannelFrequencies(this.store.retrieve(answers[1])));
+      toRun = cmd.apply(answers);
     } catch (IllegalArgumentException e) {
       this.view.renderDialog(DialogType.Danger, e.getMessage());
+      return;
     }
+    this.runInBackground("Applying " + command + " to \"" + answers[0] + "\"...", toRun::execute,
+        answers[1]);
+  }
 
+  @Override
+  public void showImage(String name) {
+    if (name == null) {
+      throw new IllegalArgumentException("Name cannot be null.");
+    }
+    if (this.running != null) {
+      this.pendingImage = name;
+    } else if (this.store.exists(name)) {
+      this.runInBackground("Loading \"" + name + "\" at full size...", () -> {
+      }, name);
+    }
+  }
+
+  @Override
+  public void cancel() {
+    if (this.running != null) {
+      this.running.set(true);
+      this.view.renderMessage("Cancelling...");
+    }
+  }
+
+  /**
+   * Returns whether an operation is already running in the background, and tells the user to wait
+   * for it if so.
+   *
+   * @return true if an operation is running, false otherwise
+   */
+  private boolean isBusy() {
+    if (this.running != null) {
+      this.view.renderDialog(DialogType.Warning,
+          "Please wait for the current operation to finish, or cancel it.");
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Runs the given operation on a background thread, so the window keeps responding while it runs.
+   * The progress of the operation is rendered as it runs, and the user can cancel it between any
+   * two bands or tiles of its work. Once it is done, the image with the given name is prepared for
+   * display on the same background thread, and then displayed.
+   *
+   * @param message   the message describing the operation
+   * @param operation the operation to run
+   * @param name      the name of the image to display once the operation is done, or null if no
+   *                  image should be displayed
+   */
+  private void runInBackground(String message, Runnable operation, String name) {
+    AtomicBoolean cancelled = new AtomicBoolean();
+    this.running = cancelled;
+    this.view.renderProgress(message, 0);
+    new SwingWorker<Display, Integer>() {
+      @Override
+      protected Display doInBackground() {
+        Display[] display = new Display[1];
+        RegionEngine.run(() -> {
+          operation.run();
+          if (name != null) {
+            display[0] = prepare(name);
+          }
+        }, new RegionEngine.Monitor() {
+          @Override
+          public boolean isCancelled() {
+            return cancelled.get();
+          }
+
+          @Override
+          public void progress(int done, int total) {
+            publish(100 * done / total);
+          }
+        });
+        return display[0];
+      }
+
+      @Override
+      protected void process(List<Integer> chunks) {
+        if (running == cancelled && !cancelled.get()) {
+          view.renderProgress(message, chunks.get(chunks.size() - 1));
+        }
+      }
+
+      @Override
+      protected void done() {
+        running = null;
+        view.endProgress();
+        try {
+          Display display = this.get();
+          if (display != null) {
+            view.displayImage(display.name, display.image, display.histogram);
+          }
+        } catch (ExecutionException e) {
+          if (e.getCause() instanceof CancellationException) {
+            view.renderMessage("Operation cancelled.");
+          } else {
+            view.renderDialog(DialogType.Danger, String.valueOf(e.getCause().getMessage()));
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        // displays an image the user selected while the operation was running
+        String pending = pendingImage;
+        pendingImage = null;
+        if (pending != null && pending.equals(view.getCurrentImageName())) {
+          showImage(pending);
+        }
+      }
+    }.execute();
   }
 
   /**
@@ -184,8 +315,11 @@ public class ImageProcessorGuiControllerImpl implements ImageProcessorGuiControl
   private void addPrompts() {
     // Add prompters to the map
     this.prompts.put("Blur", () -> new StandardPrompter(this.view));
-    this.prompts.put("Brighten", () -> new BrightnessPrompter(this.view, true));
-    this.prompts.put("Darken", () -> new BrightnessPrompter(this.view, false));
+    this.prompts.put("Blur Radius", () -> new BlurRadiusPrompter(this.view));
+    this.prompts.put("Brighten",
+        () -> new BrightnessPrompter(this.view, true, this.preview("Brighten")));
+    this.prompts.put("Darken",
+        () -> new BrightnessPrompter(this.view, false, this.preview("Darken")));
     this.prompts.put("Greyscale", () -> new StandardPrompter(this.view));
     this.prompts.put("Horizontal Flip", () -> new StandardPrompter(this.view));
     this.prompts.put("Vertical Flip", () -> new StandardPrompter(this.view));
@@ -197,8 +331,126 @@ public class ImageProcessorGuiControllerImpl implements ImageProcessorGuiControl
     this.prompts.put("Visualize Value", () -> new StandardPrompter(this.view));
     this.prompts.put("Visualize Intensity", () -> new StandardPrompter(this.view));
     this.prompts.put("Visualize Luma", () -> new StandardPrompter(this.view));
-    this.prompts.put("Mosaic", () -> new MosaicPrompter(this.view));
-    this.prompts.put("Downscale", () -> new DownscalePrompter(this.view));
+    this.prompts.put("Mosaic", () -> new MosaicPrompter(this.view, this.preview("Mosaic")));
+    this.prompts.put("Downscale",
+        () -> new DownscalePrompter(this.view, this.preview("Downscale")));
+    this.prompts.put("Resize", () -> new ResizePrompter(this.view));
+  }
+
+  /**
+   * Defines the live previews of the transformations that can be previewed while their parameters
+   * are entered. The answers given to a preview are the answers to the questions of the
+   * transformation's prompter, so the first answer is the name of the new image.
+   */
+  private void addPreviews() {
+    this.previews.put("Brighten", (String[] a, Image proxy, Pyramid p) ->
+        new Brightness(previewInt(a[1])).transform(proxy));
+    this.previews.put("Darken", (String[] a, Image proxy, Pyramid p) ->
+        new Brightness(-previewInt(a[1])).transform(proxy));
+    this.previews.put("Mosaic", (String[] a, Image proxy, Pyramid p) -> {
+      Image original = p.getLevel(0);
+      int seeds = previewInt(a[1]);
+      if (seeds > 0) {
+        // keeps the same number of seeds per pixel, so the cells look as big as they will be
+        seeds = (int) Math.max(1, Math.round((double) seeds * proxy.getWidth() * proxy.getHeight()
+            / ((double) original.getWidth() * original.getHeight())));
+      }
+      // the prompter fills in the random seed it picked, so the preview matches the mosaic
+      long seed = previewLong(a[2]);
+      return new Mosaic(seeds, Distance.Manhattan, Fill.Seed, seed).transform(proxy);
+    });
+    this.previews.put("Downscale", (String[] a, Image proxy, Pyramid p) -> {
+      Image original = p.getLevel(0);
+      int newWidth = previewInt(a[1]);
+      int newHeight = previewInt(a[2]);
+      if (newWidth <= 0 || newHeight <= 0) {
+        throw new IllegalArgumentException("The new width and height must be positive");
+      }
+      if (newWidth > original.getWidth() || newHeight > original.getHeight()) {
+        throw new IllegalArgumentException("The new width and height cannot be larger than the "
+            + "original image (" + original.getWidth() + "x" + original.getHeight() + "px)");
+      }
+      double scale = Math.min(1, Math.min((double) proxy.getWidth() / newWidth,
+          (double) proxy.getHeight() / newHeight));
+      return p.render((int) Math.max(1, Math.round(newWidth * scale)),
+          (int) Math.max(1, Math.round(newHeight * scale)));
+    });
+  }
+
+  /**
+   * Returns the live preview of the given transformation of the selected image, or null if the
+   * transformation cannot be previewed or no image is selected. The preview is made from a pyramid
+   * of the image, so each preview only reads a copy of the image about the size of the preview,
+   * and it stops early when a newer preview replaces it. The copy is made by the first preview,
+   * even when its answers cannot be previewed, so it is ready by the time they can be.
+   *
+   * @param transformation the name of the transformation
+   * @return the preview of the transformation, or null for none
+   */
+  private Preview preview(String transformation) {
+    String current = this.view.getCurrentImageName();
+    Previewer previewer = this.previews.get(transformation);
+    if (current == null || previewer == null) {
+      return null;
+    }
+    Pyramid pyramid = new Pyramid(this.store.retrieve(current));
+    AtomicReference<Image> proxy = new AtomicReference<>();
+    return (String[] answers, int width, int height, BooleanSupplier cancelled) -> {
+      BufferedImage[] preview = new BufferedImage[1];
+      RegionEngine.run(() -> {
+        Image fitted = proxy.updateAndGet(p -> p != null ? p : proxy(pyramid, width, height));
+        preview[0] = ImageUtils.getBufferedImage(previewer.preview(answers, fitted, pyramid));
+      }, cancelled::getAsBoolean);
+      return preview[0];
+    };
+  }
+
+  /**
+   * Returns a copy of the original image of the given pyramid that fits within the given width and
+   * height, keeping its aspect ratio.
+   *
+   * @param pyramid the pyramid of the image
+   * @param width   the largest width of the copy
+   * @param height  the largest height of the copy
+   * @return the copy of the image
+   */
+  private static Image proxy(Pyramid pyramid, int width, int height) {
+    Image original = pyramid.getLevel(0);
+    double scale = Math.min(1, Math.min((double) width / original.getWidth(),
+        (double) height / original.getHeight()));
+    return pyramid.render((int) Math.max(1, Math.round(original.getWidth() * scale)),
+        (int) Math.max(1, Math.round(original.getHeight() * scale)));
+  }
+
+  /**
+   * Parses an answer that must be a whole number small enough to fit in an {@code int} to be
+   * previewed.
+   *
+   * @param answer the answer
+   * @return the number
+   * @throws IllegalArgumentException if the answer is not a whole number, or if it is too large
+   */
+  private static int previewInt(String answer) throws IllegalArgumentException {
+    long value = previewLong(answer);
+    if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Enter smaller numbers to see a preview.");
+    }
+    return (int) value;
+  }
+
+  /**
+   * Parses an answer that must be a whole number to be previewed.
+   *
+   * @param answer the answer
+   * @return the number
+   * @throws IllegalArgumentException if the answer is not a whole number
+   */
+  private static long previewLong(String answer) throws IllegalArgumentException {
+    try {
+      return Long.parseLong(answer.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Enter whole numbers to see a preview.");
+    }
   }
 
   /**
@@ -208,6 +460,9 @@ public class ImageProcessorGuiControllerImpl implements ImageProcessorGuiControl
     // Add transformations to the map
     this.transformations.put("Blur",
         (String[] s) -> new FilterCmd(this.view, this.store, FilterType.Blur, s[0], s[1]));
+    this.transformations.put("Blur Radius",
+        (String[] s) -> new BlurRadiusCmd(this.view, this.store, Integer.parseInt(s[2]), s[0],
+            s[1]));
     this.transformations.put("Brighten",
         (String[] s) -> new BrightnessCmd(this.view, this.store, Integer.parseInt(s[2]), s[0],
             s[1]));
@@ -237,10 +492,14 @@ public class ImageProcessorGuiControllerImpl implements ImageProcessorGuiControl
     this.transformations.put("Visualize Luma",
         (String[] s) -> new VisualizeCmd(this.view, this.store, Channel.Luma, s[0], s[1]));
     this.transformations.put("Mosaic",
-        (String[] s) -> new MosaicCmd(this.view, this.store, Integer.parseInt(s[2]), s[0], s[1]));
+        (String[] s) -> new MosaicCmd(this.view, this.store, Integer.parseInt(s[2]),
+            Distance.Manhattan, Fill.Seed, Long.parseLong(s[3]), s[0], s[1]));
     this.transformations.put("Downscale",
         (String[] s) -> new DownscaleCmd(this.view, this.store, Integer.parseInt(s[2]),
             Integer.parseInt(s[3]), s[0], s[1]));
+    this.transformations.put("Resize",
+        (String[] s) -> new ResizeCmd(this.view, this.store, Integer.parseInt(s[2]),
+            Integer.parseInt(s[3]), ResizeCmd.parseFilter(s[4]), s[0], s[1]));
 
     // Confirms a prompter is defined for each transformation
     for (String transformation : this.transformations.keySet()) {
@@ -255,6 +514,22 @@ public class ImageProcessorGuiControllerImpl implements ImageProcessorGuiControl
     this.view.setTransformations(list);
   }
 
+  /**
+   * Prepares the stored image with the given file name to be displayed along with its histogram.
+   * The pixels are copied straight into the buffered image that is displayed, and the histogram is
+   * counted in the same pass unless it is already known, so the image is only read once.
+   *
+   * @param name the file name of the image to display
+   * @return the image and histogram to display
+   */
+  private Display prepare(String name) {
+    Image image = this.store.retrieve(name);
+    BufferedImage buffered = new BufferedImage(image.getWidth(), image.getHeight(),
+        BufferedImage.TYPE_INT_RGB);
+    Histogram histogram = this.store.getHistogram(name, ImageUtils.getData(buffered));
+    return new Display(name, buffered, histogram.getFrequencies());
+  }
+
   /**
    * Returns a file name extension filter for image files this controller supports.
    *
@@ -267,5 +542,46 @@ public class ImageProcessorGuiControllerImpl implements ImageProcessorGuiControl
     String[] exts = extensions.toArray(new String[extensions.size()]);
     return new FileNameExtensionFilter("Supported Image Files", exts);
   }
-}
 
+  /**
+   * Represents an image that has been prepared to be displayed, along with its histogram.
+   */
+  private static final class Display {
+
+    private final String name;
+    private final BufferedImage image;
+    private final int[][] histogram;
+
+    /**
+     * Constructs a new image prepared to be displayed.
+     *
+     * @param name      the name to identify the image by
+     * @param image     the image to render in the preview panel
+     * @param histogram the data to render in the histogram panel
+     */
+    private Display(String name, BufferedImage image, int[][] histogram) {
+      this.name = name;
+      this.image = image;
+      this.histogram = histogram;
+    }
+  }
+
+  /**
+   * Represents the live preview of a transformation, made from a copy of the image it transforms
+   * that fits within the preview.
+   */
+  private interface Previewer {
+
+    /**
+     * Makes the preview of the transformation with the given answers, no larger than the copy of
+     * the image.
+     *
+     * @param answers the answers to the questions of the transformation's prompter
+     * @param proxy   the copy of the image that fits within the preview
+     * @param pyramid the pyramid of the image, to make other copies of it from
+     * @return the preview
+     * @throws IllegalArgumentException if the answers cannot be previewed
+     */
+    Image preview(String[] answers, Image proxy, Pyramid pyramid) throws IllegalArgumentException;
+  }
+}
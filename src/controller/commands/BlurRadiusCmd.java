@@ -0,0 +1,118 @@
+package controller.commands;
+
+import controller.ImageProcessorCmd;
+import model.Image;
+import model.ImageTransformation;
+import model.StoredImages;
+import model.transformations.Mask;
+import model.transformations.Mask.Mode;
+import model.transformations.RadiusBlur;
+import view.ImageProcessorView;
+
+/**
+ * Class that represents a command, "Blur Radius", that the processor can handle. Implements the
+ * {@code ImageProcessorCmd} interface and execute the command. Blurs an image with the given
+ * radius.
+ */
+public class BlurRadiusCmd implements ImageProcessorCmd {
+
+  private final ImageProcessorView view;
+  private final StoredImages store;
+  private final int radius;
+  private final String fileName;
+  private final String newFileName;
+  private String maskFileName = null;
+  private Mode maskMode = Mode.Hard;
+
+  /**
+   * Constructs a Blur Radius command.
+   *
+   * @param view        the view to display the messages to.
+   * @param store       the store to store images in.
+   * @param radius      the radius of the blur.
+   * @param fileName    the file name of the image to be transformed.
+   * @param newFileName the file name of the new transformed image.
+   * @throws IllegalArgumentException if any of the parameters are null, or if the radius is not
+   *                                  positive.
+   */
+  public BlurRadiusCmd(ImageProcessorView view, StoredImages store, int radius, String fileName,
+      String newFileName) throws IllegalArgumentException {
+    if (view == null || store == null) {
+      throw new IllegalArgumentException("View and store cannot be null");
+    }
+    if (fileName == null || fileName.isEmpty() || newFileName == null || newFileName.isEmpty()) {
+      throw new IllegalArgumentException("File name cannot be empty");
+    }
+    if (radius < 1) {
+      throw new IllegalArgumentException("Radius must be greater than 0");
+    }
+    this.view = view;
+    this.store = store;
+    this.radius = radius;
+    this.fileName = fileName.toLowerCase();
+    this.newFileName = newFileName.toLowerCase();
+  }
+
+  /**
+   * Constructs a Blur Radius command that supports a mask.
+   *
+   * @param view         the view to display the messages to.
+   * @param store        the store to store images in.
+   * @param radius       the radius of the blur.
+   * @param fileName     the file name of the image to be transformed.
+   * @param maskFileName the file name of the mask image.
+   * @param newFileName  the file name of the new transformed image.
+   * @throws IllegalArgumentException if any of the parameters are null, or if the radius is not
+   *                                  positive.
+   */
+  public BlurRadiusCmd(ImageProcessorView view, StoredImages store, int radius, String fileName,
+      String maskFileName, String newFileName) throws IllegalArgumentException {
+    this(view, store, radius, fileName, newFileName);
+    if (maskFileName == null) {
+      throw new IllegalArgumentException("Mask file name cannot be null");
+    }
+    this.maskFileName = maskFileName.toLowerCase();
+  }
+
+  /**
+   * Constructs a Blur Radius command that supports a mask in the given mode.
+   *
+   * @param view         the view to display the messages to.
+   * @param store        the store to store images in.
+   * @param radius       the radius of the blur.
+   * @param fileName     the file name of the image to be transformed.
+   * @param maskFileName the file name of the mask image.
+   * @param newFileName  the file name of the new transformed image.
+   * @param maskMode     the way the mask image selects the pixels to transform.
+   * @throws IllegalArgumentException if any of the parameters are null.
+   */
+  public BlurRadiusCmd(ImageProcessorView view, StoredImages store, int radius, String fileName,
+      String maskFileName, String newFileName, Mode maskMode) throws IllegalArgumentException {
+    this(view, store, radius, fileName, maskFileName, newFileName);
+    if (maskMode == null) {
+      throw new IllegalArgumentException("Mask mode cannot be null");
+    }
+    this.maskMode = maskMode;
+  }
+
+  @Override
+  public void execute() throws IllegalArgumentException {
+    Image retrieved = this.store.retrieve(this.fileName);
+    ImageTransformation blur = new RadiusBlur(this.radius);
+    if (this.maskFileName == null) {
+      Image blurred = blur.transform(retrieved);
+      this.store.add(this.newFileName, blurred, true);
+      this.view.renderMessage(
+          "Applied a blur with a radius of " + this.radius + " to \"" + this.fileName + "\""
+              + System.lineSeparator() + "Command: ");
+    } else {
+      Image masked = new Mask(retrieved, this.store, this.maskFileName, this.maskMode)
+          .apply(blur);
+      this.store.add(this.newFileName, masked, true);
+      this.view.renderMessage(
+          "Applied a blur with a radius of " + this.radius + " to \"" + this.fileName
+              + "\" in the area masked by \"" + this.maskFileName + "\"" + System.lineSeparator()
+              + "Command: ");
+    }
+  }
+}
@@ -1,11 +1,12 @@
 package controller.commands;
 
 import controller.ImageProcessorCmd;
+import model.Histogram;
 import model.Image;
-import model.ImageTransformation;
 import model.StoredImages;
 import model.transformations.Brightness;
 import model.transformations.Mask;
+import model.transformations.Mask.Mode;
 import view.ImageProcessorView;
 
 /**
@@ -21,6 +22,7 @@ public class BrightnessCmd implements ImageProcessorCmd {
   private final String fileName;
   private final String newFileName;
   private String maskFileName = null;
+  private Mode maskMode = Mode.Hard;
 
   /**
    * Constructs a Brightness command.
@@ -66,20 +68,43 @@ public class BrightnessCmd implements ImageProcessorCmd {
     this.maskFileName = maskFileName.toLowerCase();
   }
 
+  /**
+   * Constructs a Brightness command that supports a mask in the given mode.
+   *
+   * @param view         the view to display the messages to.
+   * @param store        the store to store images in.
+   * @param amount       the amount to adjust the brightness by.
+   * @param fileName     the file name of the image to be transformed.
+   * @param maskFileName the file name of the mask image.
+   * @param newFileName  the file name of the new transformed image.
+   * @param maskMode     the way the mask image selects the pixels to transform.
+   * @throws IllegalArgumentException if any of the parameters are null.
+   */
+  public BrightnessCmd(ImageProcessorView view, StoredImages store, int amount, String fileName,
+      String maskFileName, String newFileName, Mode maskMode) throws IllegalArgumentException {
+    this(view, store, amount, fileName, maskFileName, newFileName);
+    if (maskMode == null) {
+      throw new IllegalArgumentException("Mask mode cannot be null");
+    }
+    this.maskMode = maskMode;
+  }
+
   @Override
   public void execute() {
     Image retrieved = this.store.retrieve(this.fileName);
-    ImageTransformation brightness = new Brightness(this.amount);
-    Image brightened = brightness.transform(retrieved);
+    Brightness brightness = new Brightness(this.amount);
     if (this.maskFileName == null) {
-      this.store.add(this.newFileName, brightened, true);
+      Image brightened = brightness.transform(retrieved);
+      // the histogram of the new image is worked out from the old one if it is known
+      Histogram histogram = this.store.getCachedHistogram(this.fileName);
+      this.store.add(this.newFileName, brightened, true,
+          histogram == null ? null : brightness.remap(histogram, brightened));
       this.view.renderMessage(
           "The brightness of \"" + this.fileName + "\" has been adjusted by " + this.amount
               + System.lineSeparator() + "Command: ");
     } else {
-      Image maskImage = this.store.retrieve(this.maskFileName);
-      ImageTransformation mask = new Mask(retrieved, maskImage);
-      Image masked = mask.transform(brightened);
+      Image masked = new Mask(retrieved, this.store, this.maskFileName, this.maskMode)
+          .apply(brightness);
       this.store.add(this.newFileName, masked, true);
       this.view.renderMessage(
           "The brightness of \"" + this.fileName + "\" has been adjusted by " + this.amount
@@ -7,6 +7,7 @@ import model.StoredImages;
 import model.transformations.Blur;
 import model.transformations.Greyscale;
 import model.transformations.Mask;
+import model.transformations.Mask.Mode;
 import model.transformations.Sepia;
 import model.transformations.Sharpen;
 import view.ImageProcessorView;
@@ -24,6 +25,7 @@ public class FilterCmd implements ImageProcessorCmd {
   private final String fileName;
   private final String newFileName;
   private String maskFileName = null;
+  private Mode maskMode = Mode.Hard;
 
   /**
    * Constructs a Filter command.
@@ -69,6 +71,27 @@ public class FilterCmd implements ImageProcessorCmd {
     this.maskFileName = maskFileName.toLowerCase();
   }
 
+  /**
+   * Constructs a Filter command that supports a mask in the given mode.
+   *
+   * @param view         the view to display the messages to.
+   * @param store        the store to store images in.
+   * @param type         the enum that represents which filter to apply.
+   * @param fileName     the file name of the image to be transformed.
+   * @param maskFileName the file name of the mask image.
+   * @param newFileName  the file name of the new transformed image.
+   * @param maskMode     the way the mask image selects the pixels to transform.
+   * @throws IllegalArgumentException if any of the parameters are null.
+   */
+  public FilterCmd(ImageProcessorView view, StoredImages store, FilterType type, String fileName,
+      String maskFileName, String newFileName, Mode maskMode) throws IllegalArgumentException {
+    this(view, store, type, fileName, maskFileName, newFileName);
+    if (maskMode == null) {
+      throw new IllegalArgumentException("Mask mode cannot be null");
+    }
+    this.maskMode = maskMode;
+  }
+
 
   @Override
   public void execute() throws IllegalArgumentException {
@@ -91,16 +114,15 @@ public class FilterCmd implements ImageProcessorCmd {
         // should never happen
         throw new IllegalArgumentException("Invalid filter type");
     }
-    Image filtered = filter.transform(retrieved);
     if (this.maskFileName == null) {
+      Image filtered = filter.transform(retrieved);
       this.store.add(this.newFileName, filtered, true);
       this.view.renderMessage(
           "Applied the " + this.type.toString().toLowerCase() + " filter to \"" + this.fileName
               + "\"" + System.lineSeparator() + "Command: ");
     } else {
-      Image maskImage = this.store.retrieve(this.maskFileName);
-      ImageTransformation mask = new Mask(retrieved, maskImage);
-      Image masked = mask.transform(filtered);
+      Image masked = new Mask(retrieved, this.store, this.maskFileName, this.maskMode)
+          .apply(filter);
       this.store.add(this.newFileName, masked, true);
       this.view.renderMessage(
           "Applied the " + this.type.toString().toLowerCase() + " filter to \"" + this.fileName
@@ -40,9 +40,15 @@ public class MenuCmd implements ImageProcessorCmd {
             + " processor" + System.lineSeparator());
     this.view.renderMessage(
         "* \"save\" <path> <filename> - saves an image to an output file" + System.lineSeparator());
+    this.view.renderMessage(
+        "* \"parallelism\" <number of threads> - sets the number of threads used to apply the"
+            + " commands that follow" + System.lineSeparator());
     for (String transformation : this.transformations) {
       this.view.renderMessage(transformation + System.lineSeparator());
     }
+    this.view.renderMessage(
+        "Commands with a <*mask filename*> accept -soft right before the file names to blend the"
+            + " result by how dark each pixel of the mask is" + System.lineSeparator());
     this.view.renderMessage("Command: ");
   }
 
@@ -66,10 +72,27 @@ public class MenuCmd implements ImageProcessorCmd {
         "applies a sepia filter to an image"});
     items.add(new String[]{"blur", "<filename> <*mask filename*> <new filename>",
         "applies a blur filter to an image"});
+    items.add(new String[]{"blur-radius", "<radius> <filename> <*mask filename*> <new filename>",
+        "blurs an image with the given radius, which can be as large as needed"});
     items.add(new String[]{"sharpen", "<filename> <*mask filename*> <new filename>",
         "transforms an image to a new sharpened image"});
-    items.add(new String[]{"mosaic", "<number of seeds> <filename> <new filename>",
+    items.add(new String[]{"mosaic",
+        "<number of seeds> <*-euclidean*> <*-average*> <*-seed <seed>*> <filename> <new filename>",
         "applies a mosaic filter to an image with the given number of seeds"});
+    items.add(new String[]{"resize",
+        "<new width> <new height> <*-filter <bilinear|bicubic|lanczos3>*> <filename> "
+            + "<new filename>",
+        "resizes an image to the given dimensions, larger or smaller than the original"});
+    items.add(new String[]{"renditions", "<size> <*size ...*> <filename> <new filename>",
+        "makes a copy of an image for each size, named <new filename>-<size>"});
+    items.add(new String[]{"gamma", "<gamma> <filename> <*mask filename*> <new filename>",
+        "applies gamma correction to an image (above 1 brightens, below 1 darkens)"});
+    items.add(new String[]{"levels",
+        "<black> <white> <gamma> <filename> <*mask filename*> <new filename>",
+        "stretches the values between the black and white points and applies gamma correction"});
+    items.add(new String[]{"tone-curve",
+        "<original:new,...> <filename> <*mask filename*> <new filename>",
+        "maps the values of an image through a curve that passes through the given points"});
     items.add(new String[]{"downscale", "<new width> <new height> <filename> <new filename>",
         "downscales an image to the given dimensions"});
 
@@ -5,6 +5,8 @@ import model.Image;
 import model.ImageTransformation;
 import model.StoredImages;
 import model.transformations.Mosaic;
+import model.transformations.Mosaic.Distance;
+import model.transformations.Mosaic.Fill;
 import view.ImageProcessorView;
 
 /**
@@ -17,6 +19,9 @@ public class MosaicCmd implements ImageProcessorCmd {
   private final ImageProcessorView view;
   private final StoredImages store;
   private final int numSeeds;
+  private final Distance distance;
+  private final Fill fill;
+  private final Long randomSeed;
   private final String fileName;
   private final String newFileName;
 
@@ -32,15 +37,41 @@ public class MosaicCmd implements ImageProcessorCmd {
    */
   public MosaicCmd(ImageProcessorView view, StoredImages store, int numSeeds, String fileName,
       String newFileName) throws IllegalArgumentException {
+    this(view, store, numSeeds, Distance.Manhattan, Fill.Seed, null, fileName, newFileName);
+  }
+
+  /**
+   * Constructs a Mosaic command that measures distances and colors cells in the given ways.
+   *
+   * @param view        the view to display the messages to.
+   * @param store       the store to store images in.
+   * @param numSeeds    the number of seeds to use.
+   * @param distance    the way of measuring the distance between a pixel and a seed.
+   * @param fill        the way of coloring the cells.
+   * @param randomSeed  the seed of the random number generator that picks the seeds, or null to
+   *                    pick different seeds every time.
+   * @param fileName    the file name of the image to be transformed.
+   * @param newFileName the file name of the new transformed image.
+   * @throws IllegalArgumentException if any of the parameters other than the seed are null.
+   */
+  public MosaicCmd(ImageProcessorView view, StoredImages store, int numSeeds, Distance distance,
+      Fill fill, Long randomSeed, String fileName, String newFileName)
+      throws IllegalArgumentException {
     if (view == null || store == null || fileName == null || newFileName == null) {
       throw new IllegalArgumentException("View, store, and file names cannot be null");
     }
+    if (distance == null || fill == null) {
+      throw new IllegalArgumentException("Distance and fill cannot be null");
+    }
     if (numSeeds < 1) {
       throw new IllegalArgumentException("Number of seeds must be greater than 0");
     }
     this.view = view;
     this.store = store;
     this.numSeeds = numSeeds;
+    this.distance = distance;
+    this.fill = fill;
+    this.randomSeed = randomSeed;
     this.fileName = fileName.toLowerCase();
     this.newFileName = newFileName.toLowerCase();
   }
@@ -49,7 +80,8 @@ public class MosaicCmd implements ImageProcessorCmd {
   @Override
   public void execute() {
     Image retrieved = this.store.retrieve(this.fileName);
-    ImageTransformation mosaic = new Mosaic(this.numSeeds);
+    ImageTransformation mosaic = new Mosaic(this.numSeeds, this.distance, this.fill,
+        this.randomSeed);
     Image processed = mosaic.transform(retrieved);
     this.store.add(this.newFileName, processed, true);
     this.view.renderMessage(
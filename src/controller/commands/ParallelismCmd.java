@@ -0,0 +1,43 @@
+package controller.commands;
+
+import controller.ImageProcessorCmd;
+import model.RegionEngine;
+import view.ImageProcessorView;
+
+/**
+ * Class that represents a command, "Parallelism", that the processor can handle. Implements the
+ * {@code ImageProcessorCmd} interface and executes the command. Sets the number of threads used to
+ * apply the commands that follow it.
+ */
+public class ParallelismCmd implements ImageProcessorCmd {
+
+  private final ImageProcessorView view;
+  private final int parallelism;
+
+  /**
+   * Constructs a Parallelism command.
+   *
+   * @param view        the view to display the messages to.
+   * @param parallelism the number of threads to use.
+   * @throws IllegalArgumentException if the view is null or the parallelism is not positive.
+   */
+  public ParallelismCmd(ImageProcessorView view, int parallelism)
+      throws IllegalArgumentException {
+    if (view == null) {
+      throw new IllegalArgumentException("View cannot be null");
+    }
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be greater than 0");
+    }
+    this.view = view;
+    this.parallelism = parallelism;
+  }
+
+  @Override
+  public void execute() {
+    RegionEngine.setParallelism(this.parallelism);
+    this.view.renderMessage(
+        "Commands will now be applied using " + this.parallelism + " thread(s)"
+            + System.lineSeparator() + "Command: ");
+  }
+}
@@ -0,0 +1,84 @@
+package controller.commands;
+
+import controller.ImageProcessorCmd;
+import model.Image;
+import model.StoredImages;
+import model.transformations.Pyramid;
+import view.ImageProcessorView;
+
+/**
+ * Class that represents a command, "Renditions", that the processor can handle. Implements the
+ * {@code ImageProcessorCmd} interface and execute the command. Makes several smaller copies of an
+ * image at once, one for each of the given sizes, all from the same mipmap pyramid.
+ */
+public class RenditionsCmd implements ImageProcessorCmd {
+
+  private final ImageProcessorView view;
+  private final StoredImages store;
+  private final int[] sizes;
+  private final String fileName;
+  private final String newFileName;
+
+  /**
+   * Constructs a Renditions command. The copy for each size is stored with the new file name
+   * followed by a dash and the size.
+   *
+   * @param view        the view to display the messages to.
+   * @param store       the store to store images in.
+   * @param sizes       the longest side of each copy, in pixels.
+   * @param fileName    the file name of the image to be copied.
+   * @param newFileName the file name the names of the copies start with.
+   * @throws IllegalArgumentException if any of the parameters are null, if there are no sizes, or
+   *                                  if any of the sizes is not positive.
+   */
+  public RenditionsCmd(ImageProcessorView view, StoredImages store, int[] sizes, String fileName,
+      String newFileName) throws IllegalArgumentException {
+    if (view == null || store == null || sizes == null || fileName == null
+        || newFileName == null) {
+      throw new IllegalArgumentException("View, store, sizes, and file names cannot be null");
+    }
+    if (sizes.length == 0) {
+      throw new IllegalArgumentException("At least one size must be given");
+    }
+    for (int size : sizes) {
+      if (size <= 0) {
+        throw new IllegalArgumentException("Sizes must be greater than 0");
+      }
+    }
+    this.view = view;
+    this.store = store;
+    this.sizes = sizes.clone();
+    this.fileName = fileName.toLowerCase();
+    this.newFileName = newFileName.toLowerCase();
+  }
+
+  @Override
+  public void execute() throws IllegalArgumentException {
+    Image retrieved = this.store.retrieve(this.fileName);
+    Pyramid pyramid = new Pyramid(retrieved);
+    int width = retrieved.getWidth();
+    int height = retrieved.getHeight();
+    int longest = Math.max(width, height);
+
+    // make every copy before storing any of them, so a failure stores none of them
+    String[] names = new String[this.sizes.length];
+    Image[] renditions = new Image[this.sizes.length];
+    StringBuilder message = new StringBuilder();
+    for (int i = 0; i < this.sizes.length; i++) {
+      // copies are never larger than the original image, and keep its aspect ratio
+      int size = Math.min(this.sizes[i], longest);
+      int nWidth = Math.max(1, (int) Math.round((double) width * size / longest));
+      int nHeight = Math.max(1, (int) Math.round((double) height * size / longest));
+      names[i] = this.newFileName + "-" + this.sizes[i];
+      renditions[i] = pyramid.render(nWidth, nHeight);
+      message.append(i == 0 ? "" : ", ").append("\"").append(names[i]).append("\" (")
+          .append(nWidth).append("x").append(nHeight).append("px)");
+    }
+    for (int i = 0; i < names.length; i++) {
+      this.store.add(names[i], renditions[i], true);
+    }
+    this.view.renderMessage(
+        "The image \"" + this.fileName + "\" has been rendered as " + message
+            + System.lineSeparator() + "Command: ");
+  }
+}
@@ -0,0 +1,84 @@
+package controller.commands;
+
+import controller.ImageProcessorCmd;
+import model.Image;
+import model.ImageTransformation;
+import model.StoredImages;
+import model.transformations.Resize;
+import model.transformations.Resize.Filter;
+import view.ImageProcessorView;
+
+/**
+ * Class that represents a command, "Resize", that the processor can handle. Implements the
+ * {@code ImageProcessorCmd} interface and execute the command. Resizes the image to the given
+ * width and height with the given filter.
+ */
+public class ResizeCmd implements ImageProcessorCmd {
+
+  private final ImageProcessorView view;
+  private final StoredImages store;
+  private final int nWidth;
+  private final int nHeight;
+  private final Filter filter;
+  private final String fileName;
+  private final String newFileName;
+
+  /**
+   * Constructs a Resize command.
+   *
+   * @param view        the view to display the messages to.
+   * @param store       the store to store images in.
+   * @param nWidth      the new width of the image.
+   * @param nHeight     the new height of the image.
+   * @param filter      the filter used to weight the original pixels.
+   * @param fileName    the file name of the image to be transformed.
+   * @param newFileName the file name of the new transformed image.
+   * @throws IllegalArgumentException if any of the parameters are null, or if the width or height
+   *                                  is not positive.
+   */
+  public ResizeCmd(ImageProcessorView view, StoredImages store, int nWidth, int nHeight,
+      Filter filter, String fileName, String newFileName) throws IllegalArgumentException {
+    if (view == null || store == null || filter == null || fileName == null
+        || newFileName == null) {
+      throw new IllegalArgumentException("View, store, filter, and file names cannot be null");
+    }
+    if (nWidth <= 0 || nHeight <= 0) {
+      throw new IllegalArgumentException("The new width and height must be positive");
+    }
+    this.view = view;
+    this.store = store;
+    this.nWidth = nWidth;
+    this.nHeight = nHeight;
+    this.filter = filter;
+    this.fileName = fileName.toLowerCase();
+    this.newFileName = newFileName.toLowerCase();
+  }
+
+  @Override
+  public void execute() throws IllegalArgumentException {
+    Image retrieved = this.store.retrieve(this.fileName);
+    ImageTransformation resize = new Resize(this.nWidth, this.nHeight, this.filter);
+    Image processed = resize.transform(retrieved);
+    this.store.add(this.newFileName, processed, true);
+    this.view.renderMessage(
+        "The image \"" + this.fileName + "\" has been resized to " + this.nWidth + "x"
+            + this.nHeight + "px with the " + this.filter.toString().toLowerCase() + " filter"
+            + System.lineSeparator() + "Command: ");
+  }
+
+  /**
+   * Returns the filter with the given name, ignoring case.
+   *
+   * @param name the name of the filter
+   * @return the filter with the given name
+   * @throws IllegalArgumentException if there is no filter with the given name
+   */
+  public static Filter parseFilter(String name) throws IllegalArgumentException {
+    for (Filter filter : Filter.values()) {
+      if (filter.toString().equalsIgnoreCase(name)) {
+        return filter;
+      }
+    }
+    throw new IllegalArgumentException("Invalid filter, please try again");
+  }
+}
@@ -0,0 +1,121 @@
+package controller.commands;
+
+import controller.ImageProcessorCmd;
+import model.Histogram;
+import model.Image;
+import model.StoredImages;
+import model.transformations.LookupTable;
+import model.transformations.Mask;
+import model.transformations.Mask.Mode;
+import view.ImageProcessorView;
+
+/**
+ * Class that represents a command, "Tone", that the processor can handle. Implements the
+ * {@code ImageProcessorCmd} interface and executes the command. Adjusts the tones of an image
+ * using the given lookup table (gamma, levels, or tone curve).
+ */
+public class ToneCmd implements ImageProcessorCmd {
+
+  private final ImageProcessorView view;
+  private final StoredImages store;
+  private final String name;
+  private final LookupTable table;
+  private final String fileName;
+  private final String newFileName;
+  private String maskFileName = null;
+  private Mode maskMode = Mode.Hard;
+
+  /**
+   * Constructs a Tone command.
+   *
+   * @param view        the view to display the messages to.
+   * @param store       the store to store images in.
+   * @param name        the name of the adjustment, used in the messages.
+   * @param table       the lookup table that adjusts the tones.
+   * @param fileName    the file name of the image to be transformed.
+   * @param newFileName the file name of the new transformed image.
+   * @throws IllegalArgumentException if any of the parameters are null.
+   */
+  public ToneCmd(ImageProcessorView view, StoredImages store, String name, LookupTable table,
+      String fileName, String newFileName) throws IllegalArgumentException {
+    if (view == null || store == null || name == null || table == null) {
+      throw new IllegalArgumentException("View, store, name, and table cannot be null");
+    }
+    if (fileName == null || fileName.isEmpty() || newFileName == null || newFileName.isEmpty()) {
+      throw new IllegalArgumentException("File name cannot be empty");
+    }
+    this.view = view;
+    this.store = store;
+    this.name = name;
+    this.table = table;
+    this.fileName = fileName.toLowerCase();
+    this.newFileName = newFileName.toLowerCase();
+  }
+
+  /**
+   * Constructs a Tone command that supports a mask.
+   *
+   * @param view         the view to display the messages to.
+   * @param store        the store to store images in.
+   * @param name         the name of the adjustment, used in the messages.
+   * @param table        the lookup table that adjusts the tones.
+   * @param fileName     the file name of the image to be transformed.
+   * @param maskFileName the file name of the mask image.
+   * @param newFileName  the file name of the new transformed image.
+   * @throws IllegalArgumentException if any of the parameters are null.
+   */
+  public ToneCmd(ImageProcessorView view, StoredImages store, String name, LookupTable table,
+      String fileName, String maskFileName, String newFileName) throws IllegalArgumentException {
+    this(view, store, name, table, fileName, newFileName);
+    if (maskFileName == null) {
+      throw new IllegalArgumentException("Mask file name cannot be null");
+    }
+    this.maskFileName = maskFileName.toLowerCase();
+  }
+
+  /**
+   * Constructs a Tone command that supports a mask in the given mode.
+   *
+   * @param view         the view to display the messages to.
+   * @param store        the store to store images in.
+   * @param name         the name of the adjustment, used in the messages.
+   * @param table        the lookup table that adjusts the tones.
+   * @param fileName     the file name of the image to be transformed.
+   * @param maskFileName the file name of the mask image.
+   * @param newFileName  the file name of the new transformed image.
+   * @param maskMode     the way the mask image selects the pixels to transform.
+   * @throws IllegalArgumentException if any of the parameters are null.
+   */
+  public ToneCmd(ImageProcessorView view, StoredImages store, String name, LookupTable table,
+      String fileName, String maskFileName, String newFileName, Mode maskMode)
+      throws IllegalArgumentException {
+    this(view, store, name, table, fileName, maskFileName, newFileName);
+    if (maskMode == null) {
+      throw new IllegalArgumentException("Mask mode cannot be null");
+    }
+    this.maskMode = maskMode;
+  }
+
+  @Override
+  public void execute() throws IllegalArgumentException {
+    Image retrieved = this.store.retrieve(this.fileName);
+    if (this.maskFileName == null) {
+      Image adjusted = this.table.transform(retrieved);
+      // the histogram of the new image is worked out from the old one if it is known
+      Histogram histogram = this.store.getCachedHistogram(this.fileName);
+      this.store.add(this.newFileName, adjusted, true,
+          histogram == null ? null : this.table.remap(histogram, adjusted));
+      this.view.renderMessage(
+          "Applied the " + this.name + " adjustment to \"" + this.fileName + "\""
+              + System.lineSeparator() + "Command: ");
+    } else {
+      Image masked = new Mask(retrieved, this.store, this.maskFileName, this.maskMode)
+          .apply(this.table);
+      this.store.add(this.newFileName, masked, true);
+      this.view.renderMessage(
+          "Applied the " + this.name + " adjustment to \"" + this.fileName
+              + "\" in the area masked by \"" + this.maskFileName + "\"" + System.lineSeparator()
+              + "Command: ");
+    }
+  }
+}
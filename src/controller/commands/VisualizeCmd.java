@@ -5,6 +5,7 @@ import model.Image;
 import model.ImageTransformation;
 import model.StoredImages;
 import model.transformations.Mask;
+import model.transformations.Mask.Mode;
 import model.transformations.Visualize;
 import model.transformations.Visualize.Channel;
 import view.ImageProcessorView;
@@ -23,6 +24,7 @@ public class VisualizeCmd implements ImageProcessorCmd {
   private final String fileName;
   private final String newFileName;
   private String maskFileName = null;
+  private Mode maskMode = Mode.Hard;
 
   /**
    * Constructs a Visualize command.
@@ -58,21 +60,41 @@ public class VisualizeCmd implements ImageProcessorCmd {
     this.maskFileName = maskFileName.toLowerCase();
   }
 
+  /**
+   * Constructs a Visualize command that supports a mask in the given mode.
+   *
+   * @param view         the view to display the messages to.
+   * @param store        the store to store images in.
+   * @param channel      the channel to visualize.
+   * @param fileName     the file name of the image to be transformed.
+   * @param maskFileName the file name of the mask image.
+   * @param newFileName  the file name of the new transformed image.
+   * @param maskMode     the way the mask image selects the pixels to transform.
+   * @throws IllegalArgumentException if any of the parameters are null.
+   */
+  public VisualizeCmd(ImageProcessorView view, StoredImages store, Channel channel, String fileName,
+      String maskFileName, String newFileName, Mode maskMode) throws IllegalArgumentException {
+    this(view, store, channel, fileName, maskFileName, newFileName);
+    if (maskMode == null) {
+      throw new IllegalArgumentException("Mask mode cannot be null");
+    }
+    this.maskMode = maskMode;
+  }
+
 
   @Override
   public void execute() throws IllegalArgumentException {
     Image retrieved = this.store.retrieve(this.fileName);
     ImageTransformation visualize = new Visualize(this.channel);
-    Image visualized = visualize.transform(retrieved);
     if (this.maskFileName == null) {
+      Image visualized = visualize.transform(retrieved);
       this.store.add(this.newFileName, visualized, true);
       this.view.renderMessage(
           "Transformed \"" + this.fileName + "\" to visualize the " + this.channel.toString()
               .toLowerCase() + " channel" + System.lineSeparator() + "Command: ");
     } else {
-      Image maskImage = this.store.retrieve(this.maskFileName);
-      ImageTransformation mask = new Mask(retrieved, maskImage);
-      Image masked = mask.transform(visualized);
+      Image masked = new Mask(retrieved, this.store, this.maskFileName, this.maskMode)
+          .apply(visualize);
       this.store.add(this.newFileName, masked, true);
       this.view.renderMessage(
           "Transformed \"" + this.fileName + "\" to visualize the " + this.channel.toString()
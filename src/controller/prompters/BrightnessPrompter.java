@@ -4,6 +4,7 @@ import controller.ImageProcessorPrompter;
 import java.util.ArrayList;
 import java.util.List;
 import view.ImageProcessorGui;
+import view.ImageProcessorGui.Preview;
 
 /**
  * Implements the {@link ImageProcessorPrompter} interface to collect and validate input needed to
@@ -21,6 +22,7 @@ public class BrightnessPrompter implements ImageProcessorPrompter {
 
   private final ImageProcessorGui view;
   private final String type;
+  private final Preview preview;
 
   /**
    * Constructs a new brightness prompter.
@@ -29,10 +31,23 @@ public class BrightnessPrompter implements ImageProcessorPrompter {
    * @param isBrightening whether the prompter is for brightening or darkening
    */
   public BrightnessPrompter(ImageProcessorGui view, boolean isBrightening) {
+    this(view, isBrightening, null);
+  }
+
+  /**
+   * Constructs a new brightness prompter that shows a live preview of the answers while they are
+   * entered.
+   *
+   * @param view          the view to display input prompts to
+   * @param isBrightening whether the prompter is for brightening or darkening
+   * @param preview       the preview of the answers in the order they are asked, or null for none
+   */
+  public BrightnessPrompter(ImageProcessorGui view, boolean isBrightening, Preview preview) {
     if (view == null) {
       throw new IllegalArgumentException("View cannot be null");
     }
     this.view = view;
+    this.preview = preview;
     if (isBrightening) {
       this.type = "brighten";
     } else {
@@ -54,7 +69,7 @@ public class BrightnessPrompter implements ImageProcessorPrompter {
     questions.add("Enter the amount to " + this.type + " the image by:");
 
     // Render the input dialog
-    String[] answers = this.view.renderInput(questions, null);
+    String[] answers = this.view.renderInput(questions, null, this.preview);
 
     // Validate the user's input
     if (answers == null || answers.length != 2) {
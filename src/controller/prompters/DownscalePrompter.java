@@ -4,6 +4,7 @@ import controller.ImageProcessorPrompter;
 import java.util.ArrayList;
 import java.util.List;
 import view.ImageProcessorGui;
+import view.ImageProcessorGui.Preview;
 
 /**
  * Implements the {@link ImageProcessorPrompter} interface to collect and validate input needed to
@@ -21,6 +22,7 @@ import view.ImageProcessorGui;
 public class DownscalePrompter implements ImageProcessorPrompter {
 
   private final ImageProcessorGui view;
+  private final Preview preview;
 
   /**
    * Constructs a new downscale prompter.
@@ -28,10 +30,22 @@ public class DownscalePrompter implements ImageProcessorPrompter {
    * @param view the view to display input prompts to
    */
   public DownscalePrompter(ImageProcessorGui view) {
+    this(view, null);
+  }
+
+  /**
+   * Constructs a new downscale prompter that shows a live preview of the answers while they are
+   * entered.
+   *
+   * @param view    the view to display input prompts to
+   * @param preview the preview of the answers in the order they are asked, or null for none
+   */
+  public DownscalePrompter(ImageProcessorGui view, Preview preview) {
     if (view == null) {
       throw new IllegalArgumentException("View cannot be null");
     }
     this.view = view;
+    this.preview = preview;
   }
 
   @Override
@@ -49,7 +63,7 @@ public class DownscalePrompter implements ImageProcessorPrompter {
     questions.add("Enter the height of the downscaled image:");
 
     // Render the input dialog
-    String[] answers = this.view.renderInput(questions, null);
+    String[] answers = this.view.renderInput(questions, null, this.preview);
 
     // Validate the user's input
     if (answers == null || answers.length != 3) {
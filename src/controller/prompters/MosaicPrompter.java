@@ -3,7 +3,9 @@ package controller.prompters;
 import controller.ImageProcessorPrompter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import view.ImageProcessorGui;
+import view.ImageProcessorGui.Preview;
 
 /**
  * Implements the {@link ImageProcessorPrompter} interface to collect and validate input needed to
@@ -14,12 +16,18 @@ import view.ImageProcessorGui;
  *     <li>[0] -> the name of the current image</li>
  *     <li>[1] -> the name for the transformed image</li>
  *     <li>[2] -> the number of seeds to use</li>
+ *     <li>[3] -> the seed of the random number generator</li>
  *   </ul>
  * </p>
+ * <p>
+ * If no random seed is entered, one is picked when the form opens, and it is used for both the
+ * preview and the mosaic made once the form is submitted, so the mosaic matches its preview.
+ * </p>
  */
 public class MosaicPrompter implements ImageProcessorPrompter {
 
   private final ImageProcessorGui view;
+  private final Preview preview;
 
   /**
    * Constructs a new mosaic prompter.
@@ -27,10 +35,22 @@ public class MosaicPrompter implements ImageProcessorPrompter {
    * @param view the view to display input prompts to
    */
   public MosaicPrompter(ImageProcessorGui view) {
+    this(view, null);
+  }
+
+  /**
+   * Constructs a new mosaic prompter that shows a live preview of the answers while they are
+   * entered.
+   *
+   * @param view    the view to display input prompts to
+   * @param preview the preview of the answers in the order they are asked, or null for none
+   */
+  public MosaicPrompter(ImageProcessorGui view, Preview preview) {
     if (view == null) {
       throw new IllegalArgumentException("View cannot be null");
     }
     this.view = view;
+    this.preview = preview;
   }
 
   @Override
@@ -45,12 +65,18 @@ public class MosaicPrompter implements ImageProcessorPrompter {
     List<String> questions = new ArrayList<>();
     questions.add("Enter the name of the new image:");
     questions.add("Enter the number of seeds to mosaic this image with:");
+    questions.add("Enter a random seed to get the same mosaic every time (optional):");
+
+    // Picks the random seed used if none is entered, for both the preview and the mosaic
+    String picked = Long.toString(new Random().nextLong());
+    Preview preview = this.preview == null ? null : (a, width, height, cancelled) ->
+        this.preview.render(withSeed(a, picked), width, height, cancelled);
 
     // Render the input dialog
-    String[] answers = this.view.renderInput(questions, null);
+    String[] answers = this.view.renderInput(questions, null, preview);
 
     // Validate the user's input
-    if (answers == null || answers.length != 2) {
+    if (answers == null || answers.length != 3) {
       throw new IllegalStateException("Transformation cancelled.");
     } else if (answers[0] == null || answers[0].length() == 0) {
       throw new IllegalArgumentException("Image name cannot be empty.");
@@ -66,14 +92,34 @@ public class MosaicPrompter implements ImageProcessorPrompter {
         throw new IllegalArgumentException("Seed amount must be an integer.");
       }
     }
+    String randomSeed = withSeed(answers, picked)[2];
+    try {
+      Long.parseLong(randomSeed);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Random seed must be an integer.");
+    }
 
     // Add the name of the currently selected image to the returned array
-    String[] ret = new String[3];
+    String[] ret = new String[4];
     ret[0] = currentName;
     ret[1] = answers[0];
     ret[2] = answers[1];
+    ret[3] = randomSeed;
 
     return ret;
   }
 
+  /**
+   * Returns the given answers with the given random seed in place of a random seed that is not
+   * entered.
+   *
+   * @param answers the answers to the questions, in order
+   * @param picked  the random seed to use if none is entered
+   * @return the answers with a random seed
+   */
+  private static String[] withSeed(String[] answers, String picked) {
+    String[] ret = answers.clone();
+    ret[2] = ret[2] == null || ret[2].trim().isEmpty() ? picked : ret[2].trim();
+    return ret;
+  }
 }
@@ -0,0 +1,92 @@
+package controller.prompters;
+
+import controller.ImageProcessorPrompter;
+import java.util.ArrayList;
+import java.util.List;
+import view.ImageProcessorGui;
+
+/**
+ * Implements the {@link ImageProcessorPrompter} interface to collect and validate input needed to
+ * perform a {@code ResizeCmd}.
+ * <p>
+ * This prompter will return an array of strings with these elements:
+ *   <ul>
+ *     <li>[0] -> the name of the current image</li>
+ *     <li>[1] -> the name for the transformed image</li>
+ *     <li>[2] -> the new width</li>
+ *     <li>[3] -> the new height</li>
+ *     <li>[4] -> the name of the filter, which is bicubic if none was entered</li>
+ *   </ul>
+ * </p>
+ */
+public class ResizePrompter implements ImageProcessorPrompter {
+
+  private final ImageProcessorGui view;
+
+  /**
+   * Constructs a new resize prompter.
+   *
+   * @param view the view to display input prompts to
+   */
+  public ResizePrompter(ImageProcessorGui view) {
+    if (view == null) {
+      throw new IllegalArgumentException("View cannot be null");
+    }
+    this.view = view;
+  }
+
+  @Override
+  public String[] prompt() throws IllegalStateException, IllegalArgumentException {
+    // Store the name of the currently selected image
+    String currentName = this.view.getCurrentImageName();
+    if (currentName == null) {
+      throw new IllegalArgumentException("No images loaded");
+    }
+
+    // Add the questions to the list
+    List<String> questions = new ArrayList<>();
+    questions.add("Enter the name of the new image:");
+    questions.add("Enter the width of the resized image:");
+    questions.add("Enter the height of the resized image:");
+    questions.add("Enter the filter to use (bilinear, bicubic, or lanczos3):");
+
+    // Render the input dialog
+    String[] answers = this.view.renderInput(questions, null);
+
+    // Validate the user's input
+    if (answers == null || answers.length != 4) {
+      throw new IllegalStateException("Transformation cancelled.");
+    } else if (answers[0] == null || answers[0].length() == 0) {
+      throw new IllegalArgumentException("Image name cannot be empty.");
+    } else if (answers[1] == null || answers[1].length() == 0) {
+      throw new IllegalArgumentException("New width cannot be empty.");
+    } else if (answers[2] == null || answers[2].length() == 0) {
+      throw new IllegalArgumentException("New height cannot be empty.");
+    } else {
+      try {
+        if (Integer.parseInt(answers[1]) <= 0 || Integer.parseInt(answers[2]) <= 0) {
+          throw new IllegalArgumentException("New width and height must be positive.");
+        }
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("New width and height must be integers.");
+      }
+    }
+    String filter = answers[3] == null || answers[3].trim().isEmpty() ? "bicubic"
+        : answers[3].trim();
+    if (!filter.equalsIgnoreCase("bilinear") && !filter.equalsIgnoreCase("bicubic")
+        && !filter.equalsIgnoreCase("lanczos3")) {
+      throw new IllegalArgumentException("Filter must be bilinear, bicubic, or lanczos3.");
+    }
+
+    // Add the name of the currently selected image to the returned array
+    String[] ret = new String[5];
+    ret[0] = currentName;
+    ret[1] = answers[0];
+    ret[2] = answers[1];
+    ret[3] = answers[2];
+    ret[4] = filter;
+
+    return ret;
+  }
+
+}
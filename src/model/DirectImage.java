@@ -0,0 +1,293 @@
+package model;
+
+import java.awt.Color;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * Implements the {@link Image} interface by storing the pixels outside of the Java heap.
+ *
+ * <p>The pixels are packed as {@code 0xRRGGBB} integers, row by row, in a direct
+ * {@link ByteBuffer}, so the heap only holds a small header for each image no matter how large the
+ * image is, and large images do not have to be moved or scanned by the garbage collector. The views
+ * returned by {@link #getRow} and {@link #getPackedView} read the off-heap memory directly.</p>
+ *
+ * <p>An image and all of its copies share the same buffer. Each of them owns one reference to the
+ * buffer, which is given up by calling {@link #release}. Once every owner has released it, the
+ * buffer is dropped so its memory can be reclaimed, and any further use of the released images
+ * throws an {@link IllegalStateException}.</p>
+ */
+public class DirectImage implements Image {
+
+  // the most pixels of a band that are computed on the heap before being copied off of it
+  private static final int BAND_PIXELS = 65536;
+
+  private final int width;
+  private final int height;
+  private final Buffer buffer;
+  private boolean released;
+
+  /**
+   * Constructs a new {@link DirectImage} with the given dimensions and a copy of the given packed
+   * pixels.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @param pixels the pixels of the image in the format {@code 0xRRGGBB}, row by row
+   * @throws IllegalArgumentException if the image does not have at least one pixel, or if the
+   *                                  number of pixels does not match the given dimensions
+   */
+  public DirectImage(int width, int height, int[] pixels) throws IllegalArgumentException {
+    this(width, height, new Buffer(allocate(width, height, pixels)));
+  }
+
+  /**
+   * Constructs a new {@link DirectImage} that owns a reference to the given buffer.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @param buffer the buffer of packed pixels to use as the storage of this image
+   */
+  private DirectImage(int width, int height, Buffer buffer) {
+    this.width = width;
+    this.height = height;
+    this.buffer = buffer;
+    this.released = false;
+  }
+
+  /**
+   * Returns the given image stored as a {@link DirectImage}. If the image is already stored off the
+   * heap, it is returned as is, and if it is a lazily computed image whose result is stored off the
+   * heap, that result is returned. Otherwise its pixels are copied into a new direct buffer one row
+   * at a time.
+   *
+   * @param image the image to convert
+   * @return the image stored off the heap
+   */
+  public static DirectImage of(Image image) {
+    // the result of a lazily computed image is taken over rather than copied, so the returned
+    // image owns the only reference to its buffer
+    Image computed = image.computed();
+    if (computed instanceof DirectImage) {
+      return (DirectImage) computed;
+    }
+    int width = computed.getWidth();
+    int height = computed.getHeight();
+    IntBuffer pixels = allocate(width, height);
+    for (int i = 0; i < height; i++) {
+      pixels.put(computed.getRow(i));
+    }
+    return new DirectImage(width, height, new Buffer(pixels.rewind()));
+  }
+
+  /**
+   * Builds an image stored off the heap whose pixels are computed by the given function. The image
+   * is computed in bands of whole rows of at most a fixed number of pixels, and each band is copied
+   * into the off-heap buffer as soon as it is computed, so the heap only holds the bands being
+   * computed at the time rather than the whole image.
+   *
+   * @param width    the width of the image
+   * @param height   the height of the image
+   * @param function the function that computes the pixels of any region of the image
+   * @return the new image stored off the heap
+   * @throws IllegalArgumentException if the image does not have at least one pixel, or if the
+   *                                  function is null
+   */
+  public static DirectImage render(int width, int height, RegionFunction function)
+      throws IllegalArgumentException {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("The pixels array must contain at least one pixel");
+    }
+    if (function == null) {
+      throw new IllegalArgumentException("The function cannot be null");
+    }
+    IntBuffer pixels = allocate(width, height);
+    int rows = Math.max(1, BAND_PIXELS / width);
+    RegionEngine.forEach((height + rows - 1) / rows, band -> {
+      int top = band * rows;
+      int bandHeight = Math.min(rows, height - top);
+      int[] bandPixels = new int[width * bandHeight];
+      function.compute(0, top, width, bandHeight, bandPixels, 0);
+      for (int i = 0; i < bandPixels.length; i++) {
+        bandPixels[i] &= 0xFFFFFF;
+      }
+      // each band writes through its own view, so bands can be copied in at the same time
+      IntBuffer dest = pixels.duplicate();
+      dest.position(top * width);
+      dest.put(bandPixels);
+    });
+    return new DirectImage(width, height, new Buffer(pixels));
+  }
+
+  /**
+   * Allocates a direct buffer for the given dimensions and fills it with the given packed pixels.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @param pixels the packed pixels of the image
+   * @return the filled buffer
+   * @throws IllegalArgumentException if the image does not have at least one pixel, or if the
+   *                                  number of pixels does not match the given dimensions
+   */
+  private static IntBuffer allocate(int width, int height, int[] pixels)
+      throws IllegalArgumentException {
+    if (width <= 0 || height <= 0 || pixels == null) {
+      throw new IllegalArgumentException("The pixels array must contain at least one pixel");
+    }
+    if (pixels.length != width * height) {
+      throw new IllegalArgumentException(
+          "The pixels array must contain exactly " + width * height + " pixels");
+    }
+    IntBuffer buffer = allocate(width, height);
+    for (int pixel : pixels) {
+      buffer.put(pixel & 0xFFFFFF);
+    }
+    return buffer.rewind();
+  }
+
+  /**
+   * Allocates an empty direct buffer with room for the pixels of an image of the given dimensions.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @return the empty buffer
+   */
+  private static IntBuffer allocate(int width, int height) {
+    return ByteBuffer.allocateDirect(width * height * Integer.BYTES)
+        .order(ByteOrder.nativeOrder()).asIntBuffer();
+  }
+
+  /**
+   * Gives up this image's reference to its off-heap buffer. When the image and all of its copies
+   * have been released, the buffer is dropped. Releasing an image more than once has no effect.
+   */
+  public void release() {
+    if (!this.released) {
+      this.released = true;
+      this.buffer.release();
+    }
+  }
+
+  /**
+   * Returns whether this image has been released.
+   *
+   * @return true if this image has been released, false otherwise
+   */
+  public boolean isReleased() {
+    return this.released;
+  }
+
+  @Override
+  public int getHeight() {
+    return this.height;
+  }
+
+  @Override
+  public int getWidth() {
+    return this.width;
+  }
+
+  @Override
+  public Color[][] getPixels() {
+    IntBuffer pixels = this.pixels();
+    Color[][] ret = new Color[this.height][this.width];
+    for (int i = 0; i < this.height; i++) {
+      for (int j = 0; j < this.width; j++) {
+        ret[i][j] = new Color(pixels.get(i * this.width + j));
+      }
+    }
+    return ret;
+  }
+
+  @Override
+  public int[] getPackedPixels() {
+    int[] ret = new int[this.width * this.height];
+    this.pixels().get(0, ret);
+    return ret;
+  }
+
+  @Override
+  public int getRGB(int x, int y) throws IllegalArgumentException {
+    if (x < 0 || x >= this.width || y < 0 || y >= this.height) {
+      throw new IllegalArgumentException("The pixel (" + x + ", " + y + ") is outside the image");
+    }
+    return this.pixels().get(y * this.width + x);
+  }
+
+  @Override
+  public IntBuffer getRow(int y) throws IllegalArgumentException {
+    if (y < 0 || y >= this.height) {
+      throw new IllegalArgumentException("The row " + y + " is outside the image");
+    }
+    return this.pixels().slice(y * this.width, this.width).asReadOnlyBuffer();
+  }
+
+  @Override
+  public IntBuffer getPackedView() {
+    return this.pixels().asReadOnlyBuffer();
+  }
+
+  /**
+   * Returns a copy of this image that shares its off-heap buffer and owns its own reference to it.
+   *
+   * @return a copy of this image
+   * @throws IllegalStateException if this image has been released
+   */
+  @Override
+  public DirectImage copy() throws IllegalStateException {
+    this.pixels();
+    this.buffer.retain();
+    return new DirectImage(this.width, this.height, this.buffer);
+  }
+
+  /**
+   * Returns the buffer of this image's pixels.
+   *
+   * @return the buffer of packed pixels
+   * @throws IllegalStateException if this image has been released
+   */
+  private IntBuffer pixels() throws IllegalStateException {
+    if (this.released) {
+      throw new IllegalStateException("The image has been released");
+    }
+    return this.buffer.pixels;
+  }
+
+  /**
+   * Represents an off-heap buffer of packed pixels that is shared by an image and its copies, along
+   * with the number of images that still own a reference to it.
+   */
+  private static final class Buffer {
+
+    private IntBuffer pixels;
+    private int owners;
+
+    /**
+     * Constructs a new buffer with a single owner.
+     *
+     * @param pixels the off-heap packed pixels
+     */
+    private Buffer(IntBuffer pixels) {
+      this.pixels = pixels;
+      this.owners = 1;
+    }
+
+    /**
+     * Adds an owner to this buffer.
+     */
+    private synchronized void retain() {
+      this.owners++;
+    }
+
+    /**
+     * Removes an owner from this buffer, dropping the pixels once there are no owners left.
+     */
+    private synchronized void release() {
+      this.owners--;
+      if (this.owners == 0) {
+        this.pixels = null;
+      }
+    }
+  }
+}
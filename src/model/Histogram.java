@@ -0,0 +1,241 @@
+package model;
+
+import java.nio.IntBuffer;
+
+/**
+ * Represents the frequencies of the red, green, blue, and intensity values of the pixels of an
+ * image, each in the range [0, 255]. The intensity of a pixel is the average of its components,
+ * rounded to the nearest integer.
+ *
+ * <p>
+ * The red, green, and blue frequencies of an image that every component of is remapped through a
+ * table can be worked out from the old histogram alone, so only the intensities of the new image
+ * have to be counted again. A histogram also remembers whether every pixel of its image is grey,
+ * with equal components, in which case the intensities can be worked out as well, without looking
+ * at the pixels again (see {@link #remap(int[][], int[], Image)}).
+ * </p>
+ */
+public final class Histogram {
+
+  /**
+   * The index of the red channel.
+   */
+  public static final int RED = 0;
+  /**
+   * The index of the green channel.
+   */
+  public static final int GREEN = 1;
+  /**
+   * The index of the blue channel.
+   */
+  public static final int BLUE = 2;
+  /**
+   * The index of the intensity channel.
+   */
+  public static final int INTENSITY = 3;
+
+  // the number of rows each task counts at least, so small images are not split up
+  private static final int MIN_BAND_ROWS = 64;
+
+  private final int[][] frequencies;
+  private final boolean grey;
+
+  /**
+   * Constructs a histogram from the given frequencies.
+   *
+   * @param frequencies the frequencies in the format [channel][value]
+   * @param grey        true if every pixel of the image is grey, false otherwise
+   */
+  private Histogram(int[][] frequencies, boolean grey) {
+    this.frequencies = frequencies;
+    this.grey = grey;
+  }
+
+  /**
+   * Counts the values of the pixels of the given image. The rows of the image are split into bands
+   * that are counted in parallel, and the counts of the bands are added together.
+   *
+   * @param image the image to count the values of
+   * @return the histogram of the image
+   * @throws IllegalArgumentException if the image is null
+   */
+  public static Histogram of(Image image) throws IllegalArgumentException {
+    return of(image, null);
+  }
+
+  /**
+   * Counts the values of the pixels of the given image, and copies the pixels into the given array
+   * row by row in the same pass, so an image that is both displayed and counted is only read once.
+   *
+   * @param image  the image to count the values of
+   * @param pixels the array to copy the packed pixels of the image into, or null to only count
+   *               them
+   * @return the histogram of the image
+   * @throws IllegalArgumentException if the image is null, or if the array is too small to hold
+   *                                  the pixels of the image
+   */
+  public static Histogram of(Image image, int[] pixels) throws IllegalArgumentException {
+    return count(image, pixels, null);
+  }
+
+  /**
+   * Counts the values of the pixels of the given image, or only their intensities if the red,
+   * green, and blue frequencies are already known.
+   *
+   * @param image  the image to count the values of
+   * @param pixels the array to copy the packed pixels of the image into, or null to only count
+   *               them
+   * @param colors the red, green, and blue frequencies of the image, or null to count them too
+   * @return the histogram of the image
+   * @throws IllegalArgumentException if the image is null, or if the array is too small to hold
+   *                                  the pixels of the image
+   */
+  private static Histogram count(Image image, int[] pixels, int[][] colors)
+      throws IllegalArgumentException {
+    if (image == null) {
+      throw new IllegalArgumentException("The image cannot be null");
+    }
+    // every band reads the image, so its pixels are computed here first
+    Image computed = image.computed();
+    int width = computed.getWidth();
+    int height = computed.getHeight();
+    if (pixels != null && pixels.length < width * height) {
+      throw new IllegalArgumentException("The array is too small to hold the pixels of the image");
+    }
+    int bands = Math.max(1,
+        Math.min(RegionEngine.getParallelism() * 4, height / MIN_BAND_ROWS));
+    int[][][] counts = new int[bands][][];
+    boolean[] greys = new boolean[bands];
+    RegionEngine.forEach(bands, band -> {
+      int[][] frequencies = new int[4][256];
+      boolean grey = true;
+      for (int i = (int) ((long) height * band / bands);
+          i < (int) ((long) height * (band + 1) / bands); i++) {
+        IntBuffer row = computed.getRow(i);
+        if (pixels != null) {
+          row.get(pixels, i * width, width);
+        }
+        for (int j = 0; j < width; j++) {
+          int pixel = row.get(j);
+          int red = ImageUtils.getRed(pixel);
+          int green = ImageUtils.getGreen(pixel);
+          int blue = ImageUtils.getBlue(pixel);
+          if (colors == null) {
+            frequencies[RED][red]++;
+            frequencies[GREEN][green]++;
+            frequencies[BLUE][blue]++;
+          }
+          frequencies[INTENSITY][intensity(red, green, blue)]++;
+          grey &= red == green && green == blue;
+        }
+      }
+      counts[band] = frequencies;
+      greys[band] = grey;
+    });
+
+    int[][] frequencies = new int[4][256];
+    boolean grey = true;
+    for (int band = 0; band < bands; band++) {
+      for (int c = 0; c < 4; c++) {
+        for (int v = 0; v < 256; v++) {
+          frequencies[c][v] += counts[band][c][v];
+        }
+      }
+      grey &= greys[band];
+    }
+    if (colors != null) {
+      System.arraycopy(colors, 0, frequencies, 0, 3);
+    }
+    return new Histogram(frequencies, grey);
+  }
+
+  /**
+   * Returns the intensity of a pixel with the given components, which is their average rounded to
+   * the nearest integer. The average of three integers is never exactly halfway between two
+   * integers, so this is the same as rounding it in floating point.
+   *
+   * @param red   the red component
+   * @param green the green component
+   * @param blue  the blue component
+   * @return the intensity of the pixel
+   */
+  private static int intensity(int red, int green, int blue) {
+    return (red + green + blue + 1) / 3;
+  }
+
+  /**
+   * Returns the frequencies of the values, in the format [channel][value], where channel is the
+   * index of the channel (0 = red, 1 = green, 2 = blue, 3 = intensity) and value is the value.
+   *
+   * @return a copy of the frequencies
+   */
+  public int[][] getFrequencies() {
+    int[][] ret = new int[4][];
+    for (int c = 0; c < 4; c++) {
+      ret[c] = this.frequencies[c].clone();
+    }
+    return ret;
+  }
+
+  /**
+   * Returns whether every pixel of the image is grey.
+   *
+   * @return true if every pixel has equal components, false otherwise
+   */
+  public boolean isGrey() {
+    return this.grey;
+  }
+
+  /**
+   * Returns the histogram of the image made by replacing each component of every pixel of this
+   * histogram's image through a table. The red, green, and blue frequencies are moved to the bins
+   * of their new values. The intensity of a pixel depends on all of its components together, so it
+   * can only be worked out from this histogram if every pixel of the image is grey. Otherwise only
+   * the intensities of the new image are counted, in a single pass over its pixels.
+   *
+   * @param tables  the new values of the red, green, and blue components, each indexed by the
+   *                original value of the component it is made from
+   * @param sources the channel each component is made from (0 = red, 1 = green, 2 = blue)
+   * @param image   the new image, whose intensities are counted if this histogram's image is not
+   *                grey
+   * @return the histogram of the new image
+   * @throws IllegalArgumentException if there are not 3 tables of 256 values between 0 and 255 and
+   *                                  3 sources, or if the new image is null
+   */
+  public Histogram remap(int[][] tables, int[] sources, Image image)
+      throws IllegalArgumentException {
+    if (tables == null || tables.length != 3 || sources == null || sources.length != 3) {
+      throw new IllegalArgumentException("There must be 3 tables and 3 sources");
+    }
+    if (image == null) {
+      throw new IllegalArgumentException("The image cannot be null");
+    }
+    int[][] frequencies = new int[4][256];
+    for (int c = 0; c < 3; c++) {
+      if (tables[c] == null || tables[c].length != 256 || sources[c] < 0 || sources[c] > 2) {
+        throw new IllegalArgumentException("There must be 3 tables and 3 sources");
+      }
+      for (int v = 0; v < 256; v++) {
+        frequencies[c][ImageUtils.clamp(tables[c][v])] += this.frequencies[sources[c]][v];
+      }
+    }
+    if (!this.grey) {
+      return count(image, null, frequencies);
+    }
+
+    // every pixel is (v, v, v), so its new components only depend on v
+    boolean grey = true;
+    for (int v = 0; v < 256; v++) {
+      int count = this.frequencies[RED][v];
+      if (count == 0) {
+        continue;
+      }
+      int red = ImageUtils.clamp(tables[0][v]);
+      int green = ImageUtils.clamp(tables[1][v]);
+      int blue = ImageUtils.clamp(tables[2][v]);
+      frequencies[INTENSITY][intensity(red, green, blue)] += count;
+      grey &= red == green && green == blue;
+    }
+    return new Histogram(frequencies, grey);
+  }
+}
@@ -1,9 +1,14 @@
 package model;
 
 import java.awt.Color;
+import java.nio.IntBuffer;
 
 /**
  * Represents an image and it's pixels.
+ *
+ * <p>Images are immutable values: once constructed, an image's pixels never change. This allows
+ * images to share their pixel storage safely, so implementations that store their pixels packed
+ * return the views from {@link #getRow} and {@link #getPackedView} without copying any pixels.</p>
  */
 public interface Image {
 
@@ -29,11 +34,108 @@ public interface Image {
   Color[][] getPixels();
 
   /**
-   * Returns a copy of this image object.
+   * Returns an array of integers {@code int[height * width]} that represents an image's pixels,
+   * where each pixel is packed in the format {@code 0xRRGGBB} and the pixels are ordered row by
+   * row. The pixel at column x and row y is located at index {@code y * width + x}.
+   *
+   * @return a copy of the packed pixels for the image
+   */
+  int[] getPackedPixels();
+
+  /**
+   * Returns the color of the pixel at the given column and row packed in the format
+   * {@code 0xRRGGBB}, without copying any of the image's pixels.
+   *
+   * @param x the column of the pixel
+   * @param y the row of the pixel
+   * @return the packed color of the pixel
+   * @throws IllegalArgumentException if the given position is outside of the image
+   */
+  int getRGB(int x, int y) throws IllegalArgumentException;
+
+  /**
+   * Returns a read-only view of a single row of the image's packed pixels. Index 0 of the returned
+   * buffer is the pixel in the first column of the row, and the buffer contains exactly
+   * {@code getWidth()} pixels.
+   *
+   * @param y the row to view
+   * @return a read-only view of the packed pixels in the row
+   * @throws IllegalArgumentException if the given row is outside of the image
+   */
+  IntBuffer getRow(int y) throws IllegalArgumentException;
+
+  /**
+   * Returns a read-only view of all of the image's packed pixels in the same order as
+   * {@link #getPackedPixels()}, without copying them.
+   *
+   * @return a read-only view of the packed pixels for the image
+   */
+  IntBuffer getPackedView();
+
+  /**
+   * Copies the packed pixels of a rectangular region of the image into the given array, row by
+   * row, so the pixel at column x + j and row y + i of the image is copied to index
+   * {@code i * width + j} of the array.
+   *
+   * <p>Unlike {@link #getPackedView}, this only touches the pixels inside the region, so it should
+   * be preferred when working on part of an image that is not stored in one piece.</p>
+   *
+   * @param x      the first column of the region
+   * @param y      the first row of the region
+   * @param width  the width of the region
+   * @param height the height of the region
+   * @param dest   the array to copy the pixels into
+   * @throws IllegalArgumentException if the region is not inside of the image, or if the array is
+   *                                  too small to hold the region
+   */
+  default void getRegion(int x, int y, int width, int height, int[] dest)
+      throws IllegalArgumentException {
+    this.getRegion(x, y, width, height, dest, 0);
+  }
+
+  /**
+   * Copies the packed pixels of a rectangular region of the image into the given array starting at
+   * the given offset, row by row, so the pixel at column x + j and row y + i of the image is copied
+   * to index {@code offset + i * width + j} of the array. This lets a region be copied straight
+   * into its place in a larger array.
+   *
+   * @param x      the first column of the region
+   * @param y      the first row of the region
+   * @param width  the width of the region
+   * @param height the height of the region
+   * @param dest   the array to copy the pixels into
+   * @param offset the index of the array to copy the first pixel of the region to
+   * @throws IllegalArgumentException if the region is not inside of the image, or if the array is
+   *                                  too small to hold the region from the offset
+   */
+  default void getRegion(int x, int y, int width, int height, int[] dest, int offset)
+      throws IllegalArgumentException {
+    ImageUtils.checkRegion(this, x, y, width, height, dest, offset);
+    for (int i = 0; i < height; i++) {
+      this.getRow(y + i).get(x, dest, offset + i * width, width);
+    }
+  }
+
+  /**
+   * Returns an image with the same pixels as this image whose pixels have already been computed.
+   * Images whose pixels are only computed the first time they are used compute them now, on the
+   * calling thread, which splits the work across the threads of the {@link RegionEngine}. Doing
+   * this before the image is read from several threads at once keeps the first of them from
+   * computing the whole image on its own while the others wait. Images whose pixels are stored
+   * return themselves.
+   *
+   * @return this image with its pixels computed
+   */
+  default Image computed() {
+    return this;
+  }
+
+  /**
+   * Returns a copy of this image object. Since images are immutable, the copy may share its pixel
+   * storage with this image.
    *
    * @return a copy of this image
    */
   Image copy();
 
-
 }
@@ -6,13 +6,15 @@ import java.awt.Color;
 /**
  * Implements the {@link Image} interface.
  *
- * <p>Each image is represented by a 2D array of colors {@code Color[height][width]} that
+ * <p>Each image is constructed from a 2D array of colors {@code Color[height][width]} that
  * represents its pixels. A pixel's x value is it's column (width) index in the 2D array, and a
  * pixel's y value it it's row (height) index in the 2D array.</p>
+ *
+ * <p>This class is kept as a compatibility adapter for code that builds images from
+ * {@link Color} arrays: the given colors are packed into the primitive storage of a
+ * {@link PackedImage}, so no {@link Color} objects are kept once the image is constructed.</p>
  */
-public class ImageImpl implements Image {
-
-  private final Color[][] pixels;
+public class ImageImpl extends PackedImage {
 
   /**
    * Constructs a new {@link ImageImpl} with the given pixels.
@@ -22,68 +24,43 @@ public class ImageImpl implements Image {
    *                                  any pixels are null
    */
   public ImageImpl(Color[][] pixels) throws IllegalArgumentException {
-    this.pixels = this.copyPixels(pixels);
-  }
-
-  /**
-   * Gets the height of this image.
-   *
-   * @return the height of the image as an integer
-   */
-  public int getHeight() {
-    return this.pixels.length;
-  }
-
-  /**
-   * Gets the width of this image.
-   *
-   * @return the width of the image as an integer
-   */
-  public int getWidth() {
-    return this.pixels[0].length;
+    super(widthOf(pixels), pixels.length, packPixels(pixels), false);
   }
 
   /**
-   * Gets a copy of this image state's pixels.
+   * Gets the width of a given pixel 2D array of colors.
    *
-   * @return the pixels of the image state as a 2D array of {@link Color}s in the format
-   * {@code Color[height][width]}
+   * @param original the pixel 2D array of colors
+   * @return the width of the array
+   * @throws IllegalArgumentException if the original array is null or empty
    */
-  public Color[][] getPixels() {
-    return this.copyPixels(this.pixels);
-  }
-
-  @Override
-  public ImageImpl copy() {
-    return new ImageImpl(this.copyPixels(this.pixels));
+  private static int widthOf(Color[][] original) throws IllegalArgumentException {
+    if (original == null || original.length == 0 || original[0].length == 0) {
+      throw new IllegalArgumentException("The pixels array must contain at least one pixel");
+    }
+    return original[0].length;
   }
 
   /**
-   * Creates a deep copy of a given pixel 2D array of colors to ensure an image's pixels are not
-   * modified by other classes.
+   * Packs a given pixel 2D array of colors into a row by row array of {@code 0xRRGGBB} integers.
    *
-   * @param original the original pixel 2D array of colors to copy
-   * @return a deep copy of the given pixel 2D array of colors
+   * @param original the original pixel 2D array of colors to pack
+   * @return the packed pixels
    * @throws IllegalArgumentException if the original array is null or empty, or if any pixels are
    *                                  null
    */
-  private Color[][] copyPixels(Color[][] original) throws IllegalArgumentException {
-    if (original == null || original.length == 0 || original[0].length == 0) {
-      throw new IllegalArgumentException("The pixels array must contain at least one pixel");
-    }
-    Color[][] ret = new Color[original.length][original[0].length];
+  private static int[] packPixels(Color[][] original) throws IllegalArgumentException {
+    int width = widthOf(original);
+    int[] ret = new int[original.length * width];
     for (int i = 0; i < original.length; i++) {
-      for (int j = 0; j < original[0].length; j++) {
+      for (int j = 0; j < width; j++) {
         if (original[i][j] == null) {
           throw new IllegalArgumentException("The pixels array must not contain null pixels");
         } else {
-          Color newColor = new Color(original[i][j].getRGB());
-          ret[i][j] = newColor;
+          ret[i * width + j] = original[i][j].getRGB() & 0xFFFFFF;
         }
       }
     }
     return ret;
   }
 }
-
-
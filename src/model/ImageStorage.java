@@ -0,0 +1,55 @@
+package model;
+
+/**
+ * Represents the ways the pixels of an {@link Image} can be stored in memory.
+ */
+public enum ImageStorage {
+  /**
+   * One {@code int} per pixel in a single array (see {@link PackedImage}).
+   */
+  Packed,
+  /**
+   * One {@code byte} per channel per pixel in three separate planes (see {@link PlanarImage}).
+   */
+  Planar,
+  /**
+   * One {@code int} per pixel in a direct buffer outside of the Java heap (see
+   * {@link DirectImage}).
+   */
+  OffHeap,
+  /**
+   * Square tiles of packed pixels that are paged out to a scratch file when too many are in memory
+   * (see {@link TiledImage}).
+   */
+  Tiled;
+
+  /**
+   * Returns the given image stored in this way. If the image is already stored this way, it is
+   * returned as is, otherwise its pixels are copied into the new storage.
+   *
+   * @param image the image to convert
+   * @return the image stored in this way
+   * @throws IllegalArgumentException if the image is null
+   */
+  public Image convert(Image image) throws IllegalArgumentException {
+    if (image == null) {
+      throw new IllegalArgumentException("Image cannot be null");
+    }
+    switch (this) {
+      case Packed:
+        if (image instanceof PackedImage) {
+          return image;
+        }
+        return PackedImage.wrap(image.getWidth(), image.getHeight(), image.getPackedPixels());
+      case Planar:
+        return PlanarImage.of(image);
+      case OffHeap:
+        return DirectImage.of(image);
+      case Tiled:
+        return TiledImage.of(image);
+      default:
+        // should never happen
+        throw new IllegalArgumentException("Invalid storage");
+    }
+  }
+}
@@ -11,4 +11,17 @@ public interface ImageTransformation {
    * @return a new image with the transformation applied to the pixels of the given image
    */
   Image transform(Image image);
+
+  /**
+   * Returns how many pixels away from a pixel this transformation looks to compute the new value of
+   * that pixel. A transformation that only looks at the pixel itself has a reach of 0, and a
+   * pixel of a transformation with a reach of r only depends on the pixels at most r rows and r
+   * columns away from it, so any part of an image can be transformed on its own from that part and
+   * the r pixels around it.
+   *
+   * @return the reach of this transformation, or -1 if a pixel can depend on any pixel of the image
+   */
+  default int getReach() {
+    return -1;
+  }
 }
@@ -1,13 +1,133 @@
 package model;
 
-import java.awt.Color;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 
 /**
  * Represents utilities for images.
  */
 public final class ImageUtils {
 
+  // the number of rows each task copies at least, so small images are not split up
+  private static final int MIN_BAND_ROWS = 64;
+
+  /**
+   * Returns the red component in the range [0, 255] of a pixel packed as {@code 0xRRGGBB}.
+   *
+   * @param rgb the packed pixel
+   * @return the red component of the pixel
+   */
+  public static int getRed(int rgb) {
+    return (rgb >> 16) & 0xFF;
+  }
+
+  /**
+   * Returns the green component in the range [0, 255] of a pixel packed as {@code 0xRRGGBB}.
+   *
+   * @param rgb the packed pixel
+   * @return the green component of the pixel
+   */
+  public static int getGreen(int rgb) {
+    return (rgb >> 8) & 0xFF;
+  }
+
+  /**
+   * Returns the blue component in the range [0, 255] of a pixel packed as {@code 0xRRGGBB}.
+   *
+   * @param rgb the packed pixel
+   * @return the blue component of the pixel
+   */
+  public static int getBlue(int rgb) {
+    return rgb & 0xFF;
+  }
+
+  /**
+   * Clamps the given color component value to be between 0 and 255.
+   *
+   * @param value the value to clamp
+   * @return the clamped value
+   */
+  public static int clamp(int value) {
+    return Math.max(0, Math.min(value, 255));
+  }
+
+  /**
+   * Packs the given red, green, and blue components into a single {@code 0xRRGGBB} pixel. Each
+   * component is clamped to be between 0 and 255 before it is packed.
+   *
+   * @param red   the red component of the pixel
+   * @param green the green component of the pixel
+   * @param blue  the blue component of the pixel
+   * @return the packed pixel
+   */
+  public static int pack(int red, int green, int blue) {
+    return (clamp(red) << 16) | (clamp(green) << 8) | clamp(blue);
+  }
+
+  /**
+   * Checks that the given region is inside of the given image and that the given array can hold
+   * its pixels.
+   *
+   * @param image  the image the region is in
+   * @param x      the first column of the region
+   * @param y      the first row of the region
+   * @param width  the width of the region
+   * @param height the height of the region
+   * @param dest   the array the pixels of the region will be copied into
+   * @param offset the index of the array the first pixel of the region will be copied to
+   * @throws IllegalArgumentException if the region is not inside of the image, or if the array is
+   *                                  too small to hold the region from the offset
+   */
+  public static void checkRegion(Image image, int x, int y, int width, int height, int[] dest,
+      int offset) throws IllegalArgumentException {
+    if (x < 0 || y < 0 || width <= 0 || height <= 0 || x + width > image.getWidth()
+        || y + height > image.getHeight()) {
+      throw new IllegalArgumentException(
+          "The region (" + x + ", " + y + ", " + width + ", " + height + ") is outside the image");
+    }
+    if (dest == null || offset < 0 || dest.length - offset < width * height) {
+      throw new IllegalArgumentException("The array is too small to hold the region");
+    }
+  }
+
+  /**
+   * Returns the packed pixels of a region of the given image surrounded by a halo of the given
+   * size, row by row. Parts of the halo that are outside of the image are filled with the closest
+   * pixel inside of the image, so the returned array always contains
+   * {@code (width + 2 * halo) * (height + 2 * halo)} pixels.
+   *
+   * @param image  the image to read the pixels from
+   * @param x      the first column of the region
+   * @param y      the first row of the region
+   * @param width  the width of the region
+   * @param height the height of the region
+   * @param halo   the number of pixels to add around each side of the region
+   * @return the packed pixels of the region and its halo
+   */
+  public static int[] getWindow(Image image, int x, int y, int width, int height, int halo) {
+    int windowWidth = width + 2 * halo;
+    int windowHeight = height + 2 * halo;
+    int[] window = new int[windowWidth * windowHeight];
+
+    // copies the part of the window that is inside of the image
+    int left = Math.max(0, x - halo);
+    int top = Math.max(0, y - halo);
+    int right = Math.min(image.getWidth(), x + width + halo);
+    int bottom = Math.min(image.getHeight(), y + height + halo);
+    int[] inside = new int[(right - left) * (bottom - top)];
+    image.getRegion(left, top, right - left, bottom - top, inside);
+
+    // fills every pixel of the window from the closest pixel inside of the image
+    for (int i = 0; i < windowHeight; i++) {
+      int row = Math.max(top, Math.min(bottom - 1, y - halo + i)) - top;
+      for (int j = 0; j < windowWidth; j++) {
+        int column = Math.max(left, Math.min(right - 1, x - halo + j)) - left;
+        window[i * windowWidth + j] = inside[row * (right - left) + column];
+      }
+    }
+    return window;
+  }
+
   /**
    * Returns a 2D array of integers that represent the given image's frequencies of red, green,
    * blue, and intensity values in the range [0, 255].
@@ -18,45 +138,68 @@ public final class ImageUtils {
    * ..., 255 = 255).
    * </p>
    *
+   * <p>
+   * The rows of the image are counted in parallel (see {@link Histogram#of(Image)}).
+   * </p>
+   *
    * @param image the image to get the frequencies of
    * @return a 2D array of integers in the format [channel][value]
    */
   public static int[][] getChannelFrequencies(Image image) {
-    int[][] frequencies = new int[4][256];
-    Color[][] pixels = image.getPixels();
-    for (int i = 0; i < image.getHeight(); i++) {
-      for (int j = 0; j < image.getWidth(); j++) {
-        Color pixel = pixels[i][j];
-        int red = pixel.getRed();
-        int green = pixel.getGreen();
-        int blue = pixel.getBlue();
-        int intensity = Math.toIntExact(Math.round((red + green + blue) / 3.0));
-        frequencies[0][red]++;
-        frequencies[1][green]++;
-        frequencies[2][blue]++;
-        frequencies[3][intensity]++;
-      }
-    }
-    return frequencies;
+    return Histogram.of(image).getFrequencies();
   }
 
   /**
-   * Returns a buffered image that is a copy of the given {@link Image} object.
+   * Returns a buffered image that is a copy of the given {@link Image} object. The pixels are
+   * copied straight into the buffered image's data buffer, in bands of rows in parallel.
    *
    * @param image the image to copy
    * @return a buffered image that is a copy of the given image
    */
   public static BufferedImage getBufferedImage(Image image) {
-    Color[][] pixels = image.getPixels();
     BufferedImage bufferedImage = new BufferedImage(image.getWidth(), image.getHeight(),
         BufferedImage.TYPE_INT_RGB);
-    for (int i = 0; i < image.getHeight(); i++) {
-      for (int j = 0; j < image.getWidth(); j++) {
-        Color pixel = pixels[i][j];
-        bufferedImage.setRGB(j, i, pixel.getRGB());
-      }
-    }
+    copyPixels(image, getData(bufferedImage));
     return bufferedImage;
   }
 
+  /**
+   * Returns the array of packed pixels that backs the given buffered image, so that it can be
+   * written to directly instead of one pixel at a time.
+   *
+   * @param image a buffered image of type {@code TYPE_INT_RGB}
+   * @return the packed pixels of the buffered image, row by row
+   * @throws IllegalArgumentException if the buffered image is not of type {@code TYPE_INT_RGB}
+   */
+  public static int[] getData(BufferedImage image) throws IllegalArgumentException {
+    if (image == null || image.getType() != BufferedImage.TYPE_INT_RGB) {
+      throw new IllegalArgumentException("The buffered image must store packed RGB pixels");
+    }
+    return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+  }
+
+  /**
+   * Copies the packed pixels of the given image into the given array row by row, copying bands of
+   * rows in parallel.
+   *
+   * @param image  the image to copy
+   * @param pixels the array to copy the pixels into
+   * @throws IllegalArgumentException if the array is too small to hold the pixels of the image
+   */
+  public static void copyPixels(Image image, int[] pixels) throws IllegalArgumentException {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    if (pixels.length < width * height) {
+      throw new IllegalArgumentException("The array is too small to hold the pixels of the image");
+    }
+    int bands = Math.max(1, Math.min(RegionEngine.getParallelism() * 4, height / MIN_BAND_ROWS));
+    RegionEngine.forEach(bands, band -> {
+      for (int i = (int) ((long) height * band / bands);
+          i < (int) ((long) height * (band + 1) / bands); i++) {
+        image.getRow(i).get(pixels, i * width, width);
+      }
+    });
+  }
+
+
 }
@@ -0,0 +1,154 @@
+package model;
+
+import java.awt.Color;
+import java.nio.IntBuffer;
+
+/**
+ * Implements the {@link Image} interface using a single packed array of primitive pixels.
+ *
+ * <p>Each pixel is stored as one {@code int} in the format {@code 0xRRGGBB}, and the pixels are
+ * stored row by row in a one-dimensional array, so the pixel at column x and row y is located at
+ * index {@code y * width + x}. This avoids allocating a {@link Color} object for every pixel.</p>
+ *
+ * <p>The pixel array is never modified once the image is constructed, so copies of an image and
+ * the views returned by {@link #getRow} and {@link #getPackedView} all share the same array.</p>
+ */
+public class PackedImage implements Image {
+
+  private final int width;
+  private final int height;
+  private final int[] pixels;
+
+  /**
+   * Constructs a new {@link PackedImage} with the given dimensions and a copy of the given packed
+   * pixels.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @param pixels the pixels of the image in the format {@code 0xRRGGBB}, row by row
+   * @throws IllegalArgumentException if the image does not have at least one pixel, or if the
+   *                                  number of pixels does not match the given dimensions
+   */
+  public PackedImage(int width, int height, int[] pixels) throws IllegalArgumentException {
+    this(width, height, validate(width, height, pixels).clone(), true);
+  }
+
+  /**
+   * Constructs a new {@link PackedImage} that uses the given array as its storage. The array must
+   * not be modified by the caller afterwards.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @param pixels the array of packed pixels to use as the storage of this image
+   * @param strip  whether any bits above the {@code 0xRRGGBB} bits should be cleared first
+   */
+  protected PackedImage(int width, int height, int[] pixels, boolean strip) {
+    this.width = width;
+    this.height = height;
+    this.pixels = pixels;
+    if (strip) {
+      for (int i = 0; i < pixels.length; i++) {
+        pixels[i] &= 0xFFFFFF;
+      }
+    }
+  }
+
+  /**
+   * Returns a new {@link PackedImage} that takes ownership of the given array of packed pixels
+   * instead of copying it. The caller must not modify the array after calling this method.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @param pixels the pixels of the image in the format {@code 0xRRGGBB}, row by row
+   * @return a new image backed by the given array
+   * @throws IllegalArgumentException if the image does not have at least one pixel, or if the
+   *                                  number of pixels does not match the given dimensions
+   */
+  public static PackedImage wrap(int width, int height, int[] pixels)
+      throws IllegalArgumentException {
+    return new PackedImage(width, height, validate(width, height, pixels), true);
+  }
+
+  /**
+   * Checks that the given packed pixels array matches the given dimensions.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @param pixels the packed pixels of the image
+   * @return the given packed pixels
+   * @throws IllegalArgumentException if the image does not have at least one pixel, or if the
+   *                                  number of pixels does not match the given dimensions
+   */
+  private static int[] validate(int width, int height, int[] pixels)
+      throws IllegalArgumentException {
+    if (width <= 0 || height <= 0 || pixels == null) {
+      throw new IllegalArgumentException("The pixels array must contain at least one pixel");
+    }
+    if (pixels.length != width * height) {
+      throw new IllegalArgumentException(
+          "The pixels array must contain exactly " + width * height + " pixels");
+    }
+    return pixels;
+  }
+
+  @Override
+  public int getHeight() {
+    return this.height;
+  }
+
+  @Override
+  public int getWidth() {
+    return this.width;
+  }
+
+  @Override
+  public Color[][] getPixels() {
+    Color[][] ret = new Color[this.height][this.width];
+    for (int i = 0; i < this.height; i++) {
+      for (int j = 0; j < this.width; j++) {
+        ret[i][j] = new Color(this.pixels[i * this.width + j]);
+      }
+    }
+    return ret;
+  }
+
+  @Override
+  public int[] getPackedPixels() {
+    return this.pixels.clone();
+  }
+
+  @Override
+  public int getRGB(int x, int y) throws IllegalArgumentException {
+    if (x < 0 || x >= this.width || y < 0 || y >= this.height) {
+      throw new IllegalArgumentException("The pixel (" + x + ", " + y + ") is outside the image");
+    }
+    return this.pixels[y * this.width + x];
+  }
+
+  @Override
+  public IntBuffer getRow(int y) throws IllegalArgumentException {
+    if (y < 0 || y >= this.height) {
+      throw new IllegalArgumentException("The row " + y + " is outside the image");
+    }
+    return IntBuffer.wrap(this.pixels, y * this.width, this.width).slice().asReadOnlyBuffer();
+  }
+
+  @Override
+  public IntBuffer getPackedView() {
+    return IntBuffer.wrap(this.pixels).asReadOnlyBuffer();
+  }
+
+  @Override
+  public void getRegion(int x, int y, int width, int height, int[] dest, int offset)
+      throws IllegalArgumentException {
+    ImageUtils.checkRegion(this, x, y, width, height, dest, offset);
+    for (int i = 0; i < height; i++) {
+      System.arraycopy(this.pixels, (y + i) * this.width + x, dest, offset + i * width, width);
+    }
+  }
+
+  @Override
+  public PackedImage copy() {
+    return new PackedImage(this.width, this.height, this.pixels, false);
+  }
+}
@@ -0,0 +1,281 @@
+package model;
+
+import java.awt.Color;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Implements the {@link Image} interface by storing each color channel in its own plane.
+ *
+ * <p>The red, green, and blue components of the pixels are kept in three separate {@code byte}
+ * arrays (planes), each ordered row by row, so the pixel at column x and row y is located at index
+ * {@code y * width + x} of every plane. This takes 3 bytes per pixel and allows transformations to
+ * loop over a single channel at a time.</p>
+ *
+ * <p>The planes are never modified once the image is constructed, so several images may share the
+ * same plane. A greyscale image only needs one plane, which is used as all three of its channels,
+ * and {@link #split} and {@link #merge} only rearrange planes without copying them.</p>
+ *
+ * <p>Since the pixels are not stored packed, the views returned by {@link #getRow} and
+ * {@link #getPackedView} are assembled from the planes when they are requested, and
+ * {@link #getRegion} packs only the pixels of the requested region.</p>
+ */
+public class PlanarImage implements Image {
+
+  /**
+   * The index of the red plane.
+   */
+  public static final int RED = 0;
+
+  /**
+   * The index of the green plane.
+   */
+  public static final int GREEN = 1;
+
+  /**
+   * The index of the blue plane.
+   */
+  public static final int BLUE = 2;
+
+  private final int width;
+  private final int height;
+  private final byte[][] planes;
+
+  /**
+   * Constructs a new {@link PlanarImage} with the given dimensions and copies of the given planes.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @param red    the red components of the pixels, row by row
+   * @param green  the green components of the pixels, row by row
+   * @param blue   the blue components of the pixels, row by row
+   * @throws IllegalArgumentException if the image does not have at least one pixel, or if the size
+   *                                  of any plane does not match the given dimensions
+   */
+  public PlanarImage(int width, int height, byte[] red, byte[] green, byte[] blue)
+      throws IllegalArgumentException {
+    this(width, height, new byte[][]{validate(width, height, red).clone(),
+        validate(width, height, green).clone(), validate(width, height, blue).clone()});
+  }
+
+  /**
+   * Constructs a new {@link PlanarImage} that uses the given planes as its storage.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @param planes the red, green, and blue planes, in that order
+   */
+  private PlanarImage(int width, int height, byte[][] planes) {
+    this.width = width;
+    this.height = height;
+    this.planes = planes;
+  }
+
+  /**
+   * Returns a new {@link PlanarImage} that takes ownership of the given planes instead of copying
+   * them. The caller must not modify the planes after calling this method. The same array may be
+   * given for several planes, for example to represent a greyscale image with a single plane.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @param red    the red components of the pixels, row by row
+   * @param green  the green components of the pixels, row by row
+   * @param blue   the blue components of the pixels, row by row
+   * @return a new image backed by the given planes
+   * @throws IllegalArgumentException if the image does not have at least one pixel, or if the size
+   *                                  of any plane does not match the given dimensions
+   */
+  public static PlanarImage wrap(int width, int height, byte[] red, byte[] green, byte[] blue)
+      throws IllegalArgumentException {
+    return new PlanarImage(width, height, new byte[][]{validate(width, height, red),
+        validate(width, height, green), validate(width, height, blue)});
+  }
+
+  /**
+   * Returns the given image stored as a {@link PlanarImage}. If the image is already planar, it is
+   * returned as is, otherwise its pixels are copied into new planes.
+   *
+   * @param image the image to convert
+   * @return the image stored as a planar image
+   */
+  public static PlanarImage of(Image image) {
+    if (image instanceof PlanarImage) {
+      return (PlanarImage) image;
+    }
+    int width = image.getWidth();
+    int height = image.getHeight();
+    byte[] red = new byte[width * height];
+    byte[] green = new byte[width * height];
+    byte[] blue = new byte[width * height];
+    for (int i = 0; i < height; i++) {
+      IntBuffer row = image.getRow(i);
+      for (int j = 0; j < width; j++) {
+        int pixel = row.get(j);
+        red[i * width + j] = (byte) ImageUtils.getRed(pixel);
+        green[i * width + j] = (byte) ImageUtils.getGreen(pixel);
+        blue[i * width + j] = (byte) ImageUtils.getBlue(pixel);
+      }
+    }
+    return new PlanarImage(width, height, new byte[][]{red, green, blue});
+  }
+
+  /**
+   * Returns a new image with the red plane of the first image, the green plane of the second image,
+   * and the blue plane of the third image. The planes are shared with the given images rather than
+   * copied.
+   *
+   * @param red   the image to take the red plane from
+   * @param green the image to take the green plane from
+   * @param blue  the image to take the blue plane from
+   * @return the merged image
+   * @throws IllegalArgumentException if any image is null, or if the images are different sizes
+   */
+  public static PlanarImage merge(PlanarImage red, PlanarImage green, PlanarImage blue)
+      throws IllegalArgumentException {
+    if (red == null || green == null || blue == null) {
+      throw new IllegalArgumentException("The images cannot be null");
+    }
+    if (red.width != green.width || red.width != blue.width || red.height != green.height
+        || red.height != blue.height) {
+      throw new IllegalArgumentException("The images must be the same size");
+    }
+    return new PlanarImage(red.width, red.height,
+        new byte[][]{red.planes[RED], green.planes[GREEN], blue.planes[BLUE]});
+  }
+
+  /**
+   * Checks that the given plane matches the given dimensions.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @param plane  the plane to check
+   * @return the given plane
+   * @throws IllegalArgumentException if the image does not have at least one pixel, or if the size
+   *                                  of the plane does not match the given dimensions
+   */
+  private static byte[] validate(int width, int height, byte[] plane)
+      throws IllegalArgumentException {
+    if (width <= 0 || height <= 0 || plane == null) {
+      throw new IllegalArgumentException("The pixels array must contain at least one pixel");
+    }
+    if (plane.length != width * height) {
+      throw new IllegalArgumentException(
+          "Each plane must contain exactly " + width * height + " pixels");
+    }
+    return plane;
+  }
+
+  /**
+   * Returns three greyscale images that each use one of this image's planes as all three of their
+   * channels, in the order red, green, blue. The planes are shared rather than copied.
+   *
+   * @return the red, green, and blue channels of this image as greyscale images
+   */
+  public PlanarImage[] split() {
+    PlanarImage[] ret = new PlanarImage[3];
+    for (int i = 0; i < 3; i++) {
+      ret[i] = new PlanarImage(this.width, this.height,
+          new byte[][]{this.planes[i], this.planes[i], this.planes[i]});
+    }
+    return ret;
+  }
+
+  /**
+   * Returns a read-only view of one of this image's planes, where each pixel's component is an
+   * unsigned byte.
+   *
+   * @param channel the index of the plane ({@link #RED}, {@link #GREEN}, or {@link #BLUE})
+   * @return a read-only view of the plane
+   * @throws IllegalArgumentException if the given index is not a valid plane
+   */
+  public ByteBuffer getPlane(int channel) throws IllegalArgumentException {
+    if (channel < RED || channel > BLUE) {
+      throw new IllegalArgumentException("Invalid channel");
+    }
+    return ByteBuffer.wrap(this.planes[channel]).asReadOnlyBuffer();
+  }
+
+  @Override
+  public int getHeight() {
+    return this.height;
+  }
+
+  @Override
+  public int getWidth() {
+    return this.width;
+  }
+
+  @Override
+  public Color[][] getPixels() {
+    Color[][] ret = new Color[this.height][this.width];
+    for (int i = 0; i < this.height; i++) {
+      for (int j = 0; j < this.width; j++) {
+        ret[i][j] = new Color(this.packed(i * this.width + j));
+      }
+    }
+    return ret;
+  }
+
+  @Override
+  public int[] getPackedPixels() {
+    int[] ret = new int[this.width * this.height];
+    for (int i = 0; i < ret.length; i++) {
+      ret[i] = this.packed(i);
+    }
+    return ret;
+  }
+
+  @Override
+  public int getRGB(int x, int y) throws IllegalArgumentException {
+    if (x < 0 || x >= this.width || y < 0 || y >= this.height) {
+      throw new IllegalArgumentException("The pixel (" + x + ", " + y + ") is outside the image");
+    }
+    return this.packed(y * this.width + x);
+  }
+
+  @Override
+  public IntBuffer getRow(int y) throws IllegalArgumentException {
+    if (y < 0 || y >= this.height) {
+      throw new IllegalArgumentException("The row " + y + " is outside the image");
+    }
+    int[] row = new int[this.width];
+    for (int j = 0; j < this.width; j++) {
+      row[j] = this.packed(y * this.width + j);
+    }
+    return IntBuffer.wrap(row).asReadOnlyBuffer();
+  }
+
+  @Override
+  public void getRegion(int x, int y, int width, int height, int[] dest, int offset)
+      throws IllegalArgumentException {
+    ImageUtils.checkRegion(this, x, y, width, height, dest, offset);
+    for (int i = 0; i < height; i++) {
+      int from = (y + i) * this.width + x;
+      int to = offset + i * width;
+      for (int j = 0; j < width; j++) {
+        dest[to + j] = this.packed(from + j);
+      }
+    }
+  }
+
+  @Override
+  public IntBuffer getPackedView() {
+    return IntBuffer.wrap(this.getPackedPixels()).asReadOnlyBuffer();
+  }
+
+  @Override
+  public PlanarImage copy() {
+    return new PlanarImage(this.width, this.height, this.planes);
+  }
+
+  /**
+   * Packs the components of the pixel at the given index of the planes.
+   *
+   * @param index the index of the pixel
+   * @return the packed color of the pixel
+   */
+  private int packed(int index) {
+    return ((this.planes[RED][index] & 0xFF) << 16) | ((this.planes[GREEN][index] & 0xFF) << 8)
+        | (this.planes[BLUE][index] & 0xFF);
+  }
+}
@@ -0,0 +1,322 @@
+package model;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Represents the engine that builds the results of transformations from {@link RegionFunction}s.
+ *
+ * <p>The engine chooses how the result is stored based on the image being transformed. The result
+ * of transforming a {@link TiledImage} is a tiled image that is computed one tile at a time, so
+ * only a bounded number of tiles are ever held in memory. The result of transforming a
+ * {@link DirectImage} is stored off the heap, and is computed in small bands that are copied off
+ * the heap as they are done, so the heap never holds the whole result. Any other image is
+ * transformed into a {@link PackedImage}, which is computed in bands of rows.</p>
+ *
+ * <p>The tiles or bands are computed in parallel on a {@link ForkJoinPool} with the configured
+ * parallelism, which defaults to the number of available processors. Every pixel is computed by the
+ * same function no matter which band or tile it falls in, so the result is identical for any
+ * parallelism.</p>
+ *
+ * <p>Work can be run under a {@link Monitor} (see {@link #run(Runnable, Monitor)}), which is told
+ * how many of the bands or tiles of each parallel step are done, and which can cancel the work
+ * between any two of them.</p>
+ */
+public final class RegionEngine {
+
+  /**
+   * Represents a way to follow the progress of the work done by the engine, and to cancel it.
+   */
+  public interface Monitor {
+
+    /**
+     * Returns whether the work should stop. It is checked before each band or tile is computed.
+     *
+     * @return true if the work should stop, false otherwise
+     */
+    boolean isCancelled();
+
+    /**
+     * Tells the monitor that a band or tile of the current parallel step is done. Steps that run
+     * inside of another step are not reported. This may be called from any thread.
+     *
+     * @param done  the number of bands or tiles of the step that are done
+     * @param total the number of bands or tiles of the step
+     */
+    default void progress(int done, int total) {
+    }
+  }
+
+  // the smallest number of pixels worth computing as a separate band
+  private static final int MIN_BAND_PIXELS = 16384;
+
+  // the monitor of the work running on each thread, if any
+  private static final ThreadLocal<Monitor> MONITOR = new ThreadLocal<>();
+
+  private static int parallelism = Runtime.getRuntime().availableProcessors();
+  private static ForkJoinPool pool;
+  // the number of parallel steps running on each pool, which is only shut down once they are done
+  private static final Map<ForkJoinPool, Integer> RUNNING = new IdentityHashMap<>();
+
+  /**
+   * Sets the number of threads used to compute the results of transformations. A parallelism of 1
+   * computes every result on the calling thread. Work that is already running keeps running on the
+   * threads it started with, which are stopped once it is done, and any later parallel step uses
+   * the new number of threads.
+   *
+   * @param parallelism the number of threads to use
+   * @throws IllegalArgumentException if the parallelism is not positive
+   */
+  public static synchronized void setParallelism(int parallelism)
+      throws IllegalArgumentException {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("The parallelism must be greater than 0");
+    }
+    if (parallelism != RegionEngine.parallelism && pool != null) {
+      if (!RUNNING.containsKey(pool)) {
+        pool.shutdown();
+      }
+      pool = null;
+    }
+    RegionEngine.parallelism = parallelism;
+  }
+
+  /**
+   * Returns the number of threads used to compute the results of transformations.
+   *
+   * @return the parallelism of the engine
+   */
+  public static synchronized int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Runs the given task once for every index from 0 up to the given count, in parallel when the
+   * parallelism is greater than 1, and returns once every task has finished.
+   *
+   * @param count the number of tasks to run
+   * @param task  the task to run with each index
+   */
+  public static void forEach(int count, IntConsumer task) {
+    Monitor monitor = MONITOR.get();
+    if (monitor != null) {
+      task = monitored(task, count, monitor);
+    }
+    ForkJoinPool pool = count <= 1 ? null : acquire();
+    if (pool == null) {
+      for (int i = 0; i < count; i++) {
+        task.accept(i);
+      }
+    } else {
+      try {
+        pool.invoke(new Tasks(task, 0, count));
+      } catch (CancellationException e) {
+        // the pool reports a task that threw a cancellation as cancelled, without the message
+        throw new CancellationException("The operation was cancelled");
+      } finally {
+        release(pool);
+      }
+    }
+  }
+
+  /**
+   * Runs the given work on the calling thread under the given monitor, which is told the progress
+   * of every parallel step of the work, and which can cancel the work before any band or tile.
+   *
+   * @param work    the work to run
+   * @param monitor the monitor of the work
+   * @throws IllegalArgumentException if the work or the monitor is null
+   * @throws CancellationException    if the monitor cancelled the work before it was done
+   */
+  public static void run(Runnable work, Monitor monitor)
+      throws IllegalArgumentException, CancellationException {
+    if (work == null || monitor == null) {
+      throw new IllegalArgumentException("The work and monitor cannot be null");
+    }
+    Monitor previous = MONITOR.get();
+    MONITOR.set(monitor);
+    try {
+      checkCancelled();
+      work.run();
+    } finally {
+      restore(previous);
+    }
+  }
+
+  /**
+   * Returns the given task wrapped so that it checks whether the given monitor has cancelled the
+   * work before it runs, and tells the monitor once it is done. Steps that run inside of the task
+   * can still be cancelled, but their progress is not reported.
+   *
+   * @param task    the task to wrap
+   * @param count   the number of tasks in the step
+   * @param monitor the monitor of the work
+   * @return the wrapped task
+   */
+  private static IntConsumer monitored(IntConsumer task, int count, Monitor monitor) {
+    AtomicInteger done = new AtomicInteger();
+    Monitor nested = monitor::isCancelled;
+    return i -> {
+      Monitor previous = MONITOR.get();
+      MONITOR.set(nested);
+      try {
+        checkCancelled();
+        task.accept(i);
+      } finally {
+        restore(previous);
+      }
+      monitor.progress(done.incrementAndGet(), count);
+    };
+  }
+
+  /**
+   * Throws an exception if the monitor of the work running on the calling thread has cancelled it.
+   *
+   * @throws CancellationException if the work has been cancelled
+   */
+  private static void checkCancelled() throws CancellationException {
+    Monitor monitor = MONITOR.get();
+    if (monitor != null && monitor.isCancelled()) {
+      throw new CancellationException("The operation was cancelled");
+    }
+  }
+
+  /**
+   * Sets the monitor of the calling thread back to the given monitor.
+   *
+   * @param previous the monitor to set back, or null if there was none
+   */
+  private static void restore(Monitor previous) {
+    if (previous == null) {
+      MONITOR.remove();
+    } else {
+      MONITOR.set(previous);
+    }
+  }
+
+  /**
+   * Returns the pool to run a parallel step on, creating it if needed, and counts the step as
+   * running on it until it is released (see {@link #release(ForkJoinPool)}).
+   *
+   * @return the pool, or null if tasks should run on the calling thread
+   */
+  private static synchronized ForkJoinPool acquire() {
+    if (parallelism == 1) {
+      return null;
+    }
+    if (pool == null) {
+      pool = new ForkJoinPool(parallelism);
+    }
+    RUNNING.merge(pool, 1, Integer::sum);
+    return pool;
+  }
+
+  /**
+   * Counts a parallel step as done on the given pool, and shuts the pool down if it has been
+   * replaced and no other step is running on it.
+   *
+   * @param done the pool the step ran on
+   */
+  private static synchronized void release(ForkJoinPool done) {
+    if (RUNNING.merge(done, -1, Integer::sum) == 0) {
+      RUNNING.remove(done);
+      if (done != pool) {
+        done.shutdown();
+      }
+    }
+  }
+
+  /**
+   * Builds an image of the given dimensions whose pixels are computed by the given function.
+   *
+   * @param source   the image being transformed, which determines how the result is stored
+   * @param width    the width of the result
+   * @param height   the height of the result
+   * @param function the function that computes the pixels of any region of the result
+   * @return the image whose pixels were computed by the function
+   * @throws IllegalArgumentException if the result does not have at least one pixel
+   */
+  public static Image render(Image source, int width, int height, RegionFunction function)
+      throws IllegalArgumentException {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("The pixels array must contain at least one pixel");
+    }
+    // the function reads the source from every band, so its pixels are computed here first
+    Image computed = source.computed();
+    if (computed instanceof TiledImage) {
+      TiledImage tiled = (TiledImage) computed;
+      return TiledImage.render(width, height, tiled.getTileSize(), tiled.getResidentTiles(),
+          function);
+    }
+    if (computed instanceof DirectImage) {
+      return DirectImage.render(width, height, function);
+    }
+    int[] pixels = new int[width * height];
+    int bands = Math.max(1, Math.min(Math.min(height, getParallelism() * 4),
+        width * height / MIN_BAND_PIXELS));
+    if (bands == 1) {
+      checkCancelled();
+      function.compute(0, 0, width, height, pixels, 0);
+    } else {
+      // each band is full width, so it is computed straight into its rows of the result
+      forEach(bands, band -> {
+        int top = (int) ((long) band * height / bands);
+        int bottom = (int) ((long) (band + 1) * height / bands);
+        function.compute(0, top, width, bottom - top, pixels, top * width);
+      });
+    }
+    return PackedImage.wrap(width, height, pixels);
+  }
+
+  /**
+   * Builds an image of the same dimensions as the given image whose pixels are computed by the
+   * given function.
+   *
+   * @param source   the image being transformed, which determines how the result is stored
+   * @param function the function that computes the pixels of any region of the result
+   * @return the image whose pixels were computed by the function
+   */
+  public static Image render(Image source, RegionFunction function) {
+    return render(source, source.getWidth(), source.getHeight(), function);
+  }
+
+  /**
+   * Represents a range of tasks that is split in half until each task can run on its own.
+   */
+  private static final class Tasks extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final IntConsumer task;
+    private final int start;
+    private final int end;
+
+    /**
+     * Constructs a new range of tasks.
+     *
+     * @param task  the task to run with each index
+     * @param start the first index of the range
+     * @param end   the index after the last index of the range
+     */
+    private Tasks(IntConsumer task, int start, int end) {
+      this.task = task;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.end - this.start == 1) {
+        this.task.accept(this.start);
+      } else {
+        int middle = (this.start + this.end) / 2;
+        invokeAll(new Tasks(this.task, this.start, middle), new Tasks(this.task, middle, this.end));
+      }
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package model;
+
+/**
+ * Represents a function that computes the packed pixels of any rectangular region of an image.
+ *
+ * <p>Transformations describe how to compute a region of their result with a region function, so
+ * the {@link RegionEngine} can compute the result one region at a time.</p>
+ */
+@FunctionalInterface
+public interface RegionFunction {
+
+  /**
+   * Computes the packed pixels of the given region and stores them in the given array from the
+   * given offset, row by row, so the pixel at column x + j and row y + i is stored at index
+   * {@code offset + i * width + j}. The engine passes the offset of the region in the array of the
+   * whole result, so regions are computed in place instead of being copied there afterwards.
+   *
+   * @param x      the first column of the region
+   * @param y      the first row of the region
+   * @param width  the width of the region
+   * @param height the height of the region
+   * @param dest   the array to store the pixels of the region in
+   * @param offset the index of the array to store the first pixel of the region at
+   */
+  void compute(int x, int y, int width, int height, int[] dest, int offset);
+}
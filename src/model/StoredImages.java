@@ -1,8 +1,17 @@
 package model;
 
+import java.util.function.Function;
+
 /**
  * Represents a collection of {@link Image}s that have been loaded into the program by the user,
  * identified by the image's file name selected by the user.
+ *
+ * <p>
+ * A collection may also keep the {@link Histogram} of each stored image, so that it is only
+ * counted once no matter how many times it is displayed, and anything else worked out from a
+ * stored image, such as the compiled form of a mask image, so that it is only worked out once no
+ * matter how many times it is used.
+ * </p>
  */
 public interface StoredImages {
 
@@ -18,6 +27,23 @@ public interface StoredImages {
    */
   void add(String fileName, Image image, boolean force) throws IllegalArgumentException;
 
+  /**
+   * Add a new image to the collection identified by a given file name, along with its histogram if
+   * it is already known, so that it does not have to be counted again.
+   *
+   * @param fileName  the file name of the image to add
+   * @param image     the image object to add
+   * @param force     if false, check if the file name is unique, if true do not check and overwrite
+   *                  the previous image
+   * @param histogram the histogram of the image, or null if it is not known
+   * @throws IllegalArgumentException if the given file name is already in the collection and force
+   *                                  is set to false
+   */
+  default void add(String fileName, Image image, boolean force, Histogram histogram)
+      throws IllegalArgumentException {
+    this.add(fileName, image, force);
+  }
+
   /**
    * Removes an image from the collection with the given file name. If the file does not exist, the
    * collection is not modified.
@@ -42,4 +68,58 @@ public interface StoredImages {
    * @return true if the image exists in the collection, false otherwise
    */
   boolean exists(String fileName);
+
+  /**
+   * Returns the histogram of the image with the given file name.
+   *
+   * @param fileName the file name of the image to get the histogram of
+   * @return the histogram of the image with the given file name
+   * @throws IllegalArgumentException if the file name does not exist in the collection
+   */
+  default Histogram getHistogram(String fileName) throws IllegalArgumentException {
+    return Histogram.of(this.retrieve(fileName));
+  }
+
+  /**
+   * Returns the histogram of the image with the given file name, and copies the packed pixels of
+   * the image into the given array row by row. If the histogram has to be counted, it is counted in
+   * the same pass over the image that copies its pixels.
+   *
+   * @param fileName the file name of the image to get the histogram of
+   * @param pixels   the array to copy the packed pixels of the image into
+   * @return the histogram of the image with the given file name
+   * @throws IllegalArgumentException if the file name does not exist in the collection, or if the
+   *                                  array is too small to hold the pixels of the image
+   */
+  default Histogram getHistogram(String fileName, int[] pixels) throws IllegalArgumentException {
+    return Histogram.of(this.retrieve(fileName), pixels);
+  }
+
+  /**
+   * Returns the histogram of the image with the given file name if it is already known, without
+   * counting it.
+   *
+   * @param fileName the file name of the image to get the histogram of
+   * @return the histogram of the image, or null if it is not known
+   */
+  default Histogram getCachedHistogram(String fileName) {
+    return null;
+  }
+
+  /**
+   * Returns something worked out from the image with the given file name, such as the compiled
+   * form of a mask image. What is worked out with a given key is kept until the image is removed or
+   * overwritten, so it is only worked out again for a different image.
+   *
+   * @param fileName the file name of the image to work it out from
+   * @param key      the key that identifies what is worked out from the image
+   * @param derive   the function that works it out from the image
+   * @param <T>      the type of what is worked out
+   * @return what is worked out from the image with the given file name
+   * @throws IllegalArgumentException if the file name does not exist in the collection
+   */
+  default <T> T getDerived(String fileName, Object key, Function<Image, T> derive)
+      throws IllegalArgumentException {
+    return derive.apply(this.retrieve(fileName));
+  }
 }
@@ -2,34 +2,108 @@ package model;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Implements the {@link StoredImages} interface.
+ *
+ * <p>The collection owns the images it stores. When an image that is stored off the heap (see
+ * {@link DirectImage}) or in tiles (see {@link TiledImage}) is removed or overwritten, and it is
+ * not stored under any other file name, it is released, which frees its off-heap buffer or closes
+ * and deletes its scratch file.</p>
+ *
+ * <p>The pixels of an image that are only computed the first time they are used (see
+ * {@link Image#computed}) are computed when the image is stored, in parallel, so the image is
+ * read only once more when it is displayed and counted.</p>
+ *
+ * <p>The histogram of each stored image, and anything else worked out from it such as the compiled
+ * form of a mask image, is worked out the first time it is asked for, and kept until the image is
+ * removed or overwritten.</p>
  */
 
 public class StoredImagesImpl implements StoredImages {
 
   private final Map<String, Image> storedImages;
+  private final ImageStorage storage;
+  private final Map<String, Histogram> histograms;
+  private final Map<String, Map<Object, Object>> derived;
 
   /**
-   * Constructs a new empty image storage object.
+   * Constructs a new empty image storage object that stores images as they are given.
    */
   public StoredImagesImpl() {
     this.storedImages = new HashMap<>();
+    this.storage = null;
+    this.histograms = new HashMap<>();
+    this.derived = new HashMap<>();
+  }
+
+  /**
+   * Constructs a new empty image storage object that converts every image it stores to the given
+   * way of storing pixels.
+   *
+   * @param storage the way the pixels of the stored images should be stored
+   * @throws IllegalArgumentException if the storage is null
+   */
+  public StoredImagesImpl(ImageStorage storage) throws IllegalArgumentException {
+    if (storage == null) {
+      throw new IllegalArgumentException("Storage cannot be null");
+    }
+    this.storedImages = new HashMap<>();
+    this.storage = storage;
+    this.histograms = new HashMap<>();
+    this.derived = new HashMap<>();
   }
 
   @Override
   public void add(String fileName, Image image, boolean force) {
     if ((this.exists(fileName) && force) || !this.exists(fileName)) {
-      this.storedImages.put(fileName.toLowerCase(), image);
+      // stored images are read from parallel bands, so lazily computed pixels are computed now
+      image = image.computed();
+      if (this.storage != null) {
+        image = this.storage.convert(image);
+      }
+      Image previous = this.storedImages.put(fileName.toLowerCase(), image);
+      this.histograms.remove(fileName.toLowerCase());
+      this.derived.remove(fileName.toLowerCase());
+      if (previous != image) {
+        this.release(previous);
+      }
     } else if (this.exists(fileName) && !force) {
       throw new IllegalArgumentException("An image with that file name already exists");
     }
   }
 
+  @Override
+  public void add(String fileName, Image image, boolean force, Histogram histogram) {
+    this.add(fileName, image, force);
+    if (histogram != null) {
+      this.histograms.put(fileName.toLowerCase(), histogram);
+    }
+  }
+
   @Override
   public void remove(String fileName) {
-    this.storedImages.remove(fileName);
+    this.release(this.storedImages.remove(fileName.toLowerCase()));
+    this.histograms.remove(fileName.toLowerCase());
+    this.derived.remove(fileName.toLowerCase());
+  }
+
+  /**
+   * Releases the off-heap buffer or the tiles of an image that is no longer stored under the given
+   * file name, unless the image is still stored under another file name.
+   *
+   * @param image the image that is no longer stored, or null if there was none
+   */
+  private void release(Image image) {
+    if (image == null || this.storedImages.containsValue(image)) {
+      return;
+    }
+    if (image instanceof DirectImage) {
+      ((DirectImage) image).release();
+    } else if (image instanceof TiledImage) {
+      ((TiledImage) image).release();
+    }
   }
 
   @Override
@@ -52,8 +126,51 @@ public class StoredImagesImpl implements StoredImages {
       throw new IllegalArgumentException(
           "No image with the file name \"" + fileName + "\" has been loaded");
     } else {
-      return retrieved.copy();
+      // images are immutable, so the stored image can be shared without copying its pixels
+      return retrieved;
+    }
+  }
+
+  @Override
+  public Histogram getHistogram(String fileName) throws IllegalArgumentException {
+    Histogram histogram = this.histograms.get(fileName.toLowerCase());
+    if (histogram == null) {
+      histogram = Histogram.of(this.retrieve(fileName));
+      this.histograms.put(fileName.toLowerCase(), histogram);
+    }
+    return histogram;
+  }
+
+  @Override
+  public Histogram getHistogram(String fileName, int[] pixels) throws IllegalArgumentException {
+    Histogram histogram = this.histograms.get(fileName.toLowerCase());
+    if (histogram == null) {
+      histogram = Histogram.of(this.retrieve(fileName), pixels);
+      this.histograms.put(fileName.toLowerCase(), histogram);
+    } else {
+      ImageUtils.copyPixels(this.retrieve(fileName), pixels);
     }
+    return histogram;
+  }
+
+  @Override
+  public Histogram getCachedHistogram(String fileName) {
+    return this.histograms.get(fileName.toLowerCase());
   }
 
+  @Override
+  public <T> T getDerived(String fileName, Object key, Function<Image, T> derive)
+      throws IllegalArgumentException {
+    Image image = this.retrieve(fileName);
+    Map<Object, Object> derived = this.derived.computeIfAbsent(fileName.toLowerCase(),
+        name -> new HashMap<>());
+    // each key is only ever given functions that work out the same type
+    @SuppressWarnings("unchecked")
+    T value = (T) derived.get(key);
+    if (value == null) {
+      value = derive.apply(image);
+      derived.put(key, value);
+    }
+    return value;
+  }
 }
@@ -0,0 +1,515 @@
+package model;
+
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implements the {@link Image} interface by splitting the image into square tiles.
+ *
+ * <p>Each tile holds the packed {@code 0xRRGGBB} pixels of a square of the image (the tiles along
+ * the right and bottom edges may be smaller), and is only allocated once its pixels are computed.
+ * At most a fixed number of tiles are kept in memory at once. When another tile is needed, the
+ * least recently used tile is paged out to a scratch file and read back in the next time it is
+ * used, so the memory used by an image is set by the number of resident tiles rather than by the
+ * area of the image.</p>
+ *
+ * <p>Transforming a tiled image with the {@link RegionEngine} produces another tiled image, which
+ * is computed one tile at a time. Access to the pixels should go through {@link #getRegion}, which
+ * only touches the tiles that overlap the region; {@link #getPackedView} and
+ * {@link #getPackedPixels} assemble the whole image in memory.</p>
+ *
+ * <p>An image and all of its copies share the same tiles, and each of them owns one reference to
+ * them, which is given up by calling {@link #release}, like a {@link DirectImage}. Once every owner
+ * has released them, the scratch file is closed and deleted, and any further use of the released
+ * images throws an {@link IllegalStateException}. The scratch file of tiles that become unreachable
+ * without being released is closed and deleted once they are garbage collected, and any scratch
+ * file that is still open when the program exits is deleted then.</p>
+ */
+public class TiledImage implements Image {
+
+  /**
+   * The default width and height of the tiles.
+   */
+  public static final int DEFAULT_TILE_SIZE = 256;
+
+  /**
+   * The default number of tiles kept in memory at once.
+   */
+  public static final int DEFAULT_RESIDENT_TILES = 64;
+
+  // closes and deletes the scratch files of tiles that are garbage collected without being released
+  private static final Cleaner CLEANER = Cleaner.create();
+
+  private final int width;
+  private final int height;
+  private final Tiles tiles;
+  private boolean released;
+
+  /**
+   * Constructs a new {@link TiledImage} that owns a reference to the given tiles.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @param tiles  the tiles of the image
+   */
+  private TiledImage(int width, int height, Tiles tiles) {
+    this.width = width;
+    this.height = height;
+    this.tiles = tiles;
+    this.released = false;
+  }
+
+  /**
+   * Returns a new {@link TiledImage} of the given dimensions whose pixels are computed by the given
+   * function one tile at a time. The tiles are computed in parallel by the {@link RegionEngine}.
+   *
+   * @param width         the width of the image
+   * @param height        the height of the image
+   * @param tileSize      the width and height of the tiles
+   * @param residentTiles the maximum number of tiles to keep in memory at once
+   * @param function      the function that computes the pixels of any region of the image
+   * @return the new tiled image
+   * @throws IllegalArgumentException if the image does not have at least one pixel, or if the tile
+   *                                  size or number of resident tiles is not positive
+   */
+  public static TiledImage render(int width, int height, int tileSize, int residentTiles,
+      RegionFunction function) throws IllegalArgumentException {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("The pixels array must contain at least one pixel");
+    }
+    if (tileSize <= 0 || residentTiles <= 0) {
+      throw new IllegalArgumentException(
+          "The tile size and number of resident tiles must be positive");
+    }
+    if (function == null) {
+      throw new IllegalArgumentException("The function cannot be null");
+    }
+    Tiles tiles = new Tiles(width, height, tileSize, residentTiles);
+    RegionEngine.forEach(tiles.columns * tiles.rows, index -> {
+      int column = index % tiles.columns;
+      int row = index / tiles.columns;
+      int tileWidth = tiles.tileWidth(column);
+      int tileHeight = tiles.tileHeight(row);
+      int[] tile = new int[tileWidth * tileHeight];
+      function.compute(column * tileSize, row * tileSize, tileWidth, tileHeight, tile, 0);
+      for (int i = 0; i < tile.length; i++) {
+        tile[i] &= 0xFFFFFF;
+      }
+      tiles.put(index, tile);
+    });
+    return new TiledImage(width, height, tiles);
+  }
+
+  /**
+   * Returns the given image stored as a {@link TiledImage} with the default tile size and number of
+   * resident tiles. If the image is already tiled, it is returned as is, and if it is a lazily
+   * computed image whose result is tiled, that result is returned. Otherwise its pixels are copied
+   * into new tiles.
+   *
+   * @param image the image to convert
+   * @return the image stored as a tiled image
+   */
+  public static TiledImage of(Image image) {
+    // the result of a lazily computed image is taken over rather than copied, so no other tiles
+    // or scratch file are made for it
+    Image computed = image.computed();
+    if (computed instanceof TiledImage) {
+      return (TiledImage) computed;
+    }
+    return render(computed.getWidth(), computed.getHeight(), DEFAULT_TILE_SIZE,
+        DEFAULT_RESIDENT_TILES, computed::getRegion);
+  }
+
+  /**
+   * Gives up this image's reference to its tiles. When the image and all of its copies have been
+   * released, the tiles are dropped and their scratch file is closed and deleted. Releasing an
+   * image more than once has no effect.
+   */
+  public void release() {
+    if (!this.released) {
+      this.released = true;
+      this.tiles.release();
+    }
+  }
+
+  /**
+   * Returns whether this image has been released.
+   *
+   * @return true if this image has been released, false otherwise
+   */
+  public boolean isReleased() {
+    return this.released;
+  }
+
+  /**
+   * Returns the width and height of the tiles of this image.
+   *
+   * @return the size of the tiles
+   */
+  public int getTileSize() {
+    return this.tiles.tileSize;
+  }
+
+  /**
+   * Returns the maximum number of tiles of this image that are kept in memory at once.
+   *
+   * @return the number of resident tiles
+   */
+  public int getResidentTiles() {
+    return this.tiles.residentTiles;
+  }
+
+  @Override
+  public int getHeight() {
+    return this.height;
+  }
+
+  @Override
+  public int getWidth() {
+    return this.width;
+  }
+
+  @Override
+  public Color[][] getPixels() {
+    Color[][] ret = new Color[this.height][this.width];
+    int[] row = new int[this.width];
+    for (int i = 0; i < this.height; i++) {
+      this.getRegion(0, i, this.width, 1, row);
+      for (int j = 0; j < this.width; j++) {
+        ret[i][j] = new Color(row[j]);
+      }
+    }
+    return ret;
+  }
+
+  @Override
+  public int[] getPackedPixels() {
+    int[] ret = new int[this.width * this.height];
+    this.getRegion(0, 0, this.width, this.height, ret);
+    return ret;
+  }
+
+  @Override
+  public int getRGB(int x, int y) throws IllegalArgumentException {
+    if (x < 0 || x >= this.width || y < 0 || y >= this.height) {
+      throw new IllegalArgumentException("The pixel (" + x + ", " + y + ") is outside the image");
+    }
+    Tiles tiles = this.tiles();
+    int size = tiles.tileSize;
+    int column = x / size;
+    int[] tile = tiles.get((y / size) * tiles.columns + column);
+    return tile[(y % size) * tiles.tileWidth(column) + x % size];
+  }
+
+  @Override
+  public IntBuffer getRow(int y) throws IllegalArgumentException {
+    if (y < 0 || y >= this.height) {
+      throw new IllegalArgumentException("The row " + y + " is outside the image");
+    }
+    int[] row = new int[this.width];
+    this.getRegion(0, y, this.width, 1, row);
+    return IntBuffer.wrap(row).asReadOnlyBuffer();
+  }
+
+  @Override
+  public IntBuffer getPackedView() {
+    return IntBuffer.wrap(this.getPackedPixels()).asReadOnlyBuffer();
+  }
+
+  @Override
+  public void getRegion(int x, int y, int width, int height, int[] dest, int offset)
+      throws IllegalArgumentException {
+    ImageUtils.checkRegion(this, x, y, width, height, dest, offset);
+    Tiles tiles = this.tiles();
+    int size = tiles.tileSize;
+    // copies the part of the region that overlaps each tile, one tile at a time
+    for (int row = y / size; row <= (y + height - 1) / size; row++) {
+      int top = Math.max(y, row * size);
+      int bottom = Math.min(y + height, (row + 1) * size);
+      for (int column = x / size; column <= (x + width - 1) / size; column++) {
+        int left = Math.max(x, column * size);
+        int right = Math.min(x + width, (column + 1) * size);
+        int tileWidth = tiles.tileWidth(column);
+        int[] tile = tiles.get(row * tiles.columns + column);
+        for (int i = top; i < bottom; i++) {
+          System.arraycopy(tile, (i - row * size) * tileWidth + left - column * size, dest,
+              offset + (i - y) * width + left - x, right - left);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns a copy of this image that shares its tiles and owns its own reference to them.
+   *
+   * @return a copy of this image
+   * @throws IllegalStateException if this image has been released
+   */
+  @Override
+  public TiledImage copy() throws IllegalStateException {
+    this.tiles().retain();
+    return new TiledImage(this.width, this.height, this.tiles);
+  }
+
+  /**
+   * Returns the tiles of this image.
+   *
+   * @return the tiles
+   * @throws IllegalStateException if this image has been released
+   */
+  private Tiles tiles() throws IllegalStateException {
+    if (this.released) {
+      throw new IllegalStateException("The image has been released");
+    }
+    return this.tiles;
+  }
+
+  /**
+   * Represents the tiles of an image, which are kept in memory up to a fixed number of tiles and
+   * paged out to a scratch file beyond that. Since tiles never change once they are stored, each
+   * tile is written to the scratch file at most once. The tiles are shared by an image and its
+   * copies, along with the number of images that still own a reference to them.
+   */
+  private static final class Tiles {
+
+    private final int width;
+    private final int height;
+    private final int tileSize;
+    private final int residentTiles;
+    private final int columns;
+    private final int rows;
+    private final Map<Integer, int[]> resident;
+    private final boolean[] paged;
+    private Scratch scratch;
+    private Cleaner.Cleanable cleanable;
+    private int owners;
+
+    /**
+     * Constructs a new empty set of tiles for an image of the given dimensions.
+     *
+     * @param width         the width of the image
+     * @param height        the height of the image
+     * @param tileSize      the width and height of the tiles
+     * @param residentTiles the maximum number of tiles to keep in memory at once
+     */
+    private Tiles(int width, int height, int tileSize, int residentTiles) {
+      this.width = width;
+      this.height = height;
+      this.tileSize = tileSize;
+      this.residentTiles = residentTiles;
+      this.columns = (width + tileSize - 1) / tileSize;
+      this.rows = (height + tileSize - 1) / tileSize;
+      this.paged = new boolean[this.columns * this.rows];
+      this.owners = 1;
+      // the map is kept in access order, so its eldest entry is the least recently used tile
+      this.resident = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, int[]> eldest) {
+          if (this.size() <= Tiles.this.residentTiles) {
+            return false;
+          }
+          Tiles.this.pageOut(eldest.getKey(), eldest.getValue());
+          return true;
+        }
+      };
+    }
+
+    /**
+     * Returns the width of the tiles in the given column.
+     *
+     * @param column the column of tiles
+     * @return the width of the tiles in the column
+     */
+    private int tileWidth(int column) {
+      return Math.min(this.tileSize, this.width - column * this.tileSize);
+    }
+
+    /**
+     * Returns the height of the tiles in the given row.
+     *
+     * @param row the row of tiles
+     * @return the height of the tiles in the row
+     */
+    private int tileHeight(int row) {
+      return Math.min(this.tileSize, this.height - row * this.tileSize);
+    }
+
+    /**
+     * Adds an owner to these tiles.
+     */
+    private synchronized void retain() {
+      this.owners++;
+    }
+
+    /**
+     * Removes an owner from these tiles. Once there are no owners left, the resident tiles are
+     * dropped and the scratch file is closed and deleted.
+     */
+    private synchronized void release() {
+      this.owners--;
+      if (this.owners == 0) {
+        this.resident.clear();
+        if (this.cleanable != null) {
+          this.cleanable.clean();
+        }
+      }
+    }
+
+    /**
+     * Stores the pixels of the tile at the given index.
+     *
+     * @param index the index of the tile, in row major order
+     * @param tile  the packed pixels of the tile
+     */
+    private synchronized void put(int index, int[] tile) {
+      this.resident.put(index, tile);
+    }
+
+    /**
+     * Returns the pixels of the tile at the given index, reading it back from the scratch file if
+     * it has been paged out.
+     *
+     * @param index the index of the tile, in row major order
+     * @return the packed pixels of the tile
+     * @throws IllegalStateException if the tile has not been stored or cannot be read back
+     */
+    private synchronized int[] get(int index) throws IllegalStateException {
+      int[] tile = this.resident.get(index);
+      if (tile == null) {
+        if (!this.paged[index]) {
+          throw new IllegalStateException("The tile " + index + " has not been stored");
+        }
+        tile = this.pageIn(index);
+        this.resident.put(index, tile);
+      }
+      return tile;
+    }
+
+    /**
+     * Writes the given tile to its slot in the scratch file, unless it has been written before.
+     *
+     * @param index the index of the tile, in row major order
+     * @param tile  the packed pixels of the tile
+     * @throws IllegalStateException if the tile cannot be written
+     */
+    private void pageOut(int index, int[] tile) throws IllegalStateException {
+      if (this.paged[index]) {
+        return;
+      }
+      try {
+        if (this.scratch == null) {
+          this.scratch = new Scratch(File.createTempFile("tiles", ".tmp"));
+          // the cleaning action only refers to the scratch file, so it does not keep these
+          // tiles reachable
+          this.cleanable = CLEANER.register(this, this.scratch);
+        }
+        ByteBuffer bytes = ByteBuffer.allocate(tile.length * Integer.BYTES);
+        bytes.asIntBuffer().put(tile);
+        long offset = this.offset(index);
+        while (bytes.hasRemaining()) {
+          offset += this.scratch.channel.write(bytes, offset);
+        }
+      } catch (IOException e) {
+        throw new IllegalStateException("The tile " + index + " could not be paged out");
+      }
+      this.paged[index] = true;
+    }
+
+    /**
+     * Reads the tile at the given index back from the scratch file.
+     *
+     * @param index the index of the tile, in row major order
+     * @return the packed pixels of the tile
+     * @throws IllegalStateException if the tile cannot be read
+     */
+    private int[] pageIn(int index) throws IllegalStateException {
+      int[] tile = new int[this.tileWidth(index % this.columns)
+          * this.tileHeight(index / this.columns)];
+      ByteBuffer bytes = ByteBuffer.allocate(tile.length * Integer.BYTES);
+      try {
+        long offset = this.offset(index);
+        while (bytes.hasRemaining()) {
+          int read = this.scratch.channel.read(bytes, offset);
+          if (read < 0) {
+            throw new IOException("Unexpected end of scratch file");
+          }
+          offset += read;
+        }
+      } catch (IOException e) {
+        throw new IllegalStateException("The tile " + index + " could not be paged in");
+      }
+      bytes.flip();
+      bytes.asIntBuffer().get(tile);
+      return tile;
+    }
+
+    /**
+     * Returns the position of the slot of the tile at the given index in the scratch file.
+     *
+     * @param index the index of the tile, in row major order
+     * @return the position of the tile's slot in bytes
+     */
+    private long offset(int index) {
+      return (long) index * this.tileSize * this.tileSize * Integer.BYTES;
+    }
+  }
+
+  /**
+   * Represents the scratch file that the tiles of an image are paged out to. Running it closes and
+   * deletes the file, which happens when the tiles are released or garbage collected, or when the
+   * program exits, whichever comes first.
+   */
+  private static final class Scratch implements Runnable {
+
+    // the scratch files that are still open, deleted by a single hook when the program exits
+    private static final Set<Scratch> OPEN = ConcurrentHashMap.newKeySet();
+
+    static {
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        for (Scratch scratch : OPEN) {
+          scratch.run();
+        }
+      }));
+    }
+
+    private final File file;
+    private final FileChannel channel;
+
+    /**
+     * Opens the given file as a scratch file.
+     *
+     * @param file the file to page tiles out to
+     * @throws IOException if the file cannot be opened
+     */
+    private Scratch(File file) throws IOException {
+      this.file = file;
+      this.channel = new RandomAccessFile(file, "rw").getChannel();
+      OPEN.add(this);
+    }
+
+    @Override
+    public void run() {
+      if (!OPEN.remove(this)) {
+        return;
+      }
+      try {
+        this.channel.close();
+      } catch (IOException e) {
+        // the file is deleted below either way
+      }
+      if (!this.file.delete()) {
+        this.file.deleteOnExit();
+      }
+    }
+  }
+}
@@ -1,82 +1,74 @@
 package model.transformations;
 
-import java.awt.Color;
-import model.Image;
-import model.ImageImpl;
 import model.ImageTransformation;
 
 /**
  * An implementation of the {@link ImageTransformation} interface representing a macro used to blur
  * an image.
+ *
+ * <p>
+ * By default the image is blurred with a 3x3 kernel. A Gaussian blur of any radius can be used
+ * instead, whose kernel reaches the given number of pixels on each side of a pixel and has a
+ * standard deviation of a third of the radius. Both kernels are separable, so they are applied as
+ * two 1D passes by the {@link Convolution}.
+ * </p>
  */
-public class Blur implements ImageTransformation {
+public class Blur extends Convolution {
 
   private static final double[][] BLUR_KERNEL = {{1.0 / 16.0, 1.0 / 8.0, 1.0 / 16.0},
       {1.0 / 8.0, 1.0 / 4.0, 1.0 / 8.0}, {1.0 / 16.0, 1.0 / 8.0, 1.0 / 16.0}};
 
-  @Override
-  public Image transform(Image image) {
-    int height = image.getHeight();
-    int width = image.getWidth();
-    Color[][] oldPixels = image.getPixels();
-    Color[][] newPixels = new Color[height][width];
+  /**
+   * Constructs a new blur transformation macro object that uses the 3x3 kernel.
+   */
+  public Blur() {
+    super(BLUR_KERNEL);
+  }
 
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        newPixels[i][j] = blurPixel(oldPixels, i, j);
-      }
-    }
-    return new ImageImpl(newPixels);
+  /**
+   * Constructs a new blur transformation macro object that uses a Gaussian kernel of the given
+   * radius, using the closest pixel inside of the image for the pixels outside of it.
+   *
+   * @param radius the number of pixels the kernel reaches on each side of a pixel
+   * @throws IllegalArgumentException if the radius is not positive
+   */
+  public Blur(int radius) throws IllegalArgumentException {
+    this(radius, Border.Clamp);
   }
 
   /**
-   * Returns the color of the pixel at the given row and column in the given image after applying
-   * the blur kernel to it.
+   * Constructs a new blur transformation macro object that uses a Gaussian kernel of the given
+   * radius.
    *
-   * @param allPixels the pixels of the image
-   * @param i         the row of the pixel
-   * @param j         the column of the pixel
-   * @return the new color of the pixel
+   * @param radius the number of pixels the kernel reaches on each side of a pixel
+   * @param border the way of choosing the pixels outside of the image
+   * @throws IllegalArgumentException if the radius is not positive, or if the border is null
    */
-  private Color blurPixel(Color[][] allPixels, int i, int j) {
-    int height = allPixels.length;
-    int width = allPixels[0].length;
-    Color[][] group = new Color[3][3];
+  public Blur(int radius, Border border) throws IllegalArgumentException {
+    super(gaussian(radius), gaussian(radius), border);
+  }
 
-    // Creates a 3x3 array of pixels that surround the given pixel
-    for (int k = 0; k < 3; k++) {
-      for (int l = 0; l < 3; l++) {
-        group[k][l] = allPixels[Math.max(0, Math.min(height - 1, i + k - 3 / 2))][Math.max(0,
-            Math.min(width - 1, j + l - 3 / 2))];
-      }
+  /**
+   * Returns the 1D Gaussian kernel of the given radius, whose values add up to 1.
+   *
+   * @param radius the number of values on each side of the center of the kernel
+   * @return the Gaussian kernel
+   * @throws IllegalArgumentException if the radius is not positive
+   */
+  private static double[] gaussian(int radius) throws IllegalArgumentException {
+    if (radius <= 0) {
+      throw new IllegalArgumentException("The radius must be positive");
     }
-
-    double redVal = 0;
-    double greenVal = 0;
-    double blueVal = 0;
-
-    // Loops through the 3x3 array of pixels and multiplies each pixel's RGB values by the
-    // corresponding value in the blur kernel
-    for (int k = 0; k < 3; k++) {
-      for (int l = 0; l < 3; l++) {
-        Color groupPixel = group[k][l];
-        redVal += groupPixel.getRed() * BLUR_KERNEL[k][l];
-        greenVal += groupPixel.getGreen() * BLUR_KERNEL[k][l];
-        blueVal += groupPixel.getBlue() * BLUR_KERNEL[k][l];
-      }
+    double sigma = radius / 3.0;
+    double[] kernel = new double[2 * radius + 1];
+    double sum = 0;
+    for (int i = -radius; i <= radius; i++) {
+      kernel[i + radius] = Math.exp(-(i * i) / (2 * sigma * sigma));
+      sum += kernel[i + radius];
     }
-
-    // Rounds the RGB values to the nearest integer
-    int red = Math.toIntExact(Math.round(redVal));
-    int green = Math.toIntExact(Math.round(greenVal));
-    int blue = Math.toIntExact(Math.round(blueVal));
-
-    // Clamps the RGB values to be between 0 and 255
-    red = Math.max(0, Math.min(red, 255));
-    green = Math.max(0, Math.min(green, 255));
-    blue = Math.max(0, Math.min(blue, 255));
-
-    // Returns the new blurred pixel
-    return new Color(red, green, blue);
+    for (int i = 0; i < kernel.length; i++) {
+      kernel[i] /= sum;
+    }
+    return kernel;
   }
 }
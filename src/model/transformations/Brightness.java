@@ -1,15 +1,23 @@
 package model.transformations;
 
-import java.awt.Color;
+import java.nio.ByteBuffer;
 import model.Image;
-import model.ImageImpl;
 import model.ImageTransformation;
+import model.ImageUtils;
+import model.PlanarImage;
+import model.RegionEngine;
 
 /**
  * An implementation of the {@link ImageTransformation} interface representing a macro used to
  * adjust the brightness of an image, whether positively or negatively.
+ *
+ * <p>
+ * The adjustment is applied as a {@link ColorMatrix} that adds the amount to every component, so it
+ * is combined with any color matrices applied right before or after it into a single pass over the
+ * image. Planar images are instead adjusted one plane at a time.
+ * </p>
  */
-public class Brightness implements ImageTransformation {
+public class Brightness extends ColorMatrix {
 
   private final int amount;
 
@@ -21,31 +29,55 @@ public class Brightness implements ImageTransformation {
    * @throws IllegalArgumentException if the given amount is not positive or negative
    */
   public Brightness(int amount) throws IllegalArgumentException {
-    if (amount == 0) {
-      throw new IllegalArgumentException("The adjustment amount must be non-zero");
-    }
+    super(new double[][]{{1, 0, 0, nonZero(amount)}, {0, 1, 0, amount}, {0, 0, 1, amount}});
     this.amount = amount;
   }
 
   @Override
   public Image transform(Image image) {
-    Color[][] oldPixels = image.getPixels();
-    Color[][] newPixels = new Color[image.getHeight()][image.getWidth()];
-    for (int i = 0; i < image.getHeight(); i++) {
-      for (int j = 0; j < image.getWidth(); j++) {
-        Color pixel = oldPixels[i][j];
-
-        int red = pixel.getRed() + this.amount;
-        int blue = pixel.getBlue() + this.amount;
-        int green = pixel.getGreen() + this.amount;
+    if (image instanceof PlanarImage) {
+      return this.transformPlanes((PlanarImage) image);
+    }
+    return super.transform(image);
+  }
 
-        red = Math.max(0, Math.min(red, 255));
-        green = Math.max(0, Math.min(green, 255));
-        blue = Math.max(0, Math.min(blue, 255));
+  /**
+   * Checks that the given adjustment amount is not zero.
+   *
+   * @param amount the amount to check
+   * @return the given amount
+   * @throws IllegalArgumentException if the given amount is zero
+   */
+  private static int nonZero(int amount) throws IllegalArgumentException {
+    if (amount == 0) {
+      throw new IllegalArgumentException("The adjustment amount must be non-zero");
+    }
+    return amount;
+  }
 
-        newPixels[i][j] = new Color(red, green, blue);
-      }
+  /**
+   * Adjusts the brightness of a planar image one plane at a time, looking up the adjusted value of
+   * each component in a table built once for all 256 possible values.
+   *
+   * @param image the planar image to adjust
+   * @return a new planar image with the adjusted brightness
+   */
+  private Image transformPlanes(PlanarImage image) {
+    byte[] table = new byte[256];
+    for (int value = 0; value < 256; value++) {
+      table[value] = (byte) ImageUtils.clamp(value + this.amount);
     }
-    return new ImageImpl(newPixels);
+    byte[][] newPlanes = new byte[3][];
+    // the planes are independent, so they are adjusted in parallel
+    RegionEngine.forEach(3, channel -> {
+      ByteBuffer plane = image.getPlane(channel);
+      byte[] newPlane = new byte[plane.capacity()];
+      for (int i = 0; i < newPlane.length; i++) {
+        newPlane[i] = table[plane.get(i) & 0xFF];
+      }
+      newPlanes[channel] = newPlane;
+    });
+    return PlanarImage.wrap(image.getWidth(), image.getHeight(), newPlanes[PlanarImage.RED],
+        newPlanes[PlanarImage.GREEN], newPlanes[PlanarImage.BLUE]);
   }
 }
@@ -0,0 +1,128 @@
+package model.transformations;
+
+import model.Histogram;
+import model.Image;
+import model.ImageTransformation;
+import model.ImageUtils;
+
+/**
+ * An implementation of the {@link ImageTransformation} interface representing a macro used to apply
+ * an affine color matrix to every pixel of an image.
+ *
+ * <p>
+ * The matrix has 3 rows of 4 values, one row for each of the red, green, and blue components of the
+ * new pixel. The first three values of a row are multiplied by the red, green, and blue components
+ * of the original pixel, and the fourth value is added to their sum, so the new red component is
+ * {@code m[0][0] * red + m[0][1] * green + m[0][2] * blue + m[0][3]}. The result is then rounded to
+ * the nearest integer and clamped to be between 0 and 255.
+ * </p>
+ *
+ * <p>
+ * Applying a color matrix does not compute any pixels right away. Instead, it returns an image that
+ * remembers the original image and the matrix, and computes its pixels the first time they are
+ * used. Applying another color matrix to such an image multiplies the two matrices together, so a
+ * chain of color matrices is computed in a single pass over the original image, with a single round
+ * and clamp at the end. A matrix that only scales and offsets each component is applied as a
+ * {@link LookupTable}, which gives exactly the same result.
+ * </p>
+ */
+public class ColorMatrix implements ImageTransformation {
+
+  private final double[][] matrix;
+
+  /**
+   * Constructs a new color matrix transformation macro object that applies the given matrix.
+   *
+   * @param matrix the matrix to apply, as 3 rows of 4 values
+   * @throws IllegalArgumentException if the matrix is not 3 rows of 4 finite values
+   */
+  public ColorMatrix(double[][] matrix) throws IllegalArgumentException {
+    if (matrix == null || matrix.length != 3) {
+      throw new IllegalArgumentException("The matrix must have 3 rows of 4 values");
+    }
+    this.matrix = new double[3][];
+    for (int i = 0; i < 3; i++) {
+      if (matrix[i] == null || matrix[i].length != 4) {
+        throw new IllegalArgumentException("The matrix must have 3 rows of 4 values");
+      }
+      for (double value : matrix[i]) {
+        if (!Double.isFinite(value)) {
+          throw new IllegalArgumentException("The matrix values must be finite");
+        }
+      }
+      this.matrix[i] = matrix[i].clone();
+    }
+  }
+
+  /**
+   * Returns the histogram of the image made by applying this matrix to an image with the given
+   * histogram, if the matrix only scales and offsets each component so that it can be applied as a
+   * {@link LookupTable} (see {@link LookupTable#remap(Histogram, Image)}).
+   *
+   * @param histogram the histogram of the original image
+   * @param image     the image made by applying this matrix to the original image
+   * @return the histogram of the new image, or null if it cannot be worked out from the given
+   *         histogram
+   * @throws IllegalArgumentException if the histogram or the image is null
+   */
+  public Histogram remap(Histogram histogram, Image image) throws IllegalArgumentException {
+    if (histogram == null) {
+      throw new IllegalArgumentException("The histogram cannot be null");
+    }
+    LookupTable table = LookupTable.of(this.matrix);
+    return table == null ? null : table.remap(histogram, image);
+  }
+
+  @Override
+  public int getReach() {
+    return 0;
+  }
+
+  @Override
+  public Image transform(Image image) {
+    return PointwiseImage.apply(image, this.matrix);
+  }
+
+  /**
+   * Returns the matrix that has the same effect as applying the first matrix and then the second
+   * matrix, without rounding or clamping in between.
+   *
+   * @param second the matrix applied second
+   * @param first  the matrix applied first
+   * @return the product of the matrices
+   */
+  static double[][] compose(double[][] second, double[][] first) {
+    double[][] ret = new double[3][4];
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 4; j++) {
+        ret[i][j] = second[i][0] * first[0][j] + second[i][1] * first[1][j]
+            + second[i][2] * first[2][j];
+      }
+      ret[i][3] += second[i][3];
+    }
+    return ret;
+  }
+
+  /**
+   * Returns the color of the given pixel after applying the given matrix to it.
+   *
+   * @param matrix the matrix to apply
+   * @param pixel  the packed color of the original pixel
+   * @return the new packed color of the pixel
+   */
+  static int applyPixel(double[][] matrix, int pixel) {
+    int red = ImageUtils.getRed(pixel);
+    int green = ImageUtils.getGreen(pixel);
+    int blue = ImageUtils.getBlue(pixel);
+
+    // Multiplies each RGB value by the corresponding value in the matrix and adds the offsets
+    double redVal = red * matrix[0][0] + green * matrix[0][1] + blue * matrix[0][2] + matrix[0][3];
+    double greenVal =
+        red * matrix[1][0] + green * matrix[1][1] + blue * matrix[1][2] + matrix[1][3];
+    double blueVal = red * matrix[2][0] + green * matrix[2][1] + blue * matrix[2][2] + matrix[2][3];
+
+    // Rounds the RGB values to the nearest integer, and clamps them to be between 0 and 255
+    return ImageUtils.pack(Math.toIntExact(Math.round(redVal)),
+        Math.toIntExact(Math.round(greenVal)), Math.toIntExact(Math.round(blueVal)));
+  }
+}
@@ -0,0 +1,269 @@
+package model.transformations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import model.Image;
+import model.ImageUtils;
+import model.RegionEngine;
+
+/**
+ * Represents the black pixels of a mask image as the runs of black pixels next to each other in
+ * each row, so a mask takes a few bytes per run instead of four bytes per pixel, and whole runs can
+ * be copied at once when the mask is applied.
+ *
+ * <p>
+ * A soft mask is made of the runs of pixels that are not white instead, along with the weight of
+ * each of their pixels, which is 255 for black pixels, 0 for white pixels, and in between for grey
+ * pixels depending on their luma.
+ * </p>
+ *
+ * <p>
+ * Images are immutable, so the runs of a stored mask image are found once and kept by the
+ * collection it is stored in until it is removed or overwritten (see
+ * {@link Mask#Mask(Image, model.StoredImages, String, Mask.Mode)}).
+ * </p>
+ */
+final class CompiledMask {
+
+  // the size of the tiles used to find the boxes around the masked pixels
+  private static final int BOX_TILE = 64;
+
+  private final int width;
+  private final int height;
+  // the runs of row i are runs rowStart[i] to rowStart[i + 1] - 1
+  private final int[] rowStart;
+  // the first column of each run, followed by the column after its last column
+  private final int[] runs;
+  // the weights of the pixels of run r start at weights[weightStart[r]], or null for a hard mask
+  private final int[] weightStart;
+  private final byte[] weights;
+  // the boxes around the masked pixels, found the first time they are needed
+  private List<int[]> boxes;
+
+  /**
+   * Finds the runs of masked pixels in each row of the given mask image.
+   *
+   * @param image the mask image
+   * @param mode  the way the mask image selects the pixels to transform
+   */
+  CompiledMask(Image image, Mask.Mode mode) {
+    this.width = image.getWidth();
+    this.height = image.getHeight();
+    boolean soft = mode == Mask.Mode.Soft;
+
+    // finds the runs of each row in parallel, then puts them together
+    int[][] rowRuns = new int[this.height][];
+    byte[][] rowWeights = new byte[this.height][];
+    RegionEngine.forEach(this.height, i -> {
+      int[] row = new int[this.width];
+      image.getRegion(0, i, this.width, 1, row);
+      int[] found = new int[8];
+      byte[] weights = soft ? new byte[this.width] : null;
+      int count = 0;
+      int pixels = 0;
+      int j = 0;
+      while (j < this.width) {
+        if (weight(row[j], soft) == 0) {
+          j++;
+          continue;
+        }
+        int start = j;
+        while (j < this.width && weight(row[j], soft) > 0) {
+          if (soft) {
+            weights[pixels++] = (byte) weight(row[j], true);
+          }
+          j++;
+        }
+        if (2 * count + 2 > found.length) {
+          found = Arrays.copyOf(found, 2 * found.length);
+        }
+        found[2 * count] = start;
+        found[2 * count + 1] = j;
+        count++;
+      }
+      rowRuns[i] = Arrays.copyOf(found, 2 * count);
+      rowWeights[i] = soft ? Arrays.copyOf(weights, pixels) : null;
+    });
+    this.rowStart = new int[this.height + 1];
+    for (int i = 0; i < this.height; i++) {
+      this.rowStart[i + 1] = this.rowStart[i] + rowRuns[i].length / 2;
+    }
+    this.runs = new int[2 * this.rowStart[this.height]];
+    for (int i = 0; i < this.height; i++) {
+      System.arraycopy(rowRuns[i], 0, this.runs, 2 * this.rowStart[i], rowRuns[i].length);
+    }
+
+    if (soft) {
+      int runCount = this.rowStart[this.height];
+      this.weightStart = new int[runCount + 1];
+      for (int r = 0; r < runCount; r++) {
+        this.weightStart[r + 1] = this.weightStart[r] + this.end(r) - this.start(r);
+      }
+      this.weights = new byte[this.weightStart[runCount]];
+      for (int i = 0; i < this.height; i++) {
+        System.arraycopy(rowWeights[i], 0, this.weights, this.weightStart[this.rowStart[i]],
+            rowWeights[i].length);
+      }
+    } else {
+      this.weightStart = null;
+      this.weights = null;
+    }
+  }
+
+  /**
+   * Returns the weight of the given mask pixel, from 0 for a pixel that is kept to 255 for a pixel
+   * that is transformed.
+   *
+   * @param pixel the mask pixel
+   * @param soft  true if the weight depends on the luma of the pixel, false if only black pixels
+   *              are transformed
+   * @return the weight of the pixel
+   */
+  private static int weight(int pixel, boolean soft) {
+    if (!soft) {
+      return pixel == 0x000000 ? 255 : 0;
+    }
+    int luma = (2126 * ImageUtils.getRed(pixel) + 7152 * ImageUtils.getGreen(pixel)
+        + 722 * ImageUtils.getBlue(pixel) + 5000) / 10000;
+    return 255 - luma;
+  }
+
+  /**
+   * Returns the index of the first run of the given row.
+   *
+   * @param row the row of the mask
+   * @return the index of its first run
+   */
+  int firstRun(int row) {
+    return this.rowStart[row];
+  }
+
+  /**
+   * Returns the index after the last run of the given row.
+   *
+   * @param row the row of the mask
+   * @return the index after its last run
+   */
+  int endRun(int row) {
+    return this.rowStart[row + 1];
+  }
+
+  /**
+   * Returns the first column of the given run.
+   *
+   * @param run the index of the run
+   * @return the first masked column of the run
+   */
+  int start(int run) {
+    return this.runs[2 * run];
+  }
+
+  /**
+   * Returns the column after the last column of the given run.
+   *
+   * @param run the index of the run
+   * @return the column after the last masked column of the run
+   */
+  int end(int run) {
+    return this.runs[2 * run + 1];
+  }
+
+  /**
+   * Returns whether the pixels of this mask have weights between 0 and 255.
+   *
+   * @return true if the mask is soft, false if every masked pixel is fully transformed
+   */
+  boolean isSoft() {
+    return this.weights != null;
+  }
+
+  /**
+   * Returns the weight of a pixel of the given run of a soft mask.
+   *
+   * @param run    the index of the run
+   * @param column the column of the pixel, which must be in the run
+   * @return the weight of the pixel, from 1 to 255
+   */
+  int weight(int run, int column) {
+    return this.weights[this.weightStart[run] + column - this.start(run)] & 0xFF;
+  }
+
+  /**
+   * Returns boxes that together cover every masked pixel of the mask. The mask is split into square
+   * tiles, and the masked pixels of each row of tiles are covered by one box for each run of tiles
+   * next to each other that have masked pixels, shrunk to fit those pixels. Boxes of runs that span
+   * the same tiles in consecutive rows of tiles are joined into one box.
+   *
+   * @return the boxes, each as its x, y, width, and height
+   */
+  synchronized List<int[]> boxes() {
+    if (this.boxes != null) {
+      return this.boxes;
+    }
+    int columns = (this.width + BOX_TILE - 1) / BOX_TILE;
+    List<int[]> found = new ArrayList<>();
+    // the boxes of the runs of the previous row of tiles, indexed by their first tile
+    int[][] previous = new int[columns][];
+    for (int tileRow = 0; tileRow * BOX_TILE < this.height; tileRow++) {
+      // the bounds of the masked pixels in each tile, as left, top, right, and bottom
+      int[][] bounds = new int[columns][];
+      for (int i = tileRow * BOX_TILE; i < Math.min(this.height, (tileRow + 1) * BOX_TILE); i++) {
+        for (int run = this.firstRun(i); run < this.endRun(i); run++) {
+          int start = this.start(run);
+          int end = this.end(run);
+          for (int tile = start / BOX_TILE; tile <= (end - 1) / BOX_TILE; tile++) {
+            int left = Math.max(start, tile * BOX_TILE);
+            int right = Math.min(end, (tile + 1) * BOX_TILE);
+            if (bounds[tile] == null) {
+              bounds[tile] = new int[]{left, i, right, i + 1};
+            } else {
+              bounds[tile][0] = Math.min(bounds[tile][0], left);
+              bounds[tile][2] = Math.max(bounds[tile][2], right);
+              bounds[tile][3] = i + 1;
+            }
+          }
+        }
+      }
+
+      int[][] current = new int[columns][];
+      int first = 0;
+      while (first < columns) {
+        if (bounds[first] == null) {
+          first++;
+          continue;
+        }
+        int last = first;
+        int[] run = bounds[first].clone();
+        while (last + 1 < columns && bounds[last + 1] != null) {
+          last++;
+          run[0] = Math.min(run[0], bounds[last][0]);
+          run[1] = Math.min(run[1], bounds[last][1]);
+          run[2] = Math.max(run[2], bounds[last][2]);
+          run[3] = Math.max(run[3], bounds[last][3]);
+        }
+        int[] above = previous[first];
+        if (above != null && above[4] == last) {
+          // joins the run to the box of the same tiles in the row of tiles above
+          above[0] = Math.min(above[0], run[0]);
+          above[2] = Math.max(above[2], run[2]);
+          above[3] = run[3];
+          current[first] = above;
+        } else {
+          int[] box = {run[0], run[1], run[2], run[3], last};
+          found.add(box);
+          current[first] = box;
+        }
+        first = last + 1;
+      }
+      previous = current;
+    }
+
+    // converts the bounds of each box to its position and size
+    this.boxes = new ArrayList<>();
+    for (int[] box : found) {
+      this.boxes.add(new int[]{box[0], box[1], box[2] - box[0], box[3] - box[1]});
+    }
+    return this.boxes;
+  }
+}
@@ -0,0 +1,393 @@
+package model.transformations;
+
+import java.util.Arrays;
+import model.Image;
+import model.ImageTransformation;
+import model.ImageUtils;
+import model.RegionEngine;
+
+/**
+ * An implementation of the {@link ImageTransformation} interface representing a macro used to
+ * convolve an image with a kernel.
+ *
+ * <p>
+ * The kernel can have any odd number of rows and columns, and is centered on the pixel it is
+ * applied to. Each component of the new pixel is the sum of the components of the pixels under the
+ * kernel multiplied by the corresponding values in the kernel, rounded to the nearest integer and
+ * clamped to be between 0 and 255. Pixels under the kernel that are outside of the image are chosen
+ * by the {@link Border} of the convolution.
+ * </p>
+ *
+ * <p>
+ * A kernel that is the product of a column and a row (like a box or Gaussian blur) is detected
+ * when the convolution is constructed, and is applied as two 1D passes, first along each row and
+ * then along each column, so each pixel costs the sum of the kernel's width and height instead of
+ * their product. The pixels outside of the image are filled in once, when the region being
+ * computed is read along with a halo around it, so the loops over the kernel never check bounds.
+ * </p>
+ */
+public class Convolution implements ImageTransformation {
+
+  /**
+   * Represents the ways of choosing the pixels under the kernel that are outside of the image.
+   */
+  public enum Border {
+    /**
+     * Uses the closest pixel inside of the image.
+     */
+    Clamp,
+    /**
+     * Mirrors the image at its edges, so the pixel just outside of an edge is the pixel on it.
+     */
+    Reflect,
+    /**
+     * Repeats the image, so the pixel just outside of an edge is the pixel on the opposite edge.
+     */
+    Wrap,
+    /**
+     * Uses black pixels.
+     */
+    Zero;
+
+    /**
+     * Returns the index inside of a row or column of the given length that is used for the given
+     * index, which may be outside of it.
+     *
+     * @param index  the index of the pixel, which may be outside of the row or column
+     * @param length the length of the row or column
+     * @return the index of the pixel that is used, or -1 if a black pixel is used
+     */
+    int index(int index, int length) {
+      if (index >= 0 && index < length) {
+        return index;
+      }
+      switch (this) {
+        case Clamp:
+          return Math.max(0, Math.min(length - 1, index));
+        case Reflect:
+          int mirrored = Math.floorMod(index, 2 * length);
+          return mirrored < length ? mirrored : 2 * length - 1 - mirrored;
+        case Wrap:
+          return Math.floorMod(index, length);
+        default:
+          return -1;
+      }
+    }
+  }
+
+  private final double[][] kernel;
+  // the column and row whose product is the kernel, or null if the kernel is not separable
+  private final double[] column;
+  private final double[] row;
+  private final Border border;
+  // the number of pixels the kernel reaches above and below, and left and right of a pixel
+  private final int haloY;
+  private final int haloX;
+
+  /**
+   * Constructs a new convolution transformation macro object that applies the given kernel, using
+   * the closest pixel inside of the image for the pixels outside of it.
+   *
+   * @param kernel the kernel to apply, with an odd number of rows and columns
+   * @throws IllegalArgumentException if the kernel is not a rectangle with an odd number of rows
+   *                                  and columns of finite values
+   */
+  public Convolution(double[][] kernel) throws IllegalArgumentException {
+    this(kernel, Border.Clamp);
+  }
+
+  /**
+   * Constructs a new convolution transformation macro object that applies the given kernel.
+   *
+   * @param kernel the kernel to apply, with an odd number of rows and columns
+   * @param border the way of choosing the pixels outside of the image
+   * @throws IllegalArgumentException if the kernel is not a rectangle with an odd number of rows
+   *                                  and columns of finite values, or if the border is null
+   */
+  public Convolution(double[][] kernel, Border border) throws IllegalArgumentException {
+    if (kernel == null || kernel.length % 2 == 0 || kernel[0] == null
+        || kernel[0].length % 2 == 0) {
+      throw new IllegalArgumentException(
+          "The kernel must be a rectangle with an odd number of rows and columns");
+    }
+    if (border == null) {
+      throw new IllegalArgumentException("The border cannot be null");
+    }
+    this.kernel = new double[kernel.length][];
+    for (int i = 0; i < kernel.length; i++) {
+      if (kernel[i] == null || kernel[i].length != kernel[0].length) {
+        throw new IllegalArgumentException(
+            "The kernel must be a rectangle with an odd number of rows and columns");
+      }
+      for (double value : kernel[i]) {
+        if (!Double.isFinite(value)) {
+          throw new IllegalArgumentException("The kernel values must be finite");
+        }
+      }
+      this.kernel[i] = kernel[i].clone();
+    }
+    this.border = border;
+    this.haloY = kernel.length / 2;
+    this.haloX = kernel[0].length / 2;
+
+    // the kernel is separable if every row is a multiple of the row with its largest value
+    int pivotRow = 0;
+    int pivotColumn = 0;
+    for (int i = 0; i < kernel.length; i++) {
+      for (int j = 0; j < kernel[0].length; j++) {
+        if (Math.abs(kernel[i][j]) > Math.abs(kernel[pivotRow][pivotColumn])) {
+          pivotRow = i;
+          pivotColumn = j;
+        }
+      }
+    }
+    double pivot = kernel[pivotRow][pivotColumn];
+    double[] column = new double[kernel.length];
+    for (int i = 0; i < kernel.length; i++) {
+      column[i] = kernel[i][pivotColumn] / pivot;
+    }
+    double[] row = kernel[pivotRow].clone();
+    boolean separable = pivot != 0;
+    for (int i = 0; i < kernel.length && separable; i++) {
+      for (int j = 0; j < kernel[0].length && separable; j++) {
+        separable = Math.abs(column[i] * row[j] - kernel[i][j]) <= 1e-12 * Math.abs(pivot);
+      }
+    }
+    this.column = separable ? column : null;
+    this.row = separable ? row : null;
+  }
+
+  /**
+   * Constructs a new convolution transformation macro object that applies the kernel that is the
+   * product of the given column and row, as two 1D passes.
+   *
+   * @param column the column of the kernel, with an odd number of values
+   * @param row    the row of the kernel, with an odd number of values
+   * @param border the way of choosing the pixels outside of the image
+   * @throws IllegalArgumentException if the column or row does not have an odd number of finite
+   *                                  values, or if the border is null
+   */
+  public Convolution(double[] column, double[] row, Border border)
+      throws IllegalArgumentException {
+    if (column == null || column.length % 2 == 0 || row == null || row.length % 2 == 0) {
+      throw new IllegalArgumentException(
+          "The kernel must be a rectangle with an odd number of rows and columns");
+    }
+    if (border == null) {
+      throw new IllegalArgumentException("The border cannot be null");
+    }
+    this.kernel = new double[column.length][row.length];
+    for (int i = 0; i < column.length; i++) {
+      for (int j = 0; j < row.length; j++) {
+        if (!Double.isFinite(column[i]) || !Double.isFinite(row[j])) {
+          throw new IllegalArgumentException("The kernel values must be finite");
+        }
+        this.kernel[i][j] = column[i] * row[j];
+      }
+    }
+    this.column = column.clone();
+    this.row = row.clone();
+    this.border = border;
+    this.haloY = column.length / 2;
+    this.haloX = row.length / 2;
+  }
+
+  /**
+   * Returns whether the kernel of this convolution is applied as two 1D passes.
+   *
+   * @return true if the kernel is separable, false otherwise
+   */
+  public boolean isSeparable() {
+    return this.column != null;
+  }
+
+  @Override
+  public int getReach() {
+    // pixels wrapped around from the opposite edge can be anywhere in the image
+    return this.border == Border.Wrap ? -1 : Math.max(this.haloX, this.haloY);
+  }
+
+  @Override
+  public Image transform(Image image) {
+    return RegionEngine.render(image, (x, y, width, height, dest, offset) -> {
+      int windowWidth = width + 2 * this.haloX;
+      int windowHeight = height + 2 * this.haloY;
+      int[] window = window(image, x, y, width, height, this.haloX, this.haloY, this.border);
+
+      // splits the window into its components once, so the loops over the kernel only multiply
+      int[] red = new int[window.length];
+      int[] green = new int[window.length];
+      int[] blue = new int[window.length];
+      for (int i = 0; i < window.length; i++) {
+        red[i] = ImageUtils.getRed(window[i]);
+        green[i] = ImageUtils.getGreen(window[i]);
+        blue[i] = ImageUtils.getBlue(window[i]);
+      }
+
+      if (this.isSeparable()) {
+        this.convolveSeparable(red, green, blue, windowWidth, windowHeight, width, height, dest,
+            offset);
+      } else {
+        this.convolve(red, green, blue, windowWidth, width, height, dest, offset);
+      }
+    });
+  }
+
+  /**
+   * Returns the packed pixels of a region of the given image surrounded by a halo, row by row, with
+   * the pixels of the halo that are outside of the image chosen by the given border.
+   *
+   * @param image  the image to read the pixels from
+   * @param x      the first column of the region
+   * @param y      the first row of the region
+   * @param width  the width of the region
+   * @param height the height of the region
+   * @param haloX  the number of pixels to add to the left and right of the region
+   * @param haloY  the number of pixels to add above and below the region
+   * @param border the way of choosing the pixels outside of the image
+   * @return the packed pixels of the region and its halo
+   */
+  static int[] window(Image image, int x, int y, int width, int height, int haloX, int haloY,
+      Border border) {
+    int windowWidth = width + 2 * haloX;
+    int windowHeight = height + 2 * haloY;
+    int[] window = new int[windowWidth * windowHeight];
+
+    // finds the column of the image used for each column of the window, and the span they cover
+    int[] columns = new int[windowWidth];
+    int left = x;
+    int right = x + width - 1;
+    for (int j = 0; j < windowWidth; j++) {
+      columns[j] = border.index(x - haloX + j, image.getWidth());
+      if (columns[j] >= 0) {
+        left = Math.min(left, columns[j]);
+        right = Math.max(right, columns[j]);
+      }
+    }
+
+    int[] source = new int[right - left + 1];
+    int sourceRow = -1;
+    for (int i = 0; i < windowHeight; i++) {
+      int row = border.index(y - haloY + i, image.getHeight());
+      if (row < 0) {
+        continue;
+      }
+      // neighbouring rows of the window often come from the same row of the image
+      if (row != sourceRow) {
+        image.getRegion(left, row, source.length, 1, source);
+        sourceRow = row;
+      }
+      for (int j = 0; j < windowWidth; j++) {
+        window[i * windowWidth + j] = columns[j] < 0 ? 0 : source[columns[j] - left];
+      }
+    }
+    return window;
+  }
+
+  /**
+   * Convolves a region with the separable kernel, first along each row of the window and then
+   * along each column.
+   *
+   * @param red          the red components of the window
+   * @param green        the green components of the window
+   * @param blue         the blue components of the window
+   * @param windowWidth  the width of the window
+   * @param windowHeight the height of the window
+   * @param width        the width of the region
+   * @param height       the height of the region
+   * @param dest         the array to store the packed pixels of the region in
+   * @param offset       the index of the array to store the first pixel of the region at
+   */
+  private void convolveSeparable(int[] red, int[] green, int[] blue, int windowWidth,
+      int windowHeight, int width, int height, int[] dest, int offset) {
+    // the row pass covers every row of the window, but only the columns of the region
+    double[] rowRed = new double[windowHeight * width];
+    double[] rowGreen = new double[windowHeight * width];
+    double[] rowBlue = new double[windowHeight * width];
+    for (int i = 0; i < windowHeight; i++) {
+      for (int j = 0; j < width; j++) {
+        int start = i * windowWidth + j;
+        double redVal = 0;
+        double greenVal = 0;
+        double blueVal = 0;
+        for (int k = 0; k < this.row.length; k++) {
+          redVal += red[start + k] * this.row[k];
+          greenVal += green[start + k] * this.row[k];
+          blueVal += blue[start + k] * this.row[k];
+        }
+        rowRed[i * width + j] = redVal;
+        rowGreen[i * width + j] = greenVal;
+        rowBlue[i * width + j] = blueVal;
+      }
+    }
+
+    // the column pass adds whole rows at a time, so it reads the row pass in order
+    double[] redVals = new double[width];
+    double[] greenVals = new double[width];
+    double[] blueVals = new double[width];
+    for (int i = 0; i < height; i++) {
+      Arrays.fill(redVals, 0);
+      Arrays.fill(greenVals, 0);
+      Arrays.fill(blueVals, 0);
+      for (int k = 0; k < this.column.length; k++) {
+        double weight = this.column[k];
+        int start = (i + k) * width;
+        for (int j = 0; j < width; j++) {
+          redVals[j] += rowRed[start + j] * weight;
+          greenVals[j] += rowGreen[start + j] * weight;
+          blueVals[j] += rowBlue[start + j] * weight;
+        }
+      }
+      for (int j = 0; j < width; j++) {
+        dest[offset + i * width + j] = pack(redVals[j], greenVals[j], blueVals[j]);
+      }
+    }
+  }
+
+  /**
+   * Convolves a region with the whole kernel at once.
+   *
+   * @param red         the red components of the window
+   * @param green       the green components of the window
+   * @param blue        the blue components of the window
+   * @param windowWidth the width of the window
+   * @param width       the width of the region
+   * @param height      the height of the region
+   * @param dest        the array to store the packed pixels of the region in
+   * @param offset      the index of the array to store the first pixel of the region at
+   */
+  private void convolve(int[] red, int[] green, int[] blue, int windowWidth, int width,
+      int height, int[] dest, int offset) {
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        double redVal = 0;
+        double greenVal = 0;
+        double blueVal = 0;
+        for (int k = 0; k < this.kernel.length; k++) {
+          int start = (i + k) * windowWidth + j;
+          double[] weights = this.kernel[k];
+          for (int l = 0; l < weights.length; l++) {
+            redVal += red[start + l] * weights[l];
+            greenVal += green[start + l] * weights[l];
+            blueVal += blue[start + l] * weights[l];
+          }
+        }
+        dest[offset + i * width + j] = pack(redVal, greenVal, blueVal);
+      }
+    }
+  }
+
+  /**
+   * Rounds the given components to the nearest integer, clamps them to be between 0 and 255, and
+   * packs them into a pixel.
+   *
+   * @param red   the red component
+   * @param green the green component
+   * @param blue  the blue component
+   * @return the packed pixel
+   */
+  private static int pack(double red, double green, double blue) {
+    return ImageUtils.pack(Math.toIntExact(Math.round(red)), Math.toIntExact(Math.round(green)),
+        Math.toIntExact(Math.round(blue)));
+  }
+}
@@ -1,13 +1,20 @@
 package model.transformations;
 
-import java.awt.Color;
+import java.util.Arrays;
 import model.Image;
-import model.ImageImpl;
 import model.ImageTransformation;
+import model.RegionEngine;
 
 /**
  * An implementation of the {@link ImageTransformation} interface representing a macro used to
  * downscale an image.
+ *
+ * <p>
+ * Each new pixel covers a rectangle of the original image, and is the average of the original
+ * pixels under that rectangle, each weighted by how much of it is covered. The pixels and weights
+ * of each new row and column are worked out once before any pixel is computed. The weights are
+ * whole numbers, so every average is computed exactly and only rounded at the end.
+ * </p>
  */
 public class Downscale implements ImageTransformation {
 
@@ -31,33 +38,116 @@ public class Downscale implements ImageTransformation {
 
   @Override
   public Image transform(Image image) {
-    Color[][] oldPixels = image.getPixels();
-    Color[][] newPixels = new Color[this.nHeight][this.nWidth];
-
-    // calculate the ratio of the new width and height to the old width and height
-    float yRatio = (image.getHeight() * 1.0f) / this.nHeight;
-    float xRatio = (image.getWidth() * 1.0f) / this.nWidth;
+    int width = image.getWidth();
+    int height = image.getHeight();
 
     // check if user is attempting to upscale
-    if (yRatio < 1) {
+    if (this.nWidth > width) {
       throw new IllegalArgumentException(
           "The image's new width (" + this.nWidth + "px) cannot be larger"
-              + " than the original width (" + image.getWidth() + "px).");
-    } else if (xRatio < 1) {
+              + " than the original width (" + width + "px).");
+    } else if (this.nHeight > height) {
       throw new IllegalArgumentException(
           "The image's new height (" + this.nHeight + "px) cannot be larger"
-              + " than the original height (" + image.getHeight() + "px).");
+              + " than the original height (" + height + "px).");
     }
 
+    Spans columns = new Spans(width, this.nWidth);
+    Spans rows = new Spans(height, this.nHeight);
+    // the weights of a new pixel add up to the area of the original image
+    long area = (long) width * height;
+
     // set the new pixels to the average of the old pixels
-    for (int i = 0; i < this.nHeight; i++) {
-      for (int j = 0; j < this.nWidth; j++) {
-        int x = Math.round(xRatio * j);
-        int y = Math.round(yRatio * i);
-        newPixels[i][j] = oldPixels[y][x];
+    return RegionEngine.render(image, this.nWidth, this.nHeight,
+        (x, y, rWidth, rHeight, dest, offset) -> {
+          // only the span of each old row that the region covers is read
+          int first = columns.first[x];
+          int[] oldRow = new int[columns.last(x + rWidth - 1) - first + 1];
+          long[] sums = new long[3 * rWidth];
+          for (int i = 0; i < rHeight; i++) {
+            Arrays.fill(sums, 0);
+            int row = y + i;
+            for (int k = rows.offset[row]; k < rows.offset[row + 1]; k++) {
+              long rowWeight = rows.weights[k];
+              image.getRegion(first, rows.first[row] + k - rows.offset[row], oldRow.length, 1,
+                  oldRow);
+              for (int j = 0; j < rWidth; j++) {
+                int column = x + j;
+                int start = columns.first[column] - first - columns.offset[column];
+                long red = 0;
+                long green = 0;
+                long blue = 0;
+                for (int l = columns.offset[column]; l < columns.offset[column + 1]; l++) {
+                  int pixel = oldRow[start + l];
+                  int weight = columns.weights[l];
+                  red += ((pixel >> 16) & 0xFF) * weight;
+                  green += ((pixel >> 8) & 0xFF) * weight;
+                  blue += (pixel & 0xFF) * weight;
+                }
+                sums[3 * j] += red * rowWeight;
+                sums[3 * j + 1] += green * rowWeight;
+                sums[3 * j + 2] += blue * rowWeight;
+              }
+            }
+            // rounds each average to the nearest integer
+            for (int j = 0; j < rWidth; j++) {
+              int red = (int) ((sums[3 * j] + area / 2) / area);
+              int green = (int) ((sums[3 * j + 1] + area / 2) / area);
+              int blue = (int) ((sums[3 * j + 2] + area / 2) / area);
+              dest[offset + i * rWidth + j] = red << 16 | green << 8 | blue;
+            }
+          }
+        });
+  }
+
+  /**
+   * Represents the original pixels covered by each new pixel along one axis, and how much of each
+   * of them is covered. Measured in units of one over the new length, an original pixel is as long
+   * as the new length and a new pixel is as long as the original length, so every overlap is a
+   * whole number and the weights of each new pixel add up to the original length.
+   */
+  private static final class Spans {
+
+    // the first original pixel covered by each new pixel
+    private final int[] first;
+    // the weights of new pixel p are weights[offset[p]] to weights[offset[p + 1] - 1]
+    private final int[] offset;
+    private final int[] weights;
+
+    /**
+     * Works out the spans of the new pixels along an axis.
+     *
+     * @param oldLength the number of original pixels along the axis
+     * @param newLength the number of new pixels along the axis
+     */
+    private Spans(int oldLength, int newLength) {
+      this.first = new int[newLength];
+      this.offset = new int[newLength + 1];
+      for (int p = 0; p < newLength; p++) {
+        long start = (long) p * oldLength;
+        long end = start + oldLength;
+        this.first[p] = (int) (start / newLength);
+        this.offset[p + 1] = this.offset[p] + (int) ((end - 1) / newLength) - this.first[p] + 1;
+      }
+      this.weights = new int[this.offset[newLength]];
+      for (int p = 0; p < newLength; p++) {
+        long start = (long) p * oldLength;
+        long end = start + oldLength;
+        for (int k = this.offset[p]; k < this.offset[p + 1]; k++) {
+          long pixel = (long) (this.first[p] + k - this.offset[p]) * newLength;
+          this.weights[k] = (int) (Math.min(end, pixel + newLength) - Math.max(start, pixel));
+        }
       }
     }
 
-    return new ImageImpl(newPixels);
+    /**
+     * Returns the last original pixel covered by the given new pixel.
+     *
+     * @param p the new pixel
+     * @return the last original pixel it covers
+     */
+    private int last(int p) {
+      return this.first[p] + this.offset[p + 1] - this.offset[p] - 1;
+    }
   }
 }
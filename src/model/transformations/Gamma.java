@@ -0,0 +1,45 @@
+package model.transformations;
+
+import model.ImageTransformation;
+
+/**
+ * An implementation of the {@link ImageTransformation} interface representing a macro used to apply
+ * gamma correction to an image.
+ *
+ * <p>
+ * Each component is scaled to be between 0 and 1, raised to the power of {@code 1 / gamma}, and
+ * scaled back, so a gamma above 1 brightens the mid tones of the image and a gamma below 1 darkens
+ * them, while black and white are left unchanged. The correction is applied as a
+ * {@link LookupTable}.
+ * </p>
+ */
+public class Gamma extends LookupTable {
+
+  /**
+   * Constructs a new gamma transformation macro object with the given gamma.
+   *
+   * @param gamma the gamma to correct the image with
+   * @throws IllegalArgumentException if the gamma is not positive
+   */
+  public Gamma(double gamma) throws IllegalArgumentException {
+    super(table(gamma));
+  }
+
+  /**
+   * Builds the table of the corrected value of each component value.
+   *
+   * @param gamma the gamma to correct the image with
+   * @return the table of corrected values
+   * @throws IllegalArgumentException if the gamma is not positive
+   */
+  private static int[] table(double gamma) throws IllegalArgumentException {
+    if (!(gamma > 0) || Double.isInfinite(gamma)) {
+      throw new IllegalArgumentException("The gamma must be positive");
+    }
+    int[] table = new int[256];
+    for (int v = 0; v < 256; v++) {
+      table[v] = Math.toIntExact(Math.round(255 * Math.pow(v / 255.0, 1 / gamma)));
+    }
+    return table;
+  }
+}
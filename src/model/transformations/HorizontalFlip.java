@@ -1,9 +1,8 @@
 package model.transformations;
 
-import java.awt.Color;
 import model.Image;
-import model.ImageImpl;
 import model.ImageTransformation;
+import model.RegionEngine;
 
 /**
  * An implementation of the {@link ImageTransformation} interface representing a macro used to flip
@@ -13,16 +12,17 @@ public class HorizontalFlip implements ImageTransformation {
 
   @Override
   public Image transform(Image image) {
-    int height = image.getHeight();
-    int width = image.getWidth();
-    Color[][] oldPixels = image.getPixels();
-    Color[][] newPixels = new Color[height][width];
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        Color pixel = oldPixels[i][width - j - 1];
-        newPixels[i][j] = pixel;
+    return RegionEngine.render(image, (x, y, width, height, dest, offset) -> {
+      // reads the mirrored region and reverses each of its rows
+      image.getRegion(image.getWidth() - x - width, y, width, height, dest, offset);
+      for (int i = 0; i < height; i++) {
+        int row = offset + i * width;
+        for (int j = 0; j < width / 2; j++) {
+          int pixel = dest[row + j];
+          dest[row + j] = dest[row + width - j - 1];
+          dest[row + width - j - 1] = pixel;
+        }
       }
-    }
-    return new ImageImpl(newPixels);
+    });
   }
 }
@@ -0,0 +1,58 @@
+package model.transformations;
+
+import model.ImageTransformation;
+
+/**
+ * An implementation of the {@link ImageTransformation} interface representing a macro used to
+ * adjust the levels of an image.
+ *
+ * <p>
+ * Components at or below the black point become 0, components at or above the white point become
+ * 255, and the components in between are stretched to fill the whole range and then gamma
+ * corrected (see {@link Gamma}). The adjustment is applied as a {@link LookupTable}.
+ * </p>
+ */
+public class Levels extends LookupTable {
+
+  /**
+   * Constructs a new levels transformation macro object with the given black point, white point,
+   * and gamma.
+   *
+   * @param black the component value that becomes black
+   * @param white the component value that becomes white
+   * @param gamma the gamma to correct the mid tones with
+   * @throws IllegalArgumentException if the black and white points are not between 0 and 255, if
+   *                                  the black point is not below the white point, or if the gamma
+   *                                  is not positive
+   */
+  public Levels(int black, int white, double gamma) throws IllegalArgumentException {
+    super(table(black, white, gamma));
+  }
+
+  /**
+   * Builds the table of the adjusted value of each component value.
+   *
+   * @param black the component value that becomes black
+   * @param white the component value that becomes white
+   * @param gamma the gamma to correct the mid tones with
+   * @return the table of adjusted values
+   * @throws IllegalArgumentException if the black and white points are not between 0 and 255, if
+   *                                  the black point is not below the white point, or if the gamma
+   *                                  is not positive
+   */
+  private static int[] table(int black, int white, double gamma) throws IllegalArgumentException {
+    if (black < 0 || white > 255 || black >= white) {
+      throw new IllegalArgumentException(
+          "The black and white points must be between 0 and 255, with black below white");
+    }
+    if (!(gamma > 0) || Double.isInfinite(gamma)) {
+      throw new IllegalArgumentException("The gamma must be positive");
+    }
+    int[] table = new int[256];
+    for (int v = 0; v < 256; v++) {
+      double stretched = (Math.max(black, Math.min(white, v)) - black) / (double) (white - black);
+      table[v] = Math.toIntExact(Math.round(255 * Math.pow(stretched, 1 / gamma)));
+    }
+    return table;
+  }
+}
@@ -0,0 +1,221 @@
+package model.transformations;
+
+import model.Histogram;
+import model.Image;
+import model.ImageTransformation;
+import model.ImageUtils;
+
+/**
+ * An implementation of the {@link ImageTransformation} interface representing a macro used to
+ * replace each component of every pixel using a lookup table.
+ *
+ * <p>
+ * There is one table of 256 values for each of the red, green, and blue components, and each
+ * component of the new pixel is the value of its table at the original value of the component. The
+ * tables are built once, so applying them only takes three lookups per pixel, without any
+ * arithmetic, rounding, clamping, or branches.
+ * </p>
+ *
+ * <p>
+ * Like a {@link ColorMatrix}, applying a lookup table does not compute any pixels right away, and
+ * consecutive lookup tables (and color matrices that only scale and offset each component) are
+ * combined into a single table that is applied in a single pass over the image.
+ * </p>
+ *
+ * <p>
+ * The histogram of an image made by a lookup table can be worked out from the histogram of the
+ * original image (see {@link #remap(Histogram, Image)}), so only its intensities have to be counted
+ * again, and not even those if the original image is grey.
+ * </p>
+ */
+public class LookupTable implements ImageTransformation {
+
+  // the shifts of the red, green, and blue components in a packed pixel
+  private static final int[] SHIFTS = {16, 8, 0};
+
+  // the table of each component of the new pixel, with its values already shifted into place
+  private final int[][] tables;
+  // the shift of the component of the original pixel that each table is indexed by
+  private final int[] sources;
+
+  /**
+   * Constructs a new lookup table transformation macro object that uses the given tables.
+   *
+   * @param red   the new values of the red component, indexed by the original red component
+   * @param green the new values of the green component, indexed by the original green component
+   * @param blue  the new values of the blue component, indexed by the original blue component
+   * @throws IllegalArgumentException if any table does not have 256 values between 0 and 255
+   */
+  public LookupTable(int[] red, int[] green, int[] blue) throws IllegalArgumentException {
+    this(new int[][]{shifted(red, SHIFTS[0]), shifted(green, SHIFTS[1]), shifted(blue, SHIFTS[2])},
+        SHIFTS.clone());
+  }
+
+  /**
+   * Constructs a new lookup table transformation macro object that uses the same table for every
+   * component.
+   *
+   * @param table the new values of each component, indexed by the original value of the component
+   * @throws IllegalArgumentException if the table does not have 256 values between 0 and 255
+   */
+  public LookupTable(int[] table) throws IllegalArgumentException {
+    this(table, table, table);
+  }
+
+  /**
+   * Constructs a new lookup table transformation macro object from already shifted tables.
+   *
+   * @param tables  the shifted table of each component of the new pixel
+   * @param sources the shift of the component of the original pixel each table is indexed by
+   */
+  private LookupTable(int[][] tables, int[] sources) {
+    this.tables = tables;
+    this.sources = sources;
+  }
+
+  /**
+   * Returns a copy of the given table with each value shifted into place in a packed pixel.
+   *
+   * @param table the table to shift
+   * @param shift the shift of the component the table is for
+   * @return the shifted table
+   * @throws IllegalArgumentException if the table does not have 256 values between 0 and 255
+   */
+  private static int[] shifted(int[] table, int shift) throws IllegalArgumentException {
+    if (table == null || table.length != 256) {
+      throw new IllegalArgumentException("Each table must have 256 values between 0 and 255");
+    }
+    int[] ret = new int[256];
+    for (int i = 0; i < 256; i++) {
+      if (table[i] < 0 || table[i] > 255) {
+        throw new IllegalArgumentException("Each table must have 256 values between 0 and 255");
+      }
+      ret[i] = table[i] << shift;
+    }
+    return ret;
+  }
+
+  /**
+   * Returns the lookup table that has the same effect as the given color matrix, if every component
+   * of the new pixel only depends on one component of the original pixel.
+   *
+   * @param matrix the color matrix, as 3 rows of 4 values
+   * @return the equivalent lookup table, or null if there is none
+   */
+  static LookupTable of(double[][] matrix) {
+    int[][] tables = new int[3][256];
+    int[] sources = new int[3];
+    for (int c = 0; c < 3; c++) {
+      int source = c;
+      int terms = 0;
+      for (int k = 0; k < 3; k++) {
+        if (matrix[c][k] != 0) {
+          source = k;
+          terms++;
+        }
+      }
+      if (terms > 1) {
+        return null;
+      }
+      // the terms of the other components are exactly 0, so leaving them out rounds the same way
+      for (int v = 0; v < 256; v++) {
+        tables[c][v] = ImageUtils.clamp(
+            Math.toIntExact(Math.round(v * matrix[c][source] + matrix[c][3]))) << SHIFTS[c];
+      }
+      sources[c] = SHIFTS[source];
+    }
+    return new LookupTable(tables, sources);
+  }
+
+  /**
+   * Returns the lookup table that has the same effect as applying the given table and then this
+   * table.
+   *
+   * @param first the table applied first, or null if there is none
+   * @return the combined table
+   */
+  LookupTable after(LookupTable first) {
+    if (first == null) {
+      return this;
+    }
+    int[][] tables = new int[3][256];
+    int[] sources = new int[3];
+    for (int c = 0; c < 3; c++) {
+      // the component this table reads was produced by the first table
+      int middle = channelOf(this.sources[c]);
+      for (int v = 0; v < 256; v++) {
+        int value = (first.tables[middle][v] >>> SHIFTS[middle]) & 0xFF;
+        tables[c][v] = this.tables[c][value];
+      }
+      sources[c] = first.sources[middle];
+    }
+    return new LookupTable(tables, sources);
+  }
+
+  /**
+   * Returns the index of the component with the given shift in a packed pixel.
+   *
+   * @param shift the shift of the component
+   * @return the index of the component (0 = red, 1 = green, 2 = blue)
+   */
+  private static int channelOf(int shift) {
+    return 2 - shift / 8;
+  }
+
+  /**
+   * Replaces the given number of packed pixels in the given array, starting at the given offset,
+   * using this lookup table.
+   *
+   * @param pixels the packed pixels to replace
+   * @param offset the index of the first pixel to replace
+   * @param length the number of pixels to replace
+   */
+  void apply(int[] pixels, int offset, int length) {
+    int[] red = this.tables[0];
+    int[] green = this.tables[1];
+    int[] blue = this.tables[2];
+    int redSource = this.sources[0];
+    int greenSource = this.sources[1];
+    int blueSource = this.sources[2];
+    for (int i = offset; i < offset + length; i++) {
+      int pixel = pixels[i];
+      pixels[i] = red[(pixel >>> redSource) & 0xFF] | green[(pixel >>> greenSource) & 0xFF]
+          | blue[(pixel >>> blueSource) & 0xFF];
+    }
+  }
+
+  /**
+   * Returns the histogram of the image made by applying this lookup table to an image with the
+   * given histogram. Only the intensities of the new image are counted, and only if the original
+   * image is not grey (see {@link Histogram#remap(int[][], int[], Image)}).
+   *
+   * @param histogram the histogram of the original image
+   * @param image     the image made by applying this lookup table to the original image
+   * @return the histogram of the new image
+   * @throws IllegalArgumentException if the histogram or the image is null
+   */
+  public Histogram remap(Histogram histogram, Image image) throws IllegalArgumentException {
+    if (histogram == null) {
+      throw new IllegalArgumentException("The histogram cannot be null");
+    }
+    int[][] tables = new int[3][256];
+    int[] sources = new int[3];
+    for (int c = 0; c < 3; c++) {
+      for (int v = 0; v < 256; v++) {
+        tables[c][v] = (this.tables[c][v] >>> SHIFTS[c]) & 0xFF;
+      }
+      sources[c] = channelOf(this.sources[c]);
+    }
+    return histogram.remap(tables, sources, image);
+  }
+
+  @Override
+  public int getReach() {
+    return 0;
+  }
+
+  @Override
+  public Image transform(Image image) {
+    return PointwiseImage.apply(image, this);
+  }
+}
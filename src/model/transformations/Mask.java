@@ -1,9 +1,13 @@
 package model.transformations;
 
-import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
 import model.Image;
-import model.ImageImpl;
 import model.ImageTransformation;
+import model.ImageUtils;
+import model.PackedImage;
+import model.RegionEngine;
+import model.StoredImages;
 
 /**
  * An implementation of the {@link ImageTransformation} interface representing a macro used to
@@ -16,11 +20,45 @@ import model.ImageTransformation;
  * corresponding pixel in the provided foreground image, and any non-black pixels in the mask image
  * will be replaced the corresponding pixel in the background image.
  * </p>
+ *
+ * <p>
+ * A transformation can also be applied to the background image through the mask with
+ * {@link #apply(ImageTransformation)}, which only transforms the parts of the background image that
+ * the mask covers when the transformation has a reach, instead of the whole image.
+ * </p>
+ *
+ * <p>
+ * The mask image is compiled into the runs of black pixels in each row, so pixels are copied from
+ * the foreground a whole run at a time. The runs of a mask image that is stored in a
+ * {@link StoredImages} are kept with it, for the next mask made with the same stored image.
+ * </p>
+ *
+ * <p>
+ * A soft mask blends the foreground and background pixels instead, weighted by the luma of the
+ * mask pixels, so that black mask pixels give the foreground pixel, white mask pixels give the
+ * background pixel, and grey mask pixels give a mix of the two. The blend is done in the same loop
+ * that copies the foreground pixels, so no other image is made to blend them.
+ * </p>
  */
 public class Mask implements ImageTransformation {
 
+  /**
+   * Represents the ways a mask image can select the pixels to transform.
+   */
+  public enum Mode {
+    /**
+     * Transforms the pixels under the black pixels of the mask image, and keeps the others.
+     */
+    Hard,
+    /**
+     * Blends the transformed and original pixels by the luma of the mask image, from fully
+     * transformed under black pixels to kept under white pixels.
+     */
+    Soft
+  }
+
   private final Image backgroundImage;
-  private final Image maskImage;
+  private final CompiledMask mask;
 
   /**
    * Constructs a new mask transformation macro object that combines the given images using the
@@ -32,41 +70,261 @@ public class Mask implements ImageTransformation {
    * @throws IllegalArgumentException if the background and mask are a different size
    */
   public Mask(Image backgroundImage, Image maskImage) {
+    this(backgroundImage, maskImage, Mode.Hard);
+  }
+
+  /**
+   * Constructs a new mask transformation macro object that combines the given images using the
+   * given mask image in the given mode.
+   *
+   * @param backgroundImage the image to be used as the background
+   * @param maskImage       the mask image to determine which pixels to use from the foreground and
+   *                        background images
+   * @param mode            the way the mask image selects the pixels to use from the foreground
+   * @throws IllegalArgumentException if the background and mask are a different size, or if any of
+   *                                  the parameters are null
+   */
+  public Mask(Image backgroundImage, Image maskImage, Mode mode) {
     if (backgroundImage == null || maskImage == null) {
       throw new IllegalArgumentException("The images cannot be null");
     }
+    if (mode == null) {
+      throw new IllegalArgumentException("The mode cannot be null");
+    }
     if (!dimensionsMatch(backgroundImage, maskImage)) {
       throw new IllegalArgumentException("The background image and mask must be the same size");
     }
     this.backgroundImage = backgroundImage;
-    this.maskImage = maskImage;
+    this.mask = new CompiledMask(maskImage, mode);
+  }
+
+  /**
+   * Constructs a new mask transformation macro object that combines the given image using the mask
+   * image stored under the given file name in the given mode. The mask image is only compiled the
+   * first time it is used in each mode, until it is removed or overwritten.
+   *
+   * @param backgroundImage the image to be used as the background
+   * @param store           the collection the mask image is stored in
+   * @param maskFileName    the file name of the mask image
+   * @param mode            the way the mask image selects the pixels to use from the foreground
+   * @throws IllegalArgumentException if the background and mask are a different size, if any of
+   *                                  the parameters are null, or if the mask file name does not
+   *                                  exist in the collection
+   */
+  public Mask(Image backgroundImage, StoredImages store, String maskFileName, Mode mode) {
+    if (backgroundImage == null) {
+      throw new IllegalArgumentException("The images cannot be null");
+    }
+    if (store == null || maskFileName == null) {
+      throw new IllegalArgumentException("The store and mask file name cannot be null");
+    }
+    if (mode == null) {
+      throw new IllegalArgumentException("The mode cannot be null");
+    }
+    if (!dimensionsMatch(backgroundImage, store.retrieve(maskFileName))) {
+      throw new IllegalArgumentException("The background image and mask must be the same size");
+    }
+    this.backgroundImage = backgroundImage;
+    this.mask = store.getDerived(maskFileName, mode, image -> new CompiledMask(image, mode));
+  }
+
+  /**
+   * Applies the given transformation to the background image in the area masked by the mask image,
+   * and keeps the background pixels everywhere else. This is the same as transforming the whole
+   * background image and then applying this mask to it.
+   *
+   * <p>
+   * If the transformation has a reach (see {@link ImageTransformation#getReach()}), only the boxes
+   * around the black pixels of the mask are transformed, each together with the pixels within the
+   * reach around it so that the pixels in the box come out the same as if the whole image was
+   * transformed. The work done then depends on the size of the masked area rather than the size
+   * of the image. When the boxes and their reach cover at least as many pixels as the whole image,
+   * each band or tile of the result is transformed on its own instead, from the part of the
+   * background image around the masked pixels in it, so no image as large as the background is
+   * ever transformed at once.
+   * </p>
+   *
+   * <p>
+   * A transformation without a reach, such as a blur that wraps around the edges of the image, can
+   * need any pixel of the image for every pixel it transforms, so the whole background image is
+   * transformed before the mask is applied to it.
+   * </p>
+   *
+   * @param transformation the transformation to apply in the masked area
+   * @return the background image with the transformation applied in the masked area
+   * @throws IllegalArgumentException if the transformation is null
+   */
+  public Image apply(ImageTransformation transformation) throws IllegalArgumentException {
+    if (transformation == null) {
+      throw new IllegalArgumentException("The transformation cannot be null");
+    }
+    int reach = transformation.getReach();
+    if (reach < 0) {
+      return this.transform(transformation.transform(this.backgroundImage));
+    }
+
+    // each box is transformed on its own, from the part of the background image around it
+    List<int[]> boxes = this.mask.boxes();
+    List<int[]> parts = new ArrayList<>();
+    long area = 0;
+    for (int[] box : boxes) {
+      int[] part = this.around(box[0], box[1], box[0] + box[2], box[1] + box[3], reach);
+      parts.add(part);
+      area += (long) part[2] * part[3];
+    }
+    if (area >= (long) this.backgroundImage.getWidth() * this.backgroundImage.getHeight()) {
+      return RegionEngine.render(this.backgroundImage,
+          (x, y, regionWidth, regionHeight, dest, offset) -> {
+            this.backgroundImage.getRegion(x, y, regionWidth, regionHeight, dest, offset);
+            // finds the bounds of the parts of the boxes inside of the region
+            int left = x + regionWidth;
+            int top = y + regionHeight;
+            int right = x;
+            int bottom = y;
+            for (int[] box : boxes) {
+              if (box[0] < x + regionWidth && box[0] + box[2] > x && box[1] < y + regionHeight
+                  && box[1] + box[3] > y) {
+                left = Math.min(left, Math.max(x, box[0]));
+                top = Math.min(top, Math.max(y, box[1]));
+                right = Math.max(right, Math.min(x + regionWidth, box[0] + box[2]));
+                bottom = Math.max(bottom, Math.min(y + regionHeight, box[1] + box[3]));
+              }
+            }
+            if (left >= right) {
+              return;
+            }
+            int[] part = this.around(left, top, right, bottom, reach);
+            this.copyRuns(this.transformPart(transformation, part), part[0], part[1], left, top,
+                right, bottom, x, y, regionWidth, dest, offset);
+          });
+    }
+    Image[] transformed = new Image[parts.size()];
+    for (int b = 0; b < parts.size(); b++) {
+      transformed[b] = this.transformPart(transformation, parts.get(b));
+    }
+
+    return RegionEngine.render(this.backgroundImage,
+        (x, y, regionWidth, regionHeight, dest, offset) -> {
+          this.backgroundImage.getRegion(x, y, regionWidth, regionHeight, dest, offset);
+          for (int b = 0; b < boxes.size(); b++) {
+            int[] box = boxes.get(b);
+            int[] part = parts.get(b);
+            // copies the transformed pixels of the box that are masked into the region
+            this.copyRuns(transformed[b], part[0], part[1], Math.max(x, box[0]),
+                Math.max(y, box[1]), Math.min(x + regionWidth, box[0] + box[2]),
+                Math.min(y + regionHeight, box[1] + box[3]), x, y, regionWidth, dest, offset);
+          }
+        });
+  }
+
+  /**
+   * Returns the part of the background image made of the given bounds and the pixels within the
+   * given reach around them, cut off at the edges of the image.
+   *
+   * @param left   the first column of the bounds
+   * @param top    the first row of the bounds
+   * @param right  the column after the last column of the bounds
+   * @param bottom the row after the last row of the bounds
+   * @param reach  the number of pixels around the bounds to include
+   * @return the part, as its x, y, width, and height
+   */
+  private int[] around(int left, int top, int right, int bottom, int reach) {
+    int partLeft = Math.max(0, left - reach);
+    int partTop = Math.max(0, top - reach);
+    int partRight = Math.min(this.backgroundImage.getWidth(), right + reach);
+    int partBottom = Math.min(this.backgroundImage.getHeight(), bottom + reach);
+    return new int[]{partLeft, partTop, partRight - partLeft, partBottom - partTop};
+  }
+
+  /**
+   * Transforms the given part of the background image on its own.
+   *
+   * @param transformation the transformation to apply
+   * @param part           the part of the background image, as its x, y, width, and height
+   * @return the transformed part
+   */
+  private Image transformPart(ImageTransformation transformation, int[] part) {
+    int[] pixels = new int[part[2] * part[3]];
+    this.backgroundImage.getRegion(part[0], part[1], part[2], part[3], pixels);
+    // the part is read from every band of the result, so its pixels are computed here first
+    return transformation.transform(PackedImage.wrap(part[2], part[3], pixels)).computed();
   }
 
   @Override
   public Image transform(Image image) {
     // check that the image is the same size as the mask
-    dimensionsMatch(this.maskImage, image);
-
-    // get the background, foreground, and mask pixels
-    Color[][] backgroundPixels = this.backgroundImage.getPixels();
-    Color[][] foregroundPixels = image.getPixels();
-    Color[][] maskPixels = this.maskImage.getPixels();
-    Color[][] newPixels = new Color[image.getHeight()][image.getWidth()];
-
-    // apply the mask to the provided image
-    for (int i = 0; i < image.getHeight(); i++) {
-      for (int j = 0; j < image.getWidth(); j++) {
-        // if the mask pixel is black, use the foreground pixel
-        if (maskPixels[i][j].equals(Color.BLACK)) {
-          newPixels[i][j] = foregroundPixels[i][j];
-        } else {
-          // otherwise, use the background pixel
-          newPixels[i][j] = backgroundPixels[i][j];
+    if (!dimensionsMatch(this.backgroundImage, image)) {
+      throw new IllegalArgumentException("The image and mask must be the same size");
+    }
+
+    return RegionEngine.render(image, (x, y, width, height, dest, offset) -> {
+      // start with the background, then copy the foreground over each run of black mask pixels
+      this.backgroundImage.getRegion(x, y, width, height, dest, offset);
+      this.copyRuns(image, 0, 0, x, y, x + width, y + height, x, y, width, dest, offset);
+    });
+  }
+
+  /**
+   * Copies the pixels of the given source image under the runs of masked pixels inside of the
+   * given bounds into a region, one run at a time. The pixels of a soft mask are blended with the
+   * pixels already in the region instead.
+   *
+   * @param source      the image to copy pixels from
+   * @param sourceX     the column of the whole image that the first column of the source is at
+   * @param sourceY     the row of the whole image that the first row of the source is at
+   * @param left        the first column to copy
+   * @param top         the first row to copy
+   * @param right       the column after the last column to copy
+   * @param bottom      the row after the last row to copy
+   * @param x           the first column of the region
+   * @param y           the first row of the region
+   * @param regionWidth the width of the region
+   * @param dest        the pixels of the region, row by row
+   * @param offset      the index of the first pixel of the region in the array
+   */
+  private void copyRuns(Image source, int sourceX, int sourceY, int left, int top, int right,
+      int bottom, int x, int y, int regionWidth, int[] dest, int offset) {
+    int[] run = null;
+    for (int i = top; i < bottom; i++) {
+      for (int r = this.mask.firstRun(i); r < this.mask.endRun(i); r++) {
+        int start = Math.max(left, this.mask.start(r));
+        int end = Math.min(right, this.mask.end(r));
+        if (start >= end) {
+          continue;
+        }
+        if (run == null || run.length < end - start) {
+          run = new int[Math.max(end - start, right - left)];
+        }
+        source.getRegion(start - sourceX, i - sourceY, end - start, 1, run);
+        int index = offset + (i - y) * regionWidth + start - x;
+        if (!this.mask.isSoft()) {
+          System.arraycopy(run, 0, dest, index, end - start);
+          continue;
+        }
+        for (int j = start; j < end; j++) {
+          int weight = this.mask.weight(r, j);
+          int foreground = run[j - start];
+          int background = dest[index + j - start];
+          dest[index + j - start] = weight == 255 ? foreground : ImageUtils.pack(
+              blend(ImageUtils.getRed(foreground), ImageUtils.getRed(background), weight),
+              blend(ImageUtils.getGreen(foreground), ImageUtils.getGreen(background), weight),
+              blend(ImageUtils.getBlue(foreground), ImageUtils.getBlue(background), weight));
         }
       }
     }
+  }
 
-    return new ImageImpl(newPixels);
+  /**
+   * Blends a foreground and a background value with the given weight, rounded to the nearest
+   * integer.
+   *
+   * @param foreground the foreground value
+   * @param background the background value
+   * @param weight     the weight of the foreground value, out of 255
+   * @return the blended value
+   */
+  private static int blend(int foreground, int background, int weight) {
+    return (foreground * weight + background * (255 - weight) + 127) / 255;
   }
 
   /**
@@ -1,20 +1,77 @@
 package model.transformations;
 
-import java.awt.Color;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 import model.Image;
-import model.ImageImpl;
 import model.ImageTransformation;
+import model.RegionEngine;
 
 /**
  * An implementation of the {@link ImageTransformation} interface representing a macro used to apply
  * a mosaic filter to an image.
+ *
+ * <p>
+ * The mosaic picks the given number of random pixels of the image as seeds, and splits the image
+ * into cells made of the pixels closest to each seed. Ties are broken in favor of the seed that was
+ * picked first. Each cell is colored with the color of its seed, or with the average color of its
+ * pixels.
+ * </p>
+ *
+ * <p>
+ * The seeds are picked with a random number generator. If the mosaic is given a seed for the
+ * generator, the same seeds are picked every time, so transforming the same image always gives the
+ * same result, no matter how many threads are used. Otherwise different seeds are picked every
+ * time.
+ * </p>
+ *
+ * <p>
+ * The seeds are sorted into a uniform grid of square buckets sized to hold about one seed each. The
+ * closest seed to a pixel is found by searching the buckets in rings around the pixel's bucket,
+ * stopping once no seed in the next ring could be as close as the closest seed found, so each pixel
+ * only looks at a few seeds no matter how many seeds there are.
+ * </p>
+ *
+ * <p>
+ * To color the cells with their average colors, the colors of the pixels are added up per cell in
+ * bands of rows that each keep their own sums, which are then added together in the order of the
+ * bands. The closest seed to each pixel is found again when the result is computed, so no cell is
+ * stored for every pixel.
+ * </p>
  */
 public class Mosaic implements ImageTransformation {
 
+  /**
+   * Represents the ways of measuring the distance between a pixel and a seed.
+   */
+  public enum Distance {
+    /**
+     * The sum of the horizontal and vertical distances.
+     */
+    Manhattan,
+    /**
+     * The length of the straight line between them.
+     */
+    Euclidean
+  }
+
+  /**
+   * Represents the ways of coloring the cells of the mosaic.
+   */
+  public enum Fill {
+    /**
+     * Colors each cell with the color of its seed.
+     */
+    Seed,
+    /**
+     * Colors each cell with the average color of its pixels.
+     */
+    Average
+  }
+
   private final int numSeeds;
+  private final Distance distance;
+  private final Fill fill;
+  // the seed of the random number generator, or null to pick different seeds every time
+  private final Long randomSeed;
 
   /**
    * Constructs a new mosaic transformation macro object that transforms an image to be mosaic with
@@ -24,47 +81,269 @@ public class Mosaic implements ImageTransformation {
    * @throws IllegalArgumentException if the given amount is not greater than 0
    */
   public Mosaic(int numSeeds) throws IllegalArgumentException {
+    this(numSeeds, Distance.Manhattan, Fill.Seed);
+  }
+
+  /**
+   * Constructs a new mosaic transformation macro object that transforms an image to be mosaic with
+   * the given number of seeds, picked by a random number generator with the given seed.
+   *
+   * @param numSeeds   the number of seeds to mosaic transformed images
+   * @param randomSeed the seed of the random number generator that picks the seeds
+   * @throws IllegalArgumentException if the given amount is not greater than 0
+   */
+  public Mosaic(int numSeeds, long randomSeed) throws IllegalArgumentException {
+    this(numSeeds, Distance.Manhattan, Fill.Seed, randomSeed);
+  }
+
+  /**
+   * Constructs a new mosaic transformation macro object that transforms an image to be mosaic with
+   * the given number of seeds, measuring distances and coloring cells in the given ways.
+   *
+   * @param numSeeds the number of seeds to mosaic transformed images
+   * @param distance the way of measuring the distance between a pixel and a seed
+   * @param fill     the way of coloring the cells
+   * @throws IllegalArgumentException if the given amount is not greater than 0, or if the distance
+   *                                  or fill is null
+   */
+  public Mosaic(int numSeeds, Distance distance, Fill fill) throws IllegalArgumentException {
+    this(numSeeds, distance, fill, null);
+  }
+
+  /**
+   * Constructs a new mosaic transformation macro object that transforms an image to be mosaic with
+   * the given number of seeds, picked by a random number generator with the given seed, measuring
+   * distances and coloring cells in the given ways.
+   *
+   * @param numSeeds   the number of seeds to mosaic transformed images
+   * @param distance   the way of measuring the distance between a pixel and a seed
+   * @param fill       the way of coloring the cells
+   * @param randomSeed the seed of the random number generator that picks the seeds, or null to
+   *                   pick different seeds every time
+   * @throws IllegalArgumentException if the given amount is not greater than 0, or if the distance
+   *                                  or fill is null
+   */
+  public Mosaic(int numSeeds, Distance distance, Fill fill, Long randomSeed)
+      throws IllegalArgumentException {
     if (numSeeds < 1) {
       throw new IllegalArgumentException("The seed amount must be greater than 0");
     }
+    if (distance == null || fill == null) {
+      throw new IllegalArgumentException("The distance and fill cannot be null");
+    }
     this.numSeeds = numSeeds;
+    this.distance = distance;
+    this.fill = fill;
+    this.randomSeed = randomSeed;
   }
 
   @Override
   public Image transform(Image image) {
     int width = image.getWidth();
     int height = image.getHeight();
-    Color[][] oldPixels = image.getPixels();
-    Color[][] newPixels = new Color[image.getHeight()][image.getWidth()];
 
     // generate seeds
-    Random random = new Random();
-    List<int[]> seeds = new ArrayList<>();
+    Random random = this.randomSeed == null ? new Random() : new Random(this.randomSeed);
+    int[] seedRows = new int[this.numSeeds];
+    int[] seedColumns = new int[this.numSeeds];
+    for (int i = 0; i < this.numSeeds; i++) {
+      seedRows[i] = random.nextInt(height);
+      seedColumns[i] = random.nextInt(width);
+    }
+    Grid grid = new Grid(width, height, seedRows, seedColumns, this.distance);
+
+    // look up the color of each seed once
+    int[] seedColors = new int[this.numSeeds];
     for (int i = 0; i < this.numSeeds; i++) {
-      int[] seed = new int[2];
-      seed[0] = random.nextInt(height);
-      seed[1] = random.nextInt(width);
-      seeds.add(seed);
+      seedColors[i] = image.getRGB(seedColumns[i], seedRows[i]);
     }
 
-    // set each pixel to the color of the closest seed
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        int[] closestSeed = seeds.get(0);
-        int closestSeedDist = Integer.MAX_VALUE;
-        for (int[] seed : seeds) {
-          int yDist = Math.abs(seed[0] - i);
-          int xDist = Math.abs(seed[1] - j);
-          int seedDist = yDist + xDist;
-          if (seedDist < closestSeedDist) {
-            closestSeed = seed;
-            closestSeedDist = seedDist;
+    if (this.fill == Fill.Seed) {
+      // set each pixel to the color of the closest seed
+      return RegionEngine.render(image, (x, y, regionWidth, regionHeight, dest, offset) -> {
+        for (int i = y; i < y + regionHeight; i++) {
+          for (int j = x; j < x + regionWidth; j++) {
+            dest[offset + (i - y) * regionWidth + j - x] = seedColors[grid.closest(i, j)];
           }
         }
-        newPixels[i][j] = oldPixels[closestSeed[0]][closestSeed[1]];
+      });
+    }
+
+    // adds up the colors of the pixels in each cell, in a few bands of rows that each keep their
+    // own sums, which are then added together in the order of the bands
+    int bands = Math.min(height, RegionEngine.getParallelism());
+    long[][] bandSums = new long[bands][];
+    int[][] bandCounts = new int[bands][];
+    RegionEngine.forEach(bands, band -> {
+      long[] sums = new long[3 * this.numSeeds];
+      int[] counts = new int[this.numSeeds];
+      int[] row = new int[width];
+      for (int i = band * height / bands; i < (band + 1) * height / bands; i++) {
+        image.getRegion(0, i, width, 1, row);
+        for (int j = 0; j < width; j++) {
+          int cell = grid.closest(i, j);
+          sums[3 * cell] += (row[j] >> 16) & 0xFF;
+          sums[3 * cell + 1] += (row[j] >> 8) & 0xFF;
+          sums[3 * cell + 2] += row[j] & 0xFF;
+          counts[cell]++;
+        }
+      }
+      bandSums[band] = sums;
+      bandCounts[band] = counts;
+    });
+    long[] sums = bandSums[0];
+    int[] counts = bandCounts[0];
+    for (int band = 1; band < bands; band++) {
+      for (int k = 0; k < sums.length; k++) {
+        sums[k] += bandSums[band][k];
+      }
+      for (int k = 0; k < counts.length; k++) {
+        counts[k] += bandCounts[band][k];
+      }
+    }
+    int[] averages = new int[this.numSeeds];
+    for (int k = 0; k < this.numSeeds; k++) {
+      if (counts[k] > 0) {
+        // rounds each average to the nearest integer
+        long red = (2 * sums[3 * k] + counts[k]) / (2L * counts[k]);
+        long green = (2 * sums[3 * k + 1] + counts[k]) / (2L * counts[k]);
+        long blue = (2 * sums[3 * k + 2] + counts[k]) / (2L * counts[k]);
+        averages[k] = (int) (red << 16 | green << 8 | blue);
       }
     }
 
-    return new ImageImpl(newPixels);
+    // set each pixel to the average color of its cell, finding its cell again
+    return RegionEngine.render(image, (x, y, regionWidth, regionHeight, dest, offset) -> {
+      for (int i = y; i < y + regionHeight; i++) {
+        for (int j = x; j < x + regionWidth; j++) {
+          dest[offset + (i - y) * regionWidth + j - x] = averages[grid.closest(i, j)];
+        }
+      }
+    });
+  }
+
+  /**
+   * Represents a uniform grid of square buckets that the seeds of a mosaic are sorted into, used to
+   * find the closest seed to a pixel without looking at every seed.
+   */
+  private static final class Grid {
+
+    private final int[] seedRows;
+    private final int[] seedColumns;
+    private final Distance distance;
+    private final int size;
+    private final int columns;
+    private final int rows;
+    // the seeds in bucket b are order[start[b]] to order[start[b + 1] - 1], in increasing order
+    private final int[] start;
+    private final int[] order;
+
+    /**
+     * Sorts the given seeds into a new grid covering an image of the given dimensions.
+     *
+     * @param width       the width of the image
+     * @param height      the height of the image
+     * @param seedRows    the row of each seed
+     * @param seedColumns the column of each seed
+     * @param distance    the way of measuring the distance between a pixel and a seed
+     */
+    private Grid(int width, int height, int[] seedRows, int[] seedColumns, Distance distance) {
+      this.seedRows = seedRows;
+      this.seedColumns = seedColumns;
+      this.distance = distance;
+      this.size = Math.max(1,
+          (int) Math.ceil(Math.sqrt((double) width * height / seedRows.length)));
+      this.columns = (width + this.size - 1) / this.size;
+      this.rows = (height + this.size - 1) / this.size;
+
+      // counts the seeds in each bucket, then places them in order of their index
+      this.start = new int[this.columns * this.rows + 1];
+      for (int k = 0; k < seedRows.length; k++) {
+        this.start[this.bucket(seedRows[k], seedColumns[k]) + 1]++;
+      }
+      for (int b = 0; b < this.columns * this.rows; b++) {
+        this.start[b + 1] += this.start[b];
+      }
+      this.order = new int[seedRows.length];
+      int[] next = this.start.clone();
+      for (int k = 0; k < seedRows.length; k++) {
+        this.order[next[this.bucket(seedRows[k], seedColumns[k])]++] = k;
+      }
+    }
+
+    /**
+     * Returns the index of the bucket that holds the given pixel.
+     *
+     * @param row    the row of the pixel
+     * @param column the column of the pixel
+     * @return the index of the bucket, in row major order
+     */
+    private int bucket(int row, int column) {
+      return (row / this.size) * this.columns + column / this.size;
+    }
+
+    /**
+     * Returns the index of the seed closest to the given pixel, choosing the lowest index if
+     * several seeds are equally close.
+     *
+     * @param row    the row of the pixel
+     * @param column the column of the pixel
+     * @return the index of the closest seed
+     */
+    private int closest(int row, int column) {
+      int bucketRow = row / this.size;
+      int bucketColumn = column / this.size;
+      int closest = -1;
+      long closestDist = Long.MAX_VALUE;
+      int maxRing = Math.max(Math.max(bucketRow, this.rows - 1 - bucketRow),
+          Math.max(bucketColumn, this.columns - 1 - bucketColumn));
+      for (int ring = 0; ring <= maxRing; ring++) {
+        for (int r = bucketRow - ring; r <= bucketRow + ring; r++) {
+          if (r < 0 || r >= this.rows) {
+            continue;
+          }
+          // the rows at the top and bottom of the ring are searched whole, the others only at
+          // their two ends
+          boolean edge = r == bucketRow - ring || r == bucketRow + ring;
+          int step = edge ? 1 : Math.max(1, 2 * ring);
+          for (int c = bucketColumn - ring; c <= bucketColumn + ring; c += step) {
+            if (c < 0 || c >= this.columns) {
+              continue;
+            }
+            int b = r * this.columns + c;
+            for (int s = this.start[b]; s < this.start[b + 1]; s++) {
+              int k = this.order[s];
+              long dist = this.distance(row, column, k);
+              if (dist < closestDist || (dist == closestDist && k < closest)) {
+                closest = k;
+                closestDist = dist;
+              }
+            }
+          }
+        }
+        // every seed in a further ring is more than this many pixels away along some axis
+        long gap = (long) ring * this.size;
+        long bound = this.distance == Distance.Manhattan ? gap : gap * gap;
+        if (closest >= 0 && closestDist <= bound) {
+          break;
+        }
+      }
+      return closest;
+    }
+
+    /**
+     * Returns the distance between the given pixel and the given seed. Euclidean distances are
+     * squared, which keeps them exact and in the same order.
+     *
+     * @param row    the row of the pixel
+     * @param column the column of the pixel
+     * @param seed   the index of the seed
+     * @return the distance between the pixel and the seed
+     */
+    private long distance(int row, int column, int seed) {
+      long dy = Math.abs(this.seedRows[seed] - row);
+      long dx = Math.abs(this.seedColumns[seed] - column);
+      return this.distance == Distance.Manhattan ? dx + dy : dx * dx + dy * dy;
+    }
   }
 }
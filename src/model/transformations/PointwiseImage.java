@@ -0,0 +1,196 @@
+package model.transformations;
+
+import java.awt.Color;
+import java.nio.IntBuffer;
+import model.Image;
+import model.RegionEngine;
+
+/**
+ * Represents the result of applying a chain of pointwise transformations ({@link LookupTable}s
+ * and {@link ColorMatrix}es) to an image, which is computed the first time its pixels are used.
+ *
+ * <p>
+ * The chain is kept as a lookup table followed by a color matrix, either of which may be missing.
+ * Applying another color matrix multiplies it into the matrix, and applying another lookup table
+ * combines it into the table when there is no matrix, or when the matrix can be expressed as a
+ * lookup table. Otherwise, this image is computed and the new transformation starts a new chain.
+ * </p>
+ *
+ * <p>
+ * Once the pixels have been computed, the original image is dropped, and a transformation applied
+ * to this image starts a new chain from the computed pixels. Images that are read from several
+ * threads at once should be computed first with {@link #computed()}, since the pixels are computed
+ * by the first thread that reads them while the others wait for it.
+ * </p>
+ */
+final class PointwiseImage implements Image {
+
+  private final int width;
+  private final int height;
+  private final LookupTable table;
+  private final double[][] matrix;
+  // the original image, which is dropped once the result has been computed
+  private volatile Image source;
+  private volatile Image result;
+
+  /**
+   * Constructs a new image that is the result of applying the given table and then the given
+   * matrix to the given image.
+   *
+   * @param source the original image
+   * @param table  the lookup table to apply first, or null if there is none
+   * @param matrix the color matrix to apply second, or null if there is none
+   */
+  private PointwiseImage(Image source, LookupTable table, double[][] matrix) {
+    this.width = source.getWidth();
+    this.height = source.getHeight();
+    this.source = source;
+    this.table = table;
+    this.matrix = matrix;
+  }
+
+  /**
+   * Returns the result of applying the given color matrix to the given image.
+   *
+   * @param image  the image to apply the matrix to
+   * @param matrix the color matrix to apply
+   * @return the image that computes the result when its pixels are used
+   */
+  static Image apply(Image image, double[][] matrix) {
+    if (image instanceof PointwiseImage) {
+      PointwiseImage chain = (PointwiseImage) image;
+      Image source = chain.source;
+      if (source == null) {
+        return new PointwiseImage(chain.result, null, matrix);
+      }
+      return new PointwiseImage(source, chain.table,
+          chain.matrix == null ? matrix : ColorMatrix.compose(matrix, chain.matrix));
+    }
+    return new PointwiseImage(image, null, matrix);
+  }
+
+  /**
+   * Returns the result of applying the given lookup table to the given image.
+   *
+   * @param image the image to apply the table to
+   * @param table the lookup table to apply
+   * @return the image that computes the result when its pixels are used
+   */
+  static Image apply(Image image, LookupTable table) {
+    if (image instanceof PointwiseImage) {
+      PointwiseImage chain = (PointwiseImage) image;
+      Image source = chain.source;
+      if (source == null) {
+        return new PointwiseImage(chain.result, table, null);
+      }
+      LookupTable first = chain.combinedTable();
+      if (first != null || chain.matrix == null) {
+        return new PointwiseImage(source, table.after(first), null);
+      }
+    }
+    return new PointwiseImage(image, table, null);
+  }
+
+  /**
+   * Returns the single lookup table that has the same effect as this chain.
+   *
+   * @return the combined lookup table, or null if the chain has a color matrix that cannot be
+   *         expressed as a lookup table, or if the chain is empty
+   */
+  private LookupTable combinedTable() {
+    if (this.matrix == null) {
+      return this.table;
+    }
+    LookupTable matrixTable = LookupTable.of(this.matrix);
+    return matrixTable == null ? null : matrixTable.after(this.table);
+  }
+
+  /**
+   * Returns the pixels of this image, computing them in a single pass over the original image if
+   * they have not been computed yet.
+   *
+   * @return the computed image
+   */
+  private Image result() {
+    Image result = this.result;
+    if (result == null) {
+      synchronized (this) {
+        result = this.result;
+        if (result == null) {
+          LookupTable table = this.combinedTable();
+          double[][] matrix = table == null ? this.matrix : null;
+          if (table == null) {
+            table = this.table;
+          }
+          LookupTable finalTable = table;
+          Image source = this.source;
+          result = RegionEngine.render(source, (x, y, width, height, dest, offset) -> {
+            source.getRegion(x, y, width, height, dest, offset);
+            if (finalTable != null) {
+              finalTable.apply(dest, offset, width * height);
+            }
+            if (matrix != null) {
+              for (int i = offset; i < offset + width * height; i++) {
+                dest[i] = ColorMatrix.applyPixel(matrix, dest[i]);
+              }
+            }
+          });
+          this.result = result;
+          this.source = null;
+        }
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public int getHeight() {
+    return this.height;
+  }
+
+  @Override
+  public int getWidth() {
+    return this.width;
+  }
+
+  @Override
+  public Color[][] getPixels() {
+    return this.result().getPixels();
+  }
+
+  @Override
+  public int[] getPackedPixels() {
+    return this.result().getPackedPixels();
+  }
+
+  @Override
+  public int getRGB(int x, int y) throws IllegalArgumentException {
+    return this.result().getRGB(x, y);
+  }
+
+  @Override
+  public IntBuffer getRow(int y) throws IllegalArgumentException {
+    return this.result().getRow(y);
+  }
+
+  @Override
+  public IntBuffer getPackedView() {
+    return this.result().getPackedView();
+  }
+
+  @Override
+  public void getRegion(int x, int y, int width, int height, int[] dest, int offset)
+      throws IllegalArgumentException {
+    this.result().getRegion(x, y, width, height, dest, offset);
+  }
+
+  @Override
+  public Image computed() {
+    return this.result();
+  }
+
+  @Override
+  public Image copy() {
+    return this.result().copy();
+  }
+}
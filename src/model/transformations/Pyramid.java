@@ -0,0 +1,98 @@
+package model.transformations;
+
+import java.util.ArrayList;
+import java.util.List;
+import model.Image;
+
+/**
+ * Represents a mipmap pyramid of an image, used to make several smaller copies of the same image
+ * without reading the whole original image for each of them.
+ *
+ * <p>
+ * The first level of the pyramid is the original image, and each level after it is half the width
+ * and height of the level before it, rounded up, down to a single pixel. Each level is made from
+ * the level before it with a {@link Downscale}, so it only reads a quarter as many pixels as the
+ * level before it did. Levels are only made the first time they are needed.
+ * </p>
+ *
+ * <p>
+ * An image of any size smaller than the original is made from the smallest level that is still at
+ * least as wide and as tall as it, again with a {@link Downscale}.
+ * </p>
+ */
+public class Pyramid {
+
+  // the levels made so far, starting with the original image
+  private final List<Image> levels;
+
+  /**
+   * Constructs a new pyramid of the given image.
+   *
+   * @param image the original image
+   * @throws IllegalArgumentException if the image is null
+   */
+  public Pyramid(Image image) throws IllegalArgumentException {
+    if (image == null) {
+      throw new IllegalArgumentException("The image cannot be null");
+    }
+    this.levels = new ArrayList<>();
+    this.levels.add(image);
+  }
+
+  /**
+   * Returns the given level of the pyramid, making it and the levels before it if they have not
+   * been made yet. Levels past the single pixel level are the single pixel level.
+   *
+   * @param level the level of the pyramid, where 0 is the original image
+   * @return the image at that level
+   * @throws IllegalArgumentException if the level is negative
+   */
+  public synchronized Image getLevel(int level) throws IllegalArgumentException {
+    if (level < 0) {
+      throw new IllegalArgumentException("The level cannot be negative");
+    }
+    while (this.levels.size() <= level) {
+      Image last = this.levels.get(this.levels.size() - 1);
+      if (last.getWidth() == 1 && last.getHeight() == 1) {
+        return last;
+      }
+      this.levels.add(new Downscale((last.getWidth() + 1) / 2, (last.getHeight() + 1) / 2)
+          .transform(last));
+    }
+    return this.levels.get(level);
+  }
+
+  /**
+   * Returns a copy of the original image shrunk to the given width and height, made from the
+   * smallest level of the pyramid that is at least that wide and tall.
+   *
+   * @param width  the width of the copy
+   * @param height the height of the copy
+   * @return the shrunk copy of the original image
+   * @throws IllegalArgumentException if the width or height is not positive, or larger than the
+   *                                  original image
+   */
+  public Image render(int width, int height) throws IllegalArgumentException {
+    Image original = this.levels.get(0);
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("The new width and height must be positive");
+    }
+    if (width > original.getWidth() || height > original.getHeight()) {
+      throw new IllegalArgumentException("The new width and height cannot be larger than the "
+          + "original image (" + original.getWidth() + "x" + original.getHeight() + "px)");
+    }
+
+    // the next level is only made if it is still at least as wide and as tall as the copy
+    int level = 0;
+    Image source = original;
+    while ((source.getWidth() + 1) / 2 >= width && (source.getHeight() + 1) / 2 >= height
+        && (source.getWidth() > 1 || source.getHeight() > 1)) {
+      level++;
+      source = this.getLevel(level);
+    }
+    if (source.getWidth() == width && source.getHeight() == height) {
+      return source;
+    }
+    return new Downscale(width, height).transform(source);
+  }
+}
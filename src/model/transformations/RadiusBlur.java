@@ -0,0 +1,216 @@
+package model.transformations;
+
+import model.DirectImage;
+import model.Image;
+import model.ImageTransformation;
+import model.RegionEngine;
+import model.TiledImage;
+import model.transformations.Convolution.Border;
+
+/**
+ * An implementation of the {@link ImageTransformation} interface representing a macro used to blur
+ * an image with a radius of any size.
+ *
+ * <p>
+ * The blur approximates a Gaussian blur with a standard deviation of a third of the radius, like
+ * {@link Blur#Blur(int)}, by applying three box blurs one after another along each row and then
+ * along each column. A box blur replaces each pixel with the average of the pixels around it, which
+ * is computed with a running sum that adds the pixel entering the box and subtracts the pixel
+ * leaving it, so each pixel costs the same no matter how large the radius is.
+ * </p>
+ *
+ * <p>
+ * The image is blurred in two passes that each blur along one direction and store their result
+ * transposed, so the first pass blurs the columns into the rows of an intermediate image, and the
+ * second blurs the columns of that image, which are the rows of the original, and transposes them
+ * back. Each region of a pass only reads whole lines along the direction it blurs, so the regions
+ * never need the pixels around them across that direction, and the memory and time each pixel
+ * takes do not grow with the radius.
+ * </p>
+ *
+ * <p>
+ * Within a pass, the values between the box blurs are kept as fixed point integers, so the running
+ * sums are exact, and they are only rounded to whole components once between the two passes. Every
+ * pixel is the same no matter which region of the image it is computed in.
+ * </p>
+ */
+public class RadiusBlur implements ImageTransformation {
+
+  // the number of box blurs used to approximate a Gaussian blur
+  private static final int BOXES = 3;
+  // the number of fractional bits kept in the values between the box blurs
+  private static final int FRACTION = 16;
+
+  private final int radius;
+  private final Border border;
+  // the number of pixels each box reaches on each side of a pixel
+  private final int[] boxes;
+  // the number of pixels all the boxes reach together on each side of a pixel
+  private final int halo;
+
+  /**
+   * Constructs a new radius blur transformation macro object, using the closest pixel inside of the
+   * image for the pixels outside of it.
+   *
+   * @param radius the radius of the blur
+   * @throws IllegalArgumentException if the radius is not positive
+   */
+  public RadiusBlur(int radius) throws IllegalArgumentException {
+    this(radius, Border.Clamp);
+  }
+
+  /**
+   * Constructs a new radius blur transformation macro object.
+   *
+   * @param radius the radius of the blur
+   * @param border the way of choosing the pixels outside of the image
+   * @throws IllegalArgumentException if the radius is not positive, or if the border is null
+   */
+  public RadiusBlur(int radius, Border border) throws IllegalArgumentException {
+    if (radius <= 0) {
+      throw new IllegalArgumentException("The radius must be positive");
+    }
+    if (border == null) {
+      throw new IllegalArgumentException("The border cannot be null");
+    }
+    this.radius = radius;
+    this.border = border;
+
+    // picks odd box widths just below and above the ideal width, so that the variance of the
+    // boxes together matches the variance of the Gaussian
+    double sigma = radius / 3.0;
+    int lower = (int) Math.floor(Math.sqrt(12 * sigma * sigma / BOXES + 1));
+    if (lower % 2 == 0) {
+      lower--;
+    }
+    long smaller = Math.round((12 * sigma * sigma - BOXES * lower * lower - 4 * BOXES * lower
+        - 3 * BOXES) / (-4.0 * lower - 4));
+    this.boxes = new int[BOXES];
+    int halo = 0;
+    for (int i = 0; i < BOXES; i++) {
+      int width = i < smaller ? lower : lower + 2;
+      this.boxes[i] = width / 2;
+      halo += this.boxes[i];
+    }
+    this.halo = halo;
+  }
+
+  /**
+   * Returns the radius of this blur.
+   *
+   * @return the radius of the blur
+   */
+  public int getRadius() {
+    return this.radius;
+  }
+
+  @Override
+  public int getReach() {
+    // pixels wrapped around from the opposite edge can be anywhere in the image
+    return this.border == Border.Wrap ? -1 : this.halo;
+  }
+
+  @Override
+  public Image transform(Image image) {
+    // blurs along each column, storing the columns of the image as the rows of a transposed image,
+    // and then blurs along each row of the image by blurring along the columns of that image
+    Image columns = RegionEngine.render(image, image.getHeight(), image.getWidth(),
+        (x, y, width, height, dest, offset) ->
+            this.blurTransposed(image, x, y, width, height, dest, offset));
+    Image blurred = RegionEngine.render(image, image.getWidth(), image.getHeight(),
+        (x, y, width, height, dest, offset) ->
+            this.blurTransposed(columns, x, y, width, height, dest, offset));
+    if (columns instanceof DirectImage) {
+      ((DirectImage) columns).release();
+    } else if (columns instanceof TiledImage) {
+      ((TiledImage) columns).release();
+    }
+    return blurred;
+  }
+
+  /**
+   * Computes a region of the transpose of the given image blurred along each of its columns. Each
+   * row of the region is part of a column of the image, so the blur only reaches along the rows of
+   * the region, and only the rows of the image under the region and the blur are read.
+   *
+   * @param image  the image to blur
+   * @param x      the x coordinate of the top left pixel of the region of the transpose
+   * @param y      the y coordinate of the top left pixel of the region of the transpose
+   * @param width  the width of the region of the transpose
+   * @param height the height of the region of the transpose
+   * @param dest   the array to store the blurred region in, row by row
+   * @param offset the index of the array to store the top left pixel of the region at
+   */
+  private void blurTransposed(Image image, int x, int y, int width, int height, int[] dest,
+      int offset) {
+    int length = width + 2 * this.halo;
+    // finds the row of the image used for each value of a line, and the span of rows they cover
+    int[] rows = new int[length];
+    int top = x;
+    int bottom = x + width - 1;
+    for (int k = 0; k < length; k++) {
+      rows[k] = this.border.index(x - this.halo + k, image.getHeight());
+      if (rows[k] >= 0) {
+        top = Math.min(top, rows[k]);
+        bottom = Math.max(bottom, rows[k]);
+      }
+    }
+    int[] strip = new int[height * (bottom - top + 1)];
+    image.getRegion(y, top, height, bottom - top + 1, strip);
+
+    int[] line = new int[length];
+    int[] values = new int[length];
+    int[] scratch = new int[length];
+    int half = 1 << (FRACTION - 1);
+    for (int i = 0; i < height; i++) {
+      for (int k = 0; k < length; k++) {
+        line[k] = rows[k] < 0 ? 0 : strip[(rows[k] - top) * height + i];
+      }
+      for (int c = 0; c < 3; c++) {
+        int shift = 16 - 8 * c;
+        for (int k = 0; k < length; k++) {
+          values[k] = ((line[k] >> shift) & 0xFF) << FRACTION;
+        }
+        // each box only leaves the values that the remaining boxes still need, so the part of the
+        // line being blurred shrinks by the reach of each box
+        int reach = 0;
+        for (int box : this.boxes) {
+          reach += box;
+          boxLine(values, scratch, reach, length - reach, box);
+          int[] swap = values;
+          values = scratch;
+          scratch = swap;
+        }
+        int row = offset + i * width;
+        for (int j = 0; j < width; j++) {
+          int value = ((values[this.halo + j] + half) >> FRACTION) << shift;
+          dest[row + j] = c == 0 ? value : dest[row + j] | value;
+        }
+      }
+    }
+  }
+
+  /**
+   * Blurs a line of values with a box of the given reach, keeping a running sum of the values in
+   * the box as it moves along the line.
+   *
+   * @param src   the values to blur
+   * @param dest  the array to store the blurred values in
+   * @param left  the first index to store a blurred value for
+   * @param right the index after the last index to store a blurred value for
+   * @param box   the number of values the box reaches on each side of a value
+   */
+  private static void boxLine(int[] src, int[] dest, int left, int right, int box) {
+    int size = 2 * box + 1;
+    long sum = 0;
+    for (int j = left - box; j <= left + box; j++) {
+      sum += src[j];
+    }
+    for (int j = left; j < right; j++) {
+      dest[j] = (int) (sum / size);
+      if (j + 1 < right) {
+        sum += src[j + box + 1] - src[j - box];
+      }
+    }
+  }
+}
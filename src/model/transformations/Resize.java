@@ -0,0 +1,275 @@
+package model.transformations;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import model.Image;
+import model.ImageTransformation;
+import model.ImageUtils;
+import model.RegionEngine;
+
+/**
+ * An implementation of the {@link ImageTransformation} interface representing a macro used to
+ * resize an image to any width and height, larger or smaller than the original.
+ *
+ * <p>
+ * Each new pixel is a weighted sum of the original pixels around the point it maps to, with the
+ * weights given by a {@link Filter}. When the image is shrunk, the filter is stretched to cover all
+ * the original pixels under the new pixel so they are all taken into account. Original pixels
+ * outside of the image are treated as the closest pixel inside of it.
+ * </p>
+ *
+ * <p>
+ * The resize is done in two passes, first along each row and then along each column, so each pixel
+ * costs the sum of the filter's width and height instead of their product. The weights of each
+ * new row and column are worked out once and kept in a small cache shared by every resize, so
+ * resizing many images between the same sizes only works them out once.
+ * </p>
+ */
+public class Resize implements ImageTransformation {
+
+  /**
+   * Represents the filters that can be used to weight the original pixels.
+   */
+  public enum Filter {
+    /**
+     * Linear interpolation between the two closest pixels in each direction.
+     */
+    Bilinear(1),
+    /**
+     * Cubic interpolation between the four closest pixels in each direction.
+     */
+    Bicubic(2),
+    /**
+     * A windowed sinc filter over the six closest pixels in each direction, which keeps the most
+     * detail.
+     */
+    Lanczos3(3);
+
+    // the distance from the center beyond which the filter is 0
+    private final int support;
+
+    Filter(int support) {
+      this.support = support;
+    }
+
+    /**
+     * Returns the weight of an original pixel at the given distance from the point being sampled.
+     *
+     * @param x the distance from the point being sampled, in pixels
+     * @return the weight of the pixel, before the weights are normalized
+     */
+    private double weight(double x) {
+      x = Math.abs(x);
+      if (x >= this.support) {
+        return 0;
+      }
+      switch (this) {
+        case Bilinear:
+          return 1 - x;
+        case Bicubic:
+          // the Catmull-Rom spline
+          if (x < 1) {
+            return (1.5 * x - 2.5) * x * x + 1;
+          }
+          return ((-0.5 * x + 2.5) * x - 4) * x + 2;
+        default:
+          if (x == 0) {
+            return 1;
+          }
+          double pi = Math.PI * x;
+          return 3 * Math.sin(pi) * Math.sin(pi / 3) / (pi * pi);
+      }
+    }
+  }
+
+  // the maximum number of weight tables kept in the cache
+  private static final int CACHED_WEIGHTS = 16;
+  // the most recently used weight tables, keyed by their filter and lengths
+  private static final Map<String, Weights> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Weights> eldest) {
+      return this.size() > CACHED_WEIGHTS;
+    }
+  };
+
+  private final int nWidth;
+  private final int nHeight;
+  private final Filter filter;
+
+  /**
+   * Constructs a new resize transformation macro object that resizes an image to the given width
+   * and height with the given filter.
+   *
+   * @param nWidth  the new width of the image
+   * @param nHeight the new height of the image
+   * @param filter  the filter used to weight the original pixels
+   * @throws IllegalArgumentException if the width or height is not positive, or if the filter is
+   *                                  null
+   */
+  public Resize(int nWidth, int nHeight, Filter filter) throws IllegalArgumentException {
+    if (nWidth <= 0 || nHeight <= 0) {
+      throw new IllegalArgumentException("The new width and height must be positive");
+    }
+    if (filter == null) {
+      throw new IllegalArgumentException("The filter cannot be null");
+    }
+    this.nWidth = nWidth;
+    this.nHeight = nHeight;
+    this.filter = filter;
+  }
+
+  @Override
+  public Image transform(Image image) {
+    Weights columns = weights(this.filter, image.getWidth(), this.nWidth);
+    Weights rows = weights(this.filter, image.getHeight(), this.nHeight);
+
+    return RegionEngine.render(image, this.nWidth, this.nHeight,
+        (x, y, rWidth, rHeight, dest, offset) -> {
+          // the original columns and rows the region needs
+          int left = columns.first[x];
+          int right = columns.last(x + rWidth - 1);
+          int top = rows.first[y];
+          int bottom = rows.last(y + rHeight - 1);
+          int[] oldRow = new int[right - left + 1];
+
+          // the row pass resizes every original row the region needs to the width of the region
+          float[][] resized = new float[3][(bottom - top + 1) * rWidth];
+          for (int i = top; i <= bottom; i++) {
+            image.getRegion(left, i, oldRow.length, 1, oldRow);
+            int row = (i - top) * rWidth;
+            for (int j = 0; j < rWidth; j++) {
+              int column = x + j;
+              int start = columns.first[column] - left - columns.offset[column];
+              float red = 0;
+              float green = 0;
+              float blue = 0;
+              for (int k = columns.offset[column]; k < columns.offset[column + 1]; k++) {
+                int pixel = oldRow[start + k];
+                float weight = columns.weights[k];
+                red += ((pixel >> 16) & 0xFF) * weight;
+                green += ((pixel >> 8) & 0xFF) * weight;
+                blue += (pixel & 0xFF) * weight;
+              }
+              resized[0][row + j] = red;
+              resized[1][row + j] = green;
+              resized[2][row + j] = blue;
+            }
+          }
+
+          // the column pass adds whole resized rows at a time, so it reads them in order
+          float[][] sums = new float[3][rWidth];
+          for (int i = 0; i < rHeight; i++) {
+            int newRow = y + i;
+            for (float[] sum : sums) {
+              Arrays.fill(sum, 0);
+            }
+            for (int k = rows.offset[newRow]; k < rows.offset[newRow + 1]; k++) {
+              int row = (rows.first[newRow] + k - rows.offset[newRow] - top) * rWidth;
+              float weight = rows.weights[k];
+              for (int c = 0; c < 3; c++) {
+                float[] sum = sums[c];
+                float[] values = resized[c];
+                for (int j = 0; j < rWidth; j++) {
+                  sum[j] += values[row + j] * weight;
+                }
+              }
+            }
+            for (int j = 0; j < rWidth; j++) {
+              dest[offset + i * rWidth + j] = ImageUtils.pack(Math.round(sums[0][j]),
+                  Math.round(sums[1][j]), Math.round(sums[2][j]));
+            }
+          }
+        });
+  }
+
+  /**
+   * Returns the weights for resizing between the given lengths with the given filter, from the
+   * cache if they have been worked out before.
+   *
+   * @param filter    the filter used to weight the original pixels
+   * @param oldLength the number of original pixels along the axis
+   * @param newLength the number of new pixels along the axis
+   * @return the weights of each new pixel
+   */
+  private static Weights weights(Filter filter, int oldLength, int newLength) {
+    String key = filter + ":" + oldLength + ":" + newLength;
+    synchronized (CACHE) {
+      Weights weights = CACHE.get(key);
+      if (weights == null) {
+        weights = new Weights(filter, oldLength, newLength);
+        CACHE.put(key, weights);
+      }
+      return weights;
+    }
+  }
+
+  /**
+   * Represents the original pixels that make up each new pixel along one axis, and their weights.
+   * Weights of pixels outside of the image are added to the closest pixel inside of it, so the
+   * pixels of each new pixel are a run of pixels inside of the image.
+   */
+  private static final class Weights {
+
+    // the first original pixel of each new pixel
+    private final int[] first;
+    // the weights of new pixel p are weights[offset[p]] to weights[offset[p + 1] - 1]
+    private final int[] offset;
+    private final float[] weights;
+
+    /**
+     * Works out the weights of the new pixels along an axis.
+     *
+     * @param filter    the filter used to weight the original pixels
+     * @param oldLength the number of original pixels along the axis
+     * @param newLength the number of new pixels along the axis
+     */
+    private Weights(Filter filter, int oldLength, int newLength) {
+      double scale = (double) oldLength / newLength;
+      // the filter is stretched when shrinking so it covers every pixel under the new pixel
+      double stretch = Math.max(1, scale);
+      double support = filter.support * stretch;
+
+      this.first = new int[newLength];
+      this.offset = new int[newLength + 1];
+      double[][] all = new double[newLength][];
+      for (int p = 0; p < newLength; p++) {
+        double center = (p + 0.5) * scale - 0.5;
+        int low = (int) Math.floor(center - support) + 1;
+        int high = (int) Math.ceil(center + support) - 1;
+        int first = Math.max(0, Math.min(oldLength - 1, low));
+        int last = Math.max(0, Math.min(oldLength - 1, high));
+        double[] weights = new double[last - first + 1];
+        double total = 0;
+        for (int i = low; i <= high; i++) {
+          double weight = filter.weight((i - center) / stretch);
+          int clamped = Math.max(first, Math.min(last, i));
+          weights[clamped - first] += weight;
+          total += weight;
+        }
+        for (int i = 0; i < weights.length; i++) {
+          weights[i] /= total;
+        }
+        this.first[p] = first;
+        this.offset[p + 1] = this.offset[p] + weights.length;
+        all[p] = weights;
+      }
+      this.weights = new float[this.offset[newLength]];
+      for (int p = 0; p < newLength; p++) {
+        for (int i = 0; i < all[p].length; i++) {
+          this.weights[this.offset[p] + i] = (float) all[p][i];
+        }
+      }
+    }
+
+    /**
+     * Returns the last original pixel of the given new pixel.
+     *
+     * @param p the new pixel
+     * @return the last original pixel it is made of
+     */
+    private int last(int p) {
+      return this.first[p] + this.offset[p + 1] - this.offset[p] - 1;
+    }
+  }
+}
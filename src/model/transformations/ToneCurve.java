@@ -0,0 +1,70 @@
+package model.transformations;
+
+import model.ImageTransformation;
+
+/**
+ * An implementation of the {@link ImageTransformation} interface representing a macro used to
+ * adjust the tones of an image with a curve.
+ *
+ * <p>
+ * The curve is given as a list of points, each mapping an original component value to a new
+ * component value. Values between two points are interpolated linearly, and values before the first
+ * point or after the last point are mapped like the closest point. The curve is applied as a
+ * {@link LookupTable}.
+ * </p>
+ */
+public class ToneCurve extends LookupTable {
+
+  /**
+   * Constructs a new tone curve transformation macro object with the given points.
+   *
+   * @param points the points of the curve as pairs {@code {original value, new value}}, in order of
+   *               increasing original value
+   * @throws IllegalArgumentException if there are no points, if any value is not between 0 and
+   *                                  255, or if the original values are not increasing
+   */
+  public ToneCurve(int[][] points) throws IllegalArgumentException {
+    super(table(points));
+  }
+
+  /**
+   * Builds the table of the new value of each component value.
+   *
+   * @param points the points of the curve as pairs {@code {original value, new value}}
+   * @return the table of new values
+   * @throws IllegalArgumentException if there are no points, if any value is not between 0 and
+   *                                  255, or if the original values are not increasing
+   */
+  private static int[] table(int[][] points) throws IllegalArgumentException {
+    if (points == null || points.length == 0) {
+      throw new IllegalArgumentException("The curve must have at least one point");
+    }
+    for (int i = 0; i < points.length; i++) {
+      if (points[i] == null || points[i].length != 2 || points[i][0] < 0 || points[i][0] > 255
+          || points[i][1] < 0 || points[i][1] > 255) {
+        throw new IllegalArgumentException("Each point must be two values between 0 and 255");
+      }
+      if (i > 0 && points[i][0] <= points[i - 1][0]) {
+        throw new IllegalArgumentException("The points must be in order of increasing value");
+      }
+    }
+    int[] table = new int[256];
+    int next = 0;
+    for (int v = 0; v < 256; v++) {
+      while (next < points.length && points[next][0] < v) {
+        next++;
+      }
+      if (next == 0) {
+        table[v] = points[0][1];
+      } else if (next == points.length) {
+        table[v] = points[points.length - 1][1];
+      } else {
+        int[] left = points[next - 1];
+        int[] right = points[next];
+        double t = (v - left[0]) / (double) (right[0] - left[0]);
+        table[v] = Math.toIntExact(Math.round(left[1] + t * (right[1] - left[1])));
+      }
+    }
+    return table;
+  }
+}
@@ -1,9 +1,8 @@
 package model.transformations;
 
-import java.awt.Color;
 import model.Image;
-import model.ImageImpl;
 import model.ImageTransformation;
+import model.RegionEngine;
 
 /**
  * An implementation of the {@link ImageTransformation} interface representing a macro used to flip
@@ -13,16 +12,17 @@ public class VerticalFlip implements ImageTransformation {
 
   @Override
   public Image transform(Image image) {
-    int height = image.getHeight();
-    int width = image.getWidth();
-    Color[][] oldPixels = image.getPixels();
-    Color[][] newPixels = new Color[height][width];
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        Color pixel = oldPixels[height - i - 1][j];
-        newPixels[i][j] = pixel;
+    return RegionEngine.render(image, (x, y, width, height, dest, offset) -> {
+      // reads the mirrored region and swaps its rows as a whole
+      image.getRegion(x, image.getHeight() - y - height, width, height, dest, offset);
+      int[] row = new int[width];
+      for (int i = 0; i < height / 2; i++) {
+        int top = offset + i * width;
+        int bottom = offset + (height - i - 1) * width;
+        System.arraycopy(dest, top, row, 0, width);
+        System.arraycopy(dest, bottom, dest, top, width);
+        System.arraycopy(row, 0, dest, bottom, width);
       }
-    }
-    return new ImageImpl(newPixels);
+    });
   }
-}
\ No newline at end of file
+}
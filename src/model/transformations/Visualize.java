@@ -1,13 +1,21 @@
 package model.transformations;
 
-import java.awt.Color;
+import java.nio.ByteBuffer;
 import model.Image;
-import model.ImageImpl;
 import model.ImageTransformation;
+import model.ImageUtils;
+import model.PlanarImage;
+import model.RegionEngine;
 
 /**
  * An implementation of the {@link ImageTransformation} interface representing a macro used to
  * transform images to visualize one color component – red, green, blue, luma, value, or intensity.
+ *
+ * <p>
+ * Every channel except value is a weighted sum of the components, so it is applied as a
+ * {@link ColorMatrix} and combined with any color matrices applied right before or after it into a
+ * single pass over the image.
+ * </p>
  */
 public class Visualize implements ImageTransformation {
 
@@ -22,44 +30,118 @@ public class Visualize implements ImageTransformation {
     this.channel = channel;
   }
 
+  /**
+   * Returns the color matrix that visualizes this transformation's channel.
+   *
+   * @return the color matrix of the channel, or null if the channel is not a weighted sum of the
+   *         components
+   */
+  private ColorMatrix channelMatrix() {
+    double[] weights;
+    switch (this.channel) {
+      case Red:
+        weights = new double[]{1, 0, 0, 0};
+        break;
+      case Green:
+        weights = new double[]{0, 1, 0, 0};
+        break;
+      case Blue:
+        weights = new double[]{0, 0, 1, 0};
+        break;
+      case Luma:
+        weights = new double[]{0.2126, 0.7152, 0.0722, 0};
+        break;
+      case Intensity:
+        weights = new double[]{1.0 / 3.0, 1.0 / 3.0, 1.0 / 3.0, 0};
+        break;
+      default:
+        return null;
+    }
+    return new ColorMatrix(new double[][]{weights, weights, weights});
+  }
+
+  @Override
+  public int getReach() {
+    return 0;
+  }
+
   @Override
   public Image transform(Image image) {
-    Color[][] newPixels = new Color[image.getHeight()][image.getWidth()];
-    Color[][] oldPixels = image.getPixels();
-    for (int i = 0; i < image.getHeight(); i++) {
-      for (int j = 0; j < image.getWidth(); j++) {
-        Color pixel = oldPixels[i][j];
-        Integer newValue;
-        switch (this.channel) {
-          case Red:
-            newValue = pixel.getRed();
-            break;
-          case Green:
-            newValue = pixel.getGreen();
-            break;
-          case Blue:
-            newValue = pixel.getBlue();
-            break;
-          case Luma:
-            newValue = Math.toIntExact(Math.round(
-                0.2126 * pixel.getRed() + 0.7152 * pixel.getGreen() + 0.0722 * pixel.getBlue()));
-            break;
-          case Value:
-            newValue = Math.max(pixel.getRed(), Math.max(pixel.getBlue(), pixel.getGreen()));
-            break;
-          case Intensity:
-            double avg = (pixel.getRed() + pixel.getGreen() + pixel.getBlue()) / 3.0;
-            newValue = Math.toIntExact(Math.round(avg));
-            break;
-          default:
-            // should never happen
-            throw new IllegalArgumentException("Invalid channel");
-        }
-        Color newPixel = new Color(newValue, newValue, newValue);
-        newPixels[i][j] = newPixel;
+    if (image instanceof PlanarImage) {
+      return this.transformPlanes((PlanarImage) image);
+    }
+    ColorMatrix matrix = this.channelMatrix();
+    if (matrix != null) {
+      return matrix.transform(image);
+    }
+    return RegionEngine.render(image, (x, y, width, height, dest, offset) -> {
+      image.getRegion(x, y, width, height, dest, offset);
+      for (int i = offset; i < offset + width * height; i++) {
+        int pixel = dest[i];
+        int newValue = this.channelValue(ImageUtils.getRed(pixel), ImageUtils.getGreen(pixel),
+            ImageUtils.getBlue(pixel));
+        dest[i] = ImageUtils.pack(newValue, newValue, newValue);
       }
+    });
+  }
+
+  /**
+   * Visualizes the channel of a planar image. The red, green, and blue channels are returned as
+   * greyscale images that share the corresponding plane of the given image, and the other channels
+   * are computed into a single plane that is used for all three channels of the new image.
+   *
+   * @param image the planar image to visualize
+   * @return a new planar greyscale image of the channel
+   */
+  private Image transformPlanes(PlanarImage image) {
+    switch (this.channel) {
+      case Red:
+        return image.split()[PlanarImage.RED];
+      case Green:
+        return image.split()[PlanarImage.GREEN];
+      case Blue:
+        return image.split()[PlanarImage.BLUE];
+      default:
+        ByteBuffer red = image.getPlane(PlanarImage.RED);
+        ByteBuffer green = image.getPlane(PlanarImage.GREEN);
+        ByteBuffer blue = image.getPlane(PlanarImage.BLUE);
+        byte[] newPlane = new byte[red.capacity()];
+        for (int i = 0; i < newPlane.length; i++) {
+          newPlane[i] = (byte) this.channelValue(red.get(i) & 0xFF, green.get(i) & 0xFF,
+              blue.get(i) & 0xFF);
+        }
+        return PlanarImage.wrap(image.getWidth(), image.getHeight(), newPlane, newPlane,
+            newPlane);
+    }
+  }
+
+  /**
+   * Returns the value of this transformation's channel for a pixel with the given components.
+   *
+   * @param red   the red component of the pixel
+   * @param green the green component of the pixel
+   * @param blue  the blue component of the pixel
+   * @return the value of the channel in the range [0, 255]
+   */
+  private int channelValue(int red, int green, int blue) {
+    switch (this.channel) {
+      case Red:
+        return red;
+      case Green:
+        return green;
+      case Blue:
+        return blue;
+      case Luma:
+        return Math.toIntExact(Math.round(0.2126 * red + 0.7152 * green + 0.0722 * blue));
+      case Value:
+        return Math.max(red, Math.max(blue, green));
+      case Intensity:
+        double avg = (red + green + blue) / 3.0;
+        return Math.toIntExact(Math.round(avg));
+      default:
+        // should never happen
+        throw new IllegalArgumentException("Invalid channel");
     }
-    return new ImageImpl(newPixels);
   }
 
   /**
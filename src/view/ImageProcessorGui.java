@@ -2,8 +2,11 @@ package view;
 
 import java.awt.image.BufferedImage;
 import java.util.List;
+import java.util.function.BooleanSupplier;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import view.panels.MenubarPanel;
+import view.panels.MessagePanel;
+import view.panels.PreviewPanel;
 import view.panels.TransformationPanel;
 
 /**
@@ -34,6 +37,20 @@ public interface ImageProcessorGui extends ImageProcessorView {
    */
   void renderDialog(DialogType type, String message);
 
+  /**
+   * Renders the progress of an operation that is running in the background, along with a way for
+   * the user to cancel it.
+   *
+   * @param message the message describing the running operation
+   * @param percent how much of the current step of the operation is done, from 0 to 100
+   */
+  void renderProgress(String message, int percent);
+
+  /**
+   * Stops rendering the progress of the operation that was running in the background.
+   */
+  void endProgress();
+
   /**
    * Renders a form with multiple inputs in the form of a popup.
    *
@@ -47,6 +64,23 @@ public interface ImageProcessorGui extends ImageProcessorView {
    */
   String[] renderInput(List<String> questions, String error);
 
+  /**
+   * Renders a form with multiple inputs in the form of a popup, next to a live preview of what the
+   * answers will do.
+   *
+   * <p>The preview is rendered again in the background shortly after the user stops changing the
+   * answers, and a preview that is still being rendered when they change again is cancelled. If the
+   * preview cannot be rendered from the current answers, the reason is shown in its place.</p>
+   *
+   * @param questions the list of questions to ask
+   * @param error     an optional error message to display (will not display if null)
+   * @param preview   the preview of the answers, or null to render the form alone
+   * @return an array of responses to the questions
+   */
+  default String[] renderInput(List<String> questions, String error, Preview preview) {
+    return this.renderInput(questions, error);
+  }
+
   /**
    * Renders a popup prompting a user to choose a file.
    *
@@ -91,6 +125,20 @@ public interface ImageProcessorGui extends ImageProcessorView {
    */
   TransformationPanel getTransformationPanel();
 
+  /**
+   * Gets the preview panel of this GUI view.
+   *
+   * @return the preview panel of this GUI view
+   */
+  PreviewPanel getPreviewPanel();
+
+  /**
+   * Gets the message panel of this GUI view.
+   *
+   * @return the message panel of this GUI view
+   */
+  MessagePanel getMessagePanel();
+
   /**
    * Closes the GUI and all panels.
    */
@@ -103,4 +151,24 @@ public interface ImageProcessorGui extends ImageProcessorView {
     Warning, Danger, Note
   }
 
+  /**
+   * Represents a live preview of the answers to a form, rendered while the form is still open.
+   */
+  interface Preview {
+
+    /**
+     * Renders the preview of the given answers, no larger than the given width and height. This is
+     * called away from the event dispatch thread, and should stop early when it is cancelled.
+     *
+     * @param answers   the current responses to the questions of the form, in order
+     * @param width     the largest width of the preview
+     * @param height    the largest height of the preview
+     * @param cancelled whether a newer preview has replaced this one
+     * @return the preview image
+     * @throws IllegalArgumentException if the answers cannot be previewed, with the reason why
+     */
+    BufferedImage render(String[] answers, int width, int height, BooleanSupplier cancelled)
+        throws IllegalArgumentException;
+  }
+
 }
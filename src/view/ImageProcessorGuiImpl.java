@@ -5,17 +5,30 @@ import java.awt.Dimension;
 import java.awt.GridLayout;
 import java.awt.image.BufferedImage;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.swing.BorderFactory;
+import javax.swing.ImageIcon;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import view.panels.HistogramPanel;
+import view.panels.ImageViewport;
 import view.panels.MenubarPanel;
 import view.panels.MessagePanel;
 import view.panels.PreviewPanel;
@@ -23,11 +36,27 @@ import view.panels.TransformationPanel;
 
 /**
  * Represents an implementation of the {@link ImageProcessorGui} interface.
+ *
+ * <p>
+ * The full size previews of the images are kept within a memory budget. When the previews of every
+ * tab take more memory than the budget, the previews of the tabs that were least recently selected
+ * are reduced to small proxies, and the full size image of a tab is asked for again from the
+ * controller when the tab is selected.
+ * </p>
  */
 public class ImageProcessorGuiImpl implements ImageProcessorGui {
 
+  // the largest width and height of the proxy kept for a tab that is not kept at its full size
+  private static final int PROXY_SIZE = 512;
+  // the largest width and height of the live preview of a form
+  private static final int PREVIEW_SIZE = 400;
+  // the milliseconds to wait after the answers of a form change before previewing them
+  private static final int PREVIEW_DELAY = 30;
+
   private final Map<String, int[][]> histograms = new HashMap<>();
-  private final Map<String, BufferedImage> images = new HashMap<>();
+  // the tabs whose previews are kept at their full size, least recently selected first
+  private final Set<String> fullPreviews = new LinkedHashSet<>();
+  private final long previewMemory;
   private final JFrame frame;
   private final MenubarPanel menubarPanel = new MenubarPanel();
   private final PreviewPanel previewPanel;
@@ -36,9 +65,26 @@ public class ImageProcessorGuiImpl implements ImageProcessorGui {
   private final MessagePanel messagePanel = new MessagePanel();
 
   /**
-   * Constructs a new image processor gui.
+   * Constructs a new image processor gui that keeps the previews of its images within a quarter of
+   * the memory available to the program.
    */
   public ImageProcessorGuiImpl() {
+    this(Runtime.getRuntime().maxMemory() / 4);
+  }
+
+  /**
+   * Constructs a new image processor gui that keeps the previews of its images within the given
+   * number of bytes, apart from the preview of the image that is selected.
+   *
+   * @param previewMemory the memory budget of the previews, in bytes
+   * @throws IllegalArgumentException if the memory budget is not positive
+   */
+  public ImageProcessorGuiImpl(long previewMemory) throws IllegalArgumentException {
+    if (previewMemory <= 0) {
+      throw new IllegalArgumentException("Preview memory must be positive");
+    }
+    this.previewMemory = previewMemory;
+
     // Initialize the frame
     this.frame = new JFrame("Image Processor");
     this.frame.setLayout(new BorderLayout(5, 5));
@@ -66,11 +112,13 @@ public class ImageProcessorGuiImpl implements ImageProcessorGui {
     if (name == null || image == null || histogram == null) {
       throw new IllegalArgumentException("Arguments cannot be null");
     }
-    this.images.put(name, image);
     this.histograms.put(name, histogram);
     this.previewPanel.addImageTab(name, image);
+    this.fullPreviews.remove(name);
+    this.fullPreviews.add(name);
     this.previewPanel.displayImageTab(name);
     this.histogramPanel.updateHistogram(histogram);
+    this.trimPreviews();
     this.frame.repaint();
   }
 
@@ -95,8 +143,26 @@ public class ImageProcessorGuiImpl implements ImageProcessorGui {
     }
   }
 
+  @Override
+  public void renderProgress(String message, int percent) {
+    if (message == null) {
+      throw new IllegalArgumentException("Message cannot be null");
+    }
+    this.messagePanel.updateProgress(message, percent);
+  }
+
+  @Override
+  public void endProgress() {
+    this.messagePanel.endProgress();
+  }
+
   @Override
   public String[] renderInput(List<String> questions, String error) {
+    return this.renderInput(questions, error, null);
+  }
+
+  @Override
+  public String[] renderInput(List<String> questions, String error, Preview preview) {
     if (questions == null) {
       throw new IllegalArgumentException("Questions cannot be null");
     }
@@ -113,24 +179,97 @@ public class ImageProcessorGuiImpl implements ImageProcessorGui {
       panel.add(fields.get(question));
     }
     panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-    int result = JOptionPane.showConfirmDialog(null, panel, error, JOptionPane.OK_CANCEL_OPTION);
-    if (result == JOptionPane.OK_OPTION) {
-      String[] answers = new String[questions.size()];
-      int answerIndex = 0;
-      for (String question : questions) {
-        if (fields.get(question).getText().isEmpty()) {
-          answers[answerIndex] = "";
-        } else {
-          answers[answerIndex] = fields.get(question).getText();
+    if (preview == null) {
+      int result = JOptionPane.showConfirmDialog(null, panel, error,
+          JOptionPane.OK_CANCEL_OPTION);
+      return result == JOptionPane.OK_OPTION ? this.getAnswers(questions, fields) : null;
+    }
+
+    // the preview is rendered again a moment after the answers stop changing
+    JLabel image = new JLabel("", SwingConstants.CENTER);
+    image.setPreferredSize(new Dimension(PREVIEW_SIZE, PREVIEW_SIZE));
+    AtomicBoolean[] latest = {new AtomicBoolean()};
+    Timer timer = new Timer(PREVIEW_DELAY, e -> {
+      latest[0].set(true);
+      AtomicBoolean cancelled = new AtomicBoolean();
+      latest[0] = cancelled;
+      String[] answers = this.getAnswers(questions, fields);
+      new SwingWorker<BufferedImage, Void>() {
+        @Override
+        protected BufferedImage doInBackground() {
+          return preview.render(answers, PREVIEW_SIZE, PREVIEW_SIZE, cancelled::get);
         }
-        answerIndex++;
+
+        @Override
+        protected void done() {
+          if (cancelled.get()) {
+            return;
+          }
+          try {
+            image.setIcon(new ImageIcon(this.get()));
+            image.setText(null);
+          } catch (ExecutionException ex) {
+            image.setIcon(null);
+            image.setText("<html><div style='text-align:center'>"
+                + ex.getCause().getMessage() + "</div></html>");
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      }.execute();
+    });
+    timer.setRepeats(false);
+    DocumentListener listener = new DocumentListener() {
+      @Override
+      public void insertUpdate(DocumentEvent e) {
+        timer.restart();
       }
-      return answers;
-    } else {
-      return null;
+
+      @Override
+      public void removeUpdate(DocumentEvent e) {
+        timer.restart();
+      }
+
+      @Override
+      public void changedUpdate(DocumentEvent e) {
+        timer.restart();
+      }
+    };
+    for (JTextField field : fields.values()) {
+      field.getDocument().addDocumentListener(listener);
+    }
+
+    JPanel form = new JPanel(new BorderLayout(10, 0));
+    form.add(panel, BorderLayout.WEST);
+    form.add(image, BorderLayout.CENTER);
+    timer.start();
+    try {
+      int result = JOptionPane.showConfirmDialog(null, form, error,
+          JOptionPane.OK_CANCEL_OPTION);
+      return result == JOptionPane.OK_OPTION ? this.getAnswers(questions, fields) : null;
+    } finally {
+      timer.stop();
+      latest[0].set(true);
     }
   }
 
+  /**
+   * Returns the current answers to the questions of a form.
+   *
+   * @param questions the questions of the form, in order
+   * @param fields    the field of each question
+   * @return the text of each field, in the order of the questions
+   */
+  private String[] getAnswers(List<String> questions, Map<String, JTextField> fields) {
+    String[] answers = new String[questions.size()];
+    int answerIndex = 0;
+    for (String question : questions) {
+      answers[answerIndex] = fields.get(question).getText();
+      answerIndex++;
+    }
+    return answers;
+  }
+
   @Override
   public String loadFile(FileNameExtensionFilter filter) {
     JFileChooser chooser = new JFileChooser(".");
@@ -161,8 +300,13 @@ public class ImageProcessorGuiImpl implements ImageProcessorGui {
 
   @Override
   public void renderMessage(String message) throws IllegalStateException {
-    message = message.replace("Command:", "");
-    this.messagePanel.updateMessage(message);
+    String trimmed = message.replace("Command:", "");
+    // commands running in the background render their messages from another thread
+    if (SwingUtilities.isEventDispatchThread()) {
+      this.messagePanel.updateMessage(trimmed);
+    } else {
+      SwingUtilities.invokeLater(() -> this.messagePanel.updateMessage(trimmed));
+    }
   }
 
   /**
@@ -179,11 +323,41 @@ public class ImageProcessorGuiImpl implements ImageProcessorGui {
   }
 
   /**
-   * Changes the histogram panel to be the current one.
+   * Changes the histogram panel to be the current one, and marks the preview of the current tab as
+   * the most recently selected one.
    */
   private void changeHistogram() {
-    this.histogramPanel.updateHistogram(
-        this.histograms.get(this.previewPanel.getSelectedImageTab()));
+    String selected = this.previewPanel.getSelectedImageTab();
+    this.histogramPanel.updateHistogram(this.histograms.get(selected));
+    if (this.fullPreviews.remove(selected)) {
+      this.fullPreviews.add(selected);
+      this.trimPreviews();
+    }
+  }
+
+  /**
+   * Reduces the previews of the least recently selected tabs to proxies until the previews of
+   * every tab fit in the memory budget. The preview of the selected tab is always kept at its full
+   * size.
+   */
+  private void trimPreviews() {
+    long total = 0;
+    for (String title : this.previewPanel.getImageTabs()) {
+      total += this.previewPanel.getImageViewport(title).getMemory();
+    }
+    String selected = this.previewPanel.getSelectedImageTab();
+    Iterator<String> iterator = this.fullPreviews.iterator();
+    while (total > this.previewMemory && iterator.hasNext()) {
+      String title = iterator.next();
+      if (title.equals(selected)) {
+        continue;
+      }
+      ImageViewport viewport = this.previewPanel.getImageViewport(title);
+      long before = viewport.getMemory();
+      viewport.reduceToProxy(PROXY_SIZE);
+      total -= before - viewport.getMemory();
+      iterator.remove();
+    }
   }
 
   @Override
@@ -210,6 +384,16 @@ public class ImageProcessorGuiImpl implements ImageProcessorGui {
     return this.transformationPanel;
   }
 
+  @Override
+  public PreviewPanel getPreviewPanel() {
+    return this.previewPanel;
+  }
+
+  @Override
+  public MessagePanel getMessagePanel() {
+    return this.messagePanel;
+  }
+
   @Override
   public void close() {
     this.frame.dispose();
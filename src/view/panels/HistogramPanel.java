@@ -3,15 +3,37 @@ package view.panels;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JPanel;
+import javax.swing.JPopupMenu;
 import view.ImageProcessorGui;
 
 /**
  * Represents the histogram panel that is a part of the {@link ImageProcessorGui} view.
+ *
+ * <p>
+ * The graph is drawn once into an image whenever the histogram or the way it is shown changes, and
+ * that image is drawn on every repaint. The graph can be shown on a log scale, and each channel
+ * can be hidden, from the menu shown when the panel is right-clicked. Neither needs the histogram
+ * to be counted again.
+ * </p>
  */
 public class HistogramPanel extends JPanel {
 
+  // the names and colors of the red, green, blue, and intensity channels, in that order
+  private static final String[] NAMES = {"Red", "Green", "Blue", "Intensity"};
+  private static final Color[] COLORS = {new Color(255, 0, 0, 40), new Color(0, 255, 0, 40),
+      new Color(0, 0, 255, 40), new Color(0, 0, 0, 40)};
+
+  private final boolean[] shown = {true, true, true, true};
+  private boolean logScale;
   private int[][] histogram;
+  // the largest frequency of each channel of the histogram
+  private int[] max;
+  // the graph drawn for the current histogram and size, or null if it must be drawn again
+  private BufferedImage graph;
 
   /**
    * Constructs a new histogram panel.
@@ -22,6 +44,20 @@ public class HistogramPanel extends JPanel {
     this.setPreferredSize(size);
     this.setMinimumSize(size);
     this.setMaximumSize(size);
+
+    JPopupMenu menu = new JPopupMenu();
+    JCheckBoxMenuItem log = new JCheckBoxMenuItem("Log Scale");
+    log.addActionListener(evt -> this.setLogScale(log.isSelected()));
+    menu.add(log);
+    menu.addSeparator();
+    for (int c = 0; c < NAMES.length; c++) {
+      int channel = c;
+      JCheckBoxMenuItem item = new JCheckBoxMenuItem(NAMES[c], true);
+      item.addActionListener(evt -> this.setChannelShown(channel, item.isSelected()));
+      menu.add(item);
+    }
+    this.setComponentPopupMenu(menu);
+    this.setToolTipText("Right-click to change how the histogram is shown");
   }
 
   /**
@@ -34,46 +70,92 @@ public class HistogramPanel extends JPanel {
       throw new IllegalArgumentException("Histogram cannot be null");
     }
     this.histogram = histogram;
+    this.max = new int[histogram.length];
+    for (int i = 0; i < histogram.length; i++) {
+      for (int j = 0; j < histogram[i].length; j++) {
+        this.max[i] = Math.max(this.max[i], histogram[i][j]);
+      }
+    }
+    this.graph = null;
     this.repaint();
   }
 
-  @Override
-  protected void paintComponent(java.awt.Graphics g) {
-    super.paintComponent(g);
-    drawGraph(g);
+  /**
+   * Sets whether the heights of the bars are proportional to the logarithm of their frequencies,
+   * which shows small frequencies next to much larger ones.
+   *
+   * @param logScale true to show the histogram on a log scale, false for a linear scale
+   */
+  public void setLogScale(boolean logScale) {
+    this.logScale = logScale;
+    this.graph = null;
+    this.repaint();
   }
 
   /**
-   * Draws the histogram graph.
+   * Sets whether the given channel of the histogram is shown. The bars are scaled to the largest
+   * frequency of the channels that are shown.
    *
-   * @param g the graphics object to draw on
+   * @param channel the channel (0 = red, 1 = green, 2 = blue, 3 = intensity)
+   * @param shown   true to show the channel, false to hide it
+   * @throws IllegalArgumentException if the channel is not between 0 and 3
    */
-  private void drawGraph(final Graphics g) {
-    if (this.histogram == null) {
+  public void setChannelShown(int channel, boolean shown) throws IllegalArgumentException {
+    if (channel < 0 || channel >= this.shown.length) {
+      throw new IllegalArgumentException("Channel must be between 0 and 3");
+    }
+    this.shown[channel] = shown;
+    this.graph = null;
+    this.repaint();
+  }
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    super.paintComponent(g);
+    if (this.histogram == null || this.getWidth() <= 0 || this.getHeight() <= 0) {
       return;
     }
-    int height = this.getHeight() - 12;
+    if (this.graph == null || this.graph.getWidth() != this.getWidth()
+        || this.graph.getHeight() != this.getHeight()) {
+      this.graph = this.drawGraph(this.getWidth(), this.getHeight());
+    }
+    g.drawImage(this.graph, 0, 0, null);
+  }
+
+  /**
+   * Draws the histogram graph into a new transparent image.
+   *
+   * @param width  the width of the image
+   * @param height the height of the image
+   * @return the image of the graph
+   */
+  private BufferedImage drawGraph(int width, int height) {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
     int max = 0;
-    for (int i = 0; i < this.histogram.length; i++) {
-      for (int j = 0; j < this.histogram[i].length; j++) {
-        if (this.histogram[i][j] > max) {
-          max = this.histogram[i][j];
-        }
+    for (int c = 0; c < this.histogram.length && c < this.shown.length; c++) {
+      if (this.shown[c]) {
+        max = Math.max(max, this.max[c]);
       }
     }
+    if (max == 0) {
+      return image;
+    }
+    double scale = this.logScale ? Math.log1p(max) : max;
+    int bottom = height - 12;
+    Graphics2D g = image.createGraphics();
     for (int i = 0; i < 256; i++) {
-      g.setColor(new Color(255, 0, 0, 40));
-      g.drawLine(i + 10, height, i + 10,
-          Math.max(12, height - (int) ((double) this.histogram[0][i] / max * height)));
-      g.setColor(new Color(0, 255, 0, 40));
-      g.drawLine(i + 10, height, i + 10,
-          Math.max(12, height - (int) ((double) this.histogram[1][i] / max * height)));
-      g.setColor(new Color(0, 0, 255, 40));
-      g.drawLine(i + 10, height, i + 10,
-          Math.max(12, height - (int) ((double) this.histogram[2][i] / max * height)));
-      g.setColor(new Color(0, 0, 0, 40));
-      g.drawLine(i + 10, height, i + 10,
-          Math.max(12, height - (int) ((double) this.histogram[3][i] / max * height)));
+      for (int c = 0; c < this.histogram.length && c < this.shown.length; c++) {
+        if (!this.shown[c] || i >= this.histogram[c].length) {
+          continue;
+        }
+        int frequency = this.histogram[c][i];
+        double value = this.logScale ? Math.log1p(frequency) : frequency;
+        g.setColor(COLORS[c]);
+        g.drawLine(i + 10, bottom, i + 10,
+            Math.max(12, bottom - (int) (value / scale * bottom)));
+      }
     }
+    g.dispose();
+    return image;
   }
 }
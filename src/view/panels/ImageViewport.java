@@ -0,0 +1,438 @@
+package view.panels;
+
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.AbstractAction;
+import javax.swing.JComponent;
+import javax.swing.JScrollPane;
+import javax.swing.JViewport;
+import javax.swing.KeyStroke;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+
+/**
+ * Represents a component that displays an image at any zoom level inside of a scroll pane, and
+ * only draws the part of the image that is visible.
+ *
+ * <p>
+ * When the image is zoomed out, it is drawn from a mipmap of the image, where each level is half
+ * the size of the level before it, so drawing never reads more pixels than it draws. The levels are
+ * made the first time they are needed and kept until the image changes.
+ * </p>
+ *
+ * <p>
+ * To save memory, the viewport can let go of the larger levels of the mipmap and keep only a small
+ * proxy of the image (see {@link #reduceToProxy(int)}), which is drawn scaled up until the image is
+ * given back at its full size.
+ * </p>
+ *
+ * <p>
+ * The image is zoomed with the mouse wheel while holding control or command, or with the plus,
+ * minus, 0 (fit to the window), and 1 (actual size) keys, and panned by dragging it.
+ * </p>
+ */
+public class ImageViewport extends JComponent implements Scrollable {
+
+  private static final long serialVersionUID = 1L;
+
+  // the zoom levels the image can be displayed at
+  private static final double MIN_ZOOM = 1.0 / 64;
+  private static final double MAX_ZOOM = 32;
+  // the change in zoom of each zoom step
+  private static final double ZOOM_STEP = 1.25;
+
+  // the image at full size, followed by each level of its mipmap that has been made, where the
+  // levels before the first one that is kept are null
+  private final List<BufferedImage> levels = new ArrayList<>();
+  private int first;
+  private int width;
+  private int height;
+  private double zoom = 1;
+  private Point dragStart;
+
+  /**
+   * Constructs a new viewport that displays the given image at its actual size.
+   *
+   * @param image the image to display
+   * @throws IllegalArgumentException if the image is null
+   */
+  public ImageViewport(BufferedImage image) throws IllegalArgumentException {
+    this.setImage(image);
+    this.setFocusable(true);
+    this.setOpaque(false);
+    this.addMouseListeners();
+    this.addKeyBindings();
+  }
+
+  /**
+   * Replaces the image displayed, keeping the current zoom.
+   *
+   * @param image the image to display
+   * @throws IllegalArgumentException if the image is null
+   */
+  public void setImage(BufferedImage image) throws IllegalArgumentException {
+    if (image == null) {
+      throw new IllegalArgumentException("Image cannot be null");
+    }
+    this.levels.clear();
+    this.levels.add(image);
+    this.first = 0;
+    this.width = image.getWidth();
+    this.height = image.getHeight();
+    this.revalidate();
+    this.repaint();
+  }
+
+  /**
+   * Returns the image displayed, at its full size.
+   *
+   * @return the image displayed, or null if only a proxy of it is kept
+   */
+  public BufferedImage getImage() {
+    return this.levels.get(0);
+  }
+
+  /**
+   * Lets go of the image at its full size and every level of its mipmap that is larger than the
+   * given size, keeping the largest level that fits in it as a proxy to draw the image from.
+   *
+   * @param size the largest width and height of the proxy
+   * @throws IllegalArgumentException if the size is not positive
+   */
+  public void reduceToProxy(int size) throws IllegalArgumentException {
+    if (size <= 0) {
+      throw new IllegalArgumentException("Proxy size must be positive");
+    }
+    int level = this.first;
+    while (Math.max(this.levelWidth(level), this.levelHeight(level)) > size) {
+      level++;
+    }
+    this.level(level);
+    for (int i = this.first; i < level; i++) {
+      this.levels.set(i, null);
+    }
+    this.first = level;
+  }
+
+  /**
+   * Returns whether only a proxy of the image is kept instead of the image at its full size.
+   *
+   * @return true if only a proxy is kept, false otherwise
+   */
+  public boolean isProxy() {
+    return this.first > 0;
+  }
+
+  /**
+   * Returns the number of bytes of pixels held by the image and the levels of its mipmap.
+   *
+   * @return the memory used by the image, in bytes
+   */
+  public long getMemory() {
+    long memory = 0;
+    for (BufferedImage level : this.levels) {
+      if (level != null) {
+        memory += 4L * level.getWidth() * level.getHeight();
+      }
+    }
+    return memory;
+  }
+
+  /**
+   * Returns the zoom the image is displayed at, where 1 is its actual size.
+   *
+   * @return the zoom of the image
+   */
+  public double getZoom() {
+    return this.zoom;
+  }
+
+  /**
+   * Zooms the image to the given zoom, keeping the given point of the component over the same part
+   * of the image.
+   *
+   * @param zoom   the new zoom, which is kept between 1/64 and 32
+   * @param anchor the point of the component to keep in place, or null to keep the center of the
+   *               visible part in place
+   */
+  public void setZoom(double zoom, Point anchor) {
+    zoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom));
+    Rectangle visible = this.getVisibleRect();
+    if (anchor == null) {
+      anchor = new Point((int) visible.getCenterX(), (int) visible.getCenterY());
+    }
+    // the point of the image under the anchor, and where the anchor is in the visible part
+    double imageX = anchor.x / this.zoom;
+    double imageY = anchor.y / this.zoom;
+    int offsetX = anchor.x - visible.x;
+    int offsetY = anchor.y - visible.y;
+
+    this.zoom = zoom;
+    this.revalidate();
+    if (this.getParent() instanceof JViewport) {
+      JViewport viewport = (JViewport) this.getParent();
+      viewport.doLayout();
+      Dimension size = this.getPreferredSize();
+      Dimension extent = viewport.getExtentSize();
+      int x = (int) Math.round(imageX * zoom) - offsetX;
+      int y = (int) Math.round(imageY * zoom) - offsetY;
+      viewport.setViewPosition(new Point(Math.max(0, Math.min(x, size.width - extent.width)),
+          Math.max(0, Math.min(y, size.height - extent.height))));
+    }
+    this.repaint();
+  }
+
+  /**
+   * Zooms the image so that all of it fits in the visible part of the component, without zooming
+   * in past its actual size.
+   */
+  public void zoomToFit() {
+    Dimension extent = this.getParent() instanceof JViewport
+        ? ((JViewport) this.getParent()).getExtentSize() : this.getSize();
+    if (extent.width > 0 && extent.height > 0) {
+      this.setZoom(Math.min(1, Math.min((double) extent.width / this.width,
+          (double) extent.height / this.height)), null);
+    }
+  }
+
+  @Override
+  public Dimension getPreferredSize() {
+    return new Dimension((int) Math.ceil(this.width * this.zoom),
+        (int) Math.ceil(this.height * this.zoom));
+  }
+
+  @Override
+  protected void paintComponent(Graphics graphics) {
+    Rectangle clip = graphics.getClipBounds();
+    if (clip == null) {
+      clip = new Rectangle(this.getPreferredSize());
+    }
+
+    // the smallest level that still has at least one pixel for each pixel drawn, or the proxy if
+    // that level is no longer kept
+    int level = 0;
+    while (level < 30 && Math.pow(2, level + 1) * this.zoom <= 1
+        && (this.width >> (level + 1)) > 0 && (this.height >> (level + 1)) > 0) {
+      level++;
+    }
+    level = Math.max(level, this.first);
+    BufferedImage source = this.level(level);
+    double scale = (1 << level) * this.zoom;
+
+    // the pixels of the level under the clip, and where they are drawn
+    int left = Math.max(0, (int) Math.floor(clip.x / scale));
+    int top = Math.max(0, (int) Math.floor(clip.y / scale));
+    int right = Math.min(source.getWidth(), (int) Math.ceil((clip.x + clip.width) / scale));
+    int bottom = Math.min(source.getHeight(), (int) Math.ceil((clip.y + clip.height) / scale));
+    if (left >= right || top >= bottom) {
+      return;
+    }
+    Dimension size = this.getPreferredSize();
+    Graphics2D g = (Graphics2D) graphics.create();
+    g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, scale < 1
+        ? RenderingHints.VALUE_INTERPOLATION_BILINEAR
+        : RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+    g.drawImage(source, (int) Math.round(left * scale), (int) Math.round(top * scale),
+        Math.min(size.width, (int) Math.round(right * scale)),
+        Math.min(size.height, (int) Math.round(bottom * scale)), left, top, right, bottom, null);
+    g.dispose();
+  }
+
+  /**
+   * Returns the given level of the mipmap of the image, making it and the levels before it if they
+   * have not been made yet.
+   *
+   * @param level the level, where 0 is the image at its full size
+   * @return the image at the given level
+   */
+  private BufferedImage level(int level) {
+    while (this.levels.size() <= level) {
+      this.levels.add(half(this.levels.get(this.levels.size() - 1)));
+    }
+    return this.levels.get(level);
+  }
+
+  /**
+   * Returns the width of the given level of the mipmap of the image.
+   *
+   * @param level the level, where 0 is the image at its full size
+   * @return the width of the level
+   */
+  private int levelWidth(int level) {
+    return (int) ((this.width + (1L << level) - 1) >> level);
+  }
+
+  /**
+   * Returns the height of the given level of the mipmap of the image.
+   *
+   * @param level the level, where 0 is the image at its full size
+   * @return the height of the level
+   */
+  private int levelHeight(int level) {
+    return (int) ((this.height + (1L << level) - 1) >> level);
+  }
+
+  /**
+   * Returns an image half the size of the given image, rounded up, where each pixel is the average
+   * of the pixels of the 2x2 block of the given image it covers.
+   *
+   * @param image the image to halve
+   * @return the halved image
+   */
+  private static BufferedImage half(BufferedImage image) {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    int[] pixels;
+    if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+      pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    } else {
+      pixels = image.getRGB(0, 0, width, height, null, 0, width);
+    }
+    int newWidth = (width + 1) / 2;
+    int newHeight = (height + 1) / 2;
+    BufferedImage half = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_RGB);
+    int[] halved = ((DataBufferInt) half.getRaster().getDataBuffer()).getData();
+    for (int i = 0; i < newHeight; i++) {
+      int top = 2 * i * width;
+      int bottom = Math.min(2 * i + 1, height - 1) * width;
+      for (int j = 0; j < newWidth; j++) {
+        int left = 2 * j;
+        int right = Math.min(2 * j + 1, width - 1);
+        int a = pixels[top + left];
+        int b = pixels[top + right];
+        int c = pixels[bottom + left];
+        int d = pixels[bottom + right];
+        int red = (((a >> 16) & 0xFF) + ((b >> 16) & 0xFF) + ((c >> 16) & 0xFF)
+            + ((d >> 16) & 0xFF) + 2) / 4;
+        int green = (((a >> 8) & 0xFF) + ((b >> 8) & 0xFF) + ((c >> 8) & 0xFF)
+            + ((d >> 8) & 0xFF) + 2) / 4;
+        int blue = ((a & 0xFF) + (b & 0xFF) + (c & 0xFF) + (d & 0xFF) + 2) / 4;
+        halved[i * newWidth + j] = red << 16 | green << 8 | blue;
+      }
+    }
+    return half;
+  }
+
+  /**
+   * Zooms the image with the mouse wheel while control or command is held, and pans it by dragging.
+   */
+  private void addMouseListeners() {
+    MouseAdapter adapter = new MouseAdapter() {
+      @Override
+      public void mouseWheelMoved(MouseWheelEvent e) {
+        if (e.isControlDown() || e.isMetaDown()) {
+          setZoom(zoom * Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()), e.getPoint());
+        } else {
+          // lets the scroll pane scroll as usual
+          Component scrollPane = SwingUtilities.getAncestorOfClass(JScrollPane.class,
+              ImageViewport.this);
+          if (scrollPane != null) {
+            scrollPane.dispatchEvent(
+                SwingUtilities.convertMouseEvent(ImageViewport.this, e, scrollPane));
+          }
+        }
+      }
+
+      @Override
+      public void mousePressed(MouseEvent e) {
+        requestFocusInWindow();
+        dragStart = e.getLocationOnScreen();
+      }
+
+      @Override
+      public void mouseDragged(MouseEvent e) {
+        if (dragStart == null) {
+          return;
+        }
+        Point now = e.getLocationOnScreen();
+        Rectangle visible = getVisibleRect();
+        visible.translate(dragStart.x - now.x, dragStart.y - now.y);
+        scrollRectToVisible(visible);
+        dragStart = now;
+      }
+
+      @Override
+      public void mouseReleased(MouseEvent e) {
+        dragStart = null;
+      }
+    };
+    this.addMouseListener(adapter);
+    this.addMouseMotionListener(adapter);
+    this.addMouseWheelListener(adapter);
+  }
+
+  /**
+   * Zooms the image with the plus, minus, 0, and 1 keys while it has focus.
+   */
+  private void addKeyBindings() {
+    this.bind("zoomIn", () -> this.setZoom(this.zoom * ZOOM_STEP, null), KeyEvent.VK_EQUALS,
+        KeyEvent.VK_PLUS, KeyEvent.VK_ADD);
+    this.bind("zoomOut", () -> this.setZoom(this.zoom / ZOOM_STEP, null), KeyEvent.VK_MINUS,
+        KeyEvent.VK_SUBTRACT);
+    this.bind("zoomToFit", this::zoomToFit, KeyEvent.VK_0, KeyEvent.VK_NUMPAD0);
+    this.bind("actualSize", () -> this.setZoom(1, null), KeyEvent.VK_1, KeyEvent.VK_NUMPAD1);
+  }
+
+  /**
+   * Runs the given action when any of the given keys is pressed, with or without shift, while the
+   * component has focus.
+   *
+   * @param name   the name of the action
+   * @param action the action to run
+   * @param keys   the key codes of the keys that run the action
+   */
+  private void bind(String name, Runnable action, int... keys) {
+    for (int key : keys) {
+      this.getInputMap().put(KeyStroke.getKeyStroke(key, 0), name);
+      this.getInputMap().put(KeyStroke.getKeyStroke(key, InputEvent.SHIFT_DOWN_MASK), name);
+    }
+    this.getActionMap().put(name, new AbstractAction() {
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        action.run();
+      }
+    });
+  }
+
+  @Override
+  public Dimension getPreferredScrollableViewportSize() {
+    return this.getPreferredSize();
+  }
+
+  @Override
+  public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+    return 16;
+  }
+
+  @Override
+  public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+    return orientation == SwingConstants.HORIZONTAL ? visibleRect.width - 16
+        : visibleRect.height - 16;
+  }
+
+  @Override
+  public boolean getScrollableTracksViewportWidth() {
+    return false;
+  }
+
+  @Override
+  public boolean getScrollableTracksViewportHeight() {
+    return false;
+  }
+}
@@ -1,18 +1,25 @@
 package view.panels;
 
+import controller.ImageProcessorGuiController;
 import java.awt.BorderLayout;
 import javax.swing.BorderFactory;
+import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.border.CompoundBorder;
 import view.ImageProcessorGui;
 
 /**
- * Represents the message panel that is a part of the {@link ImageProcessorGui} view.
+ * Represents the message panel that is a part of the {@link ImageProcessorGui} view. While an
+ * operation is running, the panel also shows its progress and a button to cancel it.
  */
 public class MessagePanel extends JPanel {
 
   private final JLabel messageLabel;
+  private final JPanel progressPanel;
+  private final JProgressBar progressBar;
+  private final JButton cancelButton;
 
   /**
    * Constructs a new message panel.
@@ -23,10 +30,33 @@ public class MessagePanel extends JPanel {
     this.messageLabel.setHorizontalAlignment(JLabel.LEFT);
     this.messageLabel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
     this.add(this.messageLabel, BorderLayout.CENTER);
+
+    this.progressBar = new JProgressBar(0, 100);
+    this.progressBar.setStringPainted(true);
+    this.cancelButton = new JButton("Cancel");
+    this.progressPanel = new JPanel(new BorderLayout(5, 0));
+    this.progressPanel.add(this.progressBar, BorderLayout.CENTER);
+    this.progressPanel.add(this.cancelButton, BorderLayout.EAST);
+    this.progressPanel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+    this.progressPanel.setVisible(false);
+    this.add(this.progressPanel, BorderLayout.EAST);
+
     this.setBorder(new CompoundBorder(BorderFactory.createEmptyBorder(0, 10, 10, 10),
         BorderFactory.createTitledBorder("Messages")));
   }
 
+  /**
+   * Sets the controller for this panel.
+   *
+   * @param controller the controller for this panel
+   */
+  public void addFeatures(ImageProcessorGuiController controller) {
+    if (controller == null) {
+      throw new IllegalArgumentException("Controller cannot be null");
+    }
+    this.cancelButton.addActionListener(evt -> controller.cancel());
+  }
+
   /**
    * Updates the message displayed in the message panel.
    *
@@ -39,4 +69,26 @@ public class MessagePanel extends JPanel {
     this.messageLabel.setText(message);
   }
 
+  /**
+   * Shows the progress of the running operation, along with the button to cancel it.
+   *
+   * @param message the message describing the running operation
+   * @param percent how much of the current step of the operation is done, from 0 to 100
+   */
+  public void updateProgress(String message, int percent) {
+    this.updateMessage(message);
+    this.progressBar.setValue(Math.max(0, Math.min(100, percent)));
+    this.cancelButton.setEnabled(true);
+    this.progressPanel.setVisible(true);
+    this.revalidate();
+  }
+
+  /**
+   * Hides the progress of the operation that was running.
+   */
+  public void endProgress() {
+    this.progressPanel.setVisible(false);
+    this.revalidate();
+  }
+
 }
@@ -1,14 +1,16 @@
 package view.panels;
 
+import controller.ImageProcessorGuiController;
 import java.awt.image.BufferedImage;
-import javax.swing.ImageIcon;
-import javax.swing.JLabel;
+import java.util.ArrayList;
+import java.util.List;
 import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 import view.ImageProcessorGui;
 
 /**
- * Represents the image preview panel that is a part of the {@link ImageProcessorGui} view.
+ * Represents the image preview panel that is a part of the {@link ImageProcessorGui} view. Each
+ * image is displayed in its own tab by an {@link ImageViewport}, which can zoom and pan the image.
  */
 public class PreviewPanel extends JTabbedPane {
 
@@ -32,21 +34,71 @@ public class PreviewPanel extends JTabbedPane {
     if (image == null) {
       throw new IllegalArgumentException("Image cannot be null");
     }
-    JLabel label = new JLabel();
-    label.setVerticalAlignment(JLabel.TOP);
-    label.setHorizontalAlignment(JLabel.LEFT);
-    label.setIcon(new ImageIcon(image));
-    JScrollPane scrollPane = new JScrollPane(label);
+    int index = this.indexOfTab(title);
+    if (index != -1) {
+      // keeps the zoom and scroll position of the tab, and only replaces its image
+      this.getViewport(index).setImage(image);
+      return;
+    }
+    JScrollPane scrollPane = new JScrollPane(new ImageViewport(image));
     scrollPane.getVerticalScrollBar().setUnitIncrement(16);
     scrollPane.getHorizontalScrollBar().setUnitIncrement(16);
-    if (this.indexOfTab(title) == -1) {
-      this.addTab(title, scrollPane);
-    } else {
-      this.setComponentAt(this.indexOfTab(title), scrollPane);
-    }
+    this.addTab(title, scrollPane);
     this.repaint();
   }
 
+  /**
+   * Sets the controller for this panel, which is asked to display the full size image of any tab
+   * that is selected while only a proxy of its image is kept.
+   *
+   * @param controller the controller for this panel
+   */
+  public void addFeatures(ImageProcessorGuiController controller) {
+    if (controller == null) {
+      throw new IllegalArgumentException("Controller cannot be null");
+    }
+    this.addChangeListener(evt -> {
+      String title = this.getSelectedImageTab();
+      if (title != null && this.getImageViewport(title).isProxy()) {
+        controller.showImage(title);
+      }
+    });
+  }
+
+  /**
+   * Returns the viewport that displays the image of the tab with the given title.
+   *
+   * @param title the title of the tab
+   * @return the viewport of the tab, or null if there is no tab with the given title
+   */
+  public ImageViewport getImageViewport(String title) {
+    int index = this.indexOfTab(title);
+    return index == -1 ? null : this.getViewport(index);
+  }
+
+  /**
+   * Returns the titles of every image tab, in order.
+   *
+   * @return the titles of the image tabs
+   */
+  public List<String> getImageTabs() {
+    List<String> titles = new ArrayList<>();
+    for (int i = 0; i < this.getTabCount(); i++) {
+      titles.add(this.getTitleAt(i));
+    }
+    return titles;
+  }
+
+  /**
+   * Returns the viewport that displays the image of the tab at the given index.
+   *
+   * @param index the index of the tab
+   * @return the viewport of the tab
+   */
+  private ImageViewport getViewport(int index) {
+    return (ImageViewport) ((JScrollPane) this.getComponentAt(index)).getViewport().getView();
+  }
+
   /**
    * Selects the image tab with the given title.
    *
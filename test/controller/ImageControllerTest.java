@@ -5,12 +5,14 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import controller.commands.BlurRadiusCmd;
 import controller.commands.BrightnessCmd;
 import controller.commands.FilterCmd;
 import controller.commands.FilterCmd.FilterType;
 import controller.commands.HorizontalFlipCmd;
 import controller.commands.LoadCmd;
 import controller.commands.SaveCmd;
+import controller.commands.ToneCmd;
 import controller.commands.VerticalFlipCmd;
 import controller.commands.VisualizeCmd;
 import java.awt.Color;
@@ -23,12 +25,22 @@ import java.io.InputStreamReader;
 import model.Image;
 import model.ImageImpl;
 import model.ImageTransformation;
+import model.RegionEngine;
 import model.StoredImages;
 import model.StoredImagesImpl;
 import model.transformations.Blur;
 import model.transformations.Brightness;
+import model.transformations.Gamma;
 import model.transformations.Greyscale;
 import model.transformations.HorizontalFlip;
+import model.transformations.Levels;
+import model.transformations.Mask;
+import model.transformations.Mask.Mode;
+import model.transformations.Mosaic;
+import model.transformations.Pyramid;
+import model.transformations.RadiusBlur;
+import model.transformations.Resize;
+import model.transformations.Resize.Filter;
 import model.transformations.Sepia;
 import model.transformations.Sharpen;
 import model.transformations.VerticalFlip;
@@ -130,6 +142,24 @@ public class ImageControllerTest {
     assertTrue(this.appendable.toString().contains("Error: Invalid command, please try again"));
   }
 
+  @Test
+  public void testParallelism() {
+    int defaultParallelism = RegionEngine.getParallelism();
+    String userCommand = "parallelism 2" + System.lineSeparator() + "parallelism 0";
+    Readable in = new InputStreamReader(new ByteArrayInputStream(userCommand.getBytes()));
+    this.appendable = new StringBuilder();
+    this.view = new ImageProcessorViewImpl(this.appendable);
+    this.controller1 = new ImageProcessorControllerImpl(in, this.view, this.store);
+    this.controller1.run();
+    int parallelism = RegionEngine.getParallelism();
+    RegionEngine.setParallelism(defaultParallelism);
+
+    assertEquals(2, parallelism);
+    assertTrue(
+        this.appendable.toString().contains("Commands will now be applied using 2 thread(s)"));
+    assertTrue(this.appendable.toString().contains("Error: Parallelism must be greater than 0"));
+  }
+
   @Test
   public void testInvalidPath() {
     String userCommandEx3 = "load res.ppm ExampleImage" + System.lineSeparator();
@@ -338,6 +368,165 @@ public class ImageControllerTest {
     assertArrayEquals(macroImage.getPixels(), commandImage.getPixels());
   }
 
+  @Test
+  public void testBlurRadiusCmd() {
+    ImageTransformation macro = new RadiusBlur(40);
+    Image macroImage = macro.transform(this.beforeImage);
+
+    ImageProcessorCmd command = new BlurRadiusCmd(this.view, this.store, 40, "example",
+        "example-blur-radius");
+    command.execute();
+    Image commandImage = this.store.retrieve("example-blur-radius");
+
+    assertArrayEquals(macroImage.getPixels(), commandImage.getPixels());
+
+    String userCommand = "blur-radius 0 example example-blur-radius";
+    Readable in = new InputStreamReader(new ByteArrayInputStream(userCommand.getBytes()));
+    this.appendable = new StringBuilder();
+    this.view = new ImageProcessorViewImpl(this.appendable);
+    this.controller1 = new ImageProcessorControllerImpl(in, this.view, this.store);
+    this.controller1.run();
+    assertTrue(this.appendable.toString().contains("Radius must be greater than 0"));
+  }
+
+  @Test
+  public void testMosaicOptions() {
+    String userCommand = "mosaic 1 -euclidean -average example example-mosaic"
+        + System.lineSeparator() + "mosaic 5 -hexagonal example example-mosaic2";
+    Readable in = new InputStreamReader(new ByteArrayInputStream(userCommand.getBytes()));
+    this.appendable = new StringBuilder();
+    this.view = new ImageProcessorViewImpl(this.appendable);
+    this.controller1 = new ImageProcessorControllerImpl(in, this.view, this.store);
+    this.controller1.run();
+
+    // a single cell covers the whole image, so every pixel is its average color
+    Image mosaic = this.store.retrieve("example-mosaic");
+    assertEquals(new Color(99, 18, 223).getRGB() & 0xFFFFFF, mosaic.getRGB(0, 0) & 0xFFFFFF);
+    assertEquals(mosaic.getRGB(0, 0), mosaic.getRGB(2, 2));
+    assertTrue(this.appendable.toString().contains("Invalid mosaic option, please try again"));
+  }
+
+  @Test
+  public void testMosaicSeed() {
+    String userCommand = "mosaic 4 -seed 7 example example-mosaic" + System.lineSeparator()
+        + "mosaic 4 -seed 7 example example-mosaic2" + System.lineSeparator()
+        + "mosaic 4 -seed seven example example-mosaic3";
+    Readable in = new InputStreamReader(new ByteArrayInputStream(userCommand.getBytes()));
+    this.appendable = new StringBuilder();
+    this.view = new ImageProcessorViewImpl(this.appendable);
+    this.controller1 = new ImageProcessorControllerImpl(in, this.view, this.store);
+    this.controller1.run();
+
+    assertArrayEquals(new Mosaic(4, 7).transform(this.beforeImage).getPackedPixels(),
+        this.store.retrieve("example-mosaic").getPackedPixels());
+    assertArrayEquals(this.store.retrieve("example-mosaic").getPackedPixels(),
+        this.store.retrieve("example-mosaic2").getPackedPixels());
+    assertTrue(this.appendable.toString().contains("Invalid seed, please try again"));
+  }
+
+  @Test
+  public void testResize() {
+    String userCommand = "resize 6 5 example example-bicubic" + System.lineSeparator()
+        + "resize 6 5 -filter lanczos3 example example-lanczos" + System.lineSeparator()
+        + "resize 6 5 -filter nearest example example-nearest";
+    Readable in = new InputStreamReader(new ByteArrayInputStream(userCommand.getBytes()));
+    this.appendable = new StringBuilder();
+    this.view = new ImageProcessorViewImpl(this.appendable);
+    this.controller1 = new ImageProcessorControllerImpl(in, this.view, this.store);
+    this.controller1.run();
+
+    assertArrayEquals(new Resize(6, 5, Filter.Bicubic).transform(this.beforeImage)
+        .getPackedPixels(), this.store.retrieve("example-bicubic").getPackedPixels());
+    assertArrayEquals(new Resize(6, 5, Filter.Lanczos3).transform(this.beforeImage)
+        .getPackedPixels(), this.store.retrieve("example-lanczos").getPackedPixels());
+    assertTrue(this.appendable.toString().contains(
+        "The image \"example\" has been resized to 6x5px with the bicubic filter"));
+    assertTrue(this.appendable.toString().contains("Invalid filter, please try again"));
+  }
+
+  @Test
+  public void testRenditions() {
+    String userCommand = "renditions 2 1 8 example example-small" + System.lineSeparator()
+        + "renditions 2 zero example example-bad";
+    Readable in = new InputStreamReader(new ByteArrayInputStream(userCommand.getBytes()));
+    this.appendable = new StringBuilder();
+    this.view = new ImageProcessorViewImpl(this.appendable);
+    this.controller1 = new ImageProcessorControllerImpl(in, this.view, this.store);
+    this.controller1.run();
+
+    Pyramid pyramid = new Pyramid(this.beforeImage);
+    assertArrayEquals(pyramid.render(2, 2).getPackedPixels(),
+        this.store.retrieve("example-small-2").getPackedPixels());
+    assertArrayEquals(pyramid.render(1, 1).getPackedPixels(),
+        this.store.retrieve("example-small-1").getPackedPixels());
+    // sizes larger than the image keep the size of the image
+    assertArrayEquals(this.beforeImage.getPackedPixels(),
+        this.store.retrieve("example-small-8").getPackedPixels());
+    assertTrue(this.appendable.toString().contains("The image \"example\" has been rendered as "
+        + "\"example-small-2\" (2x2px), \"example-small-1\" (1x1px), \"example-small-8\" "
+        + "(3x3px)"));
+    assertTrue(this.appendable.toString().contains("Invalid rendition size, please try again"));
+  }
+
+  @Test
+  public void testSoftMask() {
+    Image mask = new ImageImpl(new Color[][]{
+        {Color.BLACK, Color.GRAY, Color.WHITE},
+        {Color.BLACK, Color.GRAY, Color.WHITE},
+        {Color.BLACK, Color.GRAY, Color.WHITE}});
+    this.store.add("mask", mask, true);
+    String userCommand = "brighten 50 -soft example mask example-soft" + System.lineSeparator()
+        + "blur -soft example example-bad";
+    Readable in = new InputStreamReader(new ByteArrayInputStream(userCommand.getBytes()));
+    this.appendable = new StringBuilder();
+    this.view = new ImageProcessorViewImpl(this.appendable);
+    this.controller1 = new ImageProcessorControllerImpl(in, this.view, this.store);
+    this.controller1.run();
+
+    Image expected = new Mask(this.beforeImage, mask, Mode.Soft).apply(new Brightness(50));
+    assertArrayEquals(expected.getPackedPixels(),
+        this.store.retrieve("example-soft").getPackedPixels());
+    assertEquals(new Brightness(50).transform(this.beforeImage).getRGB(0, 1),
+        this.store.retrieve("example-soft").getRGB(0, 1));
+    assertEquals(this.beforeImage.getRGB(2, 1), this.store.retrieve("example-soft").getRGB(2, 1));
+    assertTrue(this.appendable.toString().contains(
+        "The -soft option needs a mask, please try again"));
+  }
+
+  @Test
+  public void testToneCmd() {
+    ImageTransformation macro = new Gamma(2.2);
+    Image macroImage = macro.transform(this.beforeImage);
+
+    ImageProcessorCmd command = new ToneCmd(this.view, this.store, "gamma", new Gamma(2.2),
+        "example", "example-gamma");
+    command.execute();
+    Image commandImage = this.store.retrieve("example-gamma");
+
+    assertArrayEquals(macroImage.getPixels(), commandImage.getPixels());
+  }
+
+  @Test
+  public void testToneCommands() {
+    String userCommand = "gamma 2.2 example example-gamma" + System.lineSeparator()
+        + "levels 20 200 1.5 example example-levels" + System.lineSeparator()
+        + "tone-curve 0:0,128:64,255:255 example example-curve" + System.lineSeparator()
+        + "tone-curve 128-64 example example-curve2";
+    Readable in = new InputStreamReader(new ByteArrayInputStream(userCommand.getBytes()));
+    this.appendable = new StringBuilder();
+    this.view = new ImageProcessorViewImpl(this.appendable);
+    this.controller1 = new ImageProcessorControllerImpl(in, this.view, this.store);
+    this.controller1.run();
+
+    assertArrayEquals(new Gamma(2.2).transform(this.beforeImage).getPixels(),
+        this.store.retrieve("example-gamma").getPixels());
+    assertArrayEquals(new Levels(20, 200, 1.5).transform(this.beforeImage).getPixels(),
+        this.store.retrieve("example-levels").getPixels());
+    assertEquals(0x1F09DB, this.store.retrieve("example-curve").getRGB(2, 2) & 0xFFFFFF);
+    assertTrue(this.appendable.toString().contains("Applied the tone curve adjustment"));
+    assertTrue(this.appendable.toString().contains("Invalid curve points, please try again"));
+  }
+
   @Test
   public void testLoadPNG() {
     String filePath = "res/ExampleImage2.png"; // relative to the project root
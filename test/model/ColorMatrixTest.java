@@ -0,0 +1,137 @@
+package model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import model.transformations.Brightness;
+import model.transformations.ColorMatrix;
+import model.transformations.Greyscale;
+import model.transformations.Sepia;
+import model.transformations.Visualize;
+import model.transformations.Visualize.Channel;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link ColorMatrix} transformation and the transformations built on it.
+ */
+public class ColorMatrixTest {
+
+  private static final double[][] SEPIA = {{0.393, 0.769, 0.189}, {0.349, 0.686, 0.168},
+      {0.272, 0.534, 0.131}};
+
+  private int[] pixels;
+  private Image image;
+
+  @Before
+  public void setUp() {
+    this.pixels = TestImages.randomPixels(40 * 30);
+    this.image = new PackedImage(40, 30, this.pixels);
+  }
+
+  @Test
+  public void testInvalidMatrix() {
+    try {
+      new ColorMatrix(new double[][]{{1, 0, 0, 0}, {0, 1, 0, 0}});
+      fail("Should throw error for a matrix with too few rows");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The matrix must have 3 rows of 4 values", e.getMessage());
+    }
+
+    try {
+      new ColorMatrix(new double[][]{{1, 0, 0, 0}, {0, 1, 0}, {0, 0, 1, 0}});
+      fail("Should throw error for a row with too few values");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The matrix must have 3 rows of 4 values", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testHandChecked() {
+    // the red takes the blue plus 10, the green averages red and green, and the blue doubles the
+    // red minus 300, clamped to 0 for the first pixel
+    Image image = new PackedImage(2, 1,
+        new int[]{ImageUtils.pack(100, 50, 200), ImageUtils.pack(200, 100, 30)});
+    Image actual = new ColorMatrix(new double[][]{{0, 0, 1, 10}, {0.5, 0.5, 0, 0},
+        {2, 0, 0, -300}}).transform(image);
+    assertArrayEquals(new int[]{ImageUtils.pack(210, 75, 0), ImageUtils.pack(40, 150, 100)},
+        actual.getPackedPixels());
+  }
+
+  @Test
+  public void testSingleSepiaMatchesFilter() {
+    int[] actual = new Sepia().transform(this.image).getPackedPixels();
+    for (int i = 0; i < this.pixels.length; i++) {
+      int red = ImageUtils.getRed(this.pixels[i]);
+      int green = ImageUtils.getGreen(this.pixels[i]);
+      int blue = ImageUtils.getBlue(this.pixels[i]);
+      int[] expected = new int[3];
+      for (int c = 0; c < 3; c++) {
+        expected[c] = Math.toIntExact(
+            Math.round(red * SEPIA[c][0] + green * SEPIA[c][1] + blue * SEPIA[c][2]));
+      }
+      assertEquals(ImageUtils.pack(expected[0], expected[1], expected[2]), actual[i]);
+    }
+  }
+
+  @Test
+  public void testIntensityRounding() {
+    // every possible sum of the components rounds the same way as averaging them
+    int[] sums = new int[766];
+    for (int sum = 0; sum <= 765; sum++) {
+      int red = Math.min(255, sum);
+      int green = Math.min(255, sum - red);
+      sums[sum] = ImageUtils.pack(red, green, sum - red - green);
+    }
+    Image image = new PackedImage(766, 1, sums);
+    Image visualized = new Visualize(Channel.Intensity).transform(image);
+    for (int sum = 0; sum <= 765; sum++) {
+      int expected = Math.toIntExact(Math.round(sum / 3.0));
+      assertEquals(ImageUtils.pack(expected, expected, expected), visualized.getRGB(sum, 0));
+    }
+  }
+
+  @Test
+  public void testChainComposes() {
+    Image chained = new Greyscale().transform(
+        new Sepia().transform(new Brightness(-40).transform(this.image)));
+    int[] actual = chained.getPackedPixels();
+    for (int i = 0; i < this.pixels.length; i++) {
+      // the components are only rounded and clamped once, after the whole chain
+      double[] brightened = {ImageUtils.getRed(this.pixels[i]) - 40.0,
+          ImageUtils.getGreen(this.pixels[i]) - 40.0, ImageUtils.getBlue(this.pixels[i]) - 40.0};
+      double[] sepia = new double[3];
+      for (int c = 0; c < 3; c++) {
+        sepia[c] = brightened[0] * SEPIA[c][0] + brightened[1] * SEPIA[c][1]
+            + brightened[2] * SEPIA[c][2];
+      }
+      int grey = Math.toIntExact(
+          Math.round(0.2126 * sepia[0] + 0.7152 * sepia[1] + 0.0722 * sepia[2]));
+      assertEquals(ImageUtils.pack(grey, grey, grey), actual[i]);
+    }
+  }
+
+  @Test
+  public void testComputedStartsNewChain() {
+    Image brightened = new Brightness(-40).transform(this.image);
+    Image computed = brightened.computed();
+    assertSame(computed, brightened.computed());
+    assertSame(this.image, this.image.computed());
+    // once computed, a new filter works from the rounded and clamped pixels of the result
+    Image expected = new PackedImage(40, 30, computed.getPackedPixels());
+    assertArrayEquals(new Sepia().transform(expected).getPackedPixels(),
+        new Sepia().transform(brightened).getPackedPixels());
+  }
+
+  @Test
+  public void testChainMatchesComposedMatrix() {
+    Image chained = new Visualize(Channel.Luma).transform(new Brightness(25).transform(this.image));
+    Image direct = new ColorMatrix(new double[][]{
+        {0.2126, 0.7152, 0.0722, 25 * (0.2126 + 0.7152 + 0.0722)},
+        {0.2126, 0.7152, 0.0722, 25 * (0.2126 + 0.7152 + 0.0722)},
+        {0.2126, 0.7152, 0.0722, 25 * (0.2126 + 0.7152 + 0.0722)}}).transform(this.image);
+    assertArrayEquals(direct.getPackedPixels(), chained.getPackedPixels());
+  }
+}
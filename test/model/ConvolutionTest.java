@@ -0,0 +1,167 @@
+package model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import model.transformations.Blur;
+import model.transformations.Convolution;
+import model.transformations.Convolution.Border;
+import model.transformations.Sharpen;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link Convolution} transformation and the transformations built on it.
+ */
+public class ConvolutionTest {
+
+  // a kernel that moves every pixel one column to the right
+  private static final double[][] SHIFT = {{1, 0, 0}};
+
+  private int[] pixels;
+  private Image image;
+
+  @Before
+  public void setUp() {
+    this.pixels = TestImages.randomPixels(40 * 30);
+    this.image = new PackedImage(40, 30, this.pixels);
+  }
+
+  @Test
+  public void testInvalidKernels() {
+    try {
+      new Convolution(new double[][]{{1, 1}, {1, 1}});
+      fail("Should throw error for a kernel with an even size");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The kernel must be a rectangle with an odd number of rows and columns",
+          e.getMessage());
+    }
+
+    try {
+      new Convolution(new double[][]{{1, 1, 1}, {1}, {1, 1, 1}});
+      fail("Should throw error for a kernel that is not a rectangle");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The kernel must be a rectangle with an odd number of rows and columns",
+          e.getMessage());
+    }
+
+    try {
+      new Convolution(new double[][]{{Double.NaN}});
+      fail("Should throw error for a kernel value that is not finite");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The kernel values must be finite", e.getMessage());
+    }
+
+    try {
+      new Blur(0);
+      fail("Should throw error for a radius that is not positive");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The radius must be positive", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testSeparableDetection() {
+    assertTrue(new Blur().isSeparable());
+    assertTrue(new Blur(10).isSeparable());
+    assertTrue(new Convolution(SHIFT).isSeparable());
+    assertFalse(new Sharpen().isSeparable());
+    assertFalse(new Convolution(new double[][]{{0, 1, 0}, {1, 1, 1}, {0, 1, 0}}).isSeparable());
+  }
+
+  @Test
+  public void testBorders() {
+    Image row = new PackedImage(3, 1, new int[]{0x010101, 0x020202, 0x030303});
+    assertArrayEquals(new int[]{0x010101, 0x010101, 0x020202},
+        new Convolution(SHIFT, Border.Clamp).transform(row).getPackedPixels());
+    assertArrayEquals(new int[]{0x010101, 0x010101, 0x020202},
+        new Convolution(SHIFT, Border.Reflect).transform(row).getPackedPixels());
+    assertArrayEquals(new int[]{0x030303, 0x010101, 0x020202},
+        new Convolution(SHIFT, Border.Wrap).transform(row).getPackedPixels());
+    assertArrayEquals(new int[]{0x000000, 0x010101, 0x020202},
+        new Convolution(SHIFT, Border.Zero).transform(row).getPackedPixels());
+
+    // a kernel that reaches across the whole image still mirrors it at the edge
+    double[][] far = {{1, 0, 0, 0, 0, 0, 0}};
+    assertArrayEquals(new int[]{0x030303, 0x020202, 0x010101},
+        new Convolution(far, Border.Reflect).transform(row).getPackedPixels());
+  }
+
+  @Test
+  public void testHandChecked() {
+    Image image = new PackedImage(3, 3, grey(0, 40, 80, 120, 160, 200, 240, 200, 160));
+
+    // the average of the four neighbours, repeating the edge pixels
+    double[][] cross = {{0, 0.25, 0}, {0.25, 0, 0.25}, {0, 0.25, 0}};
+    assertArrayEquals(grey(40, 70, 100, 130, 140, 150, 200, 190, 180),
+        new Convolution(cross, Border.Clamp).transform(image).getPackedPixels());
+
+    // a vertical blur that treats the pixels above and below the image as black
+    double[] column = {0.25, 0.5, 0.25};
+    assertArrayEquals(grey(30, 60, 90, 120, 140, 160, 150, 140, 130),
+        new Convolution(column, new double[]{1}, Border.Zero).transform(image)
+            .getPackedPixels());
+  }
+
+  /**
+   * Returns grey pixels with the given values.
+   */
+  private static int[] grey(int... values) {
+    int[] ret = new int[values.length];
+    for (int i = 0; i < values.length; i++) {
+      ret[i] = ImageUtils.pack(values[i], values[i], values[i]);
+    }
+    return ret;
+  }
+
+  @Test
+  public void testSeparableMatchesFullKernel() {
+    double[] column = {0.25, 0.5, 0.25};
+    double[] row = {-0.5, 1, 2, 1, -0.5};
+    double[][] kernel = new double[3][5];
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 5; j++) {
+        kernel[i][j] = column[i] * row[j];
+      }
+    }
+    // adding a value that breaks the product forces the full kernel to be used
+    double[][] nudged = new double[3][];
+    for (int i = 0; i < 3; i++) {
+      nudged[i] = kernel[i].clone();
+    }
+    nudged[0][0] += 1e-9;
+    assertFalse(new Convolution(nudged).isSeparable());
+    for (Border border : Border.values()) {
+      assertArrayEquals(new Convolution(nudged, border).transform(this.image).getPackedPixels(),
+          new Convolution(column, row, border).transform(this.image).getPackedPixels());
+    }
+  }
+
+  @Test
+  public void testGaussianBlur() {
+    int[] grey = new int[50 * 40];
+    Arrays.fill(grey, 0x808080);
+    Image uniform = new PackedImage(50, 40, grey);
+    for (Border border : new Border[]{Border.Clamp, Border.Reflect, Border.Wrap}) {
+      assertArrayEquals(grey, new Blur(20, border).transform(uniform).getPackedPixels());
+    }
+    // the edges fade to black when the pixels outside of the image are black
+    assertTrue(new Blur(20, Border.Zero).transform(uniform).getRGB(0, 0) < 0x808080);
+  }
+
+  @Test
+  public void testTiledMatchesPacked() {
+    Image tiled = TiledImage.render(40, 30, 16, 4, this.image::getRegion);
+    for (Border border : Border.values()) {
+      Blur blur = new Blur(7, border);
+      assertArrayEquals(blur.transform(this.image).getPackedPixels(),
+          blur.transform(tiled).getPackedPixels());
+    }
+    assertArrayEquals(new Sharpen().transform(this.image).getPackedPixels(),
+        new Sharpen().transform(tiled).getPackedPixels());
+  }
+}
@@ -0,0 +1,130 @@
+package model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.IntBuffer;
+import model.transformations.Brightness;
+import model.transformations.HorizontalFlip;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link DirectImage} class and its methods.
+ */
+public class DirectImageTest {
+
+  private int[] pixels;
+  private DirectImage image;
+
+  @Before
+  public void setUp() {
+    this.pixels = new int[]{0xFF0000, 0x123456, 0x00FF00, 0xABCDEF, 0x0000FF, 0xF0F0F0};
+    this.image = new DirectImage(2, 3, this.pixels);
+  }
+
+  @Test
+  public void testConstructor() {
+    assertEquals(2, this.image.getWidth());
+    assertEquals(3, this.image.getHeight());
+    assertArrayEquals(this.pixels, this.image.getPackedPixels());
+    assertEquals(0x123456, new DirectImage(1, 1, new int[]{0xFF123456}).getRGB(0, 0));
+  }
+
+  @Test
+  public void testInvalidConstructors() {
+    try {
+      new DirectImage(0, 0, new int[0]);
+      fail("Should throw error for empty image");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The pixels array must contain at least one pixel", e.getMessage());
+    }
+
+    try {
+      new DirectImage(2, 2, this.pixels);
+      fail("Should throw error for mismatched dimensions");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The pixels array must contain exactly 4 pixels", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testOf() {
+    Image packed = new PackedImage(2, 3, this.pixels);
+    DirectImage converted = DirectImage.of(packed);
+    assertArrayEquals(this.pixels, converted.getPackedPixels());
+    assertArrayEquals(packed.getPixels(), converted.getPixels());
+    assertSame(converted, DirectImage.of(converted));
+  }
+
+  @Test
+  public void testViews() {
+    assertEquals(0xABCDEF, this.image.getRGB(1, 1));
+    IntBuffer row = this.image.getRow(2);
+    assertEquals(2, row.capacity());
+    assertEquals(0x0000FF, row.get(0));
+    assertEquals(0xF0F0F0, row.get(1));
+    assertTrue(row.isReadOnly());
+    assertTrue(row.isDirect());
+    IntBuffer view = this.image.getPackedView();
+    assertEquals(6, view.capacity());
+    assertEquals(0x00FF00, view.get(2));
+    assertTrue(view.isReadOnly());
+  }
+
+  @Test
+  public void testRelease() {
+    this.image.release();
+    assertTrue(this.image.isReleased());
+    this.image.release();
+    assertEquals(2, this.image.getWidth());
+
+    try {
+      this.image.getRGB(0, 0);
+      fail("Should throw error for a released image");
+    } catch (IllegalStateException e) {
+      assertEquals("The image has been released", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testCopyOwnsReference() {
+    DirectImage copy = this.image.copy();
+    this.image.release();
+    assertFalse(copy.isReleased());
+    assertArrayEquals(this.pixels, copy.getPackedPixels());
+    copy.release();
+    assertTrue(copy.isReleased());
+  }
+
+  @Test
+  public void testTransformStaysOffHeap() {
+    Image flipped = new HorizontalFlip().transform(this.image);
+    assertTrue(flipped instanceof DirectImage);
+    assertArrayEquals(new int[]{0x123456, 0xFF0000, 0xABCDEF, 0x00FF00, 0xF0F0F0, 0x0000FF},
+        flipped.getPackedPixels());
+
+    // an image of several bands comes out the same as the packed image does
+    int[] gradient = new int[300 * 500];
+    for (int i = 0; i < gradient.length; i++) {
+      gradient[i] = ImageUtils.pack(i % 300 % 256, i / 300 % 256, 128);
+    }
+    Image packed = new PackedImage(300, 500, gradient);
+    Image direct = new DirectImage(300, 500, gradient);
+    Image brightened = new Brightness(30).transform(direct);
+    assertArrayEquals(new Brightness(30).transform(packed).getPackedPixels(),
+        brightened.getPackedPixels());
+    assertTrue(brightened.copy() instanceof DirectImage);
+  }
+
+  @Test
+  public void testOfTakesOverLazyResult() {
+    Image brightened = new Brightness(30).transform(this.image);
+    DirectImage converted = DirectImage.of(brightened);
+    assertSame(brightened.computed(), converted);
+  }
+}
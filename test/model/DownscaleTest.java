@@ -0,0 +1,91 @@
+package model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import model.transformations.Downscale;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link Downscale} transformation.
+ */
+public class DownscaleTest {
+
+  private int[] pixels;
+  private Image image;
+
+  @Before
+  public void setUp() {
+    this.pixels = TestImages.randomPixels(40 * 30);
+    this.image = new PackedImage(40, 30, this.pixels);
+  }
+
+  @Test
+  public void testInvalidSizes() {
+    try {
+      new Downscale(0, 10);
+      fail("Should throw error for a width that is not positive");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The new width and height must be positive", e.getMessage());
+    }
+
+    try {
+      new Downscale(20, 31).transform(this.image);
+      fail("Should throw error for upscaling the height");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The image's new height (31px) cannot be larger than the original height "
+          + "(30px).", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testSameSize() {
+    assertArrayEquals(this.pixels, new Downscale(40, 30).transform(this.image).getPackedPixels());
+  }
+
+  @Test
+  public void testHalfSizeAveragesBlocks() {
+    Image half = new Downscale(20, 15).transform(this.image);
+    for (int i = 0; i < 15; i++) {
+      for (int j = 0; j < 20; j++) {
+        int[] block = {this.pixels[2 * i * 40 + 2 * j], this.pixels[2 * i * 40 + 2 * j + 1],
+            this.pixels[(2 * i + 1) * 40 + 2 * j], this.pixels[(2 * i + 1) * 40 + 2 * j + 1]};
+        int red = 0;
+        int green = 0;
+        int blue = 0;
+        for (int pixel : block) {
+          red += ImageUtils.getRed(pixel);
+          green += ImageUtils.getGreen(pixel);
+          blue += ImageUtils.getBlue(pixel);
+        }
+        assertEquals(ImageUtils.pack((red + 2) / 4, (green + 2) / 4, (blue + 2) / 4),
+            half.getRGB(j, i));
+      }
+    }
+  }
+
+  @Test
+  public void testHandChecked() {
+    // each new pixel covers one and a half old pixels in each direction, so the old pixels under
+    // it are weighted 4, 2, 2 and 1 out of 9
+    int[] reds = {0, 90, 180, 90, 180, 90, 180, 90, 0};
+    int[] pixels = new int[9];
+    for (int i = 0; i < 9; i++) {
+      pixels[i] = ImageUtils.pack(reds[i], 0, 30);
+    }
+    Image scaled = new Downscale(2, 2).transform(new PackedImage(3, 3, pixels));
+    assertArrayEquals(new int[]{ImageUtils.pack(60, 0, 30), ImageUtils.pack(140, 0, 30),
+        ImageUtils.pack(140, 0, 30), ImageUtils.pack(60, 0, 30)}, scaled.getPackedPixels());
+  }
+
+  @Test
+  public void testPartialCoverage() {
+    // each new pixel covers one and a half old pixels
+    Image row = new PackedImage(3, 1, new int[]{0x000000, 0x0000FF, 0x00FF00});
+    Image scaled = new Downscale(2, 1).transform(row);
+    assertEquals(0x000055, scaled.getRGB(0, 0));
+    assertEquals(0x00AA55, scaled.getRGB(1, 0));
+  }
+}
@@ -0,0 +1,206 @@
+package model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import model.transformations.Brightness;
+import model.transformations.ColorMatrix;
+import model.transformations.Gamma;
+import model.transformations.Greyscale;
+import model.transformations.Levels;
+import model.transformations.LookupTable;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link Histogram} class and the histograms worked out by lookup tables.
+ */
+public class HistogramTest {
+
+  private Image image;
+  private Image grey;
+
+  @Before
+  public void setUp() {
+    int[] pixels = TestImages.randomPixels(300 * 200);
+    this.image = new PackedImage(300, 200, pixels);
+    this.grey = new Greyscale().transform(this.image);
+  }
+
+  /**
+   * Counts the values of the pixels of the given image one pixel at a time.
+   */
+  private static int[][] count(Image image) {
+    int[][] frequencies = new int[4][256];
+    for (int pixel : image.getPackedPixels()) {
+      int red = ImageUtils.getRed(pixel);
+      int green = ImageUtils.getGreen(pixel);
+      int blue = ImageUtils.getBlue(pixel);
+      frequencies[0][red]++;
+      frequencies[1][green]++;
+      frequencies[2][blue]++;
+      frequencies[3][Math.toIntExact(Math.round((red + green + blue) / 3.0))]++;
+    }
+    return frequencies;
+  }
+
+  /**
+   * Returns the table that reverses every value.
+   */
+  private static int[] reversed() {
+    int[] table = new int[256];
+    for (int v = 0; v < 256; v++) {
+      table[v] = 255 - v;
+    }
+    return table;
+  }
+
+  @Test
+  public void testOf() {
+    try {
+      Histogram.of(null);
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The image cannot be null", e.getMessage());
+    }
+    Histogram histogram = Histogram.of(this.image);
+    assertArrayEquals(count(this.image), histogram.getFrequencies());
+    assertFalse(histogram.isGrey());
+    assertArrayEquals(count(this.image), ImageUtils.getChannelFrequencies(this.image));
+
+    Histogram grey = Histogram.of(this.grey);
+    assertArrayEquals(count(this.grey), grey.getFrequencies());
+    assertTrue(grey.isGrey());
+
+    // the frequencies cannot be changed through the returned array
+    histogram.getFrequencies()[0][0] = -1;
+    assertArrayEquals(count(this.image), histogram.getFrequencies());
+  }
+
+  @Test
+  public void testOfCopiesPixels() {
+    int[] pixels = new int[300 * 200 + 1];
+    pixels[300 * 200] = 7;
+    Histogram histogram = Histogram.of(this.image, pixels);
+    assertArrayEquals(count(this.image), histogram.getFrequencies());
+    assertArrayEquals(this.image.getPackedPixels(), Arrays.copyOf(pixels, 300 * 200));
+    assertEquals(7, pixels[300 * 200]);
+    try {
+      Histogram.of(this.image, new int[300 * 200 - 1]);
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The array is too small to hold the pixels of the image", e.getMessage());
+    }
+
+    // the buffered image is written straight through its data buffer
+    BufferedImage buffered = ImageUtils.getBufferedImage(this.image);
+    assertArrayEquals(this.image.getPackedPixels(), ImageUtils.getData(buffered));
+    assertEquals(this.image.getPackedPixels()[301] | 0xFF000000, buffered.getRGB(1, 1));
+  }
+
+  @Test
+  public void testRemapGrey() {
+    Histogram histogram = Histogram.of(this.grey);
+    LookupTable[] tables = {new Gamma(2.2), new Levels(20, 100, 1.5),
+        new LookupTable(reversed())};
+    for (LookupTable table : tables) {
+      Image transformed = table.transform(this.grey);
+      Histogram remapped = table.remap(histogram, transformed);
+      assertNotNull(remapped);
+      assertArrayEquals(count(transformed), remapped.getFrequencies());
+      assertTrue(remapped.isGrey());
+    }
+
+    Brightness brightness = new Brightness(-40);
+    Image transformed = brightness.transform(this.grey);
+    Histogram brightened = brightness.remap(histogram, transformed);
+    assertNotNull(brightened);
+    assertArrayEquals(count(transformed), brightened.getFrequencies());
+
+    // a table that changes the components differently makes pixels that are no longer grey
+    int[] identity = new int[256];
+    for (int v = 0; v < 256; v++) {
+      identity[v] = v;
+    }
+    LookupTable table = new LookupTable(identity, reversed(), identity);
+    transformed = table.transform(this.grey);
+    Histogram remapped = table.remap(histogram, transformed);
+    assertArrayEquals(count(transformed), remapped.getFrequencies());
+    assertFalse(remapped.isGrey());
+  }
+
+  @Test
+  public void testRemapSources() {
+    // each component of a grey pixel can be made from any of its components
+    Histogram grey = Histogram.of(this.grey);
+    int[] half = new int[256];
+    for (int v = 0; v < 256; v++) {
+      half[v] = v / 2;
+    }
+    // the new image is not looked at, so any image will do
+    Histogram remapped = grey.remap(new int[][]{reversed(), half, half}, new int[]{2, 0, 1},
+        this.image);
+    int[][] frequencies = grey.getFrequencies();
+    int[][] expected = new int[4][256];
+    for (int v = 0; v < 256; v++) {
+      expected[0][255 - v] += frequencies[2][v];
+      expected[1][v / 2] += frequencies[0][v];
+      expected[2][v / 2] += frequencies[1][v];
+      expected[3][(255 - v + v / 2 + v / 2 + 1) / 3] += frequencies[0][v];
+    }
+    assertArrayEquals(expected, remapped.getFrequencies());
+    assertFalse(remapped.isGrey());
+  }
+
+  @Test
+  public void testRemapColor() {
+    Histogram histogram = Histogram.of(this.image);
+    // the intensities of colored pixels are counted again from the new image
+    LookupTable[] tables = {new Gamma(2.2), new Levels(20, 100, 1.5),
+        new LookupTable(reversed())};
+    for (LookupTable table : tables) {
+      Image transformed = table.transform(this.image);
+      Histogram remapped = table.remap(histogram, transformed);
+      assertArrayEquals(count(transformed), remapped.getFrequencies());
+      assertFalse(remapped.isGrey());
+    }
+    Brightness brightness = new Brightness(10);
+    Image brightened = brightness.transform(this.image);
+    assertArrayEquals(count(brightened),
+        brightness.remap(histogram, brightened).getFrequencies());
+    // a matrix that makes every component out of green makes grey pixels out of colored ones
+    ColorMatrix matrix = new ColorMatrix(new double[][]{{0, 1, 0, 0}, {0, 1, 0, 0}, {0, 1, 0, 0}});
+    Image transformed = matrix.transform(this.image);
+    Histogram remapped = matrix.remap(histogram, transformed);
+    assertArrayEquals(count(transformed), remapped.getFrequencies());
+    assertTrue(remapped.isGrey());
+    // a matrix that mixes the components cannot be applied as a table
+    assertNull(new Greyscale().remap(Histogram.of(this.grey), this.grey));
+
+    try {
+      histogram.remap(new int[2][256], new int[]{0, 1, 2}, this.image);
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertEquals("There must be 3 tables and 3 sources", e.getMessage());
+    }
+    try {
+      new Gamma(2.2).remap(histogram, null);
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The image cannot be null", e.getMessage());
+    }
+    try {
+      new Gamma(2.2).remap(null, this.image);
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The histogram cannot be null", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,183 @@
+package model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import model.transformations.Brightness;
+import model.transformations.Gamma;
+import model.transformations.Greyscale;
+import model.transformations.Levels;
+import model.transformations.LookupTable;
+import model.transformations.ToneCurve;
+import model.transformations.Visualize;
+import model.transformations.Visualize.Channel;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link LookupTable} transformation and the transformations built on it.
+ */
+public class LookupTableTest {
+
+  private int[] pixels;
+  private Image image;
+
+  @Before
+  public void setUp() {
+    this.pixels = TestImages.randomPixels(40 * 30);
+    this.image = new PackedImage(40, 30, this.pixels);
+  }
+
+  /**
+   * Returns the given pixels with each component replaced using the given table.
+   */
+  private static int[] lookup(int[] pixels, int[] table) {
+    int[] ret = new int[pixels.length];
+    for (int i = 0; i < pixels.length; i++) {
+      ret[i] = ImageUtils.pack(table[ImageUtils.getRed(pixels[i])],
+          table[ImageUtils.getGreen(pixels[i])], table[ImageUtils.getBlue(pixels[i])]);
+    }
+    return ret;
+  }
+
+  @Test
+  public void testInvalidTables() {
+    try {
+      new LookupTable(new int[255]);
+      fail("Should throw error for a table that is too short");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Each table must have 256 values between 0 and 255", e.getMessage());
+    }
+
+    int[] table = new int[256];
+    table[10] = 256;
+    try {
+      new LookupTable(new int[256], new int[256], table);
+      fail("Should throw error for a value that is too large");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Each table must have 256 values between 0 and 255", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testSeparateTables() {
+    int[] red = new int[256];
+    int[] green = new int[256];
+    int[] blue = new int[256];
+    for (int v = 0; v < 256; v++) {
+      red[v] = 255 - v;
+      green[v] = v / 2;
+      blue[v] = v;
+    }
+    Image image = new PackedImage(2, 1, new int[]{0x000000, 0x80FF10});
+    Image actual = new LookupTable(red, green, blue).transform(image);
+    assertEquals(0xFF0000, actual.getRGB(0, 0));
+    assertEquals(0x7F7F10, actual.getRGB(1, 0));
+  }
+
+  @Test
+  public void testGamma() {
+    int[] table = new int[256];
+    for (int v = 0; v < 256; v++) {
+      table[v] = Math.toIntExact(Math.round(255 * Math.pow(v / 255.0, 1 / 2.2)));
+    }
+    assertArrayEquals(lookup(this.pixels, table),
+        new Gamma(2.2).transform(this.image).getPackedPixels());
+    assertArrayEquals(this.pixels, new Gamma(1).transform(this.image).getPackedPixels());
+
+    try {
+      new Gamma(0);
+      fail("Should throw error for a gamma that is not positive");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The gamma must be positive", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testHandChecked() {
+    // 255 * (v / 255)^(1 / 2.2), rounded, for 0, 64, 128 and 255
+    Image image = new PackedImage(2, 1, new int[]{0x004080, 0xFF8040});
+    Image actual = new Gamma(2.2).transform(image);
+    assertEquals(ImageUtils.pack(0, 136, 186), actual.getRGB(0, 0));
+    assertEquals(ImageUtils.pack(255, 186, 136), actual.getRGB(1, 0));
+
+    // brightening by 30 clamps the blue before the gamma is applied
+    Image chained = new Gamma(2.2).transform(new Brightness(30).transform(
+        new PackedImage(1, 1, new int[]{0x4080FF})));
+    assertEquals(ImageUtils.pack(162, 205, 255), chained.getRGB(0, 0));
+  }
+
+  @Test
+  public void testLevels() {
+    Image image = new PackedImage(4, 1, new int[]{0x0A0A0A, 0x141414, 0x5A5A5A, 0xC8C8C8});
+    Image actual = new Levels(20, 200, 1).transform(image);
+    assertEquals(0x000000, actual.getRGB(0, 0));
+    assertEquals(0x000000, actual.getRGB(1, 0));
+    assertEquals(0x636363, actual.getRGB(2, 0));
+    assertEquals(0xFFFFFF, actual.getRGB(3, 0));
+
+    try {
+      new Levels(200, 20, 1);
+      fail("Should throw error for a black point above the white point");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The black and white points must be between 0 and 255, with black below white",
+          e.getMessage());
+    }
+  }
+
+  @Test
+  public void testToneCurve() {
+    Image image = new PackedImage(4, 1, new int[]{0x000000, 0x202020, 0x404040, 0xFFFFFF});
+    Image actual = new ToneCurve(new int[][]{{64, 32}, {192, 224}}).transform(image);
+    assertEquals(0x202020, actual.getRGB(0, 0));
+    assertEquals(0x202020, actual.getRGB(1, 0));
+    assertEquals(0x202020, actual.getRGB(2, 0));
+    assertEquals(0xE0E0E0, actual.getRGB(3, 0));
+
+    try {
+      new ToneCurve(new int[][]{{192, 224}, {64, 32}});
+      fail("Should throw error for points out of order");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The points must be in order of increasing value", e.getMessage());
+    }
+
+    try {
+      new ToneCurve(new int[][]{{64, 300}});
+      fail("Should throw error for a value that is too large");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Each point must be two values between 0 and 255", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testChainMatchesSequential() {
+    // each step rounds and clamps, so the fused chain must match applying the steps one at a time
+    Image fused = new Levels(10, 240, 1.3).transform(
+        new Gamma(0.8).transform(new Brightness(30).transform(this.image)));
+    Image sequential = new Levels(10, 240, 1.3).transform(new PackedImage(40, 30,
+        new Gamma(0.8).transform(new PackedImage(40, 30,
+            new Brightness(30).transform(this.image).getPackedPixels())).getPackedPixels()));
+    assertArrayEquals(sequential.getPackedPixels(), fused.getPackedPixels());
+  }
+
+  @Test
+  public void testTableAfterMatrix() {
+    Image greyscale = new Greyscale().transform(this.image);
+    Image expected = new PackedImage(40, 30, greyscale.getPackedPixels());
+    assertArrayEquals(new Gamma(1.8).transform(expected).getPackedPixels(),
+        new Gamma(1.8).transform(greyscale).getPackedPixels());
+  }
+
+  @Test
+  public void testChannelsAsTables() {
+    for (Channel channel : new Channel[]{Channel.Red, Channel.Green, Channel.Blue}) {
+      int shift = 16 - 8 * channel.ordinal();
+      int[] actual = new Visualize(channel).transform(this.image).getPackedPixels();
+      for (int i = 0; i < this.pixels.length; i++) {
+        int value = (this.pixels[i] >> shift) & 0xFF;
+        assertEquals(ImageUtils.pack(value, value, value), actual[i]);
+      }
+    }
+  }
+}
@@ -0,0 +1,227 @@
+package model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.transformations.Blur;
+import model.transformations.Brightness;
+import model.transformations.Convolution.Border;
+import model.transformations.Gamma;
+import model.transformations.Mask;
+import model.transformations.RadiusBlur;
+import model.transformations.Sepia;
+import model.transformations.Visualize;
+import model.transformations.Visualize.Channel;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link Mask} transformation.
+ */
+public class MaskTest {
+
+  private Image image;
+  private Image mask;
+
+  @Before
+  public void setUp() {
+    int[] pixels = TestImages.randomPixels(150 * 100, 1600);
+    this.image = new PackedImage(150, 100, pixels);
+
+    // two separate blobs, one touching the right edge, and a single pixel
+    int[] maskPixels = new int[150 * 100];
+    Arrays.fill(maskPixels, 0xFFFFFF);
+    for (int i = 10; i < 30; i++) {
+      for (int j = 5; j < 40; j++) {
+        maskPixels[i * 150 + j] = 0x000000;
+      }
+    }
+    for (int i = 64; i < 94; i++) {
+      for (int j = 120 - i / 2; j < 150; j++) {
+        maskPixels[i * 150 + j] = 0x000000;
+      }
+    }
+    maskPixels[5 * 150 + 140] = 0x000000;
+    this.mask = new PackedImage(150, 100, maskPixels);
+  }
+
+  @Test
+  public void testApplyMatchesTransform() {
+    ImageTransformation[] transformations = {new Blur(), new Blur(4, Border.Reflect),
+        new RadiusBlur(6), new RadiusBlur(3, Border.Wrap), new Sepia(), new Brightness(40),
+        new Gamma(2.2), new Visualize(Channel.Value)};
+    Mask mask = new Mask(this.image, this.mask);
+    for (ImageTransformation transformation : transformations) {
+      assertArrayEquals(mask.transform(transformation.transform(this.image)).getPackedPixels(),
+          mask.apply(transformation).getPackedPixels());
+    }
+  }
+
+  @Test
+  public void testStoredMaskCompiledOnce() {
+    AtomicInteger read = new AtomicInteger();
+    Image counted = new PackedImage(150, 100, this.mask.getPackedPixels()) {
+      @Override
+      public void getRegion(int x, int y, int width, int height, int[] dest) {
+        read.addAndGet(width * height);
+        super.getRegion(x, y, width, height, dest);
+      }
+    };
+    StoredImages store = new StoredImagesImpl();
+    store.add("mask", counted, true);
+    Image expected = new Mask(this.image, this.mask).apply(new Blur()).computed();
+
+    // the stored mask image is only compiled the first time it is used in each mode
+    for (int i = 0; i < 2; i++) {
+      assertArrayEquals(expected.getPackedPixels(),
+          new Mask(this.image, store, "MASK", Mask.Mode.Hard).apply(new Blur()).getPackedPixels());
+      assertEquals(150 * 100, read.get());
+    }
+    new Mask(this.image, store, "mask", Mask.Mode.Soft);
+    assertEquals(2 * 150 * 100, read.get());
+
+    // overwriting the mask image forgets its compiled form
+    int[] white = new int[150 * 100];
+    Arrays.fill(white, 0xFFFFFF);
+    store.add("mask", new PackedImage(150, 100, white), true);
+    assertArrayEquals(this.image.getPackedPixels(),
+        new Mask(this.image, store, "mask", Mask.Mode.Hard).apply(new Blur()).getPackedPixels());
+  }
+
+  @Test
+  public void testApplyOnlyTransformsMaskedArea() {
+    List<Integer> sizes = new ArrayList<>();
+    ImageTransformation invert = new ImageTransformation() {
+      @Override
+      public Image transform(Image image) {
+        sizes.add(image.getWidth() * image.getHeight());
+        return RegionEngine.render(image, (x, y, width, height, dest, offset) -> {
+          image.getRegion(x, y, width, height, dest, offset);
+          for (int i = offset; i < offset + width * height; i++) {
+            dest[i] ^= 0xFFFFFF;
+          }
+        });
+      }
+
+      @Override
+      public int getReach() {
+        return 0;
+      }
+    };
+
+    Image result = new Mask(this.image, this.mask).apply(invert);
+    int masked = 0;
+    for (int i = 0; i < 100; i++) {
+      for (int j = 0; j < 150; j++) {
+        boolean black = this.mask.getRGB(j, i) == 0;
+        masked += black ? 1 : 0;
+        assertEquals(black ? this.image.getRGB(j, i) ^ 0xFFFFFF : this.image.getRGB(j, i),
+            result.getRGB(j, i));
+      }
+    }
+    int transformed = 0;
+    for (int size : sizes) {
+      transformed += size;
+    }
+    // the boxes are the two blobs and the single pixel
+    assertEquals(3, sizes.size());
+    assertEquals(35 * 20 + 76 * 30 + 1, transformed);
+    assertEquals(35 * 20 + 2070 + 1, masked);
+  }
+
+  @Test
+  public void testApplyCoveringMaskTransformsEachTile() {
+    // a mask covering the whole image is still only transformed a tile and its reach at a time
+    List<Integer> sizes = new ArrayList<>();
+    Blur blur = new Blur(3);
+    ImageTransformation counted = new ImageTransformation() {
+      @Override
+      public Image transform(Image image) {
+        synchronized (sizes) {
+          sizes.add(image.getWidth() * image.getHeight());
+        }
+        return blur.transform(image);
+      }
+
+      @Override
+      public int getReach() {
+        return blur.getReach();
+      }
+    };
+
+    Image tiled = TiledImage.render(150, 100, 32, 4, this.image::getRegion);
+    Image result = new Mask(tiled, new PackedImage(150, 100, new int[150 * 100])).apply(counted);
+    assertArrayEquals(blur.transform(this.image).getPackedPixels(), result.getPackedPixels());
+    int reach = blur.getReach();
+    for (int size : sizes) {
+      assertTrue(size <= (32 + 2 * reach) * (32 + 2 * reach));
+    }
+  }
+
+  @Test
+  public void testTransform() {
+    int[] foreground = new int[150 * 100];
+    Arrays.fill(foreground, 0x123456);
+    Image result = new Mask(this.image, this.mask).transform(
+        new PackedImage(150, 100, foreground));
+    for (int i = 0; i < 100; i++) {
+      for (int j = 0; j < 150; j++) {
+        assertEquals(this.mask.getRGB(j, i) == 0 ? 0x123456 : this.image.getRGB(j, i),
+            result.getRGB(j, i));
+      }
+    }
+
+    try {
+      new Mask(this.image, this.mask).transform(new PackedImage(1, 1, new int[1]));
+      fail("Should throw error for an image of a different size than the mask");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The image and mask must be the same size", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testSoftMask() {
+    // a soft mask of only black and white pixels is the same as a hard mask
+    Image hard = new Mask(this.image, this.mask).apply(new Blur());
+    Image soft = new Mask(this.image, this.mask, Mask.Mode.Soft).apply(new Blur());
+    assertArrayEquals(hard.getPackedPixels(), soft.getPackedPixels());
+
+    // grey mask pixels blend the transformed and original pixels by their luma
+    Image original = new PackedImage(3, 1, new int[]{0x0000FF, 0x0000FF, 0x0000FF});
+    Image grey = new PackedImage(3, 1, new int[]{0x000000, 0x333333, 0xFFFFFF});
+    Image blended = new Mask(original, grey, Mask.Mode.Soft).apply(
+        new Brightness(-255));
+    assertArrayEquals(new int[]{0x000000, 0x000033, 0x0000FF}, blended.getPackedPixels());
+  }
+
+  @Test
+  public void testSoftApplyMatchesTransform() {
+    int[] gradient = new int[150 * 100];
+    for (int i = 0; i < 100; i++) {
+      for (int j = 0; j < 150; j++) {
+        int value = Math.min(255, Math.abs(j - 75) * 4 + Math.abs(i - 50) * 2);
+        gradient[i * 150 + j] = value << 16 | value << 8 | value;
+      }
+    }
+    Mask mask = new Mask(this.image, new PackedImage(150, 100, gradient), Mask.Mode.Soft);
+    for (ImageTransformation transformation : new ImageTransformation[]{new RadiusBlur(4),
+        new Sepia(), new Visualize(Channel.Luma)}) {
+      assertArrayEquals(mask.transform(transformation.transform(this.image)).getPackedPixels(),
+          mask.apply(transformation).getPackedPixels());
+    }
+  }
+
+  @Test
+  public void testApplyWithEmptyMask() {
+    int[] white = new int[150 * 100];
+    Arrays.fill(white, 0xFFFFFF);
+    Image result = new Mask(this.image, new PackedImage(150, 100, white)).apply(new Blur());
+    assertArrayEquals(this.image.getPackedPixels(), result.getPackedPixels());
+  }
+}
@@ -0,0 +1,187 @@
+package model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import model.transformations.Mosaic;
+import model.transformations.Mosaic.Distance;
+import model.transformations.Mosaic.Fill;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link Mosaic} transformation.
+ */
+public class MosaicTest {
+
+  private static final int WIDTH = 90;
+  private static final int HEIGHT = 70;
+
+  // an image whose pixels are colored by their position, so the color of a cell names its seed
+  private Image positions;
+  private int parallelism;
+
+  @Before
+  public void setUp() {
+    this.parallelism = RegionEngine.getParallelism();
+    int[] pixels = new int[WIDTH * HEIGHT];
+    for (int i = 0; i < pixels.length; i++) {
+      pixels[i] = i;
+    }
+    this.positions = new PackedImage(WIDTH, HEIGHT, pixels);
+  }
+
+  @After
+  public void tearDown() {
+    RegionEngine.setParallelism(this.parallelism);
+  }
+
+  /**
+   * Checks that every pixel of the given mosaic of the position image has the color of one of the
+   * closest seeds to it.
+   */
+  private static void assertClosestSeeds(Image mosaic, int numSeeds, Distance distance) {
+    int[] pixels = mosaic.getPackedPixels();
+    Set<Integer> seeds = new HashSet<>();
+    for (int pixel : pixels) {
+      seeds.add(pixel);
+    }
+    assertTrue(seeds.size() <= numSeeds);
+    for (int i = 0; i < pixels.length; i++) {
+      long best = Long.MAX_VALUE;
+      for (int seed : seeds) {
+        best = Math.min(best, distance(i, seed, distance));
+      }
+      assertEquals(best, distance(i, pixels[i], distance));
+    }
+  }
+
+  /**
+   * Returns the distance between the pixels at the given positions, squared if Euclidean.
+   */
+  private static long distance(int first, int second, Distance distance) {
+    long dx = Math.abs(first % WIDTH - second % WIDTH);
+    long dy = Math.abs(first / WIDTH - second / WIDTH);
+    return distance == Distance.Manhattan ? dx + dy : dx * dx + dy * dy;
+  }
+
+  @Test
+  public void testInvalidArguments() {
+    try {
+      new Mosaic(0);
+      fail("Should throw error for no seeds");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The seed amount must be greater than 0", e.getMessage());
+    }
+
+    try {
+      new Mosaic(10, null, Fill.Seed);
+      fail("Should throw error for a null distance");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The distance and fill cannot be null", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testClosestSeed() {
+    for (int numSeeds : new int[]{1, 7, 200, 5000}) {
+      assertClosestSeeds(new Mosaic(numSeeds).transform(this.positions), numSeeds,
+          Distance.Manhattan);
+      assertClosestSeeds(
+          new Mosaic(numSeeds, Distance.Euclidean, Fill.Seed).transform(this.positions), numSeeds,
+          Distance.Euclidean);
+    }
+  }
+
+  @Test
+  public void testAverageFill() {
+    int[] grey = new int[WIDTH * HEIGHT];
+    Arrays.fill(grey, 0x336699);
+    Image uniform = new PackedImage(WIDTH, HEIGHT, grey);
+    assertArrayEquals(grey,
+        new Mosaic(50, Distance.Manhattan, Fill.Average).transform(uniform).getPackedPixels());
+
+    // a single cell covers the whole image, so it is colored with the average of every pixel
+    int[] halves = new int[WIDTH * HEIGHT];
+    Arrays.fill(halves, 0, halves.length / 2, 0x000000);
+    Arrays.fill(halves, halves.length / 2, halves.length, 0x0000FF);
+    Image average = new Mosaic(1, Distance.Euclidean, Fill.Average)
+        .transform(new PackedImage(WIDTH, HEIGHT, halves));
+    assertEquals(0x000080, average.getRGB(0, 0));
+    assertEquals(0x000080, average.getRGB(WIDTH - 1, HEIGHT - 1));
+  }
+
+  @Test
+  public void testSeededMatchesExhaustiveSearch() {
+    int numSeeds = 300;
+    Random random = new Random(42);
+    int[] seedRows = new int[numSeeds];
+    int[] seedColumns = new int[numSeeds];
+    for (int k = 0; k < numSeeds; k++) {
+      seedRows[k] = random.nextInt(HEIGHT);
+      seedColumns[k] = random.nextInt(WIDTH);
+    }
+    int[] actual = new Mosaic(numSeeds, 42).transform(this.positions).getPackedPixels();
+    for (int i = 0; i < HEIGHT; i++) {
+      for (int j = 0; j < WIDTH; j++) {
+        // the first of the closest seeds wins, like the original search over every seed
+        int closest = 0;
+        int closestDist = Integer.MAX_VALUE;
+        for (int k = 0; k < numSeeds; k++) {
+          int dist = Math.abs(seedRows[k] - i) + Math.abs(seedColumns[k] - j);
+          if (dist < closestDist) {
+            closest = k;
+            closestDist = dist;
+          }
+        }
+        assertEquals(seedRows[closest] * WIDTH + seedColumns[closest], actual[i * WIDTH + j]);
+      }
+    }
+  }
+
+  @Test
+  public void testAverageFillMatchesCells() {
+    // the same seeds are picked for any image of the same size, so the seed colors of the position
+    // image name the cell of every pixel of the other image
+    int[] cells = new Mosaic(200, Distance.Manhattan, Fill.Seed, 42L).transform(this.positions)
+        .getPackedPixels();
+    int[] pixels = TestImages.randomPixels(WIDTH * HEIGHT);
+    long[] sums = new long[3 * WIDTH * HEIGHT];
+    int[] counts = new int[WIDTH * HEIGHT];
+    for (int i = 0; i < pixels.length; i++) {
+      sums[3 * cells[i]] += ImageUtils.getRed(pixels[i]);
+      sums[3 * cells[i] + 1] += ImageUtils.getGreen(pixels[i]);
+      sums[3 * cells[i] + 2] += ImageUtils.getBlue(pixels[i]);
+      counts[cells[i]]++;
+    }
+    RegionEngine.setParallelism(3);
+    int[] actual = new Mosaic(200, Distance.Manhattan, Fill.Average, 42L)
+        .transform(new PackedImage(WIDTH, HEIGHT, pixels)).getPackedPixels();
+    for (int i = 0; i < pixels.length; i++) {
+      int count = counts[cells[i]];
+      assertEquals(ImageUtils.pack(
+          Math.toIntExact(Math.round((double) sums[3 * cells[i]] / count)),
+          Math.toIntExact(Math.round((double) sums[3 * cells[i] + 1] / count)),
+          Math.toIntExact(Math.round((double) sums[3 * cells[i] + 2] / count))), actual[i]);
+    }
+  }
+
+  @Test
+  public void testSeededIsReproducible() {
+    Mosaic mosaic = new Mosaic(500, Distance.Euclidean, Fill.Average, 3500L);
+    RegionEngine.setParallelism(1);
+    int[] sequential = mosaic.transform(this.positions).getPackedPixels();
+    RegionEngine.setParallelism(4);
+    assertArrayEquals(sequential, mosaic.transform(this.positions).getPackedPixels());
+    assertArrayEquals(sequential,
+        new Mosaic(500, Distance.Euclidean, Fill.Average, 3500L).transform(this.positions)
+            .getPackedPixels());
+  }
+}
@@ -0,0 +1,165 @@
+package model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.awt.Color;
+import java.nio.IntBuffer;
+import java.nio.ReadOnlyBufferException;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link PackedImage} class and its methods.
+ */
+public class PackedImageTest {
+
+  private int[] pixels;
+  private Image image;
+
+  @Before
+  public void setUp() {
+    this.pixels = new int[]{0xFF0000, 0xFF0000, 0x00FF00, 0x00FF00, 0x0000FF, 0x0000FF};
+    this.image = new PackedImage(2, 3, this.pixels);
+  }
+
+  @Test
+  public void testValidConstructor() {
+    assertEquals(2, this.image.getWidth());
+    assertEquals(3, this.image.getHeight());
+    assertArrayEquals(this.pixels, this.image.getPackedPixels());
+  }
+
+  @Test
+  public void testConstructorMutable() {
+    this.pixels[0] = 0xFFFF00;
+    assertEquals(0xFF0000, this.image.getPackedPixels()[0]);
+  }
+
+  @Test
+  public void testConstructorIgnoresAlpha() {
+    Image alpha = new PackedImage(1, 1, new int[]{0x80123456});
+    assertEquals(0x123456, alpha.getPackedPixels()[0]);
+  }
+
+  @Test
+  public void testInvalidConstructors() {
+    try {
+      new PackedImage(0, 0, new int[0]);
+      fail("Should throw error for empty image");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The pixels array must contain at least one pixel", e.getMessage());
+    }
+
+    try {
+      new PackedImage(2, 2, this.pixels);
+      fail("Should throw error for mismatched dimensions");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The pixels array must contain exactly 4 pixels", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testGetPixels() {
+    Color[][] manualPixels = new Color[3][2];
+    manualPixels[0][0] = Color.RED;
+    manualPixels[0][1] = Color.RED;
+    manualPixels[1][0] = Color.GREEN;
+    manualPixels[1][1] = Color.GREEN;
+    manualPixels[2][0] = Color.BLUE;
+    manualPixels[2][1] = Color.BLUE;
+
+    assertArrayEquals(manualPixels, this.image.getPixels());
+  }
+
+  @Test
+  public void testMatchesImageImpl() {
+    Image adapted = new ImageImpl(this.image.getPixels());
+    assertArrayEquals(this.image.getPackedPixels(), adapted.getPackedPixels());
+  }
+
+  @Test
+  public void testGetPackedPixelsMutable() {
+    int[] gotten = this.image.getPackedPixels();
+    gotten[0] = 0xFFFFFF;
+    assertEquals(0xFF0000, this.image.getPackedPixels()[0]);
+  }
+
+  @Test
+  public void testCopy() {
+    Image copy = this.image.copy();
+    assertNotSame(this.image, copy);
+    assertArrayEquals(this.image.getPackedPixels(), copy.getPackedPixels());
+  }
+
+  @Test
+  public void testGetRGB() {
+    assertEquals(0xFF0000, this.image.getRGB(1, 0));
+    assertEquals(0x00FF00, this.image.getRGB(0, 1));
+    assertEquals(0x0000FF, this.image.getRGB(1, 2));
+
+    try {
+      this.image.getRGB(2, 0);
+      fail("Should throw error for a pixel outside the image");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The pixel (2, 0) is outside the image", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testGetRow() {
+    IntBuffer row = this.image.getRow(1);
+    assertEquals(2, row.capacity());
+    assertEquals(0x00FF00, row.get(0));
+    assertEquals(0x00FF00, row.get(1));
+    assertTrue(row.isReadOnly());
+
+    try {
+      this.image.getRow(3);
+      fail("Should throw error for a row outside the image");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The row 3 is outside the image", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testGetPackedView() {
+    IntBuffer view = this.image.getPackedView();
+    assertEquals(6, view.capacity());
+    for (int i = 0; i < this.pixels.length; i++) {
+      assertEquals(this.pixels[i], view.get(i));
+    }
+
+    try {
+      view.put(0, 0xFFFFFF);
+      fail("Should not be able to modify the view of an image");
+    } catch (ReadOnlyBufferException e) {
+      assertEquals(0xFF0000, this.image.getRGB(0, 0));
+    }
+  }
+
+  @Test
+  public void testGetRegionAtOffset() {
+    int[] dest = {7, 7, 7, 7, 7};
+    this.image.getRegion(1, 1, 1, 2, dest, 2);
+    assertArrayEquals(new int[]{7, 7, 0x00FF00, 0x0000FF, 7}, dest);
+
+    try {
+      this.image.getRegion(0, 0, 2, 2, dest, 2);
+      fail("Should throw error for a region that does not fit after the offset");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The array is too small to hold the region", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testWrap() {
+    int[] wrapped = {0xFF123456, 0x654321};
+    Image image = PackedImage.wrap(2, 1, wrapped);
+    assertEquals(0x123456, image.getRGB(0, 0));
+    assertEquals(0x654321, image.getRGB(1, 0));
+  }
+}
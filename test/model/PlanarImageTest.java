@@ -0,0 +1,153 @@
+package model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import model.transformations.Brightness;
+import model.transformations.Visualize;
+import model.transformations.Visualize.Channel;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link PlanarImage} class and its methods.
+ */
+public class PlanarImageTest {
+
+  private int[] pixels;
+  private Image packed;
+  private PlanarImage planar;
+
+  @Before
+  public void setUp() {
+    this.pixels = new int[]{0xFF0000, 0x123456, 0x00FF00, 0xABCDEF, 0x0000FF, 0xF0F0F0};
+    this.packed = new PackedImage(2, 3, this.pixels);
+    this.planar = PlanarImage.of(this.packed);
+  }
+
+  @Test
+  public void testOf() {
+    assertEquals(2, this.planar.getWidth());
+    assertEquals(3, this.planar.getHeight());
+    assertArrayEquals(this.pixels, this.planar.getPackedPixels());
+    assertArrayEquals(this.packed.getPixels(), this.planar.getPixels());
+    assertSame(this.planar, PlanarImage.of(this.planar));
+  }
+
+  @Test
+  public void testConstructor() {
+    byte[] red = {(byte) 0xFF, 0x12};
+    PlanarImage image = new PlanarImage(2, 1, red, new byte[]{0, 0x34}, new byte[]{0, 0x56});
+    red[0] = 0;
+    assertEquals(0xFF0000, image.getRGB(0, 0));
+    assertEquals(0x123456, image.getRGB(1, 0));
+  }
+
+  @Test
+  public void testInvalidConstructors() {
+    try {
+      new PlanarImage(0, 0, new byte[0], new byte[0], new byte[0]);
+      fail("Should throw error for empty image");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The pixels array must contain at least one pixel", e.getMessage());
+    }
+
+    try {
+      PlanarImage.wrap(2, 1, new byte[2], new byte[2], new byte[3]);
+      fail("Should throw error for mismatched dimensions");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Each plane must contain exactly 2 pixels", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testGetRGB() {
+    assertEquals(0x123456, this.planar.getRGB(1, 0));
+    assertEquals(0xF0F0F0, this.planar.getRGB(1, 2));
+
+    try {
+      this.planar.getRGB(0, 3);
+      fail("Should throw error for a pixel outside the image");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The pixel (0, 3) is outside the image", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testGetRow() {
+    assertEquals(0x00FF00, this.planar.getRow(1).get(0));
+    assertEquals(0xABCDEF, this.planar.getRow(1).get(1));
+    assertTrue(this.planar.getRow(1).isReadOnly());
+  }
+
+  @Test
+  public void testGetRegion() {
+    int[] dest = {7, 7, 7, 7, 7, 7};
+    this.planar.getRegion(1, 1, 1, 2, dest, 3);
+    assertArrayEquals(new int[]{7, 7, 7, 0xABCDEF, 0xF0F0F0, 7}, dest);
+
+    try {
+      this.planar.getRegion(1, 2, 2, 1, dest, 0);
+      fail("Should throw error for a region outside the image");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The region (1, 2, 2, 1) is outside the image", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testGetPlane() {
+    ByteBuffer green = this.planar.getPlane(PlanarImage.GREEN);
+    assertEquals(6, green.capacity());
+    assertEquals(0x34, green.get(1) & 0xFF);
+    assertTrue(green.isReadOnly());
+
+    try {
+      this.planar.getPlane(3);
+      fail("Should throw error for an invalid plane");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Invalid channel", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testSplitAndMerge() {
+    PlanarImage[] channels = this.planar.split();
+    assertEquals(0x121212, channels[PlanarImage.RED].getRGB(1, 0));
+    assertEquals(0x343434, channels[PlanarImage.GREEN].getRGB(1, 0));
+    assertEquals(0x565656, channels[PlanarImage.BLUE].getRGB(1, 0));
+
+    PlanarImage merged = PlanarImage.merge(channels[0], channels[1], channels[2]);
+    assertArrayEquals(this.pixels, merged.getPackedPixels());
+
+    PlanarImage swapped = PlanarImage.merge(channels[2], channels[1], channels[0]);
+    assertEquals(0x563412, swapped.getRGB(1, 0));
+
+    try {
+      PlanarImage.merge(channels[0], null, channels[2]);
+      fail("Should throw error for a null image");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The images cannot be null", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testTransformationsMatchPacked() {
+    Brightness brighten = new Brightness(50);
+    Brightness darken = new Brightness(-50);
+    assertArrayEquals(brighten.transform(this.packed).getPackedPixels(),
+        brighten.transform(this.planar).getPackedPixels());
+    assertArrayEquals(darken.transform(this.packed).getPackedPixels(),
+        darken.transform(this.planar).getPackedPixels());
+    assertTrue(brighten.transform(this.planar) instanceof PlanarImage);
+
+    for (Channel channel : Channel.values()) {
+      Visualize visualize = new Visualize(channel);
+      assertArrayEquals(visualize.transform(this.packed).getPackedPixels(),
+          visualize.transform(this.planar).getPackedPixels());
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.nio.IntBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.transformations.Downscale;
+import model.transformations.Pyramid;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link Pyramid} of an image.
+ */
+public class PyramidTest {
+
+  private Image image;
+  private Pyramid pyramid;
+
+  @Before
+  public void setUp() {
+    int[] pixels = TestImages.randomPixels(40 * 30, 1500);
+    this.image = new PackedImage(40, 30, pixels);
+    this.pyramid = new Pyramid(this.image);
+  }
+
+  @Test
+  public void testLevels() {
+    assertSame(this.image, this.pyramid.getLevel(0));
+    int[][] sizes = {{40, 30}, {20, 15}, {10, 8}, {5, 4}, {3, 2}, {2, 1}, {1, 1}, {1, 1}};
+    for (int level = 0; level < sizes.length; level++) {
+      Image image = this.pyramid.getLevel(level);
+      assertEquals(sizes[level][0], image.getWidth());
+      assertEquals(sizes[level][1], image.getHeight());
+    }
+    // each level is made from the level before it
+    assertArrayEquals(new Downscale(10, 8).transform(this.pyramid.getLevel(1)).getPackedPixels(),
+        this.pyramid.getLevel(2).getPackedPixels());
+    assertSame(this.pyramid.getLevel(2), this.pyramid.getLevel(2));
+  }
+
+  @Test
+  public void testRenderUsesSmallestLevel() {
+    assertSame(this.image, this.pyramid.render(40, 30));
+    assertSame(this.pyramid.getLevel(1), this.pyramid.render(20, 15));
+    // 12x9 is made from the 20x15 level, since the 10x8 level is too short
+    assertArrayEquals(new Downscale(12, 9).transform(this.pyramid.getLevel(1)).getPackedPixels(),
+        this.pyramid.render(12, 9).getPackedPixels());
+    assertArrayEquals(new Downscale(4, 3).transform(this.pyramid.getLevel(3)).getPackedPixels(),
+        this.pyramid.render(4, 3).getPackedPixels());
+  }
+
+  @Test
+  public void testRenderOnlyMakesLevelsItUses() {
+    AtomicInteger read = new AtomicInteger();
+    Image counted = new PackedImage(40, 30, this.image.getPackedPixels()) {
+      @Override
+      public void getRegion(int x, int y, int width, int height, int[] dest, int offset) {
+        read.addAndGet(width * height);
+        super.getRegion(x, y, width, height, dest, offset);
+      }
+
+      @Override
+      public IntBuffer getRow(int y) {
+        read.addAndGet(40);
+        return super.getRow(y);
+      }
+    };
+    new Downscale(30, 20).transform(counted);
+    int once = read.getAndSet(0);
+
+    // 30x20 is made straight from the original image, without making the 20x15 level first
+    new Pyramid(counted).render(30, 20);
+    assertEquals(once, read.get());
+  }
+
+  @Test
+  public void testInvalidRender() {
+    try {
+      this.pyramid.render(41, 30);
+      fail("Should throw error for a width larger than the image");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The new width and height cannot be larger than the original image (40x30px)",
+          e.getMessage());
+    }
+
+    try {
+      this.pyramid.getLevel(-1);
+      fail("Should throw error for a negative level");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The level cannot be negative", e.getMessage());
+    }
+  }
+}
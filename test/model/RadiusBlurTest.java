@@ -0,0 +1,95 @@
+package model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import model.transformations.Blur;
+import model.transformations.Convolution.Border;
+import model.transformations.RadiusBlur;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link RadiusBlur} transformation.
+ */
+public class RadiusBlurTest {
+
+  private int[] pixels;
+  private Image image;
+
+  @Before
+  public void setUp() {
+    this.pixels = TestImages.randomPixels(60 * 50);
+    this.image = new PackedImage(60, 50, this.pixels);
+  }
+
+  @Test
+  public void testInvalidRadius() {
+    try {
+      new RadiusBlur(0);
+      fail("Should throw error for a radius that is not positive");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The radius must be positive", e.getMessage());
+    }
+
+    try {
+      new RadiusBlur(5, null);
+      fail("Should throw error for a null border");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The border cannot be null", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testHandChecked() {
+    // a radius of 3 is a single box of 3 pixels along the rows and then along the columns
+    int[] ramp = {0x000000, 0x5A5A5A, 0xB4B4B4};
+    Image row = new PackedImage(3, 1, ramp);
+    Image column = new PackedImage(1, 3, ramp);
+    int[] clamped = {0x1E1E1E, 0x5A5A5A, 0x969696};
+    assertArrayEquals(clamped, new RadiusBlur(3).transform(row).getPackedPixels());
+    assertArrayEquals(clamped, new RadiusBlur(3).transform(column).getPackedPixels());
+    assertArrayEquals(new int[]{0x5A5A5A, 0x5A5A5A, 0x5A5A5A},
+        new RadiusBlur(3, Border.Wrap).transform(row).getPackedPixels());
+    // the black rows above and below the row also take two thirds away
+    assertArrayEquals(new int[]{0x0A0A0A, 0x1E1E1E, 0x1E1E1E},
+        new RadiusBlur(3, Border.Zero).transform(row).getPackedPixels());
+  }
+
+  @Test
+  public void testUniformImage() {
+    int[] grey = new int[60 * 50];
+    Arrays.fill(grey, 0x408020);
+    Image uniform = new PackedImage(60, 50, grey);
+    // the radius can be larger than the image itself
+    for (int radius : new int[]{1, 12, 150}) {
+      assertArrayEquals(grey, new RadiusBlur(radius).transform(uniform).getPackedPixels());
+      assertArrayEquals(grey,
+          new RadiusBlur(radius, Border.Reflect).transform(uniform).getPackedPixels());
+    }
+  }
+
+  @Test
+  public void testApproximatesGaussian() {
+    int[] expected = new Blur(30).transform(this.image).getPackedPixels();
+    int[] actual = new RadiusBlur(30).transform(this.image).getPackedPixels();
+    for (int i = 0; i < expected.length; i++) {
+      assertTrue(Math.abs(ImageUtils.getRed(expected[i]) - ImageUtils.getRed(actual[i])) <= 3);
+      assertTrue(Math.abs(ImageUtils.getGreen(expected[i]) - ImageUtils.getGreen(actual[i])) <= 3);
+      assertTrue(Math.abs(ImageUtils.getBlue(expected[i]) - ImageUtils.getBlue(actual[i])) <= 3);
+    }
+  }
+
+  @Test
+  public void testTiledMatchesPacked() {
+    Image tiled = TiledImage.render(60, 50, 16, 4, this.image::getRegion);
+    for (Border border : Border.values()) {
+      RadiusBlur blur = new RadiusBlur(25, border);
+      assertArrayEquals(blur.transform(this.image).getPackedPixels(),
+          blur.transform(tiled).getPackedPixels());
+    }
+  }
+}
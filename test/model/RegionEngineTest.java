@@ -0,0 +1,178 @@
+package model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import model.transformations.Blur;
+import model.transformations.Brightness;
+import model.transformations.Downscale;
+import model.transformations.Greyscale;
+import model.transformations.HorizontalFlip;
+import model.transformations.Sepia;
+import model.transformations.Sharpen;
+import model.transformations.VerticalFlip;
+import model.transformations.Visualize;
+import model.transformations.Visualize.Channel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link RegionEngine} class and its methods.
+ */
+public class RegionEngineTest {
+
+  private int defaultParallelism;
+  private Image image;
+
+  @Before
+  public void setUp() {
+    this.defaultParallelism = RegionEngine.getParallelism();
+    // large enough to be split into several bands
+    int[] pixels = TestImages.randomPixels(311 * 205);
+    this.image = new PackedImage(311, 205, pixels);
+  }
+
+  @After
+  public void tearDown() {
+    RegionEngine.setParallelism(this.defaultParallelism);
+  }
+
+  @Test
+  public void testSetParallelism() {
+    RegionEngine.setParallelism(3);
+    assertEquals(3, RegionEngine.getParallelism());
+
+    try {
+      RegionEngine.setParallelism(0);
+      fail("Should throw error for a parallelism of 0");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The parallelism must be greater than 0", e.getMessage());
+    }
+    assertEquals(3, RegionEngine.getParallelism());
+  }
+
+  @Test
+  public void testSetParallelismWhileRunning() {
+    RegionEngine.setParallelism(4);
+    AtomicReference<ForkJoinPool> running = new AtomicReference<>();
+    AtomicBoolean shutDown = new AtomicBoolean();
+    AtomicInteger done = new AtomicInteger();
+    RegionEngine.forEach(8, i -> {
+      ForkJoinPool pool = ForkJoinTask.getPool();
+      if (pool != null && running.compareAndSet(null, pool)) {
+        // the pool of the running step is replaced, but keeps running the step
+        RegionEngine.setParallelism(2);
+        shutDown.set(pool.isShutdown());
+        RegionEngine.forEach(4, j -> done.incrementAndGet());
+      }
+      done.incrementAndGet();
+    });
+    assertNotNull(running.get());
+    assertFalse(shutDown.get());
+    assertEquals(12, done.get());
+    // the replaced pool is shut down once the step is done
+    assertTrue(running.get().isShutdown());
+    assertEquals(2, RegionEngine.getParallelism());
+  }
+
+  @Test
+  public void testRenderBands() {
+    RegionEngine.setParallelism(8);
+    Image rendered = RegionEngine.render(this.image, 100, 400,
+        (x, y, width, height, dest, offset) -> {
+          for (int i = 0; i < width * height; i++) {
+            dest[offset + i] = (y + i / width) * 1000 + x + i % width;
+          }
+        });
+    for (int y = 0; y < 400; y++) {
+      for (int x = 0; x < 100; x++) {
+        assertEquals(y * 1000 + x, rendered.getRGB(x, y));
+      }
+    }
+  }
+
+  @Test
+  public void testResultsIndependentOfParallelism() {
+    ImageTransformation[] transformations = {new Blur(), new Sharpen(), new Greyscale(),
+        new Sepia(), new Brightness(-30), new Visualize(Channel.Intensity), new HorizontalFlip(),
+        new VerticalFlip(), new Downscale(97, 61)};
+    Image tiled = TiledImage.render(311, 205, 64, 4, this.image::getRegion);
+    for (ImageTransformation transformation : transformations) {
+      RegionEngine.setParallelism(1);
+      int[] sequential = transformation.transform(this.image).getPackedPixels();
+      for (int parallelism : new int[]{2, 7, 32}) {
+        RegionEngine.setParallelism(parallelism);
+        assertArrayEquals(sequential, transformation.transform(this.image).getPackedPixels());
+        assertArrayEquals(sequential, transformation.transform(tiled).getPackedPixels());
+      }
+    }
+  }
+
+  @Test
+  public void testMonitorProgress() {
+    RegionEngine.setParallelism(4);
+    List<Integer> done = Collections.synchronizedList(new ArrayList<>());
+    int[] total = new int[1];
+    Image[] blurred = new Image[1];
+    RegionEngine.run(() -> blurred[0] = new Blur().transform(this.image),
+        new RegionEngine.Monitor() {
+          @Override
+          public boolean isCancelled() {
+            return false;
+          }
+
+          @Override
+          public void progress(int count, int of) {
+            done.add(count);
+            total[0] = of;
+          }
+        });
+    // every band of the blur is reported once
+    assertEquals(total[0], done.size());
+    assertEquals(total[0], (int) Collections.max(done));
+    assertArrayEquals(new Blur().transform(this.image).getPackedPixels(),
+        blurred[0].getPackedPixels());
+  }
+
+  @Test
+  public void testMonitorCancel() {
+    RegionEngine.setParallelism(4);
+    AtomicInteger computed = new AtomicInteger();
+    AtomicBoolean cancelled = new AtomicBoolean();
+    try {
+      RegionEngine.run(() -> RegionEngine.forEach(100, i -> {
+        computed.incrementAndGet();
+        cancelled.set(true);
+      }), cancelled::get);
+      fail("Should throw error when the work is cancelled");
+    } catch (CancellationException e) {
+      assertEquals("The operation was cancelled", e.getMessage());
+    }
+    assertTrue(computed.get() < 100);
+
+    // the monitor only applies to the work it was given
+    computed.set(0);
+    RegionEngine.forEach(100, i -> computed.incrementAndGet());
+    assertEquals(100, computed.get());
+    try {
+      RegionEngine.run(() -> fail("Should not run cancelled work"), () -> true);
+      fail("Should throw error when the work is cancelled");
+    } catch (CancellationException e) {
+      assertEquals("The operation was cancelled", e.getMessage());
+    }
+  }
+}
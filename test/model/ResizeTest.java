@@ -0,0 +1,81 @@
+package model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import model.transformations.Resize;
+import model.transformations.Resize.Filter;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link Resize} transformation.
+ */
+public class ResizeTest {
+
+  private int[] pixels;
+  private Image image;
+
+  @Before
+  public void setUp() {
+    this.pixels = TestImages.randomPixels(40 * 30, 1400);
+    this.image = new PackedImage(40, 30, this.pixels);
+  }
+
+  @Test
+  public void testInvalidArguments() {
+    try {
+      new Resize(10, 0, Filter.Bicubic);
+      fail("Should throw error for a height that is not positive");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The new width and height must be positive", e.getMessage());
+    }
+
+    try {
+      new Resize(10, 10, null);
+      fail("Should throw error for a null filter");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The filter cannot be null", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testSameSize() {
+    for (Filter filter : Filter.values()) {
+      assertArrayEquals(this.pixels,
+          new Resize(40, 30, filter).transform(this.image).getPackedPixels());
+    }
+  }
+
+  @Test
+  public void testUniformImageStaysUniform() {
+    int[] grey = new int[7 * 5];
+    Arrays.fill(grey, 0x4080C0);
+    Image uniform = new PackedImage(7, 5, grey);
+    for (Filter filter : Filter.values()) {
+      for (int pixel : new Resize(23, 3, filter).transform(uniform).getPackedPixels()) {
+        assertEquals(0x4080C0, pixel);
+      }
+    }
+  }
+
+  @Test
+  public void testBilinearInterpolates() {
+    // doubling the width puts each new pixel a quarter of the way between two old pixels
+    Image row = new PackedImage(2, 1, new int[]{0x000000, 0x0000FF});
+    int[] resized = new Resize(4, 1, Filter.Bilinear).transform(row).getPackedPixels();
+    assertArrayEquals(new int[]{0x000000, 0x000040, 0x0000BF, 0x0000FF}, resized);
+  }
+
+  @Test
+  public void testTiledMatchesPacked() {
+    Image tiled = TiledImage.render(40, 30, 16, 4, this.image::getRegion);
+    for (Filter filter : Filter.values()) {
+      Resize resize = new Resize(97, 13, filter);
+      assertArrayEquals(resize.transform(this.image).getPackedPixels(),
+          resize.transform(tiled).getPackedPixels());
+    }
+  }
+}
@@ -3,10 +3,16 @@ package model;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.awt.Color;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.transformations.Brightness;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -125,6 +131,153 @@ public class StoredImagesImplTest {
     assertArrayEquals(this.image2.getPixels(), retrieved2.getPixels());
   }
 
+  @Test
+  public void testRetrieveShared() {
+    this.store2.add("image1", this.image1, true);
+    assertSame(this.image1, this.store2.retrieve("image1"));
+    assertSame(this.store2.retrieve("image1"), this.store2.retrieve("image1"));
+  }
+
+  @Test
+  public void testStorageConverts() {
+    StoredImages offHeap = new StoredImagesImpl(ImageStorage.OffHeap);
+    offHeap.add("image1", this.image1, true);
+    assertTrue(offHeap.retrieve("image1") instanceof DirectImage);
+    assertArrayEquals(this.image1.getPackedPixels(),
+        offHeap.retrieve("image1").getPackedPixels());
+  }
+
+  @Test
+  public void testRemoveReleases() {
+    StoredImages offHeap = new StoredImagesImpl(ImageStorage.OffHeap);
+    offHeap.add("image1", this.image1, true);
+    DirectImage stored = (DirectImage) offHeap.retrieve("image1");
+    offHeap.remove("IMAGE1");
+    assertTrue(stored.isReleased());
+    assertFalse(offHeap.exists("image1"));
+  }
+
+  @Test
+  public void testRemoveReleasesTiles() {
+    StoredImages tiled = new StoredImagesImpl(ImageStorage.Tiled);
+    tiled.add("image1", this.image1, true);
+    TiledImage stored = (TiledImage) tiled.retrieve("image1");
+    tiled.add("image2", stored, true);
+    tiled.remove("image1");
+    assertFalse(stored.isReleased());
+    tiled.add("image2", this.image2, true);
+    assertTrue(stored.isReleased());
+  }
+
+  @Test
+  public void testOverwriteReleases() {
+    StoredImages offHeap = new StoredImagesImpl(ImageStorage.OffHeap);
+    offHeap.add("image1", this.image1, true);
+    DirectImage first = (DirectImage) offHeap.retrieve("image1");
+    offHeap.add("image1", first, true);
+    assertFalse(first.isReleased());
+    offHeap.add("image2", first, true);
+    offHeap.add("image1", this.image2, true);
+    assertFalse(first.isReleased());
+    offHeap.add("image2", this.image2, true);
+    assertTrue(first.isReleased());
+  }
+
+  @Test
+  public void testLazyImageReadOnce() {
+    int[] pixels = TestImages.randomPixels(300 * 200);
+    AtomicInteger read = new AtomicInteger();
+    Image source = new PackedImage(300, 200, pixels) {
+      @Override
+      public void getRegion(int x, int y, int width, int height, int[] dest, int offset) {
+        read.addAndGet(width * height);
+        super.getRegion(x, y, width, height, dest, offset);
+      }
+
+      @Override
+      public IntBuffer getRow(int y) {
+        read.addAndGet(300);
+        return super.getRow(y);
+      }
+    };
+    StoredImages store = new StoredImagesImpl();
+    store.add("bright", new Brightness(20).transform(source), true);
+    assertEquals(300 * 200, read.get());
+
+    // displaying and counting the stored image does not read the original image again
+    int[] displayed = new int[300 * 200];
+    Histogram histogram = store.getHistogram("bright", displayed);
+    assertEquals(300 * 200, read.get());
+    assertArrayEquals(new Brightness(20).transform(new PackedImage(300, 200, pixels))
+        .getPackedPixels(), displayed);
+    assertArrayEquals(ImageUtils.getChannelFrequencies(store.retrieve("bright")),
+        histogram.getFrequencies());
+  }
+
+  @Test
+  public void testHistogramCache() {
+    assertNull(this.store1.getCachedHistogram("image1"));
+    Histogram histogram = this.store1.getHistogram("IMAGE1");
+    assertArrayEquals(ImageUtils.getChannelFrequencies(this.image1), histogram.getFrequencies());
+    assertSame(histogram, this.store1.getCachedHistogram("image1"));
+    assertSame(histogram, this.store1.getHistogram("image1"));
+
+    // overwriting or removing an image forgets its histogram
+    this.store1.add("image1", this.image2, true);
+    assertNull(this.store1.getCachedHistogram("image1"));
+    assertArrayEquals(ImageUtils.getChannelFrequencies(this.image2),
+        this.store1.getHistogram("image1").getFrequencies());
+    this.store1.remove("image1");
+    assertNull(this.store1.getCachedHistogram("image1"));
+
+    // the pixels are copied whether or not the histogram has to be counted
+    int[] pixels = new int[27 * 12];
+    this.store1.add("image1", this.image1, true);
+    Histogram counted = this.store1.getHistogram("image1", pixels);
+    assertArrayEquals(this.image1.getPackedPixels(), Arrays.copyOf(pixels, 6));
+    pixels = new int[6];
+    assertSame(counted, this.store1.getHistogram("image1", pixels));
+    assertArrayEquals(this.image1.getPackedPixels(), pixels);
+
+    // a histogram given along with an image is kept
+    Histogram given = Histogram.of(this.image2);
+    this.store1.add("image3", this.image2, true, given);
+    assertSame(given, this.store1.getHistogram("image3"));
+    try {
+      this.store1.add("image3", this.image1, false, Histogram.of(this.image1));
+      fail("Exception not thrown when adding an image that already exists");
+    } catch (IllegalArgumentException e) {
+      assertSame(given, this.store1.getCachedHistogram("image3"));
+    }
+  }
+
+  @Test
+  public void testDerivedCache() {
+    AtomicInteger derived = new AtomicInteger();
+    Object first = this.store1.getDerived("IMAGE1", "key", image -> {
+      assertSame(this.image1, image);
+      derived.incrementAndGet();
+      return new Object();
+    });
+    assertSame(first, this.store1.getDerived("image1", "key", image -> new Object()));
+    assertEquals(1, derived.get());
+    // each key is worked out separately
+    assertEquals("other", this.store1.getDerived("image1", "other", image -> "other"));
+
+    // overwriting or removing an image forgets what was worked out from it
+    this.store1.add("image1", this.image2, true);
+    assertSame(this.image2, this.store1.getDerived("image1", "key", image -> image));
+    this.store1.remove("image1");
+    try {
+      this.store1.getDerived("image1", "key", image -> image);
+      fail("Exception not thrown when working out from an image that does not exist");
+    } catch (IllegalArgumentException e) {
+      assertEquals("No image with the file name \"image1\" has been loaded", e.getMessage());
+    }
+    this.store1.add("image1", this.image1, true);
+    assertSame(this.image1, this.store1.getDerived("image1", "key", image -> image));
+  }
+
   @Test
   public void testRetrieveNoFile() {
     try {
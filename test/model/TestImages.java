@@ -0,0 +1,41 @@
+package model;
+
+import java.util.Random;
+
+/**
+ * Creates the pixels of the images shared by several tests.
+ */
+final class TestImages {
+
+  // the seed of the random pixels unless another one is given
+  private static final long SEED = 3500;
+
+  private TestImages() {
+  }
+
+  /**
+   * Returns the given number of random colors, which are the same every time for the same number.
+   *
+   * @param length the number of pixels
+   * @return the random pixels
+   */
+  static int[] randomPixels(int length) {
+    return randomPixels(length, SEED);
+  }
+
+  /**
+   * Returns the given number of random colors drawn from the given seed.
+   *
+   * @param length the number of pixels
+   * @param seed   the seed of the random colors
+   * @return the random pixels
+   */
+  static int[] randomPixels(int length, long seed) {
+    Random random = new Random(seed);
+    int[] pixels = new int[length];
+    for (int i = 0; i < pixels.length; i++) {
+      pixels[i] = random.nextInt(0x1000000);
+    }
+    return pixels;
+  }
+}
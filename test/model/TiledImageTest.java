@@ -0,0 +1,191 @@
+package model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+import model.transformations.Blur;
+import model.transformations.Brightness;
+import model.transformations.Downscale;
+import model.transformations.Greyscale;
+import model.transformations.HorizontalFlip;
+import model.transformations.Mask;
+import model.transformations.Sepia;
+import model.transformations.Sharpen;
+import model.transformations.VerticalFlip;
+import model.transformations.Visualize;
+import model.transformations.Visualize.Channel;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link TiledImage} class and its methods.
+ */
+public class TiledImageTest {
+
+  private int[] pixels;
+  private Image packed;
+  private TiledImage tiled;
+
+  @Before
+  public void setUp() {
+    // a 23x17 image split into 5x5 tiles, of which only 2 fit in memory at once
+    this.pixels = TestImages.randomPixels(23 * 17);
+    this.packed = new PackedImage(23, 17, this.pixels);
+    this.tiled = TiledImage.render(23, 17, 5, 2, this.packed::getRegion);
+  }
+
+  @Test
+  public void testRender() {
+    assertEquals(23, this.tiled.getWidth());
+    assertEquals(17, this.tiled.getHeight());
+    assertEquals(5, this.tiled.getTileSize());
+    assertEquals(2, this.tiled.getResidentTiles());
+    assertArrayEquals(this.pixels, this.tiled.getPackedPixels());
+    assertArrayEquals(this.packed.getPixels(), this.tiled.getPixels());
+  }
+
+  @Test
+  public void testInvalidRender() {
+    try {
+      TiledImage.render(0, 17, 5, 2, this.packed::getRegion);
+      fail("Should throw error for empty image");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The pixels array must contain at least one pixel", e.getMessage());
+    }
+
+    try {
+      TiledImage.render(23, 17, 0, 2, this.packed::getRegion);
+      fail("Should throw error for empty tiles");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The tile size and number of resident tiles must be positive", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testOf() {
+    TiledImage converted = TiledImage.of(this.packed);
+    assertEquals(TiledImage.DEFAULT_TILE_SIZE, converted.getTileSize());
+    assertArrayEquals(this.pixels, converted.getPackedPixels());
+    assertSame(converted, TiledImage.of(converted));
+  }
+
+  @Test
+  public void testStoringLazyImageKeepsOneScratchFile() {
+    Set<String> before = scratchFiles();
+    // brightening the tiled image renders tiles that are paged out to a scratch file
+    Image brightened = new Brightness(10).transform(this.tiled);
+    StoredImages store = new StoredImagesImpl(ImageStorage.Tiled);
+    store.add("bright", brightened, true);
+    assertSame(brightened.computed(), store.retrieve("bright"));
+    Set<String> added = scratchFiles();
+    added.removeAll(before);
+    assertEquals(1, added.size());
+
+    // the stored tiles are the only ones made, so removing them deletes their scratch file
+    store.remove("bright");
+    Set<String> after = scratchFiles();
+    after.removeAll(before);
+    assertTrue(after.isEmpty());
+  }
+
+  /**
+   * Returns the names of the scratch files of tiles in the temporary directory.
+   */
+  private static Set<String> scratchFiles() {
+    Set<String> names = new HashSet<>();
+    File[] files = new File(System.getProperty("java.io.tmpdir"))
+        .listFiles((dir, name) -> name.startsWith("tiles") && name.endsWith(".tmp"));
+    for (File file : files) {
+      names.add(file.getName());
+    }
+    return names;
+  }
+
+  @Test
+  public void testPagedAccess() {
+    // reads every pixel in an order that keeps paging tiles in and out
+    for (int x = 22; x >= 0; x--) {
+      for (int y = 0; y < 17; y++) {
+        assertEquals(this.pixels[y * 23 + x], this.tiled.getRGB(x, y));
+      }
+    }
+    for (int y = 0; y < 17; y++) {
+      for (int j = 0; j < 23; j++) {
+        assertEquals(this.pixels[y * 23 + j], this.tiled.getRow(y).get(j));
+      }
+    }
+  }
+
+  @Test
+  public void testRelease() {
+    // pages tiles out to the scratch file before releasing them
+    assertArrayEquals(this.pixels, this.tiled.getPackedPixels());
+    this.tiled.release();
+    assertTrue(this.tiled.isReleased());
+    this.tiled.release();
+    assertEquals(23, this.tiled.getWidth());
+
+    try {
+      this.tiled.getRGB(0, 0);
+      fail("Should throw error for a released image");
+    } catch (IllegalStateException e) {
+      assertEquals("The image has been released", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testCopyOwnsReference() {
+    TiledImage copy = this.tiled.copy();
+    this.tiled.release();
+    assertFalse(copy.isReleased());
+    assertArrayEquals(this.pixels, copy.getPackedPixels());
+    copy.release();
+    assertTrue(copy.isReleased());
+  }
+
+  @Test
+  public void testGetRegion() {
+    int[] region = new int[9 * 7];
+    this.tiled.getRegion(3, 4, 9, 7, region);
+    for (int i = 0; i < 7; i++) {
+      for (int j = 0; j < 9; j++) {
+        assertEquals(this.pixels[(4 + i) * 23 + 3 + j], region[i * 9 + j]);
+      }
+    }
+
+    try {
+      this.tiled.getRegion(20, 0, 4, 1, new int[4]);
+      fail("Should throw error for a region outside the image");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The region (20, 0, 4, 1) is outside the image", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testTransformationsMatchPacked() {
+    Image mask = TiledImage.render(23, 17, 5, 2,
+        (x, y, width, height, dest, offset) -> {
+          for (int i = 0; i < width * height; i++) {
+            dest[offset + i] = (x + i % width) < 11 ? 0x000000 : 0xFFFFFF;
+          }
+        });
+    ImageTransformation[] transformations = {new Blur(), new Sharpen(), new Greyscale(),
+        new Sepia(), new Brightness(40), new Visualize(Channel.Luma), new HorizontalFlip(),
+        new VerticalFlip(), new Downscale(9, 13), new Mask(this.packed, mask)};
+    for (ImageTransformation transformation : transformations) {
+      Image expected = transformation.transform(this.packed);
+      Image actual = transformation.transform(this.tiled);
+      assertTrue(actual.copy() instanceof TiledImage);
+      assertEquals(expected.getWidth(), actual.getWidth());
+      assertEquals(expected.getHeight(), actual.getHeight());
+      assertArrayEquals(expected.getPackedPixels(), actual.getPackedPixels());
+    }
+  }
+}